@@ -0,0 +1,168 @@
+// BenchTargets.java
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntPredicate;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * The operations the benchmarks measure, built from the game classes. JMH refuses benchmark
+ * classes in the default package and named packages cannot see it, so this class stays in the
+ * default package next to the game and hands out plain {@code java.util.function} objects;
+ * the benchmarks look the factories up once by reflection and then call the functions directly.
+ */
+public final class BenchTargets {
+    private static final String[] NAMES = {"Ayu", "Bima", "Citra", "Dewa"};
+    private static final List<AutoCloseable> open = new ArrayList<>();
+
+    private BenchTargets() {}
+
+    // ========== ENGINE ==========
+    /** Each call plays one full turn of a four-seat match (roll, decisions, boss); a new match starts when one ends. */
+    public static IntSupplier turns(long seed) {
+        Random rnd = new Random(seed);
+        MatchEngine engine = new MatchEngine(GameRules.random(rnd));
+        MatchState[] s = {engine.newMatch(NAMES.length)};
+        return () -> {
+            if (s[0].getPhase() == MatchState.Phase.GAME_OVER || s[0].getTurns() >= MatchRunner.MAX_TURNS) {
+                s[0] = engine.newMatch(NAMES.length);
+            }
+            MatchState m = s[0];
+            int seat = m.getCurrent();
+            engine.roll(m, 1 + rnd.nextInt(6), rnd.nextDouble() < engine.getRules().getForwardProbability());
+            while (m.getPhase() != MatchState.Phase.AWAIT_ROLL && m.getPhase() != MatchState.Phase.GAME_OVER) {
+                if (m.getPhase() == MatchState.Phase.AWAIT_BOSS_ANSWER) {
+                    engine.resolveBoss(m, rnd.nextDouble() < PlayerStrategy.EAGER.bossSkill());
+                } else {
+                    engine.decide(m, PlayerStrategy.EAGER.decide(engine, m));
+                }
+            }
+            return seat;
+        };
+    }
+
+    public static IntPredicate isPrime() {
+        return GameRules::isPrime;
+    }
+
+    /** Ladder placement as done for every new local board. */
+    public static Supplier<Object> ladders(long seed) {
+        Random rnd = new Random(seed);
+        return () -> GameRules.generateLadders(rnd, GameRules.LADDER_TARGET);
+    }
+
+    // ========== PERSISTENCE ==========
+    /** {@code kind} is "mapped" or "serialized"; the store under {@code dir} is filled with {@code players} names. */
+    private static ScoreStore openStore(String kind, File dir) throws IOException {
+        return kind.equals("serialized")
+                ? new SerializedScoreStore(new File(dir, "scores.ser"))
+                : new MappedScoreStore(new File(dir, "scores"));
+    }
+
+    public static void fillScores(String kind, File dir, int players) throws IOException {
+        try (ScoreStore s = openStore(kind, dir)) {
+            for (int i = s.size(); i < players; i++) s.add("player" + i, i % 4 == 0 ? 1 : 0, 1 + i % 9, i % 13, i % 200);
+            s.flush();
+        }
+    }
+
+    /** Each call opens the store as the game does at startup, reads one record and closes it. */
+    public static IntSupplier loadScores(String kind, File dir) {
+        return () -> {
+            try (ScoreStore s = openStore(kind, dir)) {
+                AdventureGame.ScoreRecord r = s.get("player1");
+                return s.size() + (r == null ? 0 : r.gamesPlayed);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    /** Each call records one finished four-seat match and makes it durable, as the score writer does. */
+    public static IntSupplier saveScores(String kind, File dir, int players) throws IOException {
+        ScoreStore s = track(openStore(kind, dir));
+        Random rnd = new Random(7);
+        return () -> {
+            int winner = rnd.nextInt(4);
+            for (int seat = 0; seat < 4; seat++) {
+                s.add("player" + rnd.nextInt(players), seat == winner ? 1 : 0, 1, rnd.nextInt(5), rnd.nextInt(60));
+            }
+            try {
+                s.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return winner;
+        };
+    }
+
+    /**
+     * The data side of updatePlayersInfoPanel: the top-{@code limit} ranking over every
+     * historical name, as the score writer reads it after a save.
+     */
+    public static Supplier<Object> leaderboard(String kind, File dir, int limit) throws IOException {
+        ScoreStore s = track(openStore(kind, dir));
+        return () -> s.top(limit);
+    }
+
+    // ========== RENDERING ==========
+    /** Each call paints the board, map and {@code seats} players into an offscreen image. */
+    public static IntSupplier paintBoard(int width, int height, int seats) throws IOException {
+        AdventureGame.GameBoard board = new AdventureGame.GameBoard();
+        try (InputStream in = BenchTargets.class.getResourceAsStream("/AdventureMap.jpg")) {
+            board.setMapImage(in != null ? ImageIO.read(in) : null);
+        }
+        Random rnd = new Random(3);
+        GameRules rules = GameRules.random(rnd);
+        int[] tiles = new int[GameRules.BOARD_CELLS + 1];
+        for (int i = 1; i <= GameRules.BOARD_CELLS; i++) tiles[i] = rules.getTilePoints(i);
+        long bossMask = 0;
+        for (int n : rules.getBossNodes()) bossMask |= 1L << (n - 1);
+        GameSnapshot snap = GameSnapshot.empty(new GameSnapshot.Board(tiles, rules.getLadders(), bossMask));
+        List<AdventureGame.Player> players = new ArrayList<>();
+        GameSnapshot.Seat[] seatStates = new GameSnapshot.Seat[seats];
+        for (int i = 0; i < seats; i++) {
+            players.add(new AdventureGame.Player(NAMES[i % NAMES.length], new Color(80 + 40 * i, 120, 200 - 30 * i)));
+            GameSnapshot.PathStack path = GameSnapshot.PathStack.of(1);
+            for (int n = 2; n <= 5 + 9 * i; n++) path = path.push(n);
+            seatStates[i] = new GameSnapshot.Seat(NAMES[i % NAMES.length], path.peek(), i, 10 * i, false, path);
+        }
+        board.setPlayers(players);
+        board.setSnapshot(snap.withSeats(seatStates).withStarsClaimed(0x0F0F0F0FL).withTurn(0, new int[] {1, 2, 3}, 7));
+        board.setSize(width, height);
+        BufferedImage img = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        return () -> {
+            Graphics2D g = img.createGraphics();
+            try {
+                board.paint(g);
+            } finally {
+                g.dispose();
+            }
+            return img.getRGB(width / 2, height / 2);
+        };
+    }
+
+    // ========== LIFECYCLE ==========
+    private static <T extends AutoCloseable> T track(T c) {
+        synchronized (open) {
+            open.add(c);
+        }
+        return c;
+    }
+
+    /** Closes every store handed out; called from the benchmarks' trial teardown. */
+    public static void closeAll() throws Exception {
+        synchronized (open) {
+            for (AutoCloseable c : open) c.close();
+            open.clear();
+        }
+    }
+}
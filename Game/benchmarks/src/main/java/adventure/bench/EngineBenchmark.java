@@ -0,0 +1,47 @@
+// EngineBenchmark.java
+package adventure.bench;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntPredicate;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/** Rules engine and board generation: one full turn, the prime check per node, ladder placement. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class EngineBenchmark {
+    private IntSupplier turn;
+    private IntPredicate prime;
+    private Supplier<Object> ladders;
+
+    @Setup
+    public void setup() throws Exception {
+        turn = Targets.call("turns", 42L);
+        prime = Targets.call("isPrime");
+        ladders = Targets.call("ladders", 42L);
+    }
+
+    @Benchmark
+    public int fullTurn() {
+        return turn.getAsInt();
+    }
+
+    /** Every node of the board, as the renderer and the engine check them. */
+    @Benchmark
+    @OperationsPerInvocation(64)
+    public void isPrime(Blackhole bh) {
+        for (int n = 1; n <= 64; n++) bh.consume(prime.test(n));
+    }
+
+    @Benchmark
+    public Object generateRandomLinks() {
+        return ladders.get();
+    }
+}
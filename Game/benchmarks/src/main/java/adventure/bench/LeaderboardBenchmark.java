@@ -0,0 +1,52 @@
+// LeaderboardBenchmark.java
+package adventure.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * The ranking behind updatePlayersInfoPanel with N historical names. The panel itself needs a
+ * frame, which a headless fork cannot create, so this measures the top-50 query it renders.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class LeaderboardBenchmark {
+    private static final int PANEL_ROWS = 50;
+
+    @Param({"mapped", "serialized"})
+    public String kind;
+
+    @Param({"100", "10000", "100000"})
+    public int names;
+
+    private File dir;
+    private Supplier<Object> top;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        dir = Files.createTempDirectory("adventure-leaderboard").toFile();
+        Targets.call("fillScores", kind, dir, names);
+        top = Targets.call("leaderboard", kind, dir, PANEL_ROWS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        Targets.call("closeAll");
+        File[] files = dir.listFiles();
+        if (files != null) for (File f : files) f.delete();
+        dir.delete();
+    }
+
+    @Benchmark
+    public Object updatePlayersInfoPanel() {
+        return top.get();
+    }
+}
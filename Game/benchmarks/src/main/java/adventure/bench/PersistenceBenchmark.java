@@ -0,0 +1,54 @@
+// PersistenceBenchmark.java
+package adventure.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+/** Opening the score store at startup and saving one match, for both store formats and several sizes. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class PersistenceBenchmark {
+    @Param({"mapped", "serialized"})
+    public String kind;
+
+    @Param({"100", "10000", "100000"})
+    public int players;
+
+    private File dir;
+    private IntSupplier load;
+    private IntSupplier save;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        dir = Files.createTempDirectory("adventure-scores").toFile();
+        Targets.call("fillScores", kind, dir, players);
+        load = Targets.call("loadScores", kind, dir);
+        save = Targets.call("saveScores", kind, dir, players);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        Targets.call("closeAll");
+        File[] files = dir.listFiles();
+        if (files != null) for (File f : files) f.delete();
+        dir.delete();
+    }
+
+    @Benchmark
+    public int loadScores() {
+        return load.getAsInt();
+    }
+
+    @Benchmark
+    public int saveScores() {
+        return save.getAsInt();
+    }
+}
@@ -0,0 +1,35 @@
+// RenderBenchmark.java
+package adventure.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+/** GameBoard.paintComponent into an offscreen image: map, ladders, nodes and players. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class RenderBenchmark {
+    @Param({"1000x800", "1920x1080"})
+    public String size;
+
+    @Param({"2", "4"})
+    public int seats;
+
+    private IntSupplier paint;
+
+    @Setup
+    public void setup() throws Exception {
+        String[] wh = size.split("x");
+        paint = Targets.call("paintBoard", Integer.parseInt(wh[0]), Integer.parseInt(wh[1]), seats);
+    }
+
+    @Benchmark
+    public int paintComponent() {
+        return paint.getAsInt();
+    }
+}
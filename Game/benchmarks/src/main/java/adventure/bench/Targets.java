@@ -0,0 +1,27 @@
+// Targets.java
+package adventure.bench;
+
+import java.lang.reflect.Method;
+
+/** Looks up the factories on the default-package {@code BenchTargets}; only used in setup. */
+final class Targets {
+    private static final Class<?> TARGETS;
+
+    static {
+        try {
+            TARGETS = Class.forName("BenchTargets");
+        } catch (ClassNotFoundException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private Targets() {}
+
+    @SuppressWarnings("unchecked")
+    static <T> T call(String factory, Object... args) throws Exception {
+        for (Method m : TARGETS.getMethods()) {
+            if (m.getName().equals(factory) && m.getParameterCount() == args.length) return (T) m.invoke(null, args);
+        }
+        throw new NoSuchMethodException("BenchTargets." + factory + "/" + args.length);
+    }
+}
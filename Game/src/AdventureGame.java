@@ -8,13 +8,18 @@ import java.awt.*;
 import java.awt.event.*;
 import java.awt.image.BufferedImage;
 import java.io.*;
+import java.time.LocalDateTime;
 import java.util.*;
 import java.util.List;
 import javax.swing.Timer;
-import java.util.Stack;
-public class AdventureGame extends JFrame {
+
+/**
+ * One table: a match with its board, controls, event bus and menus. Several tables can run
+ * side by side in a {@link GameWindow}; whatever they have in common (map, sounds, scores,
+ * config) comes from the {@link SharedAssets} they are built with.
+ */
+public class AdventureGame extends JPanel {
     private static final int BOARD_CELLS = 64;
-    private static final int STAR_TO_POINT = 5;
 
     private GameBoard gameBoard;
     private JPanel controlPanel;
@@ -27,6 +32,9 @@ public class AdventureGame extends JFrame {
     private JTextArea gameLogArea;
     private JLabel currentPlayerLabel;
     private JPanel playersInfoPanel;
+    private BossPanel bossPanel;
+    private JButton undoButton;
+    private JButton redoButton;
 
     private List<Player> players;
     private Queue<Player> playerQueue;
@@ -34,48 +42,174 @@ public class AdventureGame extends JFrame {
     private boolean gameStarted = false;
     private Random random;
     private boolean isAnimating = false;
-    // SCORERECORD
-    private Map<String, ScoreRecord> scoreMap;
-    private final File scoreFile;
+    // TABLE: this match's place among the others in the process
+    private final SharedAssets assets;
+    private final int tableNumber;
+    private SharedAssets.Table table;
+    private JMenu[] menus;
+    private String title = "Adventure Game — Treasure Map Edition";
+
+    // SCORERECORD: shared mapped store behind a write-behind buffer; the .ser file is imported once
+    private static final int LEADERBOARD_SIZE = 50;
+    private final WriteBehindScoreStore scores;
+    private LinkedHashMap<String, ScoreRecord> leaderboard;
+    private long leaderboardVersion = -1;
 
     private boolean[] starsClaimed = new boolean[BOARD_CELLS + 1];
-    private Set<Integer> bossNodes = new HashSet<>(Arrays.asList(8, 15, 23, 31, 42, 55));
-    private int bossWinPoints = 10;
-    private int bossWinStars = 2;
-    private int bossLosePoints = -5;
-    private int bossLoseStars = -1;
+    private Set<Integer> bossNodes = GameConfig.DEFAULTS.getBossNodeSet();   // this board's; a remote server sends its own
+
+    // CONFIG: rules and timings from a watched file; the watcher thread parses, the EDT applies
+    private volatile GameConfig config = GameConfig.DEFAULTS;
+    private static final int BOSS_TIME_LIMIT_SECONDS = 10;
+    private BossEncounter activeBoss = null;
+    private GameJfr.Turn turnEvent;          // open from the roll until finishTurnAfterLanding
+    private GameJfr.BossFight bossFightEvent;
+    private static final int BOT_ROLL_DELAY_MS = 900;
+    private static final double BOT_SKILL = 0.7;
+    private final BossQuestionProvider questionBank = new QuestionBank(256, System.nanoTime());
+    private final BossStats bossStats;
 
     private List<RandomLink> randomLinks = new ArrayList<>();
     private int[] tilePoints = new int[BOARD_CELLS + 1];
 
+    private static final Color[] PLAYER_COLORS = BoardRenderer.PLAYER_COLORS;
+
+    private RemoteSession remote = null;  // non-null when playing on a GameServer
+
+    private final SoundCache soundCache;
     private final java.util.List<Clip> runningClips = Collections.synchronizedList(new ArrayList<>());
     private Clip backgroundClip = null;
-
-    public AdventureGame() {
+    private String backgroundWanted;      // loop this table plays while its tab is showing
+    private boolean foreground = true;
+
+    // EVENT BUS: game flow -> board/log (EDT, per frame via SharedAssets), audio, log file, disk
+    private final GameEventBus events = new GameEventBus(GameEventBus.DEFAULT_CAPACITY);
+    private GameEventBus.Subscription frameEvents;
+    private final File eventLogFile;
+
+    // EDT WATCHDOG: one per process; the Debug menu dumps its report
+    private final EdtWatchdog edtWatchdog;
+    private final File edtReportFile = new File(System.getProperty("user.home"), ".adventure_edt_report.txt");
+
+    // METRICS: counters, gauges and histograms behind the F3 overlay; -Dadventure.metricsCsv=<file> exports them
+    private static final long METRICS_EXPORT_MS = 5000;
+    private final Metrics metrics = new Metrics();
+    private final java.util.concurrent.atomic.LongAdder clipsStarted = metrics.counter("audio.started");
+    private final java.util.concurrent.atomic.LongAdder clipsFailed = metrics.counter("audio.failed");
+    private final java.util.concurrent.atomic.LongAdder clipsDropped = metrics.counter("audio.dropped");
+    private final java.util.concurrent.atomic.LongAdder turnsPlayed = metrics.counter("turns");
+    private final File metricsReportFile;
+
+    // SNAPSHOTS: latest state for the renderer, turn-start states for undo/redo
+    private GameSnapshot.Board snapshotBoard;       // rebuilt when the layout changes
+    private GameSnapshot latestSnapshot;
+    private GameHistory turnHistory;
+    private int turnNumber = 0;
+
+    // MATCH ARCHIVE: every finished local match, appended by the persistence consumer
+    private long boardSeed;
+    private long matchStartedAt;
+
+    // REPLAYS: the persistence consumer records each match and saves it when it ends
+    private final File replayDir = new File(System.getProperty("user.home"), ".adventure_replays");
+    private volatile File lastReplay;
+    private static final int REPLAY_FPS = 10;
+
+    public AdventureGame(SharedAssets assets, int tableNumber) {
+        this.assets = assets;
+        this.tableNumber = tableNumber;
         random = new Random();
         players = new ArrayList<>();
         // GILIRAN
         playerQueue = new LinkedList<>();
-        scoreMap = new HashMap<>();
 
-        String userHome = System.getProperty("user.home");
-        scoreFile = new File(userHome, ".adventure_scores.ser");
+        scores = assets.getScores();
+        bossStats = assets.getBossStats();
+        soundCache = assets.getSounds();
+        edtWatchdog = assets.getEdtWatchdog();
+        eventLogFile = tableFile(".adventure_game.log");
+        metricsReportFile = tableFile(".adventure_metrics.txt");
+        if (tableNumber > 1) title += " — Table " + tableNumber;
 
-        loadScores();
         initializeUI();
+        registerMetrics();
+        StartupTrace.mark("ui built");
+        startEventConsumers();
+        table = assets.join(frameEvents, () -> SwingUtilities.invokeLater(() -> {
+            if (playersInfoPanel != null) updatePlayersInfoPanel();
+        }), new ConfigWatcher.Listener() {
+            @Override public void onConfig(GameConfig c) { SwingUtilities.invokeLater(() -> applyConfig(c)); }
+            @Override public void onError(String message) { SwingUtilities.invokeLater(() -> addLog("[Config] " + message)); }
+        });
+        applyConfig(assets.getConfig().get());
+        snapshotChanged();
+        assets.getMapImage().thenAccept(img -> SwingUtilities.invokeLater(() -> gameBoard.setMapImage(img)));
+    }
 
-        addWindowListener(new WindowAdapter() {
-            @Override
-            public void windowClosing(WindowEvent e) {
-                stopBackgroundLoop();
-                synchronized (runningClips) {
-                    for (Clip c : new ArrayList<>(runningClips)) {
-                        try { c.stop(); c.close(); } catch (Exception ignored) {}
-                    }
-                    runningClips.clear();
-                }
+    /** Table 1 keeps the original file names; later tables add their number. */
+    private File tableFile(String name) {
+        return new File(System.getProperty("user.home"), tableNumber == 1 ? name : name + "-" + tableNumber);
+    }
+
+    public String getTitle() { return title; }
+
+    private void setTitle(String title) {
+        String old = this.title;
+        this.title = title;
+        firePropertyChange("title", old, title);
+    }
+
+    /** This table's menus; the window shows them while the table's tab is selected. */
+    public JMenu[] getMenus() { return menus; }
+
+    /** Only the table in front plays its background loop; effects play on every table. */
+    public void setForeground(boolean foreground) {
+        this.foreground = foreground;
+        if (!foreground) {
+            String wanted = backgroundWanted;
+            stopBackgroundLoop();
+            backgroundWanted = wanted;
+        } else if (backgroundWanted != null) {
+            playBackgroundLoop(backgroundWanted);
+        }
+    }
+
+    /** Ends this table: stops its threads and sounds and gives its share of the frame timer and voices back. */
+    public void close() {
+        gameStarted = false;   // bots stop after the move in flight
+        table.leave();
+        if (remote != null) remote.close();
+        gameBoard.stop();
+        events.close(2000);
+        for (String line : events.stats()) System.out.println("[Events] " + line);
+        metrics.stopExport();
+        stopBackgroundLoop();
+        synchronized (runningClips) {
+            for (Clip c : new ArrayList<>(runningClips)) {
+                try { c.stop(); c.close(); } catch (Exception ignored) {}
             }
-        });
+            runningClips.clear();
+        }
+    }
+
+    /** Gauges are sampled only when the overlay paints or a snapshot is exported. */
+    private void registerMetrics() {
+        Runtime rt = Runtime.getRuntime();
+        java.lang.management.ThreadMXBean threads = java.lang.management.ManagementFactory.getThreadMXBean();
+        metrics.gauge("heap.used", " MB", () -> (rt.totalMemory() - rt.freeMemory()) >> 20);
+        metrics.gauge("heap.max", " MB", () -> rt.maxMemory() >> 20);
+        metrics.gauge("audio.clips", "", runningClips::size);
+        metrics.gauge("threads.live", "", threads::getThreadCount);
+        metrics.gauge("log.chars", "", () -> gameLogArea.getDocument().getLength());
+        metrics.histogram("scores.flush", "µs", scores.getFlushMicros());
+        metrics.histogram("edt.dispatch", "µs", edtWatchdog.getDispatchMicros());
+        metrics.histogram("edt.queue", "µs", edtWatchdog.getProbeMicros());
+        gameBoard.attachMetrics(metrics);
+
+        String csv = System.getProperty("adventure.metricsCsv");
+        if (csv != null) {
+            metrics.startExport(new File(tableNumber == 1 ? csv : csv + "-" + tableNumber), Long.getLong("adventure.metricsMs", METRICS_EXPORT_MS));
+        }
     }
 
     // ========== ScoreRecord (UNCHANGED) ==========
@@ -99,69 +233,41 @@ public class AdventureGame extends JFrame {
         }
     }
 
-    @SuppressWarnings("unchecked")
-    private void loadScores() {
-        if (!scoreFile.exists()) {
-            scoreMap = new HashMap<>();
-            return;
-        }
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(scoreFile))) {
-            Object obj = ois.readObject();
-            if (obj instanceof Map) scoreMap = (Map<String, ScoreRecord>) obj;
-            else scoreMap = new HashMap<>();
-        } catch (Exception e) {
-            System.err.println("Failed to load scores: " + e.getMessage());
-            scoreMap = new HashMap<>();
-        }
-    }
-
-    private void saveScores() {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(scoreFile))) {
-            oos.writeObject(scoreMap);
-        } catch (Exception e) {
-            System.err.println("Failed to save scores: " + e.getMessage());
-        }
-    }
-
     private void ensureScoreRecordExists(String name) {
-        if (!scoreMap.containsKey(name)) {
-            scoreMap.put(name, new ScoreRecord());
-            saveScores();
-        }
+        scores.ensure(name);
     }
 
     private void updateScoresAfterMatch(Player winner) {
         for (Player p : players) {
-            ScoreRecord rec = scoreMap.getOrDefault(p.getName(), new ScoreRecord());
-            rec.gamesPlayed += 1;
-            rec.totalStars += p.getStars();
-            rec.totalScore += p.getScore();
-            scoreMap.put(p.getName(), rec);
+            scores.add(p.getName(), p == winner ? 1 : 0, 1, p.getStars(), p.getScore());
         }
-        if (winner != null) {
-            ScoreRecord rec = scoreMap.getOrDefault(winner.getName(), new ScoreRecord());
-            rec.wins += 1;
-            scoreMap.put(winner.getName(), rec);
+    }
+
+    /** Top {@link #LEADERBOARD_SIZE} records, rescanned only after the store changed. */
+    private LinkedHashMap<String, ScoreRecord> leaderboard() {
+        long v = scores.version();
+        if (leaderboard == null || v != leaderboardVersion) {
+            leaderboard = scores.top(LEADERBOARD_SIZE);
+            leaderboardVersion = v;
         }
-        saveScores();
+        return leaderboard;
     }
 
     private String getScoreSummary(String name) {
-        ScoreRecord rec = scoreMap.get(name);
+        ScoreRecord rec = scores.get(name);
         if (rec == null) return "W:0 G:0 S:0 P:0";
         return "W:" + rec.wins + " G:" + rec.gamesPlayed + " S:" + rec.totalStars + " P:" + rec.totalScore;
     }
 
     // ========== UI INITIALIZATION (MINOR UPDATES) ==========
     private void initializeUI() {
-        setTitle("Adventure Game — Treasure Map Edition");
-        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setLayout(new BorderLayout(10, 10));
-        getContentPane().setBackground(new Color(245, 240, 230));
+        setBackground(new Color(245, 240, 230));
+        menus = createMenus();
 
         add(createHeaderPanel(), BorderLayout.NORTH);
 
-        gameBoard = new GameBoard();
+        gameBoard = new GameBoard(assets);
         JScrollPane boardScroll = new JScrollPane(gameBoard);
         boardScroll.setBorder(null);
         boardScroll.getViewport().setBackground(new Color(245,240,230));
@@ -169,11 +275,92 @@ public class AdventureGame extends JFrame {
 
         controlPanel = createControlPanel();
         add(controlPanel, BorderLayout.EAST);
+    }
+
+    private JMenu[] createMenus() {
+        JMenu debug = new JMenu("Debug");
+
+        JMenuItem dump = new JMenuItem("Save EDT Report");
+        dump.addActionListener(e -> {
+            try {
+                edtWatchdog.dumpTo(edtReportFile);
+                JOptionPane.showMessageDialog(this, edtWatchdog.summary() + "\n\nSaved to " + edtReportFile.getAbsolutePath(),
+                        "EDT Report", JOptionPane.INFORMATION_MESSAGE);
+            } catch (IOException ex) {
+                JOptionPane.showMessageDialog(this, "Failed to save EDT report: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        });
+        debug.add(dump);
+
+        JMenuItem reset = new JMenuItem("Reset EDT Stats");
+        reset.addActionListener(e -> edtWatchdog.reset());
+        debug.add(reset);
+        debug.addSeparator();
+
+        JCheckBoxMenuItem overlay = new JCheckBoxMenuItem("Performance Overlay");
+        overlay.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_F3, 0));
+        overlay.addActionListener(e -> gameBoard.setOverlayVisible(overlay.isSelected()));
+        debug.add(overlay);
+
+        JMenuItem saveMetrics = new JMenuItem("Save Metrics Snapshot");
+        saveMetrics.addActionListener(e -> {
+            try {
+                metrics.dumpTo(metricsReportFile);
+                JOptionPane.showMessageDialog(this, "Saved to " + metricsReportFile.getAbsolutePath(),
+                        "Metrics", JOptionPane.INFORMATION_MESSAGE);
+            } catch (IOException ex) {
+                JOptionPane.showMessageDialog(this, "Failed to save metrics: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        });
+        debug.add(saveMetrics);
 
-        setMinimumSize(new Dimension(1200, 820));
-        setExtendedState(JFrame.MAXIMIZED_BOTH);
-        pack();
-        setLocationRelativeTo(null);
+        JMenu view = new JMenu("View");
+        JCheckBoxMenuItem heat = new JCheckBoxMenuItem("Landing Heatmap");
+        heat.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_F4, 0));
+        heat.addActionListener(e -> gameBoard.setHeatmapVisible(heat.isSelected()));
+        view.add(heat);
+
+        JMenu replay = new JMenu("Replay");
+        JMenuItem exportGif = new JMenuItem("Export Last Match as GIF…");
+        exportGif.addActionListener(e -> exportLastReplay());
+        replay.add(exportGif);
+
+        return new JMenu[]{view, replay, debug};
+    }
+
+    /** Renders the last saved replay to a GIF on its own thread; the game stays playable meanwhile. */
+    private void exportLastReplay() {
+        File source = lastReplay;
+        if (source == null) {
+            JOptionPane.showMessageDialog(this, "No match has finished yet.", "Replay", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new File(source.getName().replace(".replay", ".gif")));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        File chosen = chooser.getSelectedFile();
+        File out = chosen.getName().toLowerCase().endsWith(".gif") ? chosen : new File(chosen.getPath() + ".gif");
+        BoardRenderer renderer = new BoardRenderer(gameBoard.getMapImage());
+
+        Thread export = new Thread(() -> {
+            String message;
+            int kind = JOptionPane.INFORMATION_MESSAGE;
+            try {
+                long t0 = System.nanoTime();
+                int frames = ReplayExporter.export(MatchReplay.read(source), renderer, out, 480, 384, REPLAY_FPS, 0, Integer.MAX_VALUE);
+                message = String.format("%d frames in %.1fs\n\nSaved to %s", frames, (System.nanoTime() - t0) / 1e9, out.getAbsolutePath());
+            } catch (IOException | RuntimeException ex) {
+                message = "Failed to export replay: " + ex.getMessage();
+                kind = JOptionPane.ERROR_MESSAGE;
+            } catch (InterruptedException ex) {
+                return;
+            }
+            String text = message;
+            int type = kind;
+            SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(this, text, "Replay", type));
+        }, "replay-export");
+        export.setDaemon(true);
+        export.start();
     }
 
     private JPanel createHeaderPanel() {
@@ -231,10 +418,30 @@ public class AdventureGame extends JFrame {
         rollDiceButton.setMaximumSize(new Dimension(280, 40));
         rollDiceButton.setAlignmentX(Component.CENTER_ALIGNMENT);
         rollDiceButton.setEnabled(false);
-        rollDiceButton.addActionListener(e -> rollDiceWithAnimation());
+        rollDiceButton.addActionListener(e -> {
+            if (remote != null) remote.sendRoll();
+            else rollDiceWithAnimation();
+        });
         panel.add(rollDiceButton);
         panel.add(Box.createVerticalStrut(8));
 
+        undoButton = createClassicButton("Undo Turn", new Color(150,140,130), new Color(185,175,165));
+        undoButton.setPreferredSize(new Dimension(136, 34));
+        undoButton.addActionListener(e -> undoTurn());
+        redoButton = createClassicButton("Redo Turn", new Color(150,140,130), new Color(185,175,165));
+        redoButton.setPreferredSize(new Dimension(136, 34));
+        redoButton.addActionListener(e -> redoTurn());
+        JPanel undoRow = new JPanel(new GridLayout(1, 2, 8, 0));
+        undoRow.setOpaque(false);
+        undoRow.setMaximumSize(new Dimension(280, 34));
+        undoRow.setAlignmentX(Component.CENTER_ALIGNMENT);
+        undoRow.add(undoButton);
+        undoRow.add(redoButton);
+        undoButton.setEnabled(false);
+        redoButton.setEnabled(false);
+        panel.add(undoRow);
+        panel.add(Box.createVerticalStrut(8));
+
         settingsButton = createClassicButton("Settings", new Color(180,120,160), new Color(210,160,190));
         settingsButton.setMaximumSize(new Dimension(280, 34));
         settingsButton.setAlignmentX(Component.CENTER_ALIGNMENT);
@@ -281,6 +488,10 @@ public class AdventureGame extends JFrame {
         panel.add(dicePanel);
         panel.add(Box.createVerticalStrut(10));
 
+        // ========== BOSS (INLINE) ==========
+        bossPanel = new BossPanel();
+        panel.add(bossPanel);
+
         // ========== CURRENT TURN ==========
         currentPlayerLabel = new JLabel("Waiting for players...");
         currentPlayerLabel.setOpaque(true);
@@ -459,20 +670,8 @@ public class AdventureGame extends JFrame {
             playersInfoPanel.add(histLabel);
             playersInfoPanel.add(Box.createVerticalStrut(6));
 
-            List<String> allNames = new ArrayList<>(scoreMap.keySet());
-            for (Player p : players) if (!allNames.contains(p.getName())) allNames.add(p.getName());
-
-            allNames.sort((a, b) -> {
-                ScoreRecord ra = scoreMap.getOrDefault(a, new ScoreRecord());
-                ScoreRecord rbRec = scoreMap.getOrDefault(b, new ScoreRecord());
-                if (rbRec.wins != ra.wins) return Integer.compare(rbRec.wins, ra.wins);
-                if (rbRec.totalStars != ra.totalStars) return Integer.compare(rbRec.totalStars, ra.totalStars);
-                return a.compareToIgnoreCase(b);
-            });
-
-            for (String name : allNames) {
+            for (String name : leaderboard().keySet()) {
                 if (shownNames.contains(name)) continue;
-                ScoreRecord rec = scoreMap.getOrDefault(name, new ScoreRecord());
 
                 // ========== UPDATED CODE ==========
                 JPanel card = new JPanel(new BorderLayout(6, 0));
@@ -499,15 +698,6 @@ public class AdventureGame extends JFrame {
 
         for (Player p : players) ensureScoreRecordExists(p.getName());
 
-        List<String> allNames = new ArrayList<>(scoreMap.keySet());
-        allNames.sort((a, b) -> {
-            ScoreRecord ra = scoreMap.getOrDefault(a, new ScoreRecord());
-            ScoreRecord rb = scoreMap.getOrDefault(b, new ScoreRecord());
-            if (rb.wins != ra.wins) return Integer.compare(rb.wins, ra.wins);
-            if (rb.totalStars != ra.totalStars) return Integer.compare(rb.totalStars, ra.totalStars);
-            return a.compareToIgnoreCase(b);
-        });
-
         JLabel lbHeader = new JLabel("Leaderboard (All Players)");
         lbHeader.setFont(new Font("Serif", Font.BOLD, 14));
         lbHeader.setForeground(new Color(85, 60, 40));
@@ -515,8 +705,9 @@ public class AdventureGame extends JFrame {
         playersInfoPanel.add(lbHeader);
         playersInfoPanel.add(Box.createVerticalStrut(6));
 
-        for (String name : allNames) {
-            ScoreRecord rec = scoreMap.getOrDefault(name, new ScoreRecord());
+        for (Map.Entry<String, ScoreRecord> entry : leaderboard().entrySet()) {
+            String name = entry.getKey();
+            ScoreRecord rec = entry.getValue();
             JPanel card = new JPanel(new BorderLayout(6, 0));
             card.setMaximumSize(new Dimension(300, 40));  // ← 54→44
             card.setBackground(new Color(255, 255, 250));
@@ -541,22 +732,25 @@ public class AdventureGame extends JFrame {
 
     // ========== UI HELPERS (UNCHANGED) ==========
     private void openSettingsDialog() {
+        GameConfig cfg = config;
         JPanel panel = new JPanel(new GridLayout(0,2,8,8));
         panel.add(new JLabel("Boss nodes (comma separated):"));
-        JTextField bossField = new JTextField(bossNodes.toString().replaceAll("[\\[\\] ]",""));
+        JTextField bossField = new JTextField(Arrays.toString(cfg.getBossNodes()).replaceAll("[\\[\\] ]",""));
         panel.add(bossField);
         panel.add(new JLabel("Boss win points:"));
-        JTextField winPts = new JTextField(String.valueOf(bossWinPoints));
+        JTextField winPts = new JTextField(String.valueOf(cfg.getBossWinPoints()));
         panel.add(winPts);
         panel.add(new JLabel("Boss win stars:"));
-        JTextField winStars = new JTextField(String.valueOf(bossWinStars));
+        JTextField winStars = new JTextField(String.valueOf(cfg.getBossWinStars()));
         panel.add(winStars);
         panel.add(new JLabel("Boss lose points (negative):"));
-        JTextField losePts = new JTextField(String.valueOf(bossLosePoints));
+        JTextField losePts = new JTextField(String.valueOf(cfg.getBossLosePoints()));
         panel.add(losePts);
         panel.add(new JLabel("Boss lose stars (negative):"));
-        JTextField loseStars = new JTextField(String.valueOf(bossLoseStars));
+        JTextField loseStars = new JTextField(String.valueOf(cfg.getBossLoseStars()));
         panel.add(loseStars);
+        panel.add(new JLabel("Other rules and timings:"));
+        panel.add(new JLabel(assets.getConfig().getFile().getName()));
 
         int res = JOptionPane.showConfirmDialog(this, panel, "Settings", JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
         if (res == JOptionPane.OK_OPTION) {
@@ -567,18 +761,33 @@ public class AdventureGame extends JFrame {
                     p = p.trim(); if (p.isEmpty()) continue;
                     set.add(Integer.parseInt(p));
                 }
-                bossNodes = set;
-                bossWinPoints = Integer.parseInt(winPts.getText().trim());
-                bossWinStars = Integer.parseInt(winStars.getText().trim());
-                bossLosePoints = Integer.parseInt(losePts.getText().trim());
-                bossLoseStars = Integer.parseInt(loseStars.getText().trim());
-                addLog("[Settings] Updated boss configuration: " + bossNodes);
-                gameBoard.repaint();
+                // Saved to the config file; the watcher reloads it and applyConfig updates the board.
+                assets.getConfig().save(cfg.withBoss(set.stream().mapToInt(Integer::intValue).toArray(),
+                        Integer.parseInt(winPts.getText().trim()), Integer.parseInt(winStars.getText().trim()),
+                        Integer.parseInt(losePts.getText().trim()), Integer.parseInt(loseStars.getText().trim())));
             } catch (Exception ex) {
                 JOptionPane.showMessageDialog(this, "Invalid settings input: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
             }
         }
     }
+
+    /**
+     * Puts a freshly loaded config into effect. Boss placement and rewards change the board at
+     * once, as the settings dialog always did; ladder count and tile points apply from the
+     * next board, and timings from the next move. A remote match keeps the server's bosses.
+     */
+    private void applyConfig(GameConfig c) {
+        config = c;
+        gameBoard.setAnimationDelay(c.getAnimationMs());
+        gameBoard.setConfig(c);
+        if (remote == null && !bossNodes.equals(c.getBossNodeSet())) {
+            bossNodes = c.getBossNodeSet();
+            snapshotBoard = null;
+            snapshotChanged();
+        }
+        addLog("[Config] " + c);
+    }
+
     // AVATAR
     private void promptEditAvatar() {
         if (players == null || players.isEmpty()) {
@@ -621,19 +830,13 @@ public class AdventureGame extends JFrame {
                 JOptionPane.showMessageDialog(this, "Please enter 2-6 players.", "Invalid", JOptionPane.ERROR_MESSAGE);
                 return;
             }
+            // Searched while the names are typed in; usually done before the last dialog closes.
+            GameConfig cfg = config;
+            java.util.concurrent.ForkJoinTask<BoardOptimizer.Result> fairBoard = boardOptimizer(cfg).submit(numPlayers, random.nextLong());
 
             Arrays.fill(starsClaimed, false);
             players.clear();
 
-            Color[] colors = {
-                    new Color(255, 160, 120),
-                    new Color(120, 200, 180),
-                    new Color(220, 160, 230),
-                    new Color(255, 220, 140),
-                    new Color(160, 200, 255),
-                    new Color(200, 240, 180)
-            };
-
             for (int i = 0; i < numPlayers; i++) {
                 String name = JOptionPane.showInputDialog(this, "Enter name for Player " + (i + 1) + ":", "Player Name", JOptionPane.QUESTION_MESSAGE);
                 if (name == null) { return; }
@@ -656,17 +859,28 @@ public class AdventureGame extends JFrame {
                     }
                 }
 
+                // The table plays the classic rules, which offer no decisions: a computer seat
+                // only rolls and answers bosses, so there is one kind of it.
+                String[] seatTypes = {"Human", "Computer"};
+                int type = JOptionPane.showOptionDialog(this, "Who plays " + name + "?", "Player Type",
+                        JOptionPane.DEFAULT_OPTION, JOptionPane.QUESTION_MESSAGE, null, seatTypes, seatTypes[0]);
+
                 ensureScoreRecordExists(name);
-                Player p = new Player(name, colors[i]);
+                Player p = new Player(name, PLAYER_COLORS[i]);
                 if (avatar != null) p.setAvatar(avatar);
+                if (type == 1) p.setStrategy(PlayerStrategy.EAGER);
+                if (p.isBot()) p.setBossAnswerSource(new BossAnswerSource.Bot(BOT_SKILL, 1500, 4000));
                 players.add(p);
             }
 
-            generateRandomLinks();
+            // One seed per board, drawn the same way as GameRules.random, so archived boards can be rebuilt.
+            BoardOptimizer.Result board = fairBoard.join();
+            boardSeed = board.seed;
+            Random boardRandom = new Random(boardSeed);
+            generateRandomLinks(boardRandom, cfg.getLadderTarget());
 
-            for (int i = 1; i <= BOARD_CELLS; i++) {
-                tilePoints[i] = (i == 1) ? 0 : (1 + random.nextInt(10));
-            }
+            tilePoints = GameRules.generateTilePoints(boardRandom, cfg.getTileMinPoints(), cfg.getTileMaxPoints());
+            matchStartedAt = System.currentTimeMillis();
 
             for (Player p : players) {
                 p.setPosition(1);
@@ -686,23 +900,29 @@ public class AdventureGame extends JFrame {
             currentPlayerLabel.setText("Turn: " + currentPlayer.getName());
 
             gameBoard.setPlayers(players);
-            gameBoard.setRandomLinks(randomLinks);
-            gameBoard.repaint();
+            snapshotBoard = null;
+            turnNumber = 0;
+            turnHistory = null;
+            snapshotChanged();
+            startReplay();
             updatePlayersInfoPanel();
 
             addLog("════ GAME STARTED — ADVENTURE ════");
             addLog("Players: " + players.size());
-            for (Player p : players) addLog("  • " + p.getName() + " (" + getScoreSummary(p.getName()) + ")");
+            for (Player p : players) addLog("  • " + p.getName() + (p.isBot() ? " [BOT]" : "") + " (" + getScoreSummary(p.getName()) + ")");
             addLog("");
             addLog("Boss nodes: " + bossNodes);
             addLog("Random ladders: " + randomLinksSummary());
+            addLog("[Ladders] " + board);
             addLog("Note: Stars (multiples of 5) are collectible only once per match.");
             addLog("Important: To use a ladder, the player MUST have STARTED their turn on a PRIME number.");
-            addLog("Tile points: each tile awards points on landing (1..10). Stars will be converted at end: 1★ = " + STAR_TO_POINT + " pts.");
+            addLog("Tile points: each tile awards points on landing (" + cfg.getTileMinPoints() + ".." + cfg.getTileMaxPoints()
+                    + "). Stars will be converted at end: 1★ = " + cfg.getStarToPoint() + " pts.");
             addLog("First turn: " + currentPlayer.getName());
             addLog("════════════════════════════════════");
 
             playBackgroundLoop("backsoundGame.wav");
+            onTurnReady();
 
         } catch (NumberFormatException ex) {
             JOptionPane.showMessageDialog(this, "Please enter a valid number.", "Invalid", JOptionPane.ERROR_MESSAGE);
@@ -719,87 +939,52 @@ public class AdventureGame extends JFrame {
 
     // ========== SOUND SYSTEM (UNCHANGED) ==========
     private void playSound(String filename) {
-        new Thread(() -> {
-            AudioInputStream audioIn = null;
-            try {
-                InputStream resStream = getClass().getResourceAsStream("/" + filename);
-                if (resStream != null) {
-                    audioIn = AudioSystem.getAudioInputStream(new BufferedInputStream(resStream));
-                } else {
-                    File soundFile = new File(filename);
-                    if (!soundFile.exists()) {
-                        return;
-                    }
-                    audioIn = AudioSystem.getAudioInputStream(soundFile);
-                }
+        events.publish(GameEvent.sound(filename));
+    }
 
-                AudioFormat baseFormat = audioIn.getFormat();
-                AudioFormat decodedFormat = new AudioFormat(
-                        AudioFormat.Encoding.PCM_SIGNED,
-                        baseFormat.getSampleRate(),
-                        16,
-                        baseFormat.getChannels(),
-                        baseFormat.getChannels() * 2,
-                        baseFormat.getSampleRate(),
-                        false
-                );
-
-                AudioInputStream din = AudioSystem.getAudioInputStream(decodedFormat, audioIn);
-                DataLine.Info info = new DataLine.Info(Clip.class, decodedFormat);
-                Clip clip = (Clip) AudioSystem.getLine(info);
-                clip.open(din);
+    /**
+     * Starts a one-shot clip from the decoded cache; runs on the audio consumer thread. An
+     * effect is dropped when this table already holds its share of the shared voices.
+     */
+    private void playClip(String filename) {
+        if (!table.tryVoice()) {
+            clipsDropped.increment();
+            return;
+        }
+        try {
+            Clip clip = soundCache.open(filename);
+            if (clip == null) {
+                table.releaseVoice();
+                return;
+            }
 
-                runningClips.add(clip);
+            runningClips.add(clip);
+            clipsStarted.increment();
 
-                clip.addLineListener(event -> {
-                    if (event.getType() == LineEvent.Type.STOP || event.getType() == LineEvent.Type.CLOSE) {
-                        clip.stop();
-                        clip.close();
-                        runningClips.remove(clip);
-                    }
-                });
+            clip.addLineListener(event -> {
+                if (event.getType() == LineEvent.Type.STOP || event.getType() == LineEvent.Type.CLOSE) {
+                    clip.stop();
+                    clip.close();
+                    if (runningClips.remove(clip)) table.releaseVoice();
+                }
+            });
 
-                clip.start();
-            } catch (Exception ignored) {
-            } finally {
-                try { if (audioIn != null) audioIn.close(); } catch (IOException ignored) {}
-            }
-        }).start();
+            clip.start();
+        } catch (Exception e) {
+            table.releaseVoice();
+            clipsFailed.increment();
+        }
     }
 
     private void playBackgroundLoop(String filename) {
-        if (backgroundClip != null && backgroundClip.isOpen()) {
+        backgroundWanted = filename;
+        if (!foreground || backgroundClip != null && backgroundClip.isOpen()) {
             return;
         }
         new Thread(() -> {
-            AudioInputStream audioIn = null;
             try {
-                InputStream resStream = getClass().getResourceAsStream("/" + filename);
-                if (resStream != null) {
-                    audioIn = AudioSystem.getAudioInputStream(new BufferedInputStream(resStream));
-                } else {
-                    File soundFile = new File(filename);
-                    if (!soundFile.exists()) {
-                        return;
-                    }
-                    audioIn = AudioSystem.getAudioInputStream(soundFile);
-                }
-
-                AudioFormat baseFormat = audioIn.getFormat();
-                AudioFormat decodedFormat = new AudioFormat(
-                        AudioFormat.Encoding.PCM_SIGNED,
-                        baseFormat.getSampleRate(),
-                        16,
-                        baseFormat.getChannels(),
-                        baseFormat.getChannels() * 2,
-                        baseFormat.getSampleRate(),
-                        false
-                );
-
-                AudioInputStream din = AudioSystem.getAudioInputStream(decodedFormat, audioIn);
-                DataLine.Info info = new DataLine.Info(Clip.class, decodedFormat);
-                Clip clip = (Clip) AudioSystem.getLine(info);
-                clip.open(din);
+                Clip clip = soundCache.open(filename);
+                if (clip == null) return;
 
                 try {
                     FloatControl vol = (FloatControl) clip.getControl(FloatControl.Type.MASTER_GAIN);
@@ -814,13 +999,12 @@ public class AdventureGame extends JFrame {
                 clip.start();
 
             } catch (Exception ignored) {
-            } finally {
-                try { if (audioIn != null) audioIn.close(); } catch (IOException ignored) {}
             }
         }).start();
     }
 
     private void stopBackgroundLoop() {
+        backgroundWanted = null;
         if (backgroundClip != null) {
             try {
                 backgroundClip.stop();
@@ -837,12 +1021,15 @@ public class AdventureGame extends JFrame {
 
         rollDiceButton.setEnabled(false);
         isAnimating = true;
+        updateUndoButtons();
+        turnEvent = new GameJfr.Turn();
+        turnEvent.begin();
 
         playSound("crash-spin.wav");
 
         int finalDiceValue = random.nextInt(6) + 1;
         double probability = random.nextDouble();
-        boolean isForward = probability < 0.75;
+        boolean isForward = probability < config.getForwardProbability();
 
         int cycles = 10 + random.nextInt(6);
         final int[] tick = {0};
@@ -850,7 +1037,7 @@ public class AdventureGame extends JFrame {
         Color finalColor = isForward ? new Color(120, 200, 140) : new Color(220, 130, 140);
         Color[] flickerColors = new Color[] { new Color(160,160,120), new Color(140,190,160), new Color(200,150,170), new Color(180,160,120) };
 
-        Timer spinner = new Timer(70, null);
+        Timer spinner = new Timer(config.getSpinnerMs(), null);
         spinner.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
@@ -868,6 +1055,13 @@ public class AdventureGame extends JFrame {
                     int oldPosition = currentPlayer.getPosition();
                     // PRIME LADDER
                     boolean usePrimePower = isPrime(oldPosition);
+                    if (turnEvent != null) {
+                        turnEvent.player = currentPlayer.getName();
+                        turnEvent.startNode = oldPosition;
+                        turnEvent.dice = finalDiceValue;
+                        turnEvent.forward = isForward;
+                        turnEvent.primePower = usePrimePower;
+                    }
                     addLog("┌─────────────────────");
                     addLog("│ " + currentPlayer.getName());
                     addLog("│ Position: Node " + oldPosition + (usePrimePower ? " (PRIME) — eligible for ladders." : " — not prime; ladders disabled this turn."));
@@ -890,8 +1084,9 @@ public class AdventureGame extends JFrame {
         }
         starsClaimed[pos] = true;
         p.addStar();
+        events.publish(GameEvent.star(players.indexOf(p), pos));
+        scoreChanged(p);
         addLog("│ ⭐ " + p.getName() + " collected star at Node " + pos + "!");
-        updatePlayersInfoPanel();
         return true;
     }
     // TILE POINT
@@ -900,8 +1095,8 @@ public class AdventureGame extends JFrame {
         int pts = tilePoints[pos];
         if (pts == 0) return;
         p.addScore(pts);
+        scoreChanged(p);
         addLog("│ ➕ " + p.getName() + " received " + pts + " pts for landing on Node " + pos + " (tile points).");
-        updatePlayersInfoPanel();
     }
     /**
      * Stack-based backward movement - retraces exact path taken
@@ -928,7 +1123,7 @@ public class AdventureGame extends JFrame {
 
         addLog("│ [Stack] Going back " + steps + " steps (stack size: " + currentPlayer.getMovementHistory().size() + ")");
 
-        javax.swing.Timer t = new javax.swing.Timer(420, null);
+        javax.swing.Timer t = new javax.swing.Timer(config.getStepMs(), null);
         t.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
@@ -953,12 +1148,10 @@ public class AdventureGame extends JFrame {
 
                 playSound("move.wav");
 
-                currentPlayer.setPosition(prevPos);
+                moveTo(currentPlayer, prevPos);
                 pathTaken.add(prevPos);
 
                 gameBoard.setHighlightPath(new ArrayList<>(pathTaken));
-                gameBoard.repaint();
-                updatePlayersInfoPanel();
 
                 addLog("│ Step " + currentStep[0] + ": Node " + prevPos + " [popped from stack] (left: " + remaining[0] + ")");
 
@@ -982,7 +1175,7 @@ public class AdventureGame extends JFrame {
             animateBackwardWithStack(startPos, moves);
             return;  // Exit early, jangan lanjut ke bawah
         }
-        javax.swing.Timer t = new javax.swing.Timer(420, null);
+        javax.swing.Timer t = new javax.swing.Timer(config.getStepMs(), null);
         t.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
@@ -1001,15 +1194,13 @@ public class AdventureGame extends JFrame {
 
                 playSound("move.wav");
 
-                currentPlayer.setPosition(next);
+                moveTo(currentPlayer, next);
                 if (isForward) {
                     currentPlayer.pushPosition(next);  // Track forward movement
                     addLog("│   [Stack] Pushed: " + next + " (size: " + currentPlayer.getMovementHistory().size() + ")");
                 }
                 pathTaken.add(next);
                 gameBoard.setHighlightPath(new ArrayList<>(pathTaken));
-                gameBoard.repaint();
-                updatePlayersInfoPanel();
 
                 addLog("│ Step " + currentStep[0] + ": Node " + next + " (left: " + remaining[0] + ")");
 
@@ -1021,9 +1212,9 @@ public class AdventureGame extends JFrame {
                             addLog("│ Teleporting: " + capturedLink.getFrom() + " → " + capturedLink.getTo());
                             playSound("move.wav");
                             t.stop();
-                            javax.swing.Timer teleport = new javax.swing.Timer(700, evt -> {
+                            javax.swing.Timer teleport = new javax.swing.Timer(config.getTeleportMs(), evt -> {
                                 currentPos[0] = capturedLink.getTo();
-                                currentPlayer.setPosition(capturedLink.getTo());
+                                teleportTo(currentPlayer, capturedLink.getTo());
 
                                 // ========== ADD THESE 2 LINES ==========
                                 currentPlayer.pushPosition(capturedLink.getTo());  // Track ladder destination
@@ -1033,15 +1224,13 @@ public class AdventureGame extends JFrame {
                                 pathTaken.add(capturedLink.getTo());
                                 gameBoard.setTeleportEffect(capturedLink);
                                 gameBoard.setHighlightPath(new ArrayList<>(pathTaken));
-                                gameBoard.repaint();
-                                updatePlayersInfoPanel();
                                 if (remaining[0] == 0) {
                                     boolean awarded = awardStarIfAvailable(currentPlayer, currentPos[0]);
                                     if (awarded) extraPending[0] = true;
                                 }
                                 awardTilePoints(currentPlayer, currentPos[0]);
 
-                                javax.swing.Timer cont = new javax.swing.Timer(650, ev2 -> {
+                                javax.swing.Timer cont = new javax.swing.Timer(config.getTeleportMs(), ev2 -> {
                                     gameBoard.setTeleportEffect(null);
                                     if (remaining[0] > 0) t.start();
                                     else handleLandingAfterMove(currentPos[0], extraPending[0]);
@@ -1093,14 +1282,11 @@ public class AdventureGame extends JFrame {
                     finishTurnAfterLanding(_capLanded, _capExtra);
                 } else {
                     int prev = Math.max(1, _capLanded - 1);
-                    _capPlayer.setPosition(prev);
+                    moveTo(_capPlayer, prev);
 
                     addLog("│ ❌ " + _capPlayer.getName() +
                             " failed the boss and is returned to Node " + prev + ". Turn ends.");
 
-                    gameBoard.repaint();
-                    updatePlayersInfoPanel();
-
                     playerQueue.add(_capPlayer);
                     Player next = pollNextActivePlayer();
                     currentPlayer = next;
@@ -1115,6 +1301,7 @@ public class AdventureGame extends JFrame {
 
                     addLog("Next: " + (currentPlayer != null ? currentPlayer.getName() : "—"));
                     addLog("└─────────────────────");
+                    onTurnReady();
                 }
             });
         } else {
@@ -1123,6 +1310,14 @@ public class AdventureGame extends JFrame {
     }
 
     private void finishTurnAfterLanding(int finalPosition, boolean extraTurn) {
+        turnsPlayed.increment();
+        GameJfr.Turn turn = turnEvent;
+        turnEvent = null;
+        if (turn != null && turn.shouldCommit()) {
+            turn.endNode = finalPosition;
+            turn.extraTurn = extraTurn;
+            turn.commit();
+        }
         addLog("│ Final: Node " + finalPosition);
         gameBoard.setHighlightPath(null);
         gameBoard.setTeleportEffect(null);
@@ -1130,6 +1325,8 @@ public class AdventureGame extends JFrame {
 
         if (finalPosition == BOARD_CELLS) {
             currentPlayer.setFinished(true);
+            events.publish(GameEvent.finished(players.indexOf(currentPlayer)));
+            snapshotChanged();
             addLog("│ 🎉 " + currentPlayer.getName() + " reached FINISH!");
 
             int notFinished = 0;
@@ -1139,15 +1336,18 @@ public class AdventureGame extends JFrame {
                 addLog("│ Ending match early — only " + notFinished + " player(s) still not finished.");
                 Player winner = computeWinnerByPointsAndStars();
                 addLog("│ Winner: " + (winner != null ? winner.getName() : "NONE"));
+                events.publish(GameEvent.matchOver(players.indexOf(winner)));
+                events.publish(GameEvent.archiveMatch(archiveEntry(winner)));
                 updateScoresAfterMatch(winner);
+                saveBossStats();
 
                 stopBackgroundLoop();
 
                 playSound("confetti.wav");
                 StringBuilder sb = new StringBuilder();
-                sb.append("Match ended!\n\nFinal summary (points + stars*").append(STAR_TO_POINT).append("):\n");
+                sb.append("Match ended!\n\nFinal summary (points + stars*").append(config.getStarToPoint()).append("):\n");
                 for (Player p : players) {
-                    int total = p.getScore() + p.getStars() * STAR_TO_POINT;
+                    int total = p.getScore() + p.getStars() * config.getStarToPoint();
                     sb.append(String.format(" • %s — Points: %d • Stars: %d • Total: %d\n", p.getName(), p.getScore(), p.getStars(), total));
                 }
                 if (winner != null) sb.append("\nWinner: ").append(winner.getName()).append("\n");
@@ -1157,6 +1357,7 @@ public class AdventureGame extends JFrame {
                 startButton.setEnabled(true);
                 rollDiceButton.setEnabled(false);
                 isAnimating = false;
+                updateUndoButtons();
                 updatePlayersInfoPanel();
                 addLog("└─────────────────────");
                 return;
@@ -1174,6 +1375,7 @@ public class AdventureGame extends JFrame {
                 isAnimating = false;
                 rollDiceButton.setEnabled(true);
                 updatePlayersInfoPanel();
+                onTurnReady();
                 return;
             }
         }
@@ -1185,6 +1387,7 @@ public class AdventureGame extends JFrame {
             isAnimating = false;
             rollDiceButton.setEnabled(true);
             updatePlayersInfoPanel();
+            onTurnReady();
             return;
         }
 
@@ -1198,6 +1401,32 @@ public class AdventureGame extends JFrame {
         isAnimating = false;
         rollDiceButton.setEnabled(currentPlayer != null);
         updatePlayersInfoPanel();
+        onTurnReady();
+    }
+
+    /** A turn is about to start: announce it, remember it for undo, then let a bot seat take it. */
+    private void onTurnReady() {
+        if (gameStarted && currentPlayer != null) events.publish(GameEvent.turn(players.indexOf(currentPlayer)));
+        if (remote == null && gameStarted) {
+            turnNumber++;
+            snapshotChanged();
+            if (turnHistory == null) turnHistory = new GameHistory(latestSnapshot);
+            else turnHistory.record(latestSnapshot);
+        }
+        updateUndoButtons();
+        maybeScheduleBotTurn();
+    }
+
+    /** Computer seats roll on their own after a short pause; the Roll button stays off meanwhile. */
+    private void maybeScheduleBotTurn() {
+        if (!gameStarted || currentPlayer == null || !currentPlayer.isBot()) return;
+        rollDiceButton.setEnabled(false);
+        final Player bot = currentPlayer;
+        Timer t = new Timer(BOT_ROLL_DELAY_MS, e -> {
+            if (gameStarted && currentPlayer == bot && !isAnimating) rollDiceWithAnimation();
+        });
+        t.setRepeats(false);
+        t.start();
     }
 
     private Player pollNextActivePlayer() {
@@ -1212,11 +1441,31 @@ public class AdventureGame extends JFrame {
         return null;
     }
 
+    private MatchArchive.Match archiveEntry(Player winner) {
+        int n = players.size();
+        String[] names = new String[n];
+        int[] pos = new int[n], stars = new int[n], scores = new int[n];
+        for (int i = 0; i < n; i++) {
+            Player p = players.get(i);
+            names[i] = p.getName();
+            pos[i] = p.getPosition();
+            stars[i] = p.getStars();
+            scores[i] = p.getScore();
+        }
+        int[][] ladders = new int[randomLinks.size()][];
+        for (int i = 0; i < ladders.length; i++) ladders[i] = new int[]{randomLinks.get(i).getFrom(), randomLinks.get(i).getTo()};
+        long bossMask = 0;
+        for (int node : bossNodes) bossMask |= 1L << (node - 1);
+        long now = System.currentTimeMillis();
+        return new MatchArchive.Match(now, (int) (now - matchStartedAt), boardSeed, ladders, tilePoints.clone(), bossMask,
+                names, pos, stars, scores, players.indexOf(winner));
+    }
+
     private Player computeWinnerByPointsAndStars() {
         Player best = null;
         int bestVal = Integer.MIN_VALUE;
         for (Player p : players) {
-            int total = p.getScore() + p.getStars() * STAR_TO_POINT;
+            int total = p.getScore() + p.getStars() * config.getStarToPoint();
             if (total > bestVal) {
                 bestVal = total;
                 best = p;
@@ -1227,204 +1476,457 @@ public class AdventureGame extends JFrame {
         return best;
     }
 
-    // ========== BOSS ENCOUNTER SYSTEM (100% UNCHANGED) ==========
+    // ========== BOSS ENCOUNTER SYSTEM ==========
+    /**
+     * Starts an asynchronous boss encounter. The question is answered by the player's
+     * answer source (inline panel for humans) and the turn continues from {@code callback}
+     * on the EDT once the encounter resolves — no modal dialog, no nested event loop.
+     */
     private void triggerBossEncounter(int node, Player player, java.util.function.Consumer<Boolean> callback) {
         addLog("│ 👾 Boss encountered at Node " + node + " — " + player.getName());
 
-        Random rnd = new Random();
+        BossQuestion question = questionBank.next(BossQuestionProvider.difficultyForNode(node, BOARD_CELLS));
+        BossAnswerSource source = player.getBossAnswerSource() != null ? player.getBossAnswerSource() : bossPanel;
 
-        String question;
-        int correctAnswer;
+        bossFightEvent = new GameJfr.BossFight();
+        bossFightEvent.begin();
+        bossFightEvent.player = player.getName();
+        bossFightEvent.node = node;
+        bossFightEvent.difficulty = question.getDifficulty();
 
-        int type = rnd.nextInt(5);
-        switch (type) {
-            case 0: {
-                int a = rnd.nextInt(50) + 10;
-                int b = rnd.nextInt(50) + 10;
-                question = "Hitung: " + a + " + " + b;
-                correctAnswer = a + b;
-                break;
-            }
-            case 1: {
-                int a = rnd.nextInt(12) + 3;
-                int b = rnd.nextInt(12) + 3;
-                question = "Hitung: " + a + " × " + b;
-                correctAnswer = a * b;
-                break;
-            }
-            case 2: {
-                int base = rnd.nextBoolean() ? 2 : 10;
-                int exp = rnd.nextInt(4) + 1;
-                int value = (int) Math.pow(base, exp);
-                question = "Hitung: log" + base + "(" + value + ")";
-                correctAnswer = exp;
-                break;
-            }
-            case 3: {
-                int a = rnd.nextInt(6) + 3;
-                int b = rnd.nextInt(6) + 3;
-                int c = rnd.nextInt(6) + 3;
-                question = "Keliling segitiga dengan sisi " + a + ", " + b + ", " + c;
-                correctAnswer = a + b + c;
-                break;
-            }
-            default: {
-                int alas = rnd.nextInt(8) + 4;
-                int tinggi = rnd.nextInt(8) + 4;
-                question = "Luas segitiga siku-siku (alas=" + alas + ", tinggi=" + tinggi + ")";
-                correctAnswer = (alas * tinggi) / 2;
-                break;
-            }
+        final BossEncounter[] holder = new BossEncounter[1];
+        holder[0] = new BossEncounter(node, player.getName(), question, BOSS_TIME_LIMIT_SECONDS,
+                won -> SwingUtilities.invokeLater(() -> resolveBossEncounter(holder[0], player, won, callback)));
+        activeBoss = holder[0];
+        activeBoss.start(source);
+    }
+
+    private void resolveBossEncounter(BossEncounter encounter, Player player, boolean success, java.util.function.Consumer<Boolean> callback) {
+        if (activeBoss == encounter) activeBoss = null;
+        int correctAnswer = encounter.getQuestion().getAnswer();
+        bossStats.record(encounter);
+        if (bossFightEvent != null) {
+            bossFightEvent.won = success;
+            bossFightEvent.commit();
+            bossFightEvent = null;
         }
 
-        JTextField answerField = new JTextField();
-        JLabel timerLabel = new JLabel("Time left: 10", SwingConstants.CENTER);
-        timerLabel.setFont(new Font("SansSerif", Font.BOLD, 14));
-        timerLabel.setForeground(Color.RED);
+        GameConfig cfg = config;
+        if (success) {
+            addLog("│ ✅ " + player.getName() + " defeated the boss! +" + cfg.getBossWinPoints() + " pts, +" + cfg.getBossWinStars() + " stars");
+            addLog("│ Victory! Correct Answer: " + correctAnswer);
+            player.addScore(cfg.getBossWinPoints());
+            for (int i = 0; i < cfg.getBossWinStars(); i++) player.addStar();
+        } else {
+            addLog("│ ❌ " + player.getName() + " failed the boss challenge.");
+            addLog("│ Defeat! Correct Answer: " + correctAnswer);
+            player.addScore(cfg.getBossLosePoints());
+            player.addStar(cfg.getBossLoseStars());
+        }
+        scoreChanged(player);
+        bossPanel.showResult(success, correctAnswer);
+        callback.accept(success);
+    }
 
-        JPanel panel = new JPanel(new GridLayout(0, 1, 6, 6));
-        panel.add(new JLabel("⚔ BOSS CHALLENGE ⚔", SwingConstants.CENTER));
-        panel.add(new JLabel(question, SwingConstants.CENTER));
-        panel.add(answerField);
-        panel.add(timerLabel);
+    /**
+     * Inline boss challenge shown in the control panel; the human answer source.
+     * The countdown is cosmetic — the encounter itself enforces the time limit.
+     */
+    class BossPanel extends JPanel implements BossAnswerSource {
+        private final JLabel questionLabel;
+        private final JTextField answerField;
+        private final JButton submitButton;
+        private final JLabel timerLabel;
+        private final Timer countdown;
+        private final Timer hideLater;
+        private BossEncounter encounter;
+
+        BossPanel() {
+            setLayout(new GridLayout(0, 1, 4, 4));
+            setBackground(new Color(255, 240, 235));
+            setBorder(BorderFactory.createCompoundBorder(
+                    new LineBorder(new Color(200, 90, 90), 2, true),
+                    new EmptyBorder(6, 8, 6, 8)));
+            setMaximumSize(new Dimension(280, 150));
+            setAlignmentX(Component.CENTER_ALIGNMENT);
+
+            JLabel title = new JLabel("⚔ BOSS CHALLENGE ⚔", SwingConstants.CENTER);
+            title.setFont(new Font("Serif", Font.BOLD, 13));
+            title.setForeground(new Color(140, 30, 40));
+
+            questionLabel = new JLabel("", SwingConstants.CENTER);
+            questionLabel.setFont(new Font("Serif", Font.PLAIN, 12));
+
+            answerField = new JTextField();
+            submitButton = new JButton("Submit");
+            ActionListener submit = e -> {
+                BossEncounter enc = encounter;
+                if (enc != null) enc.submit(answerField.getText());
+            };
+            answerField.addActionListener(submit);
+            submitButton.addActionListener(submit);
+
+            JPanel answerRow = new JPanel(new BorderLayout(4, 0));
+            answerRow.setOpaque(false);
+            answerRow.add(answerField, BorderLayout.CENTER);
+            answerRow.add(submitButton, BorderLayout.EAST);
+
+            timerLabel = new JLabel("", SwingConstants.CENTER);
+            timerLabel.setFont(new Font("SansSerif", Font.BOLD, 14));
+            timerLabel.setForeground(Color.RED);
+
+            add(title);
+            add(questionLabel);
+            add(answerRow);
+            add(timerLabel);
+            setVisible(false);
+
+            countdown = new Timer(250, e -> {
+                BossEncounter enc = encounter;
+                if (enc != null && enc.isPending()) timerLabel.setText("Time left: " + enc.getRemainingSeconds());
+            });
+            hideLater = new Timer(1800, e -> setVisible(false));
+            hideLater.setRepeats(false);
+        }
 
-        JOptionPane optionPane = new JOptionPane(
-                panel,
-                JOptionPane.QUESTION_MESSAGE,
-                JOptionPane.OK_CANCEL_OPTION,
-                null,
-                new String[]{"Submit"},
-                "Submit"
-        );
+        @Override
+        public void ask(BossEncounter enc) {
+            SwingUtilities.invokeLater(() -> {
+                encounter = enc;
+                hideLater.stop();
+                questionLabel.setText(enc.getQuestion().getText());
+                timerLabel.setText("Time left: " + enc.getRemainingSeconds());
+                answerField.setText("");
+                answerField.setEnabled(true);
+                submitButton.setEnabled(true);
+                setVisible(true);
+                revalidate();
+                answerField.requestFocusInWindow();
+                countdown.start();
+            });
+        }
 
-        JDialog dialog = optionPane.createDialog(this, "Boss Fight");
-        dialog.setModal(true);
+        @Override
+        public void encounterEnded(BossEncounter enc) {
+            SwingUtilities.invokeLater(() -> {
+                if (encounter != enc) return;
+                countdown.stop();
+                answerField.setEnabled(false);
+                submitButton.setEnabled(false);
+                encounter = null;
+            });
+        }
 
-        final int[] timeLeft = {10};
-        Timer countdown = new Timer(1000, null);
+        void showResult(boolean success, int correctAnswer) {
+            questionLabel.setText((success ? "Victory!" : "Defeat!") + " Correct Answer: " + correctAnswer);
+            timerLabel.setText(success ? "Boss Defeated" : "Boss Lost");
+            setVisible(true);
+            revalidate();
+            hideLater.restart();
+        }
+    }
 
-        countdown.addActionListener(e -> {
-            timeLeft[0]--;
-            timerLabel.setText("Time left: " + timeLeft[0]);
+    private void saveBossStats() {
+        for (String line : bossStats.summaryLines()) addLog("│ [Boss] " + line);
+        events.publish(GameEvent.saveBossStats());
+    }
 
-            if (timeLeft[0] <= 0) {
-                countdown.stop();
-                optionPane.setValue(JOptionPane.CLOSED_OPTION);
-                dialog.dispose();
-            }
-        });
+    private void addLog(String message) {
+        events.publish(GameEvent.log(message));
+    }
 
-        countdown.start();
-        dialog.setVisible(true);
-        countdown.stop();
+    // ========== EVENT CONSUMERS ==========
+    /** Moves a token in the model; the board learns about it from the event. */
+    private void moveTo(Player p, int node) {
+        int from = p.getPosition();
+        GameJfr.Step jfr = new GameJfr.Step();
+        if (jfr.isEnabled()) {
+            jfr.player = p.getName();
+            jfr.fromNode = from;
+            jfr.toNode = node;
+            jfr.commit();
+        }
+        p.setPosition(node);
+        events.publish(GameEvent.step(players.indexOf(p), from, node));
+        snapshotChanged();
+    }
 
-        boolean success = false;
-        try {
-            int given = Integer.parseInt(answerField.getText().trim());
-            success = (given == correctAnswer && timeLeft[0] > 0);
-        } catch (Exception ignored) {
-            success = false;
+    private void teleportTo(Player p, int node) {
+        int from = p.getPosition();
+        GameJfr.Teleport jfr = new GameJfr.Teleport();
+        if (jfr.isEnabled()) {
+            jfr.player = p.getName();
+            jfr.fromNode = from;
+            jfr.toNode = node;
+            jfr.commit();
         }
+        p.setPosition(node);
+        events.publish(GameEvent.teleport(players.indexOf(p), from, node));
+        snapshotChanged();
+    }
 
-        if (success) {
-            addLog("│ ✅ " + player.getName() + " defeated the boss! +" + bossWinPoints + " pts, +" + bossWinStars + " stars");
-            player.addScore(bossWinPoints);
-            for (int i = 0; i < bossWinStars; i++) player.addStar();
+    private void scoreChanged(Player p) {
+        events.publish(GameEvent.score(players.indexOf(p), p.getScore(), p.getStars()));
+        snapshotChanged();
+    }
 
-            updatePlayersInfoPanel();
-            JOptionPane.showMessageDialog(
-                    this,
-                    "Victory!\nCorrect Answer: " + correctAnswer,
-                    "Boss Defeated",
-                    JOptionPane.INFORMATION_MESSAGE
-            );
-            callback.accept(true);
-        } else {
-            addLog("│ ❌ " + player.getName() + " failed the boss challenge.");
-            player.addScore(bossLosePoints);
-            player.addStar(bossLoseStars);
+    // ========== SNAPSHOTS & UNDO ==========
+    /** Captures the model into a new snapshot (sharing what did not change) and hands it to the board. */
+    private void snapshotChanged() {
+        latestSnapshot = captureSnapshot();
+        events.publish(GameEvent.snapshot(latestSnapshot));
+    }
 
-            updatePlayersInfoPanel();
-            JOptionPane.showMessageDialog(
-                    this,
-                    "Defeat!\nCorrect Answer: " + correctAnswer,
-                    "Boss Lost",
-                    JOptionPane.WARNING_MESSAGE
-            );
-            callback.accept(false);
+    /** Hands the persistence consumer a fresh recording; it fills it from the events that follow. */
+    private void startReplay() {
+        String[] names = new String[players.size()];
+        for (int i = 0; i < names.length; i++) names[i] = players.get(i).getName();
+        MatchReplay replay = new MatchReplay(latestSnapshot.getBoard(), names);
+        replay.sync(latestSnapshot);
+        events.publish(GameEvent.matchStart(replay));
+    }
+
+    private GameSnapshot captureSnapshot() {
+        if (snapshotBoard == null) {
+            int[][] ladders = new int[randomLinks.size()][];
+            for (int i = 0; i < ladders.length; i++) ladders[i] = new int[]{randomLinks.get(i).getFrom(), randomLinks.get(i).getTo()};
+            long bossMask = 0;
+            for (int node : bossNodes) if (node >= 1 && node <= BOARD_CELLS) bossMask |= 1L << (node - 1);
+            snapshotBoard = new GameSnapshot.Board(tilePoints, ladders, bossMask);
+        }
+        GameSnapshot s = latestSnapshot == null ? GameSnapshot.empty(snapshotBoard) : latestSnapshot.withBoard(snapshotBoard);
+
+        int n = players.size();
+        boolean resized = s.getSeatCount() != n;
+        GameSnapshot.Seat[] seats = null;
+        for (int i = 0; i < n; i++) {
+            Player p = players.get(i);
+            GameSnapshot.Seat old = resized ? null : s.getSeat(i);
+            if (old != null && old.sameAs(p.getName(), p.getPosition(), p.getStars(), p.getScore(), p.isFinished(), p.getMovementHistory())) continue;
+            if (seats == null) {
+                seats = new GameSnapshot.Seat[n];
+                for (int j = 0; j < n && !resized; j++) seats[j] = s.getSeat(j);
+            }
+            seats[i] = new GameSnapshot.Seat(p.getName(), p.getPosition(), p.getStars(), p.getScore(), p.isFinished(), p.getMovementHistory());
         }
+        if (seats != null) s = s.withSeats(seats);
+
+        long stars = 0;
+        for (int node = 1; node <= BOARD_CELLS; node++) if (starsClaimed[node]) stars |= 1L << (node - 1);
+        s = s.withStarsClaimed(stars);
+
+        int current = currentPlayer != null ? players.indexOf(currentPlayer) : -1;
+        boolean sameQueue = s.getQueueLength() == playerQueue.size();
+        int[] queue = new int[playerQueue.size()];
+        int k = 0;
+        for (Player p : playerQueue) {
+            queue[k] = players.indexOf(p);
+            if (sameQueue && s.getQueued(k) != queue[k]) sameQueue = false;
+            k++;
+        }
+        if (!sameQueue || current != s.getCurrent() || turnNumber != s.getTurn()) {
+            s = s.withTurn(current, queue.length == 0 ? GameSnapshot.NO_SEATS : queue, turnNumber);
+        }
+        return s;
     }
 
-    private void addLog(String message) {
-        gameLogArea.append(message + "\n");
-        gameLogArea.setCaretPosition(gameLogArea.getDocument().getLength());
+    /** Puts the model back to {@code s}; the board follows through the snapshot event. */
+    private void restoreSnapshot(GameSnapshot s) {
+        for (int i = 0; i < players.size() && i < s.getSeatCount(); i++) {
+            GameSnapshot.Seat seat = s.getSeat(i);
+            Player p = players.get(i);
+            p.setPosition(seat.getPosition());
+            p.setStars(seat.getStars());
+            p.setScore(seat.getScore());
+            p.setFinished(seat.isFinished());
+            p.setMovementHistory(seat.getPath());
+        }
+        for (int node = 1; node <= BOARD_CELLS; node++) starsClaimed[node] = s.isStarClaimed(node);
+        playerQueue.clear();
+        for (int i = 0; i < s.getQueueLength(); i++) playerQueue.add(players.get(s.getQueued(i)));
+        currentPlayer = s.getCurrent() >= 0 ? players.get(s.getCurrent()) : null;
+        turnNumber = s.getTurn();
+        latestSnapshot = s.withBoard(snapshotBoard);
+        events.publish(GameEvent.snapshot(latestSnapshot));
+
+        gameBoard.setHighlightPath(null);
+        currentPlayerLabel.setText(currentPlayer != null ? "Turn: " + currentPlayer.getName() : "Waiting...");
+        rollDiceButton.setEnabled(currentPlayer != null);
+        updatePlayersInfoPanel();
     }
 
-    // ========== LADDER GENERATION (100% UNCHANGED) ==========
-    private void generateRandomLinks() {
-        randomLinks.clear();
-        Set<Integer> usedEndpoints = new HashSet<>();
-        int attempts = 0;
-        final int TARGET = 5;
-        final int MAX_ATTEMPTS = 2000;
-
-        final int BOARD_SIZE = 8;
-        java.util.function.IntUnaryOperator rowOf = pos -> {
-            int nodeNumber = BOARD_CELLS - pos + 1;
-            return (nodeNumber - 1) / BOARD_SIZE;
-        };
+    private boolean canRewind() {
+        return gameStarted && remote == null && !isAnimating && activeBoss == null && turnHistory != null;
+    }
 
-        while (randomLinks.size() < TARGET && attempts < MAX_ATTEMPTS) {
-            attempts++;
-            int a = random.nextInt(54) + 6;
-            int b = random.nextInt(54) + 6;
-            if (a == b) continue;
-            int from = Math.min(a, b);
-            int to   = Math.max(a, b);
-
-            if (to - from < 3) continue;
-
-            if (usedEndpoints.contains(from) || usedEndpoints.contains(to)) continue;
-
-            int rf = rowOf.applyAsInt(from);
-            int rt = rowOf.applyAsInt(to);
-            if (rf == rt) continue;
-
-            boolean bad = false;
-            for (RandomLink e : randomLinks) {
-                int ef = e.getFrom();
-                int et = e.getTo();
-                if (ef == from && et == to) { bad = true; break; }
-                if ((from < ef && ef < to && to < et) || (ef < from && from < et && et < to)) {
-                    bad = true;
-                    break;
+    private void updateUndoButtons() {
+        undoButton.setEnabled(canRewind() && turnHistory.canUndo());
+        redoButton.setEnabled(canRewind() && turnHistory.canRedo());
+    }
+
+    private void undoTurn() {
+        if (!canRewind() || !turnHistory.canUndo()) return;
+        restoreSnapshot(turnHistory.undo());
+        addLog("[Undo] Back to turn " + turnNumber + " — " + (currentPlayer != null ? currentPlayer.getName() : "—") + " to roll");
+        updateUndoButtons();
+        maybeScheduleBotTurn();
+    }
+
+    private void redoTurn() {
+        if (!canRewind() || !turnHistory.canRedo()) return;
+        restoreSnapshot(turnHistory.redo());
+        addLog("[Redo] Forward to turn " + turnNumber + " — " + (currentPlayer != null ? currentPlayer.getName() : "—") + " to roll");
+        updateUndoButtons();
+        maybeScheduleBotTurn();
+    }
+
+    /**
+     * Wires the consumers: the board and log area are refreshed once per frame on the EDT,
+     * sounds are decoded on their own thread, and the log file and saves happen off the EDT.
+     * Game code only publishes; only the saves consumer can hold up a turn, and only once it
+     * is a whole ring behind.
+     */
+    private void startEventConsumers() {
+        frameEvents = events.polled("frame", new GameEventBus.Consumer() {
+            private final StringBuilder pendingLog = new StringBuilder();
+            private boolean boardDirty, infoDirty;
+
+            @Override
+            public void onEvent(GameEvent e) {
+                switch (e.getType()) {
+                    case LOG: pendingLog.append(e.getText()).append('\n'); break;
+                    case SNAPSHOT:
+                        gameBoard.setSnapshot((GameSnapshot) e.getPayload());
+                        boardDirty = true;
+                        break;
+                    case STEP: case TELEPORT: case STAR: case SCORE: case FINISHED: infoDirty = true; break;
+                    default: break;
+                }
+            }
+
+            @Override
+            public void onBatchEnd(long lost) {
+                if (lost > 0) {   // fell a whole ring behind: resync the board from the latest snapshot
+                    gameBoard.setSnapshot(latestSnapshot);
+                    boardDirty = infoDirty = true;
+                }
+                if (pendingLog.length() > 0) {
+                    gameLogArea.append(pendingLog.toString());
+                    gameLogArea.setCaretPosition(gameLogArea.getDocument().getLength());
+                    pendingLog.setLength(0);
+                }
+                if (boardDirty) gameBoard.repaint();
+                if (infoDirty) updatePlayersInfoPanel();
+                boardDirty = infoDirty = false;
+            }
+        });
+        metrics.histogram("events.frame", "µs", frameEvents.getLatencyMicros());
+        GameEventBus.Subscription audio = events.worker("audio", e -> {
+            if (e.getType() == GameEvent.Type.SOUND) playClip(e.getText());
+        });
+        metrics.histogram("events.audio", "µs", audio.getLatencyMicros());
+
+        // Lossless: a lapped ring would silently drop archive records and whole replays.
+        GameEventBus.Subscription persist = events.losslessWorker("persist", new GameEventBus.Consumer() {
+            private MatchReplay replay;   // confined to this thread
+
+            @Override
+            public void onEvent(GameEvent e) {
+                if (replay != null || e.getType() == GameEvent.Type.MATCH_START) record(e);
+                if (e.getType() == GameEvent.Type.SAVE_BOSS_STATS) {
+                    assets.saveBossStats();
+                } else if (e.getType() == GameEvent.Type.ARCHIVE_MATCH) {
+                    assets.archive((MatchArchive.Match) e.getPayload());
+                }
+            }
+
+            private void record(GameEvent e) {
+                switch (e.getType()) {
+                    case MATCH_START: replay = (MatchReplay) e.getPayload(); break;
+                    case TURN: replay.turn(e.getSeat()); break;
+                    case STEP: replay.step(e.getSeat(), e.getFrom(), e.getTo()); break;
+                    case TELEPORT: replay.teleport(e.getSeat(), e.getFrom(), e.getTo()); break;
+                    case SNAPSHOT: replay.sync((GameSnapshot) e.getPayload()); break;
+                    case MATCH_OVER:
+                        replay.gameOver(e.getSeat());
+                        try {
+                            if (!replayDir.isDirectory() && !replayDir.mkdirs()) throw new IOException("Cannot create " + replayDir);
+                            File f = new File(replayDir, "match-" + System.currentTimeMillis() + (tableNumber == 1 ? "" : "-" + tableNumber) + ".replay");
+                            replay.writeTo(f);
+                            lastReplay = f;
+                        } catch (IOException ex) {
+                            System.err.println("Failed to save replay: " + ex.getMessage());
+                        }
+                        replay = null;
+                        break;
+                    default: break;
+                }
+            }
+
+        });
+        metrics.histogram("events.persist", "µs", persist.getLatencyMicros());
+
+        // Appended to, so the log of a session that went wrong survives the relaunch.
+        Writer logOut;
+        try {
+            logOut = new BufferedWriter(new FileWriter(eventLogFile, true));
+            logOut.write("===== session " + LocalDateTime.now() + " =====\n");
+        } catch (IOException e) {
+            System.err.println("Failed to open event log: " + e.getMessage());
+            return;
+        }
+        events.worker("log", new GameEventBus.Consumer() {
+            @Override
+            public void onEvent(GameEvent e) {
+                if (e.getType() == GameEvent.Type.SNAPSHOT) return;
+                try {
+                    if (e.getType() == GameEvent.Type.LOG) logOut.write(e.getText());
+                    else logOut.write("[" + e + "]");
+                    logOut.write('\n');
+                } catch (IOException ex) {
+                    System.err.println("Failed to write event log: " + ex.getMessage());
+                }
+            }
+
+            @Override
+            public void onBatchEnd(long lost) {
+                try {
+                    if (lost > 0) logOut.write("[" + lost + " events lost]\n");
+                    logOut.flush();
+                } catch (IOException ex) {
+                    System.err.println("Failed to write event log: " + ex.getMessage());
                 }
-                if (ef == from || ef == to || et == from || et == to) { bad = true; break; }
             }
-            if (bad) continue;
+        });
+    }
 
-            randomLinks.add(new RandomLink(from, to, true));
-            usedEndpoints.add(from);
-            usedEndpoints.add(to);
+    // ========== LADDER GENERATION ==========
+    private void generateRandomLinks(Random rnd, int target) {
+        randomLinks.clear();
+        for (int[] l : GameRules.generateLadders(rnd, target)) {
+            randomLinks.add(new RandomLink(l[0], l[1], true));
         }
 
-        if (randomLinks.size() < TARGET) {
-            addLog("[Ladders] Could only place " + randomLinks.size() + " non-overlapping ladders (attempts: " + attempts + ").");
+        if (randomLinks.size() < target) {
+            addLog("[Ladders] Could only place " + randomLinks.size() + " non-overlapping ladders.");
         }
     }
 
     private boolean isPrime(int n) {
-        if (n <= 1) return false;
-        if (n <= 3) return true;
-        if (n % 2 == 0 || n % 3 == 0) return false;
-        for (int i = 5; i * i <= n; i += 6) {
-            if (n % i == 0 || n % (i + 2) == 0) return false;
-        }
-        return true;
+        return GameRules.isPrime(n);
+    }
+
+    /** Builds candidates exactly as startGame will from {@code cfg}. */
+    private BoardOptimizer boardOptimizer(GameConfig cfg) {
+        return new BoardOptimizer(seed -> {
+            Random r = new Random(seed);
+            int[][] ladders = GameRules.generateLadders(r, cfg.getLadderTarget());
+            return cfg.rules(ladders, GameRules.generateTilePoints(r, cfg.getTileMinPoints(), cfg.getTileMaxPoints()));
+        }, java.util.concurrent.ForkJoinPool.commonPool());
     }
 
     // ========== STACK MOVEMENT (UNCHANGED) ==========
-    static class Player implements Serializable {
+    static class Player implements Serializable, BoardRenderer.Token {
         private static final long serialVersionUID = 1L;
         private final String name;
         private int position;
@@ -1433,7 +1935,9 @@ public class AdventureGame extends JFrame {
         private int score;
         private transient BufferedImage avatar;
         private boolean finished = false;
-        private transient Stack<Integer> movementHistory;  // Track exact path taken
+        private transient GameSnapshot.PathStack movementHistory;  // Track exact path taken (persistent, shared with snapshots)
+        private transient BossAnswerSource bossAnswerSource;  // null = inline panel (human)
+        private transient PlayerStrategy strategy;            // null = human seat
 
         public Player(String name, Color color) {
             this.name = name;
@@ -1443,8 +1947,7 @@ public class AdventureGame extends JFrame {
             this.score = 0;
             this.avatar = null;
             this.finished=false;
-            this.movementHistory = new Stack<>();
-            this.movementHistory.push(1);
+            this.movementHistory = GameSnapshot.PathStack.of(1);
         }
 
         public String getName() { return name; }
@@ -1462,23 +1965,34 @@ public class AdventureGame extends JFrame {
         public void setAvatar(BufferedImage b) { avatar = b; }
         public boolean isFinished() { return finished; }
         public void setFinished(boolean f) { finished = f; }
+        public BossAnswerSource getBossAnswerSource() { return bossAnswerSource; }
+        public void setBossAnswerSource(BossAnswerSource s) { bossAnswerSource = s; }
+        public PlayerStrategy getStrategy() { return strategy; }
+        public void setStrategy(PlayerStrategy s) { strategy = s; }
+        public boolean isBot() { return strategy != null; }
         //STACK MOVEMENT
-        public Stack<Integer> getMovementHistory() {
+        public GameSnapshot.PathStack getMovementHistory() {
+            if (movementHistory == null) {
+                movementHistory = GameSnapshot.PathStack.EMPTY;
+            }
             return movementHistory;
         }
 
+        public void setMovementHistory(GameSnapshot.PathStack history) {
+            movementHistory = history;
+        }
+
         public void pushPosition(int pos) {
-            if (movementHistory == null) {
-                movementHistory = new Stack<>();
-            }
-            movementHistory.push(pos);
+            movementHistory = getMovementHistory().push(pos);
         }
 
         public Integer popPosition() {
             if (movementHistory == null || movementHistory.isEmpty()) {
                 return position;  // Fallback to current position
             }
-            return movementHistory.pop();
+            int top = movementHistory.peek();
+            movementHistory = movementHistory.pop();
+            return top;
         }
 
         public boolean canGoBack(int steps) {
@@ -1486,12 +2000,7 @@ public class AdventureGame extends JFrame {
         }
 
         public void clearHistory() {
-            if (movementHistory == null) {
-                movementHistory = new Stack<>();
-            } else {
-                movementHistory.clear();
-            }
-            movementHistory.push(position);  // Start fresh from current position
+            movementHistory = GameSnapshot.PathStack.of(position);  // Start fresh from current position
         }
     }
 
@@ -1510,101 +2019,61 @@ public class AdventureGame extends JFrame {
     }
 
     // ========== GAME BOARD (MAJOR UPDATE) ==========
-    class GameBoard extends JPanel {
-
-        // ============ GENERATED COORDINATES FROM TRACKER TOOL ============
-        // koordinat
-        private static final double[][] NODE_COORDINATES = new double[BOARD_CELLS + 1][2];
-
-        static {
-            NODE_COORDINATES[1] = new double[]{0.076, 0.746};
-            NODE_COORDINATES[2] = new double[]{0.143, 0.669};
-            NODE_COORDINATES[3] = new double[]{0.115, 0.587};
-            NODE_COORDINATES[4] = new double[]{0.158, 0.538};
-            NODE_COORDINATES[5] = new double[]{0.080, 0.508};
-            NODE_COORDINATES[6] = new double[]{0.050, 0.450};
-            NODE_COORDINATES[7] = new double[]{0.062, 0.368};
-            NODE_COORDINATES[8] = new double[]{0.127, 0.468};
-            NODE_COORDINATES[9] = new double[]{0.189, 0.490};
-            NODE_COORDINATES[10] = new double[]{0.194, 0.558};
-            NODE_COORDINATES[11] = new double[]{0.203, 0.622};
-            NODE_COORDINATES[12] = new double[]{0.269, 0.601};
-            NODE_COORDINATES[13] = new double[]{0.301, 0.636};
-            NODE_COORDINATES[14] = new double[]{0.343, 0.592};
-            NODE_COORDINATES[15] = new double[]{0.387, 0.585};
-            NODE_COORDINATES[16] = new double[]{0.432, 0.608};
-            NODE_COORDINATES[17] = new double[]{0.484, 0.552};
-            NODE_COORDINATES[18] = new double[]{0.478, 0.676};
-            NODE_COORDINATES[19] = new double[]{0.411, 0.697};
-            NODE_COORDINATES[20] = new double[]{0.357, 0.745};
-            NODE_COORDINATES[21] = new double[]{0.303, 0.818};
-            NODE_COORDINATES[22] = new double[]{0.400, 0.796};
-            NODE_COORDINATES[23] = new double[]{0.478, 0.911};
-            NODE_COORDINATES[24] = new double[]{0.556, 0.832};
-            NODE_COORDINATES[25] = new double[]{0.464, 0.762};
-            NODE_COORDINATES[26] = new double[]{0.496, 0.732};
-            NODE_COORDINATES[27] = new double[]{0.585, 0.655};
-            NODE_COORDINATES[28] = new double[]{0.613, 0.785};
-            NODE_COORDINATES[29] = new double[]{0.729, 0.755};
-            NODE_COORDINATES[30] = new double[]{0.638, 0.660};
-            NODE_COORDINATES[31] = new double[]{0.604, 0.597};
-            NODE_COORDINATES[32] = new double[]{0.697, 0.625};
-            NODE_COORDINATES[33] = new double[]{0.779, 0.608};
-            NODE_COORDINATES[34] = new double[]{0.915, 0.720};
-            NODE_COORDINATES[35] = new double[]{0.871, 0.550};
-            NODE_COORDINATES[36] = new double[]{0.784, 0.549};
-            NODE_COORDINATES[37] = new double[]{0.911, 0.479};
-            NODE_COORDINATES[38] = new double[]{0.965, 0.470};
-            NODE_COORDINATES[39] = new double[]{0.846, 0.441};
-            NODE_COORDINATES[40] = new double[]{0.712, 0.417};
-            NODE_COORDINATES[41] = new double[]{0.658, 0.381};
-            NODE_COORDINATES[42] = new double[]{0.782, 0.364};
-            NODE_COORDINATES[43] = new double[]{0.871, 0.276};
-            NODE_COORDINATES[44] = new double[]{0.745, 0.257};
-            NODE_COORDINATES[45] = new double[]{0.824, 0.185};
-            NODE_COORDINATES[46] = new double[]{0.840, 0.078};
-            NODE_COORDINATES[47] = new double[]{0.488, 0.423};
-            NODE_COORDINATES[48] = new double[]{0.407, 0.313};
-            NODE_COORDINATES[49] = new double[]{0.365, 0.326};
-            NODE_COORDINATES[50] = new double[]{0.312, 0.353};
-            NODE_COORDINATES[51] = new double[]{0.313, 0.420};
-            NODE_COORDINATES[52] = new double[]{0.235, 0.438};
-            NODE_COORDINATES[53] = new double[]{0.148, 0.373};
-            NODE_COORDINATES[54] = new double[]{0.153, 0.307};
-            NODE_COORDINATES[55] = new double[]{0.235, 0.218};
-            NODE_COORDINATES[56] = new double[]{0.244, 0.139};
-            NODE_COORDINATES[57] = new double[]{0.305, 0.222};
-            NODE_COORDINATES[58] = new double[]{0.329, 0.139};
-            NODE_COORDINATES[59] = new double[]{0.414, 0.083};
-            NODE_COORDINATES[60] = new double[]{0.495, 0.182};
-            NODE_COORDINATES[61] = new double[]{0.597, 0.231};
-            NODE_COORDINATES[62] = new double[]{0.658, 0.103};
-            NODE_COORDINATES[63] = new double[]{0.581, 0.116};
-            NODE_COORDINATES[64] = new double[]{0.575, 0.037};
-        }
+    static class GameBoard extends JPanel {
 
         // ============ BACKGROUND IMAGE SYSTEM ============
-        private BufferedImage treasureMapImage;
+        private final SharedAssets assets;        // shares scaled copies of the map between tables; may be null
+        private BufferedImage treasureMapImage;   // null until decoded in the background
+        private boolean mapLoading = true;
+        private boolean firstPaint = true;
         private Image scaledMapImage;
         private int lastScaledWidth = -1;
         private int lastScaledHeight = -1;
 
-        private List<Player> players;
+        private List<Player> players;      // names, colours and avatars only
+        private volatile GameSnapshot snapshot;  // everything else that is painted
         private List<Integer> highlightPath;
         private RandomLink teleportEffect;
-        private List<RandomLink> boardLinks = new ArrayList<>();
 
         private Timer animationTimer;
         private float glowPhase = 0f;
         private float bobPhase = 0f;
 
+        // ============ PERFORMANCE OVERLAY ============
+        // Paint sections are timed on every frame; the overlay only decides whether to show them.
+        private final Histogram paintMicros = Histogram.exponential(10, 2, 16);
+        private final Histogram ladderMicros = Histogram.exponential(10, 2, 16);
+        private final Histogram nodeMicros = Histogram.exponential(10, 2, 16);
+        private final Histogram playerMicros = Histogram.exponential(10, 2, 16);
+        private final Histogram frameIntervalMs = Histogram.exponential(1, 2, 14);
+        private Metrics metrics;
+        private boolean overlayVisible;
+        private long lastFrameNanos;
+        private long fpsWindowStart;
+        private int fpsFrames;
+        private volatile int fps;
+        private long lastPaint, lastLadders, lastNodes, lastPlayers;   // µs, previous frame
+
+        // ============ LANDING HEATMAP ============
+        // Estimated off the EDT; each result is drawn once into a layer that paints as one image.
+        private final LandingHeatmap heatmap = new LandingHeatmap(h -> SwingUtilities.invokeLater(() -> setHeat(h)));
+        private boolean heatmapVisible;
+        private GameSnapshot.Board heatBoard;
+        private GameConfig heatConfig = GameConfig.DEFAULTS;
+        private LandingHeatmap.Heat heat;
+        private BufferedImage heatLayer;
+
+        /** A board on its own, e.g. in a benchmark; it scales the map for itself. */
         public GameBoard() {
+            this(null);
+        }
+
+        public GameBoard(SharedAssets assets) {
+            this.assets = assets;
             players = new ArrayList<>();
             highlightPath = new ArrayList<>();
             teleportEffect = null;
 
-            // Load treasure map image
-            treasureMapImage = loadImageFlexible("AdventureMap.jpg");
             setPreferredSize(new Dimension(1000, 800));
             setBackground(new Color(255, 253, 249));
 
@@ -1617,92 +2086,116 @@ public class AdventureGame extends JFrame {
             animationTimer.start();
         }
 
-        // ============ LOAD BACKGROUND IMAGE ============
-        /**
-         * Flexible image loader - tries multiple strategies:
-         * 1. Classpath/resources (works in JAR)
-         * 2. Multiple file system locations
-         * 3. Graceful fallback to null (gradient background)
-         */
-        private BufferedImage loadImageFlexible(String filename) {
-            // Strategy 1: Try classpath first (packaged resources)
-            try {
-                InputStream is = getClass().getResourceAsStream("/" + filename);
-                if (is != null) {
-                    BufferedImage img = ImageIO.read(is);
-                    System.out.println("[GameBoard] ✓ Image loaded from classpath: " + filename);
-                    return img;
-                }
-            } catch (Exception e) {
-                // Not in classpath, continue to file system
-            }
+        public BufferedImage getMapImage() { return treasureMapImage; }
 
-            // Strategy 2: Try multiple file system locations
-            String[] searchPaths = {
-                    filename,                    // Current directory
-                    "src/" + filename,           // In src/
-                    "../src/" + filename,        // Parent -> src/
-                    "resources/" + filename,     // Resources folder
-                    "../resources/" + filename,  // Parent -> resources/
-                    "./" + filename              // Explicit current
-            };
+        public void setAnimationDelay(int ms) {
+            animationTimer.setDelay(ms);
+        }
 
-            for (String path : searchPaths) {
-                try {
-                    File f = new File(path);
-                    if (f.exists()) {
-                        BufferedImage img = ImageIO.read(f);
-                        System.out.println("[GameBoard] ✓ Image loaded from: " + f.getAbsolutePath());
-                        return img;
-                    }
-                } catch (Exception e) {
-                    // Try next path
-                }
-            }
+        /** Rules the heatmap simulates; it only starts over if the change moves tokens differently. */
+        public void setConfig(GameConfig c) {
+            heatConfig = c;
+            if (!heatmapVisible) return;
+            heatBoard = null;
+            requestHeat(snapshot);
+        }
+
+        /** Stops the animation and any heatmap estimate, for a table that is closing. */
+        public void stop() {
+            animationTimer.stop();
+            heatmap.cancel();
+        }
+
+        /** Swaps in the decoded map; null keeps the gradient background. */
+        public void setMapImage(BufferedImage img) {
+            treasureMapImage = img;
+            scaledMapImage = null;
+            mapLoading = false;
+            repaint();
+        }
+
+        /** Publishes the paint timings and frame rate into {@code m}, which also feeds the overlay. */
+        public void attachMetrics(Metrics m) {
+            m.histogram("paint.total", "µs", paintMicros);
+            m.histogram("paint.ladders", "µs", ladderMicros);
+            m.histogram("paint.nodes", "µs", nodeMicros);
+            m.histogram("paint.players", "µs", playerMicros);
+            m.histogram("frame.interval", "ms", frameIntervalMs);
+            m.gauge("frame.fps", "", () -> fps);
+            metrics = m;
+        }
+
+        public boolean isOverlayVisible() { return overlayVisible; }
+
+        public void setOverlayVisible(boolean visible) {
+            overlayVisible = visible;
+            repaint();
+        }
 
-            // Strategy 3: Not found - log details and use fallback
-            System.err.println("[GameBoard] ✗ Image not found: " + filename);
-            System.err.println("[GameBoard] Searched locations:");
-            for (String path : searchPaths) {
-                System.err.println("  • " + new File(path).getAbsolutePath());
+        public boolean isHeatmapVisible() { return heatmapVisible; }
+
+        public void setHeatmapVisible(boolean visible) {
+            heatmapVisible = visible;
+            heatBoard = null;
+            if (visible) {
+                requestHeat(snapshot);
+            } else {
+                heatmap.cancel();
+                heat = null;
+                heatLayer = null;
             }
-            System.err.println("[GameBoard] → Using fallback gradient background");
+            repaint();
+        }
 
-            return null;
+        /** Re-estimates only when the board changed; tile-point edits keep the current result. */
+        private void requestHeat(GameSnapshot s) {
+            if (s == null || s.getBoard() == heatBoard) return;
+            heatBoard = s.getBoard();
+            heatmap.request(heatBoard, s.getSeatCount(), heatConfig);
         }
 
-        public void setPlayers(List<Player> players) {
-            this.players = players;
+        private void setHeat(LandingHeatmap.Heat h) {
+            if (!heatmapVisible) return;
+            heat = h;
+            heatLayer = null;
             repaint();
         }
 
-        public void setHighlightPath(List<Integer> path) {
-            this.highlightPath = (path != null) ? new ArrayList<>(path) : new ArrayList<>();
+        /** Looks only; positions, stars, bosses and ladders come from the snapshot. */
+        public void setPlayers(List<Player> players) {
+            this.players = new ArrayList<>(players);
             repaint();
         }
 
-        public void setTeleportEffect(RandomLink effect) {
-            this.teleportEffect = effect;
+        /** Paints from an immutable snapshot, so a frame never mixes two states. */
+        public void setSnapshot(GameSnapshot s) {
+            this.snapshot = s;
+            if (heatmapVisible) requestHeat(s);
             repaint();
         }
 
-        public void setRandomLinks(List<RandomLink> links) {
-            this.boardLinks = (links != null) ? links : new ArrayList<>();
+        public void setHighlightPath(List<Integer> path) {
+            this.highlightPath = (path != null) ? new ArrayList<>(path) : new ArrayList<>();
             repaint();
         }
 
-        // ============ NORMALIZED COORDINATE CONVERTER ============
-        private Point getCoordinatesForPosition(int position, int boardWidth, int boardHeight) {
-            if (position < 1 || position > BOARD_CELLS) return null;
-            double[] norm = NODE_COORDINATES[position];
-            int x = (int)(norm[0] * boardWidth);
-            int y = (int)(norm[1] * boardHeight);
-            return new Point(x, y);
+        public void setTeleportEffect(RandomLink effect) {
+            this.teleportEffect = effect;
+            repaint();
         }
 
         // ============ MAIN PAINT METHOD ============
         @Override
         protected void paintComponent(Graphics g) {
+            if (firstPaint) {
+                firstPaint = false;
+                StartupTrace.firstFrame();
+            }
+            GameJfr.BoardPaint jfr = new GameJfr.BoardPaint();
+            jfr.begin();
+            boolean rescaled = false;
+            long t0 = System.nanoTime();
+            countFrame(t0);
             super.paintComponent(g);
             Graphics2D g2 = (Graphics2D) g;
             g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
@@ -1719,9 +2212,11 @@ public class AdventureGame extends JFrame {
             if (treasureMapImage != null) {
                 // Scale image only when size changes (performance optimization)
                 if (scaledMapImage == null || boardW != lastScaledWidth || boardH != lastScaledHeight) {
-                    scaledMapImage = treasureMapImage.getScaledInstance(boardW, boardH, Image.SCALE_SMOOTH);
+                    scaledMapImage = assets != null ? assets.scaledMap(treasureMapImage, boardW, boardH)
+                            : treasureMapImage.getScaledInstance(boardW, boardH, Image.SCALE_SMOOTH);
                     lastScaledWidth = boardW;
                     lastScaledHeight = boardH;
+                    rescaled = true;
                     System.out.println("[GameBoard] Scaled treasure map to: " + boardW + "x" + boardH);
                 }
                 g2.drawImage(scaledMapImage, padding, padding, this);
@@ -1731,192 +2226,317 @@ public class AdventureGame extends JFrame {
                         w, h, new Color(245, 240, 230));
                 g2.setPaint(bg);
                 g2.fillRect(0, 0, w, h);
+                if (mapLoading) {
+                    g2.setColor(new Color(150, 120, 90));
+                    g2.setFont(new Font("Serif", Font.ITALIC, 16));
+                    String msg = "Unrolling the treasure map…";
+                    g2.drawString(msg, (w - g2.getFontMetrics().stringWidth(msg)) / 2, h / 2);
+                }
             }
 
             // Translate coordinate system for easier drawing
             g2.translate(padding, padding);
 
+            LandingHeatmap.Heat landing = heat;
+            if (landing != null && boardW > 0 && boardH > 0) {
+                if (heatLayer == null || heatLayer.getWidth() != boardW || heatLayer.getHeight() != boardH) {
+                    heatLayer = new BufferedImage(boardW, boardH, BufferedImage.TYPE_INT_ARGB);
+                    Graphics2D hg = heatLayer.createGraphics();
+                    hg.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                    BoardRenderer.drawHeatmap(hg, boardW, boardH, landing);
+                    hg.dispose();
+                }
+                g2.drawImage(heatLayer, 0, 0, null);
+            }
+
             // Draw game elements
-            drawLadders(g2, boardW, boardH);
-            drawNodes(g2, boardW, boardH);
-            drawPlayers(g2, boardW, boardH);
+            GameSnapshot snap = snapshot;
+            if (snap != null) {
+                RandomLink glow = teleportEffect;
+                long t1 = System.nanoTime();
+                BoardRenderer.drawLadders(g2, boardW, boardH, snap,
+                        glow != null ? glow.getFrom() : 0, glow != null ? glow.getTo() : 0, glowPhase);
+                long t2 = System.nanoTime();
+                BoardRenderer.drawNodes(g2, boardW, boardH, snap, highlightPath, bobPhase);
+                long t3 = System.nanoTime();
+                BoardRenderer.drawPlayers(g2, boardW, boardH, snap, players, bobPhase);
+                long t4 = System.nanoTime();
+                ladderMicros.record(lastLadders = (t2 - t1) / 1000);
+                nodeMicros.record(lastNodes = (t3 - t2) / 1000);
+                playerMicros.record(lastPlayers = (t4 - t3) / 1000);
+            }
+            paintMicros.record(lastPaint = (System.nanoTime() - t0) / 1000);
 
+            if (overlayVisible) {
+                g2.translate(-padding, -padding);
+                drawOverlay(g2);
+            }
             g2.dispose();
+            if (jfr.shouldCommit()) {
+                jfr.width = w;
+                jfr.height = h;
+                jfr.seats = snap != null ? snap.getSeatCount() : 0;
+                jfr.rescaled = rescaled;
+                jfr.commit();
+            }
         }
 
-        // ============ DRAW LADDERS ============
-        private void drawLadders(Graphics2D g2, int boardW, int boardH) {
-            if (boardLinks == null) return;
-
-            for (RandomLink link : boardLinks) {
-                Point from = getCoordinatesForPosition(link.getFrom(), boardW, boardH);
-                Point to = getCoordinatesForPosition(link.getTo(), boardW, boardH);
-                if (from == null || to == null) continue;
-
-                // Draw ladder line
-                g2.setStroke(new BasicStroke(6, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
-                g2.setColor(new Color(139, 90, 43, 200)); // Brown ladder color
-                g2.drawLine(from.x, from.y, to.x, to.y);
-
-                // Glow effect for teleport animation
-                if (teleportEffect != null && teleportEffect == link) {
-                    float pulse = 0.55f + 0.45f * (float)Math.sin(glowPhase * 2.0);
-                    int alpha = Math.min(220, (int)(220 * pulse));
-                    g2.setStroke(new BasicStroke(10, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
-                    g2.setColor(new Color(255, 200, 120, alpha));
-                    g2.drawLine(from.x, from.y, to.x, to.y);
-                }
+        // ============ DRAW OVERLAY ============
+        private void countFrame(long now) {
+            if (lastFrameNanos != 0) frameIntervalMs.record((now - lastFrameNanos) / 1_000_000);
+            lastFrameNanos = now;
+            if (fpsWindowStart == 0) fpsWindowStart = now;
+            fpsFrames++;
+            if (now - fpsWindowStart >= 1_000_000_000L) {
+                fps = (int) Math.round(fpsFrames * 1e9 / (now - fpsWindowStart));
+                fpsWindowStart = now;
+                fpsFrames = 0;
             }
         }
 
-        // ============ DRAW NODES WITH PIN MARKERS ============
-        private void drawNodes(Graphics2D g2, int boardW, int boardH) {
-            for (int i = 1; i <= BOARD_CELLS; i++) {
-                Point center = getCoordinatesForPosition(i, boardW, boardH);
-                if (center == null) continue;
+        /** Drawn after the timed sections, so the overlay does not count against paint time. */
+        private void drawOverlay(Graphics2D g2) {
+            List<String> lines = new ArrayList<>();
+            lines.add("FPS " + fps + "   frame p50 " + frameIntervalMs.percentile(0.50) + " ms");
+            lines.add("paint " + lastPaint + " µs  (ladders " + lastLadders + " / nodes " + lastNodes
+                    + " / players " + lastPlayers + ")");
+            if (metrics != null) lines.addAll(metrics.compact());
 
-                // Highlight path effect
-                if (highlightPath != null && highlightPath.contains(i)) {
-                    float scale = 1f + 0.08f * (float)Math.sin(bobPhase + i * 0.3);
-                    int glowSize = (int)(28 * scale);
-                    g2.setColor(new Color(255, 220, 100, 140));
-                    g2.setStroke(new BasicStroke(4f));
-                    g2.drawOval(center.x - glowSize/2, center.y - glowSize/2, glowSize, glowSize);
-                }
+            g2.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 11));
+            FontMetrics fm = g2.getFontMetrics();
+            int lineH = fm.getHeight();
+            int boxW = 0;
+            for (String l : lines) boxW = Math.max(boxW, fm.stringWidth(l));
+            int x = 8, y = 8;
+            g2.setColor(new Color(20, 18, 12, 190));
+            g2.fillRoundRect(x, y, boxW + 16, lines.size() * lineH + 10, 10, 10);
+            g2.setColor(new Color(240, 230, 200));
+            for (int i = 0; i < lines.size(); i++) g2.drawString(lines.get(i), x + 8, y + 5 + fm.getAscent() + i * lineH);
+        }
+    }
 
-                // Draw pin marker (treasure map style)
-                drawPinMarker(g2, center.x, center.y, i);
-            }
+    // ========== REMOTE PLAY ==========
+    /**
+     * Thin-client session against a {@link GameServer}: the server owns the match, this
+     * window only renders pushed state and forwards rolls and boss answers.
+     * Frames are read on a background thread and applied on the EDT.
+     */
+    class RemoteSession {
+        private final java.nio.channels.SocketChannel channel;
+        private final int matchId;
+        private int mySeat = -1;
+        private BossEncounter pendingBoss;
+
+        RemoteSession(String host, int port, int matchId, int seats, String name) throws IOException {
+            this.channel = java.nio.channels.SocketChannel.open(new java.net.InetSocketAddress(host, port));
+            this.channel.setOption(java.net.StandardSocketOptions.TCP_NODELAY, true);
+            this.matchId = matchId;
+            Thread reader = new Thread(this::readLoop, "remote-reader");
+            reader.setDaemon(true);
+            reader.start();
+            send(Protocol.join(matchId, seats, name));
         }
 
-        // ============ PIN MARKER RENDERING ============
-        private void drawPinMarker(Graphics2D g2, int x, int y, int nodeNumber) {
-            int pinSize = 20;
-
-            // Shadow
-            g2.setColor(new Color(0, 0, 0, 60));
-            g2.fillOval(x - 6, y + 2, 12, 6);
-
-            // Pin color based on node type
-            Color pinColor;
-            if (isPrime(nodeNumber)) {
-                pinColor = new Color(46, 204, 113); // Green for prime
-            } else if (nodeNumber % 5 == 0 && !starsClaimed[nodeNumber]) {
-                pinColor = new Color(255, 215, 0); // Gold for unclaimed star
-            } else if (bossNodes.contains(nodeNumber)) {
-                pinColor = new Color(220, 50, 50); // Red for boss
-            } else if (nodeNumber == 1) {
-                pinColor = new Color(100, 180, 255); // Blue for start
-            } else if (nodeNumber == BOARD_CELLS) {
-                pinColor = new Color(255, 150, 50); // Orange for finish
-            } else {
-                pinColor = new Color(200, 180, 160); // Beige for normal
+        private synchronized void send(java.nio.ByteBuffer frame) {
+            try {
+                while (frame.hasRemaining()) channel.write(frame);
+            } catch (IOException e) {
+                SwingUtilities.invokeLater(() -> addLog("[Remote] Send failed: " + e.getMessage()));
             }
+        }
 
-            // Pin head (circle)
-            g2.setColor(pinColor);
-            g2.fillOval(x - pinSize/2, y - pinSize/2, pinSize, pinSize);
-
-            // Pin border
-            g2.setColor(pinColor.darker());
-            g2.setStroke(new BasicStroke(2f));
-            g2.drawOval(x - pinSize/2, y - pinSize/2, pinSize, pinSize);
-
-            // Pin pointer (bottom triangle)
-            int[] xPoints = {x, x - 4, x + 4};
-            int[] yPoints = {y + pinSize/2 + 6, y + pinSize/2, y + pinSize/2};
-            g2.setColor(pinColor.darker());
-            g2.fillPolygon(xPoints, yPoints, 3);
+        void sendRoll() {
+            rollDiceButton.setEnabled(false);
+            playSound("crash-spin.wav");
+            send(Protocol.roll());
+        }
 
-            // Node number
-            g2.setFont(new Font("SansSerif", Font.BOLD, 10));
-            String numStr = String.valueOf(nodeNumber);
-            FontMetrics fm = g2.getFontMetrics();
-            g2.setColor(Color.WHITE);
-            g2.drawString(numStr, x - fm.stringWidth(numStr)/2, y + fm.getAscent()/2 - 1);
-
-            // Special indicators
-            if (nodeNumber % 5 == 0 && !starsClaimed[nodeNumber]) {
-                g2.setFont(new Font("Dialog", Font.PLAIN, 14));
-                g2.setColor(new Color(255, 215, 0));
-                g2.drawString("★", x - 7, y - pinSize/2 - 4);
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
             }
+        }
 
-            if (bossNodes.contains(nodeNumber)) {
-                g2.setFont(new Font("Dialog", Font.PLAIN, 16));
-                g2.setColor(new Color(180, 60, 80));
-                g2.drawString("👾", x + pinSize/2 + 2, y - 2);
+        private void readLoop() {
+            java.nio.ByteBuffer in = Protocol.readBuffer();
+            try {
+                while (channel.read(in) >= 0) {
+                    in.flip();
+                    java.nio.ByteBuffer f;
+                    while ((f = Protocol.nextFrame(in)) != null) {
+                        java.nio.ByteBuffer copy = java.nio.ByteBuffer.allocate(f.remaining()).put(f);
+                        copy.flip();
+                        SwingUtilities.invokeLater(() -> apply(copy));
+                    }
+                    in = Protocol.fitFrame(in.compact());
+                }
+            } catch (Exception e) {
+                SwingUtilities.invokeLater(() -> addLog("[Remote] Connection lost: " + e.getMessage()));
             }
+            SwingUtilities.invokeLater(() -> {
+                addLog("[Remote] Disconnected from server.");
+                rollDiceButton.setEnabled(false);
+            });
+        }
 
-            // Tile points indicator
-            int pts = tilePoints[nodeNumber];
-            if (pts > 0) {
-                g2.setFont(new Font("Dialog", Font.PLAIN, 9));
-                g2.setColor(new Color(90, 65, 40));
-                g2.drawString("+" + pts, x + pinSize/2 + 2, y + pinSize/2 + 4);
+        private void apply(java.nio.ByteBuffer f) {
+            switch (f.get()) {
+                case Protocol.JOINED:
+                    f.getInt();
+                    mySeat = f.get();
+                    addLog("[Remote] Joined match " + matchId + " as seat " + (mySeat + 1) + " of " + f.get() + " — waiting for players...");
+                    break;
+                case Protocol.BOARD: applyBoard(f); break;
+                case Protocol.STATE: applyState(f); break;
+                case Protocol.MOVED: {
+                    int seat = f.get(), from = f.get(), to = f.get(), dice = f.get();
+                    boolean forward = f.get() != 0;
+                    Player p = players.get(seat);
+                    diceResultLabel.setText(String.valueOf(dice));
+                    diceResultLabel.setForeground(forward ? new Color(120, 200, 140) : new Color(220, 130, 140));
+                    addLog("│ " + p.getName() + " — Dice " + dice + " (" + (forward ? "FORWARD" : "BACKWARD") + "): Node " + from + " → " + to);
+                    gameBoard.setHighlightPath(Arrays.asList(from, to));
+                    playSound("move.wav");
+                    break;
+                }
+                case Protocol.BOSS_PROMPT: {
+                    int seat = f.get(), node = f.get(), seconds = f.getShort();
+                    String text = Protocol.getString(f);
+                    addLog("│ 👾 Boss encountered at Node " + node + " — " + players.get(seat).getName());
+                    if (seat != mySeat) break;
+                    final BossEncounter[] holder = new BossEncounter[1];
+                    holder[0] = new BossEncounter(node, players.get(seat).getName(),
+                            new BossQuestion(null, 0, text, Integer.MIN_VALUE), seconds, won -> {
+                        Integer given = holder[0].getSubmittedAnswer();
+                        send(Protocol.bossAnswer(given != null ? given : Integer.MIN_VALUE));
+                    });
+                    pendingBoss = holder[0];
+                    pendingBoss.start(bossPanel);
+                    break;
+                }
+                case Protocol.BOSS_RESULT: {
+                    int seat = f.get();
+                    boolean won = f.get() != 0;
+                    int correct = f.getInt();
+                    addLog("│ " + (won ? "✅ " : "❌ ") + players.get(seat).getName() + (won ? " defeated the boss!" : " failed the boss challenge.")
+                            + " Correct Answer: " + correct);
+                    if (seat == mySeat) {
+                        if (pendingBoss != null) pendingBoss.expire();
+                        pendingBoss = null;
+                        bossPanel.showResult(won, correct);
+                    }
+                    break;
+                }
+                case Protocol.GAME_OVER: {
+                    int winner = f.get();
+                    gameStarted = false;
+                    rollDiceButton.setEnabled(false);
+                    stopBackgroundLoop();
+                    playSound("confetti.wav");
+                    StringBuilder sb = new StringBuilder();
+                    sb.append("Match ended!\n\nFinal summary (points + stars*").append(config.getStarToPoint()).append("):\n");
+                    for (Player p : players) {
+                        int total = p.getScore() + p.getStars() * config.getStarToPoint();
+                        sb.append(String.format(" • %s — Points: %d • Stars: %d • Total: %d\n", p.getName(), p.getScore(), p.getStars(), total));
+                    }
+                    if (winner >= 0) sb.append("\nWinner: ").append(players.get(winner).getName()).append("\n");
+                    addLog("│ Winner: " + (winner >= 0 ? players.get(winner).getName() : "NONE"));
+                    events.publish(GameEvent.matchOver(winner));
+                    addLog("└─────────────────────");
+                    JOptionPane.showMessageDialog(AdventureGame.this, sb.toString(), "Match Result", JOptionPane.INFORMATION_MESSAGE);
+                    break;
+                }
+                case Protocol.ERROR:
+                    addLog("[Remote] " + Protocol.getString(f));
+                    break;
+                default:
+                    break;
             }
         }
 
-        // ============ DRAW PLAYERS ============
-        private void drawPlayers(Graphics2D g2, int boardW, int boardH) {
-            if (players == null) return;
-
-            for (int i = 0; i < players.size(); i++) {
-                Player p = players.get(i);
-                Point base = getCoordinatesForPosition(p.getPosition(), boardW, boardH);
-                if (base == null) continue;
-
-                int tokenSize = 24;
-                int offX = (i % 3 - 1) * 14;     // horizontal spread kecil
-                int offY = (i / 3) * 8;         // vertikal kecil (tanpa offset besar)
-
-                int bob = (int)(4 * Math.sin(bobPhase + i * 0.8));
-
-                // PUSATKAN token ke node
-                int px = base.x - tokenSize / 2 + offX;
-                int py = base.y - tokenSize / 2 + offY - bob;
-
+        private void applyBoard(java.nio.ByteBuffer f) {
+            int seats = f.get();
+            players.clear();
+            for (int i = 0; i < seats; i++) players.add(new Player(Protocol.getString(f), PLAYER_COLORS[i % PLAYER_COLORS.length]));
+            randomLinks.clear();
+            int ladders = f.get();
+            for (int i = 0; i < ladders; i++) randomLinks.add(new RandomLink(f.get(), f.get(), true));
+            for (int i = 1; i <= BOARD_CELLS; i++) tilePoints[i] = f.get();
+            long bossMask = f.getLong();
+            Set<Integer> bosses = new HashSet<>();
+            for (int i = 1; i <= BOARD_CELLS; i++) if ((bossMask & (1L << (i - 1))) != 0) bosses.add(i);
+            bossNodes = bosses;
+            Arrays.fill(starsClaimed, false);
 
-                // Shadow
-                g2.setColor(new Color(0, 0, 0, 40));
-                g2.fillOval(px + 4, py + 8, tokenSize, tokenSize / 2);
+            gameStarted = true;
+            gameBoard.setPlayers(players);
+            snapshotBoard = null;
+            snapshotChanged();
+            startReplay();
+            addLog("════ REMOTE MATCH " + matchId + " STARTED ════");
+            for (Player p : players) addLog("  • " + p.getName());
+            addLog("Boss nodes: " + bossNodes);
+            addLog("Random ladders: " + randomLinksSummary());
+            playBackgroundLoop("backsoundGame.wav");
+        }
 
-                // Player token
-                if (p.getAvatar() != null) {
-                    BufferedImage img = p.getAvatar();
-                    int iw = img.getWidth(), ih = img.getHeight();
-                    double scale = Math.min(tokenSize/(double)iw, tokenSize/(double)ih);
-                    int dw = (int)(iw*scale), dh = (int)(ih*scale);
-                    g2.drawImage(img, px + (tokenSize-dw)/2, py + (tokenSize-dh)/2, dw, dh, null);
-                    g2.setColor(new Color(110, 80, 60));
-                    g2.setStroke(new BasicStroke(2));
-                    g2.drawOval(px, py, tokenSize, tokenSize);
-                } else {
-                    GradientPaint gp = new GradientPaint(px, py, p.getColor().brighter(),
-                            px, py + tokenSize, p.getColor().darker());
-                    g2.setPaint(gp);
-                    g2.fillOval(px, py, tokenSize, tokenSize);
-                    g2.setColor(new Color(110, 80, 60));
-                    g2.setStroke(new BasicStroke(2));
-                    g2.drawOval(px, py, tokenSize, tokenSize);
-
-                    g2.setColor(new Color(20, 18, 12));
-                    g2.setFont(new Font("Serif", Font.BOLD, 14));
-                    String initial = p.getName().substring(0, 1).toUpperCase();
-                    FontMetrics fm = g2.getFontMetrics();
-                    g2.drawString(initial,
-                            px + (tokenSize - fm.stringWidth(initial)) / 2,
-                            py + (tokenSize + fm.getAscent()) / 2 - 2);
-                }
+        private void applyState(java.nio.ByteBuffer f) {
+            int current = f.get();
+            MatchState.Phase phase = MatchState.Phase.values()[f.get()];
+            long stars = f.getLong();
+            for (int i = 1; i <= BOARD_CELLS; i++) starsClaimed[i] = (stars & (1L << (i - 1))) != 0;
+            for (Player p : players) {
+                int pos = f.get();
+                if (pos != p.getPosition()) moveTo(p, pos);
+                p.setStars(f.getShort());
+                p.setScore(f.getInt());
+                p.setFinished(f.get() != 0);
             }
+            currentPlayer = players.get(current);
+            currentPlayerLabel.setText("Turn: " + currentPlayer.getName() + (current == mySeat ? " (you)" : ""));
+            rollDiceButton.setEnabled(current == mySeat && phase == MatchState.Phase.AWAIT_ROLL);
+            snapshotChanged();
+            updatePlayersInfoPanel();
+        }
+    }
+
+    private void connectToServer(String host, int port, int matchId, int seats, String name) {
+        try {
+            remote = new RemoteSession(host, port, matchId, seats, name);
+            startButton.setEnabled(false);
+            rollDiceButton.setEnabled(false);
+            setTitle(getTitle() + " — " + host + ":" + port + " match " + matchId);
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(this, "Cannot connect to " + host + ":" + port + ": " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
         }
     }
 
     // ========== MAIN ==========
+    /**
+     * Local play by default; {@code --tables n} opens n tables in one window, and
+     * {@code --connect host:port [--match id] [--seats n] [--name who]} joins a GameServer on the first.
+     */
     public static void main(String[] args) {
+        StartupTrace.mark("main");
+        Map<String, String> opt = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) opt.put(args[i].replaceFirst("^--", ""), args[i + 1]);
         SwingUtilities.invokeLater(() -> {
-            AdventureGame g = new AdventureGame();
-            g.setVisible(true);
+            GameWindow w = new GameWindow(new SharedAssets());
+            AdventureGame g = w.newTable();
+            w.addTable(g);
+            for (int i = 1; i < Integer.parseInt(opt.getOrDefault("tables", "1")); i++) w.addTable(w.newTable());
+            w.pack();
+            w.setLocationRelativeTo(null);
+            w.setVisible(true);
+            StartupTrace.mark("frame shown");
+            if (opt.containsKey("connect")) {
+                String[] hp = opt.get("connect").split(":");
+                g.connectToServer(hp[0], hp.length > 1 ? Integer.parseInt(hp[1]) : 7777,
+                        Integer.parseInt(opt.getOrDefault("match", "1")),
+                        Integer.parseInt(opt.getOrDefault("seats", "2")),
+                        opt.getOrDefault("name", System.getProperty("user.name")));
+            }
         });
     }
 }
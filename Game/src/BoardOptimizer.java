@@ -0,0 +1,223 @@
+// BoardOptimizer.java
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongFunction;
+
+/**
+ * Looks for a fair board before a match starts. Candidates are board seeds (the same seeds
+ * {@link MatchArchive} stores, so the chosen board can still be rebuilt); each one is played
+ * out headlessly and kept when its average length and first-seat win rate fall inside the
+ * target bands.
+ *
+ * Candidates are split across a ForkJoinPool, so idle workers steal the untried half of a
+ * busy worker's range. Each candidate is played in batches, and it is dropped as soon as a
+ * band lies outside the confidence interval of what has been seen so far. Most unfair boards
+ * are rejected within a few hundred games, and only boards that pass are played in full.
+ * The first board to pass wins. If the time budget runs out first, the candidate closest to
+ * the bands is used.
+ */
+public class BoardOptimizer {
+    private static final double Z = 2.0;   // confidence for early rejection, about 95%
+    private static final long SEED_STRIDE = 0x9E3779B97F4A7C15L;   // keeps candidate seeds uncorrelated
+
+    private final LongFunction<GameRules> boards;
+    private final ForkJoinPool pool;
+    private double minRollsPerPlayer = 13;
+    private double maxRollsPerPlayer = 20;
+    private double firstSeatTolerance = 0.03;
+    private int gamesPerBoard = 2000;
+    private int batch = 100;
+    private int maxCandidates = 4096;
+    private long budgetMillis = 400;
+
+    /** Outcome of a search; {@link #fair} is false when the budget ran out before any board passed. */
+    public static class Result {
+        public final long seed;
+        public final double rollsPerPlayer;
+        public final double firstSeatWinRate;
+        public final int games;
+        public final boolean fair;
+        public final int candidates, rejectedEarly;
+        public final long elapsedMillis;
+
+        Result(long seed, double rollsPerPlayer, double firstSeatWinRate, int games, boolean fair,
+               int candidates, int rejectedEarly, long elapsedMillis) {
+            this.seed = seed;
+            this.rollsPerPlayer = rollsPerPlayer;
+            this.firstSeatWinRate = firstSeatWinRate;
+            this.games = games;
+            this.fair = fair;
+            this.candidates = candidates;
+            this.rejectedEarly = rejectedEarly;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s board %016x: %.1f rolls/player, first seat wins %.1f%% over %d games — %d candidates, %d rejected early, %d ms",
+                    fair ? "fair" : "closest", seed, rollsPerPlayer, 100 * firstSeatWinRate, games, candidates, rejectedEarly, elapsedMillis);
+        }
+    }
+
+    /** Boards as {@link GameRules#random} builds them. */
+    public BoardOptimizer() {
+        this(seed -> GameRules.random(new Random(seed)), ForkJoinPool.commonPool());
+    }
+
+    /** {@code boards} must build a board from a seed the same way the caller will. */
+    public BoardOptimizer(LongFunction<GameRules> boards, ForkJoinPool pool) {
+        this.boards = boards;
+        this.pool = pool;
+    }
+
+    public void setRollsPerPlayer(double min, double max) { this.minRollsPerPlayer = min; this.maxRollsPerPlayer = max; }
+    /** How far the first seat's win rate may be from a fair share of {@code 1 / seats}. */
+    public void setFirstSeatTolerance(double tolerance) { this.firstSeatTolerance = tolerance; }
+    public void setGamesPerBoard(int games) { this.gamesPerBoard = Math.max(batch, games); }
+    public void setMaxCandidates(int candidates) { this.maxCandidates = Math.max(1, candidates); }
+    public void setBudgetMillis(long millis) { this.budgetMillis = millis; }
+
+    // ========== SEARCH ==========
+    public Result search(int seats, long baseSeed) {
+        return submit(seats, baseSeed).join();
+    }
+
+    /** Starts a search in the background, e.g. while players are still typing their names. */
+    public ForkJoinTask<Result> submit(int seats, long baseSeed) {
+        return pool.submit(new Search(seats, baseSeed));
+    }
+
+    private final class Search extends RecursiveTask<Result> {
+        final int seats;
+        final long baseSeed;
+        final long startNanos = System.nanoTime();
+        final long deadline = startNanos + budgetMillis * 1_000_000L;
+        final AtomicInteger tried = new AtomicInteger();
+        final AtomicInteger rejected = new AtomicInteger();
+        volatile Result found;
+        Result closest;
+        double closestDistance = Double.MAX_VALUE;
+
+        Search(int seats, long baseSeed) {
+            this.seats = seats;
+            this.baseSeed = baseSeed;
+        }
+
+        boolean stopped() {
+            return found != null || System.nanoTime() > deadline;
+        }
+
+        @Override
+        protected Result compute() {
+            new Range(this, 0, maxCandidates).invoke();
+            Result r = found;
+            if (r == null) {
+                synchronized (this) {
+                    r = closest;
+                }
+            }
+            // Not even one batch finished in time: play the first candidate unchecked.
+            if (r == null) return new Result(baseSeed, 0, 0, 0, false, tried.get(), rejected.get(), elapsedMillis());
+            return new Result(r.seed, r.rollsPerPlayer, r.firstSeatWinRate, r.games, r.fair, tried.get(), rejected.get(), elapsedMillis());
+        }
+
+        long elapsedMillis() {
+            return (System.nanoTime() - startNanos) / 1_000_000L;
+        }
+
+        /** Plays one candidate in batches until it passes, fails, or the search is over. */
+        void evaluate(int candidate) {
+            long seed = baseSeed + candidate * SEED_STRIDE;
+            MatchEngine engine = new MatchEngine(boards.apply(seed));
+            PlayerStrategy[] players = new PlayerStrategy[seats];
+            Arrays.fill(players, PlayerStrategy.EAGER);
+            Random dice = new Random(seed);
+            tried.incrementAndGet();
+
+            double fairShare = 1.0 / seats;
+            long rolls = 0, rollsSquared = 0;
+            int firstWins = 0, games = 0;
+            while (games < gamesPerBoard && !stopped()) {
+                for (int g = 0; g < batch; g++) {
+                    MatchState s = MatchRunner.play(engine, players, dice);
+                    long turns = s.getTurns();
+                    rolls += turns;
+                    rollsSquared += turns * turns;
+                    if (s.getWinner() == 0) firstWins++;
+                }
+                games += batch;
+
+                double mean = (double) rolls / games / seats;
+                double sdMean = Math.sqrt(Math.max(0, (double) rollsSquared / games - Math.pow((double) rolls / games, 2)) / games) / seats;
+                double winRate = (double) firstWins / games;
+                double sdWin = Math.sqrt(winRate * (1 - winRate) / games);
+
+                double lengthMiss = Math.max(minRollsPerPlayer - mean, mean - maxRollsPerPlayer);
+                double edgeMiss = Math.abs(winRate - fairShare) - firstSeatTolerance;
+                consider(seed, mean, winRate, games,
+                        Math.max(0, lengthMiss) / (maxRollsPerPlayer - minRollsPerPlayer) + Math.max(0, edgeMiss) / firstSeatTolerance);
+
+                if (lengthMiss > Z * sdMean || edgeMiss > Z * sdWin) {
+                    rejected.incrementAndGet();
+                    return;
+                }
+                if (games >= gamesPerBoard && lengthMiss <= 0 && edgeMiss <= 0) {
+                    synchronized (this) {
+                        if (found == null) found = new Result(seed, mean, winRate, games, true, 0, 0, 0);
+                    }
+                    return;
+                }
+            }
+        }
+
+        /** Keeps the candidate nearest the bands, preferring ones with more games behind them. */
+        synchronized void consider(long seed, double rollsPerPlayer, double winRate, int games, double distance) {
+            double weighted = distance + 1.0 / games;
+            if (weighted < closestDistance) {
+                closestDistance = weighted;
+                closest = new Result(seed, rollsPerPlayer, winRate, games, false, 0, 0, 0);
+            }
+        }
+    }
+
+    /** Halves the candidate range until one is left; idle workers steal the other halves. */
+    private static final class Range extends RecursiveAction {
+        final Search search;
+        final int from, to;
+
+        Range(Search search, int from, int to) {
+            this.search = search;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (search.stopped()) return;
+            if (to - from == 1) {
+                search.evaluate(from);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Range(search, from, mid), new Range(search, mid, to));
+        }
+    }
+
+    // ========== CLI ==========
+    /** {@code java BoardOptimizer [seats] [budgetMillis] [seed]} — prints the chosen board. */
+    public static void main(String[] args) {
+        int seats = args.length > 0 ? Integer.parseInt(args[0]) : 2;
+        long budget = args.length > 1 ? Long.parseLong(args[1]) : 400;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : new Random().nextLong();
+        BoardOptimizer optimizer = new BoardOptimizer();
+        optimizer.setBudgetMillis(budget);
+        Result r = optimizer.search(seats, seed);
+        System.out.println("[Optimizer] " + seats + " seats, " + r);
+        System.out.println("[Optimizer] ladders " + Arrays.deepToString(GameRules.random(new Random(r.seed)).getLadders()));
+    }
+}
@@ -0,0 +1,487 @@
+// BoardRenderer.java
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Draws the treasure-map board — map, ladders, pins and tokens — from a {@link GameSnapshot}.
+ * Nothing here needs Swing or a display: {@link AdventureGame.GameBoard} paints through the
+ * section methods on the EDT, and {@link #render} draws a whole board at any resolution under
+ * {@code java.awt.headless} for thumbnails and replays.
+ *
+ * A renderer is safe to share between threads; its only state is a cache of the map scaled
+ * to each board size it has drawn.
+ */
+public final class BoardRenderer {
+    private static final int BOARD_CELLS = GameRules.BOARD_CELLS;
+
+    /** Size the pin and token sizes were designed for; {@link #render} scales from it. */
+    public static final int REFERENCE_WIDTH = 1000;
+    public static final int PADDING = 30;
+    public static final Color BACKGROUND = new Color(255, 253, 249);
+
+    public static final Color[] PLAYER_COLORS = {
+            new Color(255, 160, 120),
+            new Color(120, 200, 180),
+            new Color(220, 160, 230),
+            new Color(255, 220, 140),
+            new Color(160, 200, 255),
+            new Color(200, 240, 180)
+    };
+
+    private static final Stroke LADDER_STROKE = new BasicStroke(6, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND);
+    private static final Stroke LADDER_GLOW_STROKE = new BasicStroke(10, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND);
+    private static final Stroke HIGHLIGHT_STROKE = new BasicStroke(4f);
+    private static final Stroke OUTLINE_STROKE = new BasicStroke(2f);
+    private static final Font PIN_FONT = new Font("SansSerif", Font.BOLD, 10);
+    private static final Font STAR_FONT = new Font("Dialog", Font.PLAIN, 14);
+    private static final Font BOSS_FONT = new Font("Dialog", Font.PLAIN, 16);
+    private static final Font POINTS_FONT = new Font("Dialog", Font.PLAIN, 9);
+    private static final Font TOKEN_FONT = new Font("Serif", Font.BOLD, 14);
+
+    /** How a seat's token looks; positions come from the snapshot. */
+    public interface Token {
+        String getName();
+        Color getColor();
+        BufferedImage getAvatar();   // null draws a coloured disc with the initial
+    }
+
+    public static Token token(String name, Color color) {
+        return new Token() {
+            @Override public String getName() { return name; }
+            @Override public Color getColor() { return color; }
+            @Override public BufferedImage getAvatar() { return null; }
+        };
+    }
+
+    /** Animation state for one frame: highlighted path, glowing ladder and phases. */
+    public static final class Effects {
+        public static final Effects NONE = new Effects(Collections.emptyList(), 0, 0, 0f, 0f);
+
+        final List<Integer> highlightPath;
+        final int glowFrom, glowTo;
+        final float glowPhase, bobPhase;
+
+        public Effects(List<Integer> highlightPath, int glowFrom, int glowTo, float glowPhase, float bobPhase) {
+            this.highlightPath = highlightPath;
+            this.glowFrom = glowFrom;
+            this.glowTo = glowTo;
+            this.glowPhase = glowPhase;
+            this.bobPhase = bobPhase;
+        }
+    }
+
+    // ============ GENERATED COORDINATES FROM TRACKER TOOL ============
+    // koordinat
+    private static final double[][] NODE_COORDINATES = new double[BOARD_CELLS + 1][2];
+
+    static {
+        NODE_COORDINATES[1] = new double[]{0.076, 0.746};
+        NODE_COORDINATES[2] = new double[]{0.143, 0.669};
+        NODE_COORDINATES[3] = new double[]{0.115, 0.587};
+        NODE_COORDINATES[4] = new double[]{0.158, 0.538};
+        NODE_COORDINATES[5] = new double[]{0.080, 0.508};
+        NODE_COORDINATES[6] = new double[]{0.050, 0.450};
+        NODE_COORDINATES[7] = new double[]{0.062, 0.368};
+        NODE_COORDINATES[8] = new double[]{0.127, 0.468};
+        NODE_COORDINATES[9] = new double[]{0.189, 0.490};
+        NODE_COORDINATES[10] = new double[]{0.194, 0.558};
+        NODE_COORDINATES[11] = new double[]{0.203, 0.622};
+        NODE_COORDINATES[12] = new double[]{0.269, 0.601};
+        NODE_COORDINATES[13] = new double[]{0.301, 0.636};
+        NODE_COORDINATES[14] = new double[]{0.343, 0.592};
+        NODE_COORDINATES[15] = new double[]{0.387, 0.585};
+        NODE_COORDINATES[16] = new double[]{0.432, 0.608};
+        NODE_COORDINATES[17] = new double[]{0.484, 0.552};
+        NODE_COORDINATES[18] = new double[]{0.478, 0.676};
+        NODE_COORDINATES[19] = new double[]{0.411, 0.697};
+        NODE_COORDINATES[20] = new double[]{0.357, 0.745};
+        NODE_COORDINATES[21] = new double[]{0.303, 0.818};
+        NODE_COORDINATES[22] = new double[]{0.400, 0.796};
+        NODE_COORDINATES[23] = new double[]{0.478, 0.911};
+        NODE_COORDINATES[24] = new double[]{0.556, 0.832};
+        NODE_COORDINATES[25] = new double[]{0.464, 0.762};
+        NODE_COORDINATES[26] = new double[]{0.496, 0.732};
+        NODE_COORDINATES[27] = new double[]{0.585, 0.655};
+        NODE_COORDINATES[28] = new double[]{0.613, 0.785};
+        NODE_COORDINATES[29] = new double[]{0.729, 0.755};
+        NODE_COORDINATES[30] = new double[]{0.638, 0.660};
+        NODE_COORDINATES[31] = new double[]{0.604, 0.597};
+        NODE_COORDINATES[32] = new double[]{0.697, 0.625};
+        NODE_COORDINATES[33] = new double[]{0.779, 0.608};
+        NODE_COORDINATES[34] = new double[]{0.915, 0.720};
+        NODE_COORDINATES[35] = new double[]{0.871, 0.550};
+        NODE_COORDINATES[36] = new double[]{0.784, 0.549};
+        NODE_COORDINATES[37] = new double[]{0.911, 0.479};
+        NODE_COORDINATES[38] = new double[]{0.965, 0.470};
+        NODE_COORDINATES[39] = new double[]{0.846, 0.441};
+        NODE_COORDINATES[40] = new double[]{0.712, 0.417};
+        NODE_COORDINATES[41] = new double[]{0.658, 0.381};
+        NODE_COORDINATES[42] = new double[]{0.782, 0.364};
+        NODE_COORDINATES[43] = new double[]{0.871, 0.276};
+        NODE_COORDINATES[44] = new double[]{0.745, 0.257};
+        NODE_COORDINATES[45] = new double[]{0.824, 0.185};
+        NODE_COORDINATES[46] = new double[]{0.840, 0.078};
+        NODE_COORDINATES[47] = new double[]{0.488, 0.423};
+        NODE_COORDINATES[48] = new double[]{0.407, 0.313};
+        NODE_COORDINATES[49] = new double[]{0.365, 0.326};
+        NODE_COORDINATES[50] = new double[]{0.312, 0.353};
+        NODE_COORDINATES[51] = new double[]{0.313, 0.420};
+        NODE_COORDINATES[52] = new double[]{0.235, 0.438};
+        NODE_COORDINATES[53] = new double[]{0.148, 0.373};
+        NODE_COORDINATES[54] = new double[]{0.153, 0.307};
+        NODE_COORDINATES[55] = new double[]{0.235, 0.218};
+        NODE_COORDINATES[56] = new double[]{0.244, 0.139};
+        NODE_COORDINATES[57] = new double[]{0.305, 0.222};
+        NODE_COORDINATES[58] = new double[]{0.329, 0.139};
+        NODE_COORDINATES[59] = new double[]{0.414, 0.083};
+        NODE_COORDINATES[60] = new double[]{0.495, 0.182};
+        NODE_COORDINATES[61] = new double[]{0.597, 0.231};
+        NODE_COORDINATES[62] = new double[]{0.658, 0.103};
+        NODE_COORDINATES[63] = new double[]{0.581, 0.116};
+        NODE_COORDINATES[64] = new double[]{0.575, 0.037};
+    }
+
+    // ============ NORMALIZED COORDINATE CONVERTER ============
+    static Point getCoordinatesForPosition(int position, int boardWidth, int boardHeight) {
+        if (position < 1 || position > BOARD_CELLS) return null;
+        double[] norm = NODE_COORDINATES[position];
+        int x = (int)(norm[0] * boardWidth);
+        int y = (int)(norm[1] * boardHeight);
+        return new Point(x, y);
+    }
+
+    // ============ WHOLE BOARD ============
+    private final BufferedImage map;   // null draws the gradient background
+    private final ConcurrentHashMap<Long, BufferedImage> scaledMaps = new ConcurrentHashMap<>();
+
+    public BoardRenderer(BufferedImage map) {
+        this.map = map;
+    }
+
+    /**
+     * Paints the board into {@code w x h} device pixels. Pins, tokens and padding are scaled
+     * by {@code w / REFERENCE_WIDTH}, so a 320 px thumbnail looks like the 1000 px board.
+     */
+    public void render(Graphics2D g2, int w, int h, GameSnapshot snap, List<? extends Token> tokens, Effects fx) {
+        double s = w / (double) REFERENCE_WIDTH;
+        int pad = (int) Math.round(PADDING * s);
+        int boardW = w - pad * 2;
+        int boardH = h - pad * 2;
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+
+        if (map != null) {
+            g2.setColor(BACKGROUND);
+            g2.fillRect(0, 0, w, h);
+            g2.drawImage(scaledMap(boardW, boardH), pad, pad, null);
+        } else {
+            g2.setPaint(new GradientPaint(0, 0, new Color(255, 253, 248), w, h, new Color(245, 240, 230)));
+            g2.fillRect(0, 0, w, h);
+        }
+        if (snap == null) return;
+
+        AffineTransform saved = g2.getTransform();
+        g2.translate(pad, pad);
+        g2.scale(s, s);
+        int lw = (int) Math.round(boardW / s);
+        int lh = (int) Math.round(boardH / s);
+        drawLadders(g2, lw, lh, snap, fx.glowFrom, fx.glowTo, fx.glowPhase);
+        drawNodes(g2, lw, lh, snap, fx.highlightPath, fx.bobPhase);
+        drawPlayers(g2, lw, lh, snap, tokens, fx.bobPhase);
+        g2.setTransform(saved);
+    }
+
+    /** Scaled once per board size with the same smoothing as the live board, then shared. */
+    private BufferedImage scaledMap(int boardW, int boardH) {
+        long key = (long) boardW << 32 | boardH;
+        BufferedImage cached = scaledMaps.get(key);
+        if (cached != null) return cached;
+        BufferedImage img = new BufferedImage(boardW, boardH, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = img.createGraphics();
+        g.drawImage(map.getScaledInstance(boardW, boardH, Image.SCALE_SMOOTH), 0, 0, null);
+        g.dispose();
+        if (scaledMaps.size() >= 16) scaledMaps.clear();
+        BufferedImage raced = scaledMaps.putIfAbsent(key, img);
+        return raced != null ? raced : img;
+    }
+
+    // ============ DRAW LADDERS ============
+    /** Ladder lines; the ladder {@code glowFrom -> glowTo} pulses with {@code glowPhase} (0 = none). */
+    static void drawLadders(Graphics2D g2, int boardW, int boardH, GameSnapshot snap, int glowFrom, int glowTo, float glowPhase) {
+        GameSnapshot.Board board = snap.getBoard();
+        for (int l = 0; l < board.getLadderCount(); l++) {
+            Point from = getCoordinatesForPosition(board.getLadderFrom(l), boardW, boardH);
+            Point to = getCoordinatesForPosition(board.getLadderTo(l), boardW, boardH);
+            if (from == null || to == null) continue;
+
+            // Draw ladder line
+            g2.setStroke(LADDER_STROKE);
+            g2.setColor(new Color(139, 90, 43, 200)); // Brown ladder color
+            g2.drawLine(from.x, from.y, to.x, to.y);
+
+            // Glow effect for teleport animation
+            if (glowFrom == board.getLadderFrom(l) && glowTo == board.getLadderTo(l)) {
+                float pulse = 0.55f + 0.45f * (float)Math.sin(glowPhase * 2.0);
+                int alpha = Math.min(220, (int)(220 * pulse));
+                g2.setStroke(LADDER_GLOW_STROKE);
+                g2.setColor(new Color(255, 200, 120, alpha));
+                g2.drawLine(from.x, from.y, to.x, to.y);
+            }
+        }
+    }
+
+    // ============ DRAW HEATMAP ============
+    /**
+     * A soft disc under every pin, from cool blue on the least-landed node to red on the
+     * most-landed one, with the landing chance under hot pins and a legend in the corner.
+     */
+    static void drawHeatmap(Graphics2D g2, int boardW, int boardH, LandingHeatmap.Heat heat) {
+        float[] fractions = {0f, 0.6f, 1f};
+        for (int i = 1; i <= BOARD_CELLS; i++) {
+            Point center = getCoordinatesForPosition(i, boardW, boardH);
+            if (center == null) continue;
+            float t = (float) heat.relative(i);
+            Color hot = heatColor(t, 220);
+            float radius = 24 + 24 * t;
+            g2.setPaint(new RadialGradientPaint(center, radius, fractions, new Color[]{
+                    hot, heatColor(t, 150), heatColor(t, 0)}));
+            g2.fillOval((int) (center.x - radius), (int) (center.y - radius), (int) (2 * radius), (int) (2 * radius));
+        }
+        g2.setFont(POINTS_FONT);
+        FontMetrics fm = g2.getFontMetrics();
+        for (int i = 1; i <= BOARD_CELLS; i++) {
+            if (heat.relative(i) < 0.6) continue;
+            Point center = getCoordinatesForPosition(i, boardW, boardH);
+            if (center == null) continue;
+            String label = String.format("%.1f%%", 100 * heat.probability[i]);
+            int x = center.x - fm.stringWidth(label) / 2;
+            int y = center.y + 24;
+            g2.setColor(new Color(30, 20, 10, 170));
+            g2.fillRoundRect(x - 3, y - fm.getAscent(), fm.stringWidth(label) + 6, fm.getHeight(), 6, 6);
+            g2.setColor(Color.WHITE);
+            g2.drawString(label, x, y - 1);
+        }
+
+        String legend = String.format("Landing chance %.1f%% – %.1f%%  (%,d games)", 100 * heat.min, 100 * heat.max, heat.games);
+        int lw = fm.stringWidth(legend);
+        int x = boardW - lw - 110, y = boardH - 26;
+        g2.setColor(new Color(30, 20, 10, 170));
+        g2.fillRoundRect(x - 8, y - 6, lw + 116, 22, 8, 8);
+        for (int k = 0; k < 90; k++) {
+            g2.setColor(heatColor(k / 89f, 255));
+            g2.fillRect(x + k, y, 1, 10);
+        }
+        g2.setColor(Color.WHITE);
+        g2.drawString(legend, x + 100, y + 9);
+    }
+
+    /** Blue through yellow to red. */
+    private static Color heatColor(float t, int alpha) {
+        float hue = 0.66f * (1 - t);
+        int rgb = Color.HSBtoRGB(hue, 0.85f, 1f);
+        return new Color((rgb >> 16) & 0xFF, (rgb >> 8) & 0xFF, rgb & 0xFF, alpha);
+    }
+
+    // ============ DRAW NODES WITH PIN MARKERS ============
+    static void drawNodes(Graphics2D g2, int boardW, int boardH, GameSnapshot snap, List<Integer> highlightPath, float bobPhase) {
+        for (int i = 1; i <= BOARD_CELLS; i++) {
+            Point center = getCoordinatesForPosition(i, boardW, boardH);
+            if (center == null) continue;
+
+            // Highlight path effect
+            if (highlightPath != null && highlightPath.contains(i)) {
+                float scale = 1f + 0.08f * (float)Math.sin(bobPhase + i * 0.3);
+                int glowSize = (int)(28 * scale);
+                g2.setColor(new Color(255, 220, 100, 140));
+                g2.setStroke(HIGHLIGHT_STROKE);
+                g2.drawOval(center.x - glowSize/2, center.y - glowSize/2, glowSize, glowSize);
+            }
+
+            // Draw pin marker (treasure map style)
+            drawPinMarker(g2, center.x, center.y, i, snap);
+        }
+    }
+
+    // ============ PIN MARKER RENDERING ============
+    private static void drawPinMarker(Graphics2D g2, int x, int y, int nodeNumber, GameSnapshot snap) {
+        int pinSize = 20;
+
+        // Shadow
+        g2.setColor(new Color(0, 0, 0, 60));
+        g2.fillOval(x - 6, y + 2, 12, 6);
+
+        // Pin color based on node type
+        Color pinColor;
+        if (GameRules.isPrime(nodeNumber)) {
+            pinColor = new Color(46, 204, 113); // Green for prime
+        } else if (nodeNumber % 5 == 0 && !snap.isStarClaimed(nodeNumber)) {
+            pinColor = new Color(255, 215, 0); // Gold for unclaimed star
+        } else if (snap.getBoard().isBoss(nodeNumber)) {
+            pinColor = new Color(220, 50, 50); // Red for boss
+        } else if (nodeNumber == 1) {
+            pinColor = new Color(100, 180, 255); // Blue for start
+        } else if (nodeNumber == BOARD_CELLS) {
+            pinColor = new Color(255, 150, 50); // Orange for finish
+        } else {
+            pinColor = new Color(200, 180, 160); // Beige for normal
+        }
+
+        // Pin head (circle)
+        g2.setColor(pinColor);
+        g2.fillOval(x - pinSize/2, y - pinSize/2, pinSize, pinSize);
+
+        // Pin border
+        g2.setColor(pinColor.darker());
+        g2.setStroke(OUTLINE_STROKE);
+        g2.drawOval(x - pinSize/2, y - pinSize/2, pinSize, pinSize);
+
+        // Pin pointer (bottom triangle)
+        int[] xPoints = {x, x - 4, x + 4};
+        int[] yPoints = {y + pinSize/2 + 6, y + pinSize/2, y + pinSize/2};
+        g2.setColor(pinColor.darker());
+        g2.fillPolygon(xPoints, yPoints, 3);
+
+        // Node number
+        g2.setFont(PIN_FONT);
+        String numStr = String.valueOf(nodeNumber);
+        FontMetrics fm = g2.getFontMetrics();
+        g2.setColor(Color.WHITE);
+        g2.drawString(numStr, x - fm.stringWidth(numStr)/2, y + fm.getAscent()/2 - 1);
+
+        // Special indicators
+        if (nodeNumber % 5 == 0 && !snap.isStarClaimed(nodeNumber)) {
+            g2.setFont(STAR_FONT);
+            g2.setColor(new Color(255, 215, 0));
+            g2.drawString("★", x - 7, y - pinSize/2 - 4);
+        }
+
+        if (snap.getBoard().isBoss(nodeNumber)) {
+            g2.setFont(BOSS_FONT);
+            g2.setColor(new Color(180, 60, 80));
+            g2.drawString("👾", x + pinSize/2 + 2, y - 2);
+        }
+
+        // Tile points indicator
+        int pts = snap.getBoard().getTilePoints(nodeNumber);
+        if (pts > 0) {
+            g2.setFont(POINTS_FONT);
+            g2.setColor(new Color(90, 65, 40));
+            g2.drawString("+" + pts, x + pinSize/2 + 2, y + pinSize/2 + 4);
+        }
+    }
+
+    // ============ DRAW PLAYERS ============
+    static void drawPlayers(Graphics2D g2, int boardW, int boardH, GameSnapshot snap, List<? extends Token> players, float bobPhase) {
+        if (players == null) return;
+
+        for (int i = 0; i < players.size() && i < snap.getSeatCount(); i++) {
+            Token p = players.get(i);
+            Point base = getCoordinatesForPosition(snap.getSeat(i).getPosition(), boardW, boardH);
+            if (base == null) continue;
+
+            int tokenSize = 24;
+            int offX = (i % 3 - 1) * 14;     // horizontal spread kecil
+            int offY = (i / 3) * 8;         // vertikal kecil (tanpa offset besar)
+
+            int bob = (int)(4 * Math.sin(bobPhase + i * 0.8));
+
+            // PUSATKAN token ke node
+            int px = base.x - tokenSize / 2 + offX;
+            int py = base.y - tokenSize / 2 + offY - bob;
+
+
+            // Shadow
+            g2.setColor(new Color(0, 0, 0, 40));
+            g2.fillOval(px + 4, py + 8, tokenSize, tokenSize / 2);
+
+            // Player token
+            if (p.getAvatar() != null) {
+                BufferedImage img = p.getAvatar();
+                int iw = img.getWidth(), ih = img.getHeight();
+                double scale = Math.min(tokenSize/(double)iw, tokenSize/(double)ih);
+                int dw = (int)(iw*scale), dh = (int)(ih*scale);
+                g2.drawImage(img, px + (tokenSize-dw)/2, py + (tokenSize-dh)/2, dw, dh, null);
+                g2.setColor(new Color(110, 80, 60));
+                g2.setStroke(OUTLINE_STROKE);
+                g2.drawOval(px, py, tokenSize, tokenSize);
+            } else {
+                GradientPaint gp = new GradientPaint(px, py, p.getColor().brighter(),
+                        px, py + tokenSize, p.getColor().darker());
+                g2.setPaint(gp);
+                g2.fillOval(px, py, tokenSize, tokenSize);
+                g2.setColor(new Color(110, 80, 60));
+                g2.setStroke(OUTLINE_STROKE);
+                g2.drawOval(px, py, tokenSize, tokenSize);
+
+                g2.setColor(new Color(20, 18, 12));
+                g2.setFont(TOKEN_FONT);
+                String initial = p.getName().substring(0, 1).toUpperCase();
+                FontMetrics fm = g2.getFontMetrics();
+                g2.drawString(initial,
+                        px + (tokenSize - fm.stringWidth(initial)) / 2,
+                        py + (tokenSize + fm.getAscent()) / 2 - 2);
+            }
+        }
+    }
+
+    // ============ LOAD BACKGROUND IMAGE ============
+    /**
+     * Flexible image loader - tries multiple strategies:
+     * 1. Classpath/resources (works in JAR)
+     * 2. Multiple file system locations
+     * 3. Graceful fallback to null (gradient background)
+     */
+    public static BufferedImage loadImageFlexible(String filename) {
+        // Strategy 1: Try classpath first (packaged resources)
+        try {
+            InputStream is = BoardRenderer.class.getResourceAsStream("/" + filename);
+            if (is != null) {
+                BufferedImage img = ImageIO.read(is);
+                System.out.println("[Board] ✓ Image loaded from classpath: " + filename);
+                return img;
+            }
+        } catch (Exception e) {
+            // Not in classpath, continue to file system
+        }
+
+        // Strategy 2: Try multiple file system locations
+        String[] searchPaths = {
+                filename,                    // Current directory
+                "src/" + filename,           // In src/
+                "../src/" + filename,        // Parent -> src/
+                "resources/" + filename,     // Resources folder
+                "../resources/" + filename,  // Parent -> resources/
+                "./" + filename              // Explicit current
+        };
+
+        for (String path : searchPaths) {
+            try {
+                File f = new File(path);
+                if (f.exists()) {
+                    BufferedImage img = ImageIO.read(f);
+                    System.out.println("[Board] ✓ Image loaded from: " + f.getAbsolutePath());
+                    return img;
+                }
+            } catch (Exception e) {
+                // Try next path
+            }
+        }
+
+        // Strategy 3: Not found - log details and use fallback
+        System.err.println("[Board] ✗ Image not found: " + filename);
+        System.err.println("[Board] Searched locations:");
+        for (String path : searchPaths) {
+            System.err.println("  • " + new File(path).getAbsolutePath());
+        }
+        System.err.println("[Board] → Using fallback gradient background");
+
+        return null;
+    }
+}
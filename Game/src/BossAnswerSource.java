@@ -0,0 +1,62 @@
+// BossAnswerSource.java
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Pluggable answerer for boss encounters (human panel, bot, scripted).
+ * Implementations must not block: they answer later through {@link BossEncounter#submit(int)}.
+ */
+public interface BossAnswerSource {
+
+    void ask(BossEncounter encounter);
+
+    /** Called once the encounter is resolved (answered or timed out). */
+    default void encounterEnded(BossEncounter encounter) {}
+
+    // ========== BOT ==========
+    /** Answers correctly with the given probability after a short "thinking" delay. */
+    class Bot implements BossAnswerSource {
+        private final double accuracy;
+        private final long minThinkMillis;
+        private final long maxThinkMillis;
+
+        public Bot(double accuracy, long minThinkMillis, long maxThinkMillis) {
+            this.accuracy = accuracy;
+            this.minThinkMillis = minThinkMillis;
+            this.maxThinkMillis = Math.max(minThinkMillis, maxThinkMillis);
+        }
+
+        public double getAccuracy() { return accuracy; }
+
+        @Override
+        public void ask(BossEncounter encounter) {
+            long delay = minThinkMillis + ThreadLocalRandom.current().nextLong(maxThinkMillis - minThinkMillis + 1);
+            BossEncounter.schedule(() -> {
+                int correct = encounter.getQuestion().getAnswer();
+                boolean right = ThreadLocalRandom.current().nextDouble() < accuracy;
+                encounter.submit(right ? correct : correct + 1);
+            }, delay);
+        }
+    }
+
+    // ========== SCRIPTED ==========
+    /** Replays fixed answers in order; a null entry (or an empty script) lets the encounter time out. */
+    class Scripted implements BossAnswerSource {
+        private final Deque<Integer> answers;
+
+        public Scripted(Integer... answers) {
+            this.answers = new ArrayDeque<>();
+            for (Integer a : Arrays.asList(answers)) this.answers.add(a == null ? Integer.MIN_VALUE : a);
+        }
+
+        @Override
+        public void ask(BossEncounter encounter) {
+            Integer next;
+            synchronized (answers) { next = answers.poll(); }
+            if (next == null || next == Integer.MIN_VALUE) return;
+            encounter.submit(next);
+        }
+    }
+}
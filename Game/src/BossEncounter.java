@@ -0,0 +1,113 @@
+// BossEncounter.java
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Asynchronous boss fight state.
+ * An encounter is started with an answer source (human panel, bot, script) and completes
+ * exactly once — on a submitted answer or when the time limit runs out — by invoking the
+ * completion callback. Nothing here blocks the caller; the turn continues from the callback.
+ */
+public class BossEncounter {
+    public enum State { PENDING, WON, LOST }
+
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "boss-timer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final int node;
+    private final String playerName;
+    private final BossQuestion question;
+    private final long timeLimitNanos;
+    private final Consumer<Boolean> onComplete;
+    private final AtomicReference<State> state = new AtomicReference<>(State.PENDING);
+
+    private volatile long startedAt;
+    private volatile long resolvedAt;
+    private volatile boolean timedOut;
+    private volatile Integer submittedAnswer;
+    private volatile ScheduledFuture<?> timeout;
+    private volatile BossAnswerSource source;
+
+    public BossEncounter(int node, String playerName, BossQuestion question, int timeLimitSeconds, Consumer<Boolean> onComplete) {
+        this.node = node;
+        this.playerName = playerName;
+        this.question = question;
+        this.timeLimitNanos = TimeUnit.SECONDS.toNanos(timeLimitSeconds);
+        this.onComplete = onComplete;
+    }
+
+    public int getNode() { return node; }
+    public String getPlayerName() { return playerName; }
+    public BossQuestion getQuestion() { return question; }
+    public State getState() { return state.get(); }
+    public boolean isPending() { return state.get() == State.PENDING; }
+    public boolean isTimedOut() { return timedOut; }
+    /** The number the answer source submitted, or null if it never answered with a number. */
+    public Integer getSubmittedAnswer() { return submittedAnswer; }
+
+    /** Time from start to the submitted answer (or to the timeout). */
+    public long getLatencyMillis() {
+        long end = resolvedAt != 0 ? resolvedAt : System.nanoTime();
+        return TimeUnit.NANOSECONDS.toMillis(end - startedAt);
+    }
+
+    public int getRemainingSeconds() {
+        long left = timeLimitNanos - (System.nanoTime() - startedAt);
+        return (int) Math.max(0, TimeUnit.NANOSECONDS.toSeconds(left + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    /** Arms the time limit and hands the question to the answer source. Returns immediately. */
+    public void start(BossAnswerSource source) {
+        this.source = source;
+        this.startedAt = System.nanoTime();
+        this.timeout = TIMER.schedule(this::expire, timeLimitNanos, TimeUnit.NANOSECONDS);
+        source.ask(this);
+    }
+
+    /** Submits raw text as typed by a player; anything that is not a number counts as wrong. */
+    public boolean submit(String raw) {
+        try {
+            return submit(Integer.parseInt(raw.trim()));
+        } catch (Exception e) {
+            return complete(false);
+        }
+    }
+
+    public boolean submit(int answer) {
+        if (isPending()) submittedAnswer = answer;
+        boolean inTime = System.nanoTime() - startedAt <= timeLimitNanos;
+        return complete(inTime && answer == question.getAnswer());
+    }
+
+    public void expire() {
+        complete(false, true);
+    }
+
+    private boolean complete(boolean won) {
+        return complete(won, false);
+    }
+
+    private boolean complete(boolean won, boolean expired) {
+        long now = System.nanoTime();
+        if (!state.compareAndSet(State.PENDING, won ? State.WON : State.LOST)) return false;
+        resolvedAt = now;
+        timedOut = expired;
+        ScheduledFuture<?> t = timeout;
+        if (t != null) t.cancel(false);
+        BossAnswerSource s = source;
+        if (s != null) s.encounterEnded(this);
+        onComplete.accept(won);
+        return true;
+    }
+
+    static ScheduledFuture<?> schedule(Runnable task, long delayMillis) {
+        return TIMER.schedule(task, delayMillis, TimeUnit.MILLISECONDS);
+    }
+}
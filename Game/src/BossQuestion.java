@@ -0,0 +1,67 @@
+// BossQuestion.java
+import java.util.Random;
+
+/**
+ * A single boss challenge: the prompt shown to the player and the expected integer answer.
+ */
+public class BossQuestion {
+    public enum Type { ADDITION, MULTIPLICATION, LOGARITHM, TRIANGLE_PERIMETER, TRIANGLE_AREA }
+
+    private final Type type;
+    private final int difficulty;
+    private final String text;
+    private final int answer;
+
+    public BossQuestion(Type type, int difficulty, String text, int answer) {
+        this.type = type;
+        this.difficulty = difficulty;
+        this.text = text;
+        this.answer = answer;
+    }
+
+    public Type getType() { return type; }
+    public int getDifficulty() { return difficulty; }
+    public String getText() { return text; }
+    public int getAnswer() { return answer; }
+
+    // ========== QUESTION GENERATOR ==========
+    // Difficulty 1 uses the original ranges; 0 and 2 shrink / widen them.
+    private static final int[] ADD_RANGE = {20, 50, 200};
+    private static final int[] MUL_RANGE = {6, 12, 20};
+    private static final int[] LOG_MAX_EXP = {3, 4, 6};
+    private static final int[] SIDE_RANGE = {4, 6, 12};
+    private static final int[] LEG_RANGE = {4, 8, 16};
+
+    public static BossQuestion generate(Type type, int difficulty, Random rnd) {
+        int d = Math.max(0, Math.min(BossQuestionProvider.LEVELS - 1, difficulty));
+        switch (type) {
+            case ADDITION: {
+                int a = rnd.nextInt(ADD_RANGE[d]) + 10;
+                int b = rnd.nextInt(ADD_RANGE[d]) + 10;
+                return new BossQuestion(type, d, "Hitung: " + a + " + " + b, a + b);
+            }
+            case MULTIPLICATION: {
+                int a = rnd.nextInt(MUL_RANGE[d]) + 3;
+                int b = rnd.nextInt(MUL_RANGE[d]) + 3;
+                return new BossQuestion(type, d, "Hitung: " + a + " × " + b, a * b);
+            }
+            case LOGARITHM: {
+                int base = rnd.nextBoolean() ? 2 : 10;
+                int exp = rnd.nextInt(LOG_MAX_EXP[d]) + 1;
+                int value = (int) Math.pow(base, exp);
+                return new BossQuestion(type, d, "Hitung: log" + base + "(" + value + ")", exp);
+            }
+            case TRIANGLE_PERIMETER: {
+                int a = rnd.nextInt(SIDE_RANGE[d]) + 3;
+                int b = rnd.nextInt(SIDE_RANGE[d]) + 3;
+                int c = rnd.nextInt(SIDE_RANGE[d]) + 3;
+                return new BossQuestion(type, d, "Keliling segitiga dengan sisi " + a + ", " + b + ", " + c, a + b + c);
+            }
+            default: {
+                int alas = rnd.nextInt(LEG_RANGE[d]) + 4;
+                int tinggi = rnd.nextInt(LEG_RANGE[d]) + 4;
+                return new BossQuestion(type, d, "Luas segitiga siku-siku (alas=" + alas + ", tinggi=" + tinggi + ")", (alas * tinggi) / 2);
+            }
+        }
+    }
+}
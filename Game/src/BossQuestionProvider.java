@@ -0,0 +1,18 @@
+// BossQuestionProvider.java
+
+/**
+ * Source of boss questions. Difficulty runs from 0 (easiest) to {@link #LEVELS} - 1.
+ */
+public interface BossQuestionProvider {
+    int LEVELS = 3;
+
+    BossQuestion next(int difficulty);
+
+    BossQuestion next(BossQuestion.Type type, int difficulty);
+
+    /** Later nodes get harder bosses: the board is split into {@link #LEVELS} equal bands. */
+    static int difficultyForNode(int node, int boardCells) {
+        int d = (Math.max(1, node) - 1) * LEVELS / Math.max(1, boardCells);
+        return Math.min(LEVELS - 1, d);
+    }
+}
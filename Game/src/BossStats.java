@@ -0,0 +1,91 @@
+// BossStats.java
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-player boss answer metrics: latency histogram plus accuracy by difficulty.
+ * Recorded when an encounter resolves; used to tune the time limit and boss rewards.
+ */
+public class BossStats {
+    public static class PlayerStats {
+        /** Answer latency in ms, 500 ms buckets up to 12 s. Timeouts are not recorded here. */
+        public final Histogram latencyMs = Histogram.linear(500, 500, 24);
+        public final AtomicLongArray correct = new AtomicLongArray(BossQuestionProvider.LEVELS);
+        public final AtomicLongArray wrong = new AtomicLongArray(BossQuestionProvider.LEVELS);
+        public final AtomicLongArray timeouts = new AtomicLongArray(BossQuestionProvider.LEVELS);
+
+        public long total() {
+            long t = 0;
+            for (int d = 0; d < BossQuestionProvider.LEVELS; d++) t += correct.get(d) + wrong.get(d) + timeouts.get(d);
+            return t;
+        }
+
+        public double accuracy() {
+            long c = 0;
+            for (int d = 0; d < BossQuestionProvider.LEVELS; d++) c += correct.get(d);
+            long t = total();
+            return t == 0 ? 0 : c / (double) t;
+        }
+    }
+
+    private final Map<String, PlayerStats> byPlayer = new ConcurrentHashMap<>();
+
+    public PlayerStats get(String name) {
+        return byPlayer.computeIfAbsent(name, k -> new PlayerStats());
+    }
+
+    public void record(BossEncounter encounter) {
+        PlayerStats s = get(encounter.getPlayerName());
+        int d = encounter.getQuestion().getDifficulty();
+        if (encounter.isTimedOut()) {
+            s.timeouts.incrementAndGet(d);
+            return;
+        }
+        s.latencyMs.record(encounter.getLatencyMillis());
+        if (encounter.getState() == BossEncounter.State.WON) s.correct.incrementAndGet(d);
+        else s.wrong.incrementAndGet(d);
+    }
+
+    public List<String> summaryLines() {
+        List<String> lines = new ArrayList<>();
+        for (Map.Entry<String, PlayerStats> e : byPlayer.entrySet()) {
+            PlayerStats s = e.getValue();
+            lines.add(String.format("%s — %d fights, %.0f%% correct, latency %s",
+                    e.getKey(), s.total(), s.accuracy() * 100, s.latencyMs.summary("ms")));
+        }
+        return lines;
+    }
+
+    /** One row per player and difficulty, followed by the raw latency buckets. */
+    public void writeCsv(File file) throws IOException {
+        try (PrintWriter out = new PrintWriter(new FileWriter(file))) {
+            out.println("player,difficulty,correct,wrong,timeouts");
+            for (Map.Entry<String, PlayerStats> e : byPlayer.entrySet()) {
+                PlayerStats s = e.getValue();
+                for (int d = 0; d < BossQuestionProvider.LEVELS; d++) {
+                    out.println(csv(e.getKey()) + "," + d + "," + s.correct.get(d) + "," + s.wrong.get(d) + "," + s.timeouts.get(d));
+                }
+            }
+            out.println();
+            out.println("player,latency_le_ms,count");
+            for (Map.Entry<String, PlayerStats> e : byPlayer.entrySet()) {
+                Histogram h = e.getValue().latencyMs;
+                for (int i = 0; i < h.bucketCount(); i++) {
+                    long bound = h.bucketBound(i);
+                    out.println(csv(e.getKey()) + "," + (bound == Long.MAX_VALUE ? "inf" : String.valueOf(bound)) + "," + h.bucketCountAt(i));
+                }
+            }
+        }
+    }
+
+    private static String csv(String s) {
+        return "\"" + s.replace("\"", "\"\"") + "\"";
+    }
+}
@@ -0,0 +1,131 @@
+// ConfigWatcher.java
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keeps a {@link GameConfig} in step with its file. A daemon thread waits on a
+ * {@link WatchService} for the file's directory, lets a burst of editor writes settle, then
+ * parses and validates the file on that thread and swaps the result in atomically. Readers
+ * call {@link #get()} and always see one whole config, the old one or the new one.
+ *
+ * A file that fails to parse or validate is reported and ignored, and the last good config
+ * stays in force. A missing file is created with the current values so there is something
+ * to edit.
+ */
+public class ConfigWatcher implements AutoCloseable {
+    private static final long SETTLE_MS = 150;   // editors often write a file in several steps
+
+    /** Called on the watcher thread. */
+    public interface Listener {
+        void onConfig(GameConfig config);
+        default void onError(String message) {}
+    }
+
+    private final File file;
+    private final Listener listener;
+    private final AtomicReference<GameConfig> current = new AtomicReference<>(GameConfig.DEFAULTS);
+    private WatchService watcher;
+    private Thread thread;
+
+    public ConfigWatcher(File file, Listener listener) {
+        this.file = file.getAbsoluteFile();
+        this.listener = listener;
+    }
+
+    public GameConfig get() { return current.get(); }
+    public File getFile() { return file; }
+
+    /** Loads the file (writing it first if missing) and starts watching it. */
+    public synchronized GameConfig start() {
+        if (!file.exists()) {
+            try {
+                GameConfig.DEFAULTS.writeTo(file);
+            } catch (IOException e) {
+                System.err.println("Failed to write default config: " + e.getMessage());
+            }
+        }
+        load(false);
+        WatchService ws;
+        try {
+            ws = FileSystems.getDefault().newWatchService();
+            try {
+                file.getParentFile().toPath().register(ws, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY);
+            } catch (IOException e) {
+                ws.close();
+                throw e;
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to watch config: " + e.getMessage());
+            return current.get();
+        }
+        watcher = ws;
+        thread = new Thread(() -> watch(ws), "config-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        return current.get();
+    }
+
+    /** Replaces the file; the watcher picks the change up like any other edit. */
+    public void save(GameConfig config) throws IOException {
+        config.writeTo(file);
+    }
+
+    private void watch(WatchService watcher) {
+        Path name = file.toPath().getFileName();
+        try {
+            while (true) {
+                WatchKey key = watcher.take();
+                boolean ours = false;
+                for (WatchEvent<?> e : key.pollEvents()) {
+                    if (name.equals(e.context())) ours = true;
+                }
+                key.reset();
+                if (!ours) continue;
+                // Drain the rest of the burst so one save means one reload.
+                WatchKey more;
+                while ((more = watcher.poll(SETTLE_MS, TimeUnit.MILLISECONDS)) != null) {
+                    more.pollEvents();
+                    more.reset();
+                }
+                load(true);
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // closed
+        }
+    }
+
+    private void load(boolean notify) {
+        GameConfig next;
+        try {
+            next = GameConfig.read(file);
+        } catch (IOException | IllegalArgumentException e) {
+            String message = "Failed to load " + file.getName() + ": " + e.getMessage() + " (keeping the previous settings)";
+            System.err.println(message);
+            listener.onError(message);
+            return;
+        }
+        current.set(next);
+        if (notify) listener.onConfig(next);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (watcher == null) return;
+        try {
+            watcher.close();
+        } catch (IOException ignored) {
+        }
+        thread.interrupt();
+        watcher = null;
+    }
+}
@@ -0,0 +1,195 @@
+// EdtWatchdog.java
+import java.awt.AWTEvent;
+import java.awt.EventQueue;
+import java.awt.Toolkit;
+import java.awt.event.InvocationEvent;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures how responsive the Swing event thread is. An {@link EventQueue} pushed in front of
+ * the system queue times every dispatch; a probe event posted every {@code probeMs} measures
+ * how long an event waits before it runs. A daemon thread watches the dispatch in progress
+ * and, once it has run longer than {@code stallMs}, captures the EDT's stack so the report
+ * shows what the event thread was doing, not just that it was late.
+ */
+public class EdtWatchdog extends EventQueue {
+    private static final int MAX_STALLS = 32;
+
+    /** Time to dispatch one event, in microseconds. */
+    private final Histogram dispatchMicros = Histogram.exponential(1, 2, 26);
+    /** Time a probe event waited in the queue, in microseconds. */
+    private final Histogram probeMicros = Histogram.exponential(1, 2, 26);
+
+    private final long stallMs;
+    private final long probeMs;
+    private final ArrayDeque<String> stalls = new ArrayDeque<>();   // newest last, guarded by itself
+    private long stallCount;
+
+    private volatile Thread edt;
+    private volatile long dispatchStart;     // 0 when idle
+    private volatile String dispatching;
+    private int depth;                       // EDT only: nested dispatch level
+    private long childNanos;                 // EDT only: time spent in nested dispatches and modal waits
+    private long capturedStart;              // watchdog thread only: dispatch already reported
+    private volatile boolean running = true;
+
+    private EdtWatchdog(long stallMs, long probeMs) {
+        this.stallMs = stallMs;
+        this.probeMs = probeMs;
+    }
+
+    /** Pushes the watchdog queue and starts the probe/stall thread. */
+    public static EdtWatchdog install(long stallMs, long probeMs) {
+        EdtWatchdog w = new EdtWatchdog(stallMs, probeMs);
+        Toolkit.getDefaultToolkit().getSystemEventQueue().push(w);
+        Thread t = new Thread(w::watch, "edt-watchdog");
+        t.setDaemon(true);
+        t.start();
+        return w;
+    }
+
+    public Histogram getDispatchMicros() { return dispatchMicros; }
+    public Histogram getProbeMicros() { return probeMicros; }
+
+    /**
+     * Modal dialogs and secondary loops dispatch events from inside another dispatch; each
+     * level records only its own time, and the outer one counts as resumed once they return
+     * (see {@link #getNextEvent} for the time they spend waiting).
+     */
+    @Override
+    protected void dispatchEvent(AWTEvent event) {
+        if (edt == null) edt = Thread.currentThread();
+        String outer = dispatching;
+        long outerChildren = childNanos;
+        childNanos = 0;
+        depth++;
+        long t0 = System.nanoTime();
+        dispatching = describe(event);
+        dispatchStart = t0;
+        try {
+            super.dispatchEvent(event);
+        } finally {
+            long elapsed = System.nanoTime() - t0;
+            dispatchMicros.record((elapsed - childNanos) / 1000);
+            childNanos = outerChildren + elapsed;
+            if (--depth > 0) {
+                dispatching = outer;
+                dispatchStart = System.nanoTime();
+            } else {
+                dispatchStart = 0;
+            }
+        }
+    }
+
+    /**
+     * A modal dialog or secondary loop waiting for input is idle, not stalled: the outer event
+     * is not timed while the loop waits, and the wait is subtracted from it like a nested dispatch.
+     */
+    @Override
+    public AWTEvent getNextEvent() throws InterruptedException {
+        if (depth == 0) return super.getNextEvent();
+        dispatchStart = 0;
+        long t0 = System.nanoTime();
+        try {
+            return super.getNextEvent();
+        } finally {
+            long now = System.nanoTime();
+            childNanos += now - t0;
+            dispatchStart = now;
+        }
+    }
+
+    private static String describe(AWTEvent e) {
+        if (e instanceof InvocationEvent) {   // paramString is "...,runnable=Owner$$Lambda@hash,notifier=..."
+            String p = e.paramString();
+            int i = p.indexOf("runnable=");
+            return "invokeLater " + (i < 0 ? p : p.substring(i + 9, p.indexOf(',', i) < 0 ? p.length() : p.indexOf(',', i)));
+        }
+        Object src = e.getSource();
+        return e.getClass().getSimpleName() + " id=" + e.getID() + (src != null ? " on " + src.getClass().getSimpleName() : "");
+    }
+
+    // ========== WATCHDOG THREAD ==========
+    private void watch() {
+        long nextProbe = 0;
+        while (running) {
+            long now = System.nanoTime();
+            if (now >= nextProbe) {
+                long posted = now;
+                invokeLater(() -> probeMicros.record((System.nanoTime() - posted) / 1000));
+                nextProbe = now + probeMs * 1_000_000L;
+            }
+            long start = dispatchStart;
+            if (start != 0 && start != capturedStart && now - start > stallMs * 1_000_000L) {
+                capturedStart = start;
+                recordStall(start, now);
+            }
+            try {
+                Thread.sleep(Math.max(1, Math.min(probeMs, stallMs / 4)));
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void recordStall(long start, long now) {
+        Thread t = edt;
+        StringBuilder sb = new StringBuilder();
+        sb.append(LocalDateTime.now()).append("  stalled ").append((now - start) / 1_000_000).append(" ms+ in ").append(dispatching).append('\n');
+        if (t != null) for (StackTraceElement el : t.getStackTrace()) sb.append("    at ").append(el).append('\n');
+        synchronized (stalls) {
+            stallCount++;
+            stalls.addLast(sb.toString());
+            if (stalls.size() > MAX_STALLS) stalls.removeFirst();
+        }
+        System.err.println("[EDT] Stall over " + stallMs + " ms in " + dispatching);
+    }
+
+    // ========== REPORT ==========
+    public String summary() {
+        return "dispatch " + dispatchMicros.summary("µs") + " | queue wait " + probeMicros.summary("µs") + " | stalls " + stallCount;
+    }
+
+    public List<String> report() {
+        List<String> lines = new ArrayList<>();
+        lines.add("EDT report " + LocalDateTime.now() + " (stall threshold " + stallMs + " ms, probe every " + probeMs + " ms)");
+        lines.add("dispatch time:   " + dispatchMicros.summary("µs"));
+        lines.add("queue wait:      " + probeMicros.summary("µs"));
+        lines.add("dispatch time histogram (µs):");
+        for (int i = 0; i < dispatchMicros.bucketCount(); i++) {
+            long n = dispatchMicros.bucketCountAt(i);
+            if (n > 0) lines.add(String.format("  <= %10d  %d", dispatchMicros.bucketBound(i), n));
+        }
+        synchronized (stalls) {
+            lines.add("stalls: " + stallCount + (stallCount > stalls.size() ? " (last " + stalls.size() + " kept)" : ""));
+            lines.addAll(stalls);
+        }
+        return lines;
+    }
+
+    public void dumpTo(File file) throws IOException {
+        try (PrintWriter out = new PrintWriter(new FileWriter(file))) {
+            for (String line : report()) out.println(line);
+        }
+    }
+
+    public void reset() {
+        dispatchMicros.reset();
+        probeMicros.reset();
+        synchronized (stalls) {
+            stalls.clear();
+            stallCount = 0;
+        }
+    }
+
+    public void stop() {
+        running = false;
+    }
+}
@@ -0,0 +1,98 @@
+// EventRing.java
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Single-producer / multi-consumer ring buffer of immutable items.
+ *
+ * The producer never waits: it overwrites the oldest slot whether or not every reader has
+ * seen it. Each {@link Reader} keeps its own position and, if it is lapped, skips ahead and
+ * counts what it lost. Slots carry their sequence number and are read seqlock-style, so a
+ * reader can never hand out an item that was overwritten mid-read.
+ *
+ * {@link #publish} must only ever be called from one thread at a time.
+ */
+public class EventRing<T> {
+    /** Receives items in publish order. */
+    public interface BatchHandler<T> {
+        void onEvent(T item, long sequence);
+    }
+
+    private static final long WRITING = -1;
+
+    private final int mask;
+    private final AtomicReferenceArray<T> items;
+    private final AtomicLongArray sequences;
+    private volatile long cursor = -1;   // last published sequence
+    private long next;                   // producer-only
+
+    public EventRing(int capacity) {
+        if (Integer.bitCount(capacity) != 1) throw new IllegalArgumentException("Capacity must be a power of two");
+        this.mask = capacity - 1;
+        this.items = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) sequences.set(i, WRITING);
+    }
+
+    public int capacity() { return mask + 1; }
+
+    public long getCursor() { return cursor; }
+
+    /** Publishes an item and returns its sequence. Never blocks. */
+    public long publish(T item) {
+        long seq = next++;
+        int slot = (int) seq & mask;
+        sequences.set(slot, WRITING);
+        items.set(slot, item);
+        sequences.set(slot, seq);
+        cursor = seq;
+        return seq;
+    }
+
+    /** A new reader that starts with the next item published. */
+    public Reader newReader() {
+        return new Reader(cursor + 1);
+    }
+
+    public final class Reader {
+        private volatile long position;   // written by the reader only; read by gating producers
+        private final AtomicLong lost = new AtomicLong();
+
+        private Reader(long start) { this.position = start; }
+
+        /** Items this reader skipped because the producer lapped it. */
+        public long getLost() { return lost.get(); }
+
+        public long backlog() { return Math.max(0, cursor + 1 - position); }
+
+        /** Hands up to {@code maxBatch} available items to {@code handler}; returns how many. */
+        public int drain(BatchHandler<? super T> handler, int maxBatch) {
+            long available = cursor;
+            if (available < position) return 0;
+            long oldest = available - mask;
+            if (position < oldest) {
+                lost.addAndGet(oldest - position);
+                position = oldest;
+            }
+            long end = Math.min(available, position + maxBatch - 1);
+            int delivered = 0;
+            for (long seq = position; seq <= end; seq++) {
+                int slot = (int) seq & mask;
+                T item = null;
+                if (sequences.get(slot) == seq) {
+                    item = items.get(slot);
+                    if (sequences.get(slot) != seq) item = null;
+                }
+                if (item == null) {   // overwritten while we were reading
+                    lost.incrementAndGet();
+                    continue;
+                }
+                handler.onEvent(item, seq);
+                delivered++;
+            }
+            position = end + 1;
+            return delivered;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+// ExpectimaxBot.java
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Expectimax lookahead over the known dice distribution (faces 1..6, forward with the
+ * rules' {@link GameRules#getForwardProbability()}) and boss outcomes (win with {@link #bossSkill()}).
+ *
+ * Leaves are scored by the star, tile-point and boss payoffs: own total minus the best
+ * opponent total. Opponent turns are not expanded — after the bot's turn the search jumps
+ * straight to its next turn — which keeps the tree to the bot's own chance nodes.
+ *
+ * Search is iterative deepening (depth = own turns) within a per-move time budget, uses a
+ * transposition table keyed on {@link MatchState#key()}, and forks the root chance node's
+ * outcomes across a ForkJoinPool.
+ */
+public class ExpectimaxBot implements PlayerStrategy {
+    private static final double WIN_BONUS = 1000;
+    private static final int MAX_DEPTH = 12;
+    private static final int TABLE_LIMIT = 1 << 20;
+
+    private final String name;
+    private final long budgetNanos;
+    private final double skill;
+    private final ForkJoinPool pool;
+    private final Map<Long, Double> table = new ConcurrentHashMap<>();
+
+    private volatile long deadline;
+    private volatile Outcome[] coinOutcomes;   // for the rules of the decision being searched
+    private int lastDepth;
+    private long lastNodes;
+    private final java.util.concurrent.atomic.LongAdder nodes = new java.util.concurrent.atomic.LongAdder();
+
+    public ExpectimaxBot(String name, long budgetMillis, double skill) {
+        this(name, budgetMillis, skill, ForkJoinPool.commonPool());
+    }
+
+    public ExpectimaxBot(String name, long budgetMillis, double skill, ForkJoinPool pool) {
+        this.name = name;
+        this.budgetNanos = budgetMillis * 1_000_000L;
+        this.skill = skill;
+        this.pool = pool;
+    }
+
+    @Override public String getName() { return name; }
+    @Override public double bossSkill() { return skill; }
+    public int getLastDepth() { return lastDepth; }
+    public long getLastNodes() { return lastNodes; }
+
+    private static final class OutOfTime extends RuntimeException {
+        OutOfTime() { super(null, null, false, false); }
+    }
+
+    @Override
+    public boolean decide(MatchEngine engine, MatchState state) {
+        if (!MatchEngine.isDecision(state.getPhase())) return true;
+        deadline = System.nanoTime() + budgetNanos;
+        coinOutcomes = coinOutcomes(engine.getRules().getForwardProbability());
+        if (table.size() > TABLE_LIMIT) table.clear();
+        nodes.reset();
+
+        int me = state.getCurrent();
+        boolean best = true;
+        lastDepth = 0;
+        for (int depth = 1; depth <= MAX_DEPTH; depth++) {
+            try {
+                MatchState yes = state.copy();
+                engine.decide(yes, true);
+                MatchState no = state.copy();
+                engine.decide(no, false);
+                double vYes = value(engine, yes, me, depth, true);
+                double vNo = value(engine, no, me, depth, true);
+                best = vYes >= vNo;
+                lastDepth = depth;
+            } catch (OutOfTime e) {
+                break;
+            }
+        }
+        lastNodes = nodes.sum();
+        return best;
+    }
+
+    // ========== SEARCH ==========
+    private double value(MatchEngine engine, MatchState s, int me, int depth, boolean parallel) {
+        nodes.increment();
+        if (System.nanoTime() > deadline) throw new OutOfTime();
+
+        switch (s.getPhase()) {
+            case GAME_OVER:
+                return evaluate(s, me) + (s.getWinner() == me ? WIN_BONUS : -WIN_BONUS);
+
+            case AWAIT_DIRECTION:
+            case AWAIT_LADDER:
+            case AWAIT_BOSS_CHOICE: {
+                MatchState yes = s.copy();
+                engine.decide(yes, true);
+                if (s.getCurrent() != me) return value(engine, yes, me, depth, parallel);
+                MatchState no = s.copy();
+                engine.decide(no, false);
+                return Math.max(value(engine, yes, me, depth, parallel), value(engine, no, me, depth, parallel));
+            }
+
+            case AWAIT_BOSS_ANSWER: {
+                double p = s.getCurrent() == me ? skill : 0.6;
+                MatchState won = s.copy();
+                engine.resolveBoss(won, true);
+                MatchState lost = s.copy();
+                engine.resolveBoss(lost, false);
+                return p * value(engine, won, me, depth, parallel) + (1 - p) * value(engine, lost, me, depth, parallel);
+            }
+
+            default: {
+                if (s.getCurrent() != me) {
+                    if (s.isFinished(me)) return evaluate(s, me);
+                    s = s.copy();
+                    s.current = me;   // opponents are not expanded
+                    depth--;
+                }
+                if (depth <= 0) return evaluate(s, me);
+                long key = s.key() * 31 + depth;
+                Double cached = table.get(key);
+                if (cached != null) return cached;
+                double v = parallel ? rollParallel(engine, s, me, depth) : roll(engine, s, me, depth);
+                table.put(key, v);
+                return v;
+            }
+        }
+    }
+
+    /** Chance node over faces and directions. */
+    private double roll(MatchEngine engine, MatchState s, int me, int depth) {
+        double sum = 0;
+        for (Outcome o : outcomes(engine)) {
+            MatchState next = s.copy();
+            engine.roll(next, o.face, o.forward);
+            sum += o.p * value(engine, next, me, depth, false);
+        }
+        return sum;
+    }
+
+    private double rollParallel(MatchEngine engine, MatchState s, int me, int depth) {
+        List<RecursiveTask<Double>> tasks = new ArrayList<>();
+        for (Outcome o : outcomes(engine)) {
+            tasks.add(new RecursiveTask<Double>() {
+                @Override
+                protected Double compute() {
+                    MatchState next = s.copy();
+                    engine.roll(next, o.face, o.forward);
+                    return o.p * value(engine, next, me, depth, false);
+                }
+            });
+        }
+        for (RecursiveTask<Double> t : tasks) pool.execute(t);
+        double sum = 0;
+        RuntimeException failure = null;
+        for (RecursiveTask<Double> t : tasks) {
+            try {
+                sum += t.join();
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+        }
+        if (failure != null) throw (failure instanceof OutOfTime) ? failure : new OutOfTime();
+        return sum;
+    }
+
+    private static final class Outcome {
+        final int face; final boolean forward; final double p;
+        Outcome(int face, boolean forward, double p) { this.face = face; this.forward = forward; this.p = p; }
+    }
+
+    private static final Outcome[] FACE_OUTCOMES = new Outcome[6];
+    static {
+        for (int f = 1; f <= 6; f++) FACE_OUTCOMES[f - 1] = new Outcome(f, true, 1.0 / 6);
+    }
+
+    private static Outcome[] coinOutcomes(double forward) {
+        Outcome[] out = new Outcome[12];
+        for (int f = 1; f <= 6; f++) {
+            out[(f - 1) * 2] = new Outcome(f, true, forward / 6);
+            out[(f - 1) * 2 + 1] = new Outcome(f, false, (1 - forward) / 6);
+        }
+        return out;
+    }
+
+    private Outcome[] outcomes(MatchEngine engine) {
+        return engine.getRules().isChooseDirection() ? FACE_OUTCOMES : coinOutcomes;
+    }
+
+    /** Own total (score + stars) minus the best opponent total, with a small bonus for progress. */
+    static double evaluate(MatchState s, int me) {
+        double mine = s.total(me) + 0.25 * s.getPosition(me);
+        double best = 0;
+        for (int i = 0; i < s.getPlayers(); i++) {
+            if (i == me) continue;
+            best = Math.max(best, s.total(i) + 0.25 * s.getPosition(i));
+        }
+        return mine - best;
+    }
+}
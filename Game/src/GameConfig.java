@@ -0,0 +1,234 @@
+// GameConfig.java
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Tunable rules and timings for the Swing game, read from a properties file. A config is
+ * immutable and validated as a whole, so a half-edited file is rejected and never reaches a
+ * running game. The lookup tables derived from it (the boss index and mask) are built in the
+ * constructor, on whichever thread parses the file.
+ *
+ * <pre>
+ * star.points=5                  boss.nodes=8,15,23,31,42,55
+ * boss.win.points=10             boss.win.stars=2
+ * boss.lose.points=-5            boss.lose.stars=-1
+ * move.forwardProbability=0.75   ladders.target=5
+ * tiles.minPoints=1              tiles.maxPoints=10
+ * timing.stepMs=420              timing.teleportMs=700
+ * timing.spinnerMs=70            timing.animationMs=45
+ * </pre>
+ *
+ * Missing keys keep their defaults and unknown keys are errors, so a typo does not fail
+ * silently. The board size stays fixed at {@link GameRules#BOARD_CELLS}, because the map art,
+ * the pin coordinates and every 64-bit node mask depend on it.
+ */
+public final class GameConfig {
+    public static final GameConfig DEFAULTS = new GameConfig(GameRules.STAR_TO_POINT,
+            GameRules.DEFAULT_BOSS_NODES.stream().mapToInt(Integer::intValue).sorted().toArray(),
+            10, 2, -5, -1, GameRules.FORWARD_PROBABILITY, GameRules.LADDER_TARGET, 1, 10,
+            420, 700, 70, 45);
+
+    private static final Set<String> KEYS = new LinkedHashSet<>(Arrays.asList(
+            "star.points", "boss.nodes", "boss.win.points", "boss.win.stars", "boss.lose.points", "boss.lose.stars",
+            "move.forwardProbability", "ladders.target", "tiles.minPoints", "tiles.maxPoints",
+            "timing.stepMs", "timing.teleportMs", "timing.spinnerMs", "timing.animationMs"));
+
+    private final int starToPoint;
+    private final int[] bossNodes;
+    private final int bossWinPoints, bossWinStars, bossLosePoints, bossLoseStars;
+    private final double forwardProbability;
+    private final int ladderTarget;
+    private final int tileMinPoints, tileMaxPoints;
+    private final int stepMs, teleportMs, spinnerMs, animationMs;
+
+    // Derived lookups
+    private final boolean[] boss;
+    private final long bossMask;
+
+    public GameConfig(int starToPoint, int[] bossNodes, int bossWinPoints, int bossWinStars, int bossLosePoints, int bossLoseStars,
+                      double forwardProbability, int ladderTarget, int tileMinPoints, int tileMaxPoints,
+                      int stepMs, int teleportMs, int spinnerMs, int animationMs) {
+        check(starToPoint >= 0 && starToPoint <= 100, "star.points must be 0-100");
+        check(bossWinPoints >= 0 && bossWinStars >= 0, "boss.win values must not be negative");
+        check(bossLosePoints <= 0 && bossLoseStars <= 0, "boss.lose values must not be positive");
+        check(forwardProbability >= 0 && forwardProbability <= 1, "move.forwardProbability must be 0-1");
+        check(ladderTarget >= 0 && ladderTarget <= 12, "ladders.target must be 0-12");
+        check(tileMinPoints >= 0 && tileMinPoints <= tileMaxPoints && tileMaxPoints <= 100, "tiles.minPoints..maxPoints must be within 0-100");
+        check(stepMs >= 10 && teleportMs >= 10 && spinnerMs >= 10 && animationMs >= 10, "timing values must be at least 10 ms");
+        check(stepMs <= 5000 && teleportMs <= 5000 && spinnerMs <= 5000 && animationMs <= 5000, "timing values must be at most 5000 ms");
+
+        this.bossNodes = Arrays.stream(bossNodes).sorted().distinct().toArray();
+        this.boss = new boolean[GameRules.BOARD_CELLS + 1];
+        long mask = 0;
+        for (int n : this.bossNodes) {
+            // Node 1 is the start and the last node ends the game; neither can hold a boss.
+            check(n > 1 && n < GameRules.BOARD_CELLS, "boss.nodes must be 2-" + (GameRules.BOARD_CELLS - 1) + ", got " + n);
+            boss[n] = true;
+            mask |= 1L << (n - 1);
+        }
+        this.bossMask = mask;
+        this.starToPoint = starToPoint;
+        this.bossWinPoints = bossWinPoints;
+        this.bossWinStars = bossWinStars;
+        this.bossLosePoints = bossLosePoints;
+        this.bossLoseStars = bossLoseStars;
+        this.forwardProbability = forwardProbability;
+        this.ladderTarget = ladderTarget;
+        this.tileMinPoints = tileMinPoints;
+        this.tileMaxPoints = tileMaxPoints;
+        this.stepMs = stepMs;
+        this.teleportMs = teleportMs;
+        this.spinnerMs = spinnerMs;
+        this.animationMs = animationMs;
+    }
+
+    private static void check(boolean ok, String message) {
+        if (!ok) throw new IllegalArgumentException(message);
+    }
+
+    public int getStarToPoint() { return starToPoint; }
+    public int[] getBossNodes() { return bossNodes.clone(); }
+    public boolean isBoss(int node) { return node >= 1 && node <= GameRules.BOARD_CELLS && boss[node]; }
+    public long getBossMask() { return bossMask; }
+    public int getBossWinPoints() { return bossWinPoints; }
+    public int getBossWinStars() { return bossWinStars; }
+    public int getBossLosePoints() { return bossLosePoints; }
+    public int getBossLoseStars() { return bossLoseStars; }
+    public double getForwardProbability() { return forwardProbability; }
+    public int getLadderTarget() { return ladderTarget; }
+    public int getTileMinPoints() { return tileMinPoints; }
+    public int getTileMaxPoints() { return tileMaxPoints; }
+    public int getStepMs() { return stepMs; }
+    public int getTeleportMs() { return teleportMs; }
+    public int getSpinnerMs() { return spinnerMs; }
+    public int getAnimationMs() { return animationMs; }
+
+    public Set<Integer> getBossNodeSet() {
+        Set<Integer> set = new HashSet<>();
+        for (int n : bossNodes) set.add(n);
+        return set;
+    }
+
+    /** The same config with new boss placement and rewards, as the settings dialog edits them. */
+    public GameConfig withBoss(int[] nodes, int winPoints, int winStars, int losePoints, int loseStars) {
+        return new GameConfig(starToPoint, nodes, winPoints, winStars, losePoints, loseStars, forwardProbability,
+                ladderTarget, tileMinPoints, tileMaxPoints, stepMs, teleportMs, spinnerMs, animationMs);
+    }
+
+    /** Rules for a board built from this config; ladders and tile points come from the caller. */
+    public GameRules rules(int[][] ladders, int[] tilePoints) {
+        return rules(ladders, tilePoints, getBossNodeSet());
+    }
+
+    /** The same for a board whose bosses were placed already, e.g. before the config changed. */
+    public GameRules rules(int[][] ladders, int[] tilePoints, Collection<Integer> bossNodes) {
+        return new GameRules(ladders, tilePoints, bossNodes, bossWinPoints, bossWinStars, bossLosePoints, bossLoseStars,
+                forwardProbability);
+    }
+
+    // ========== FILES ==========
+    public static GameConfig read(File file) throws IOException {
+        Properties p = new Properties();
+        try (Reader r = new FileReader(file)) {
+            p.load(r);
+        }
+        return parse(p);
+    }
+
+    /** Throws {@link IllegalArgumentException} naming the first bad key. */
+    public static GameConfig parse(Properties p) {
+        for (String key : p.stringPropertyNames()) {
+            if (!KEYS.contains(key)) throw new IllegalArgumentException("unknown key " + key);
+        }
+        GameConfig d = DEFAULTS;
+        return new GameConfig(
+                intOf(p, "star.points", d.starToPoint),
+                nodesOf(p, "boss.nodes", d.bossNodes),
+                intOf(p, "boss.win.points", d.bossWinPoints),
+                intOf(p, "boss.win.stars", d.bossWinStars),
+                intOf(p, "boss.lose.points", d.bossLosePoints),
+                intOf(p, "boss.lose.stars", d.bossLoseStars),
+                doubleOf(p, "move.forwardProbability", d.forwardProbability),
+                intOf(p, "ladders.target", d.ladderTarget),
+                intOf(p, "tiles.minPoints", d.tileMinPoints),
+                intOf(p, "tiles.maxPoints", d.tileMaxPoints),
+                intOf(p, "timing.stepMs", d.stepMs),
+                intOf(p, "timing.teleportMs", d.teleportMs),
+                intOf(p, "timing.spinnerMs", d.spinnerMs),
+                intOf(p, "timing.animationMs", d.animationMs));
+    }
+
+    private static int intOf(Properties p, String key, int fallback) {
+        String v = p.getProperty(key);
+        if (v == null || v.trim().isEmpty()) return fallback;
+        try {
+            return Integer.parseInt(v.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(key + " is not a whole number: " + v.trim());
+        }
+    }
+
+    private static double doubleOf(Properties p, String key, double fallback) {
+        String v = p.getProperty(key);
+        if (v == null || v.trim().isEmpty()) return fallback;
+        try {
+            return Double.parseDouble(v.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(key + " is not a number: " + v.trim());
+        }
+    }
+
+    private static int[] nodesOf(Properties p, String key, int[] fallback) {
+        String v = p.getProperty(key);
+        if (v == null) return fallback;
+        return Arrays.stream(v.split(",")).map(String::trim).filter(s -> !s.isEmpty()).mapToInt(s -> {
+            try {
+                return Integer.parseInt(s);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(key + " has a bad node: " + s);
+            }
+        }).toArray();
+    }
+
+    /** Writes to a temporary file and renames it, so a watcher never reads half a file. */
+    public void writeTo(File file) throws IOException {
+        File tmp = new File(file.getPath() + ".tmp");
+        try (PrintWriter w = new PrintWriter(new FileWriter(tmp))) {
+            w.println("# Adventure game settings. Saved changes apply to the running game.");
+            w.println("star.points=" + starToPoint);
+            w.println("boss.nodes=" + Arrays.toString(bossNodes).replaceAll("[\\[\\] ]", ""));
+            w.println("boss.win.points=" + bossWinPoints);
+            w.println("boss.win.stars=" + bossWinStars);
+            w.println("boss.lose.points=" + bossLosePoints);
+            w.println("boss.lose.stars=" + bossLoseStars);
+            w.println("move.forwardProbability=" + forwardProbability);
+            w.println("ladders.target=" + ladderTarget);
+            w.println("tiles.minPoints=" + tileMinPoints);
+            w.println("tiles.maxPoints=" + tileMaxPoints);
+            w.println("timing.stepMs=" + stepMs);
+            w.println("timing.teleportMs=" + teleportMs);
+            w.println("timing.spinnerMs=" + spinnerMs);
+            w.println("timing.animationMs=" + animationMs);
+        }
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("stars x%d, bosses %s (+%d pts/+%d★, %d pts/%d★), forward %.2f, %d ladders, tiles %d-%d, step %d ms",
+                starToPoint, Arrays.toString(bossNodes), bossWinPoints, bossWinStars, bossLosePoints, bossLoseStars,
+                forwardProbability, ladderTarget, tileMinPoints, tileMaxPoints, stepMs);
+    }
+}
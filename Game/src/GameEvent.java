@@ -0,0 +1,72 @@
+// GameEvent.java
+
+/**
+ * Immutable notification from the game flow to its consumers (board, log, audio, disk).
+ * Seats index the match's player list; {@code nanos} is the publish time used for latency.
+ */
+public final class GameEvent {
+    public enum Type {
+        LOG,          // text
+        SOUND,        // text = file name
+        TURN,         // seat
+        STEP,         // seat, from -> to
+        TELEPORT,     // seat, from -> to (ladder)
+        STAR,         // seat, a = node
+        SCORE,        // seat, a = score, b = stars (new totals)
+        FINISHED,     // seat
+        MATCH_OVER,   // seat = winner or -1
+        SNAPSHOT,     // payload = GameSnapshot after the change
+        SAVE_BOSS_STATS,
+        ARCHIVE_MATCH, // payload = MatchArchive.Match
+        MATCH_START   // payload = MatchReplay to record into
+    }
+
+    private final Type type;
+    private final int seat;
+    private final int a;
+    private final int b;
+    private final String text;
+    private final Object payload;
+    private final long nanos;
+
+    private GameEvent(Type type, int seat, int a, int b, String text, Object payload) {
+        this.type = type;
+        this.seat = seat;
+        this.a = a;
+        this.b = b;
+        this.text = text;
+        this.payload = payload;
+        this.nanos = System.nanoTime();
+    }
+
+    public static GameEvent log(String text) { return new GameEvent(Type.LOG, -1, 0, 0, text, null); }
+    public static GameEvent sound(String file) { return new GameEvent(Type.SOUND, -1, 0, 0, file, null); }
+    public static GameEvent turn(int seat) { return new GameEvent(Type.TURN, seat, 0, 0, null, null); }
+    public static GameEvent step(int seat, int from, int to) { return new GameEvent(Type.STEP, seat, from, to, null, null); }
+    public static GameEvent teleport(int seat, int from, int to) { return new GameEvent(Type.TELEPORT, seat, from, to, null, null); }
+    public static GameEvent star(int seat, int node) { return new GameEvent(Type.STAR, seat, node, 0, null, null); }
+    public static GameEvent score(int seat, int score, int stars) { return new GameEvent(Type.SCORE, seat, score, stars, null, null); }
+    public static GameEvent finished(int seat) { return new GameEvent(Type.FINISHED, seat, 0, 0, null, null); }
+    public static GameEvent matchOver(int winner) { return new GameEvent(Type.MATCH_OVER, winner, 0, 0, null, null); }
+    public static GameEvent snapshot(GameSnapshot s) { return new GameEvent(Type.SNAPSHOT, -1, 0, 0, null, s); }
+    public static GameEvent saveBossStats() { return new GameEvent(Type.SAVE_BOSS_STATS, -1, 0, 0, null, null); }
+    public static GameEvent archiveMatch(MatchArchive.Match m) { return new GameEvent(Type.ARCHIVE_MATCH, -1, 0, 0, null, m); }
+    public static GameEvent matchStart(MatchReplay r) { return new GameEvent(Type.MATCH_START, -1, 0, 0, null, r); }
+
+    public Type getType() { return type; }
+    public int getSeat() { return seat; }
+    public int getFrom() { return a; }
+    public int getTo() { return b; }
+    public int getNode() { return a; }
+    public int getScore() { return a; }
+    public int getStars() { return b; }
+    public String getText() { return text; }
+    public Object getPayload() { return payload; }
+    public long getNanos() { return nanos; }
+
+    @Override
+    public String toString() {
+        return type + (seat >= 0 ? " seat=" + seat : "") + (text != null ? " " + text : "")
+                + (type == Type.STEP || type == Type.TELEPORT ? " " + a + "->" + b : "");
+    }
+}
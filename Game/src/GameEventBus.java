@@ -0,0 +1,207 @@
+// GameEventBus.java
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hands game events from the game flow (the single producer) to independent consumers over
+ * an {@link EventRing}. Publishing does not wait for ordinary consumers: one that falls a
+ * whole ring behind loses the oldest events and sees them counted in its stats. A
+ * {@link #losslessWorker} is the exception; the producer waits for it rather than lap it,
+ * so saves and archive records are never dropped.
+ *
+ * Consumers either run on their own daemon thread ({@link #worker}) or are drained by their
+ * owner ({@link #polled}), e.g. once per frame on the EDT. Either way they see events in
+ * batches and get {@link Consumer#onBatchEnd} after each one, which is where repaints and
+ * flushes belong. Idle worker threads sleep until the next publish wakes them.
+ */
+public class GameEventBus {
+    public interface Consumer {
+        void onEvent(GameEvent e);
+
+        /** Called after a non-empty batch; {@code lost} events were skipped since the last batch. */
+        default void onBatchEnd(long lost) {}
+    }
+
+    public static final int DEFAULT_CAPACITY = 4096;
+    private static final int WORKER_BATCH = 256;
+    private static final int SPIN_POLLS = 100;
+    private static final long GATE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final EventRing<GameEvent> ring;
+    private final Histogram publishNanos = Histogram.exponential(16, 2, 20);
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final List<Subscription> workers = new CopyOnWriteArrayList<>();
+    private final List<Subscription> gating = new CopyOnWriteArrayList<>();
+    private long gateWaits;   // producer only
+    private volatile boolean running = true;
+
+    public GameEventBus(int capacity) {
+        this.ring = new EventRing<>(capacity);
+    }
+
+    /** Publish from the producing thread only. Waits only while a lossless worker is a whole ring behind. */
+    public long publish(GameEvent e) {
+        for (Subscription s : gating) {
+            if (s.reader.backlog() < ring.capacity()) continue;
+            gateWaits++;
+            while (running && s.reader.backlog() >= ring.capacity()) {
+                s.wake();
+                LockSupport.parkNanos(GATE_PARK_NANOS);
+            }
+        }
+        long seq = ring.publish(e);
+        for (Subscription s : workers) s.wake();
+        publishNanos.record(System.nanoTime() - e.getNanos());
+        return seq;
+    }
+
+    /** A consumer that its owner drains with {@link Subscription#poll}. */
+    public Subscription polled(String name, Consumer consumer) {
+        Subscription s = new Subscription(name, consumer);
+        subscriptions.add(s);
+        return s;
+    }
+
+    /** A consumer with its own daemon thread, which spins briefly and then sleeps while the ring is empty. */
+    public Subscription worker(String name, Consumer consumer) {
+        Subscription s = polled(name, consumer);
+        Thread t = new Thread(() -> {
+            int idle = 0;
+            while (running) {
+                if (s.poll(WORKER_BATCH) > 0) { idle = 0; continue; }
+                if (++idle < SPIN_POLLS) { Thread.onSpinWait(); continue; }   // a burst rarely pauses longer
+                idle = 0;
+                s.sleeping = true;   // then look once more, so a publish in between is not missed
+                if (running && s.reader.backlog() == 0) LockSupport.park(this);
+                s.sleeping = false;
+            }
+            while (s.poll(WORKER_BATCH) > 0) { /* drain what is left */ }
+        }, "events-" + name);
+        t.setDaemon(true);
+        s.thread = t;
+        workers.add(s);
+        t.start();
+        return s;
+    }
+
+    /**
+     * A worker that is never lapped: {@link #publish} waits for it instead. Meant for low-rate
+     * consumers whose events must all arrive, such as the one that writes saves and replays.
+     */
+    public Subscription losslessWorker(String name, Consumer consumer) {
+        Subscription s = worker(name, consumer);
+        gating.add(s);
+        return s;
+    }
+
+    /** Stops the workers after they drain what was published, waiting up to {@code timeoutMs}. */
+    public void close(long timeoutMs) {
+        running = false;
+        for (Subscription s : workers) LockSupport.unpark(s.thread);
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        for (Subscription s : subscriptions) {
+            if (s.thread == null) continue;
+            try {
+                s.thread.join(Math.max(1, deadline - System.currentTimeMillis()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    public List<String> stats() {
+        List<String> lines = new ArrayList<>();
+        lines.add("published " + (ring.getCursor() + 1) + ", publish " + publishNanos.summary("ns") + ", waited for lossless consumers " + gateWaits + "x");
+        for (Subscription s : subscriptions) lines.add(s.stats());
+        return lines;
+    }
+
+    public final class Subscription implements EventRing.BatchHandler<GameEvent> {
+        private final String name;
+        private final Consumer consumer;
+        private final EventRing<GameEvent>.Reader reader = ring.newReader();
+        private final Histogram latencyMicros = Histogram.exponential(1, 2, 24);
+        private final Histogram batchSizes = Histogram.exponential(1, 2, 13);
+        private long reportedLost;
+        private volatile Thread thread;
+        private volatile boolean sleeping;
+
+        private Subscription(String name, Consumer consumer) {
+            this.name = name;
+            this.consumer = consumer;
+        }
+
+        /** Delivers up to {@code maxBatch} pending events; call from one thread only. */
+        public int poll(int maxBatch) {
+            int n = reader.drain(this, maxBatch);
+            if (n > 0) {
+                batchSizes.record(n);
+                long lost = reader.getLost();
+                consumer.onBatchEnd(lost - reportedLost);
+                reportedLost = lost;
+            }
+            return n;
+        }
+
+        @Override
+        public void onEvent(GameEvent e, long sequence) {
+            latencyMicros.record((System.nanoTime() - e.getNanos()) / 1000);
+            consumer.onEvent(e);
+        }
+
+        /** Unparks the worker thread if it is asleep; its flag is read after the cursor is written. */
+        private void wake() {
+            if (sleeping) LockSupport.unpark(thread);
+        }
+
+        public Histogram getLatencyMicros() { return latencyMicros; }
+
+        public String stats() {
+            return String.format("%s: latency %s, batch mean=%.1f max=%d, lost %d, backlog %d",
+                    name, latencyMicros.summary("us"), batchSizes.mean(), batchSizes.max(), reader.getLost(), reader.backlog());
+        }
+    }
+
+    // ========== BENCHMARK ==========
+    /**
+     * {@code java GameEventBus [events] [ratePerSecond]} — one producer, three worker
+     * consumers (one of them slow) and one consumer polled at 60 Hz, like the EDT.
+     */
+    public static void main(String[] args) throws Exception {
+        int events = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        long rate = args.length > 1 ? Long.parseLong(args[1]) : 0;
+        GameEventBus bus = new GameEventBus(DEFAULT_CAPACITY);
+        long[] seen = new long[4];
+        bus.worker("log", e -> seen[0]++);
+        bus.worker("audio", e -> seen[1]++);
+        bus.worker("persist", new Consumer() {
+            @Override public void onEvent(GameEvent e) { seen[2]++; }
+            @Override public void onBatchEnd(long lost) { LockSupport.parkNanos(200_000); }  // a slow disk
+        });
+        Subscription frame = bus.polled("frame", e -> seen[3]++);
+        Thread edt = new Thread(() -> {
+            while (bus.running) {
+                frame.poll(Integer.MAX_VALUE);
+                LockSupport.parkNanos(16_000_000);
+            }
+        }, "frame-poller");
+        edt.setDaemon(true);
+        edt.start();
+
+        long start = System.nanoTime();
+        long gap = rate > 0 ? 1_000_000_000L / rate : 0;
+        for (int i = 0; i < events; i++) {
+            bus.publish(GameEvent.step(i & 3, i & 63, (i + 1) & 63));
+            if (gap > 0) LockSupport.parkNanos(gap);
+        }
+        double secs = (System.nanoTime() - start) / 1e9;
+        Thread.sleep(100);
+        bus.close(2000);
+        System.out.printf("[Events] %d events in %.2fs (%.0f/s)%n", events, secs, events / secs);
+        for (String line : bus.stats()) System.out.println("[Events] " + line);
+    }
+}
@@ -0,0 +1,117 @@
+// GameHistory.java
+
+/**
+ * Undo/redo over {@link GameSnapshot}s. Both stacks are persistent linked lists, so recording,
+ * undoing and redoing are each a pointer swap; snapshots themselves share unchanged state.
+ */
+public class GameHistory {
+    private static final class Node {
+        final GameSnapshot snapshot;
+        final Node next;
+        final int depth;
+
+        Node(GameSnapshot snapshot, Node next) {
+            this.snapshot = snapshot;
+            this.next = next;
+            this.depth = next == null ? 1 : next.depth + 1;
+        }
+    }
+
+    private Node undo;
+    private Node redo;
+    private GameSnapshot current;
+
+    public GameHistory(GameSnapshot start) {
+        this.current = start;
+    }
+
+    public GameSnapshot current() { return current; }
+    public boolean canUndo() { return undo != null; }
+    public boolean canRedo() { return redo != null; }
+    public int undoDepth() { return undo == null ? 0 : undo.depth; }
+    public int redoDepth() { return redo == null ? 0 : redo.depth; }
+
+    /** Makes {@code s} the current state; whatever could be redone is dropped. */
+    public void record(GameSnapshot s) {
+        if (s == current) return;
+        undo = new Node(current, undo);
+        redo = null;
+        current = s;
+    }
+
+    /** Replaces the current state without adding a step (e.g. mid-turn updates). */
+    public void replace(GameSnapshot s) {
+        current = s;
+    }
+
+    public GameSnapshot undo() {
+        if (undo == null) return current;
+        redo = new Node(current, redo);
+        current = undo.snapshot;
+        undo = undo.next;
+        return current;
+    }
+
+    public GameSnapshot redo() {
+        if (redo == null) return current;
+        undo = new Node(current, undo);
+        current = redo.snapshot;
+        redo = redo.next;
+        return current;
+    }
+
+    // ========== FOOTPRINT ==========
+    /**
+     * {@code java GameHistory [steps]} — records a long random walk of single-seat changes and
+     * reports retained heap per snapshot, against a deep copy of the same state per step.
+     */
+    public static void main(String[] args) {
+        int steps = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        java.util.Random rnd = new java.util.Random(3);
+        int[][] ladders = GameRules.generateLadders(rnd, GameRules.LADDER_TARGET);
+        GameSnapshot.Board board = new GameSnapshot.Board(GameRules.generateTilePoints(rnd), ladders, 0L);
+        GameSnapshot.Seat[] seats = new GameSnapshot.Seat[4];
+        for (int i = 0; i < seats.length; i++) seats[i] = new GameSnapshot.Seat("P" + (i + 1), 1, 0, 0, false, GameSnapshot.PathStack.of(1));
+
+        long pathNodes = 0;
+        long before = usedHeap();
+        GameHistory h = new GameHistory(GameSnapshot.empty(board).withSeats(seats));
+        long t0 = System.nanoTime();
+        for (int i = 0; i < steps; i++) {
+            GameSnapshot s = h.current();
+            int seat = i % seats.length;
+            GameSnapshot.Seat p = s.getSeat(seat);
+            GameSnapshot.PathStack path = p.getPath();
+            int pos;
+            if (rnd.nextInt(4) == 0 && path.size() > 1) { path = path.pop(); pos = path.peek(); }
+            else { pos = Math.min(GameRules.BOARD_CELLS, p.getPosition() + 1); path = path.push(pos); }
+            GameSnapshot.Seat next = pos == GameRules.BOARD_CELLS   // start over so paths stay game-sized
+                    ? new GameSnapshot.Seat(p.getName(), 1, 0, 0, false, GameSnapshot.PathStack.of(1))
+                    : new GameSnapshot.Seat(p.getName(), pos, p.getStars(), p.getScore() + 1, false, path);
+            s = s.withSeat(seat, next);
+            for (int j = 0; j < seats.length; j++) pathNodes += s.getSeat(j).getPath().size();
+            if (pos % 5 == 0) s = s.withStarsClaimed(s.getStarsClaimed() | 1L << (pos - 1));
+            h.record(s.withTurn((seat + 1) % seats.length, GameSnapshot.NO_SEATS, i + 1));
+        }
+        double recordNs = (System.nanoTime() - t0) / (double) steps;
+        t0 = System.nanoTime();
+        while (h.canUndo()) h.undo();
+        while (h.canRedo()) h.redo();
+        double undoNs = (System.nanoTime() - t0) / (2.0 * steps);
+        long shared = usedHeap() - before;
+
+        // A deep copy per step: snapshot, seats, tile points, ladders and every path element.
+        long deepPerStep = 40 + seats.length * 56 + (16 + 65 * 4) + GameRules.LADDER_TARGET * 24
+                + pathNodes / steps * 16;
+        System.out.printf("[History] %d steps: record %.0f ns, undo/redo %.0f ns%n", steps, recordNs, undoNs);
+        System.out.printf("[History] retained %.1f MB (%.0f B/step); a deep copy per step would be ~%d B/step%n",
+                shared / 1e6, shared / (double) steps, deepPerStep);
+        if (h.undoDepth() != steps) System.err.println("[History] undo depth " + h.undoDepth() + " != " + steps);
+    }
+
+    private static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
@@ -0,0 +1,78 @@
+// GameJfr.java
+import jdk.jfr.*;
+
+/**
+ * Flight Recorder event types for the game's hot paths, so a recording shows turns, moves,
+ * boss fights, score saves and board paints next to GC and CPU samples. All are enabled by
+ * default; a disabled event is never committed and its allocation is removed by the JIT, so
+ * call sites should guard any work done only for the event with {@code isEnabled()}.
+ *
+ * {@code java -XX:StartFlightRecording=filename=game.jfr AdventureGame}, then
+ * {@code jfr print --categories Adventure game.jfr}.
+ */
+public final class GameJfr {
+    private GameJfr() {}
+
+    @Name("adventure.Turn")
+    @Label("Turn")
+    @Category({"Adventure", "Gameplay"})
+    @Description("From the dice roll to the end of the turn, including the move animation")
+    public static final class Turn extends Event {
+        @Label("Player") public String player;
+        @Label("Start Node") public int startNode;
+        @Label("Dice") public int dice;
+        @Label("Forward") public boolean forward;
+        @Label("Prime Power") public boolean primePower;
+        @Label("End Node") public int endNode;
+        @Label("Extra Turn") public boolean extraTurn;
+    }
+
+    @Name("adventure.Step")
+    @Label("Step")
+    @Category({"Adventure", "Gameplay"})
+    public static final class Step extends Event {
+        @Label("Player") public String player;
+        @Label("From") public int fromNode;
+        @Label("To") public int toNode;
+    }
+
+    @Name("adventure.Teleport")
+    @Label("Ladder Teleport")
+    @Category({"Adventure", "Gameplay"})
+    public static final class Teleport extends Event {
+        @Label("Player") public String player;
+        @Label("From") public int fromNode;
+        @Label("To") public int toNode;
+    }
+
+    @Name("adventure.BossFight")
+    @Label("Boss Fight")
+    @Category({"Adventure", "Gameplay"})
+    @Description("From the boss appearing to the fight being resolved")
+    public static final class BossFight extends Event {
+        @Label("Player") public String player;
+        @Label("Node") public int node;
+        @Label("Difficulty") public int difficulty;
+        @Label("Won") public boolean won;
+    }
+
+    @Name("adventure.ScoreSave")
+    @Label("Score Save")
+    @Category({"Adventure", "Persistence"})
+    @Description("One coalesced write of buffered score changes, including the flush to disk")
+    public static final class ScoreSave extends Event {
+        @Label("Store") public String store;
+        @Label("Players Updated") public int players;
+        @Label("Bytes Written") @DataAmount public long bytes;
+    }
+
+    @Name("adventure.BoardPaint")
+    @Label("Board Paint")
+    @Category({"Adventure", "Rendering"})
+    public static final class BoardPaint extends Event {
+        @Label("Width") public int width;
+        @Label("Height") public int height;
+        @Label("Seats") public int seats;
+        @Label("Map Rescaled") public boolean rescaled;
+    }
+}
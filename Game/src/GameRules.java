@@ -0,0 +1,180 @@
+// GameRules.java
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Immutable rule set for one match, independent of Swing: board size, ladders, tile points,
+ * boss nodes and rewards, the chance a roll moves forward, plus optional rule variants that
+ * give players decisions to make. Everything that simulates a roll reads that chance here.
+ * {@link MatchEngine} applies these rules to a {@link MatchState}.
+ */
+public class GameRules {
+    public static final int BOARD_CELLS = 64;
+    public static final int STAR_TO_POINT = 5;
+    public static final double FORWARD_PROBABILITY = 0.75;
+    public static final int LADDER_TARGET = 5;
+    public static final Set<Integer> DEFAULT_BOSS_NODES = new HashSet<>(Arrays.asList(8, 15, 23, 31, 42, 55));
+
+    private final int[] ladderTo;      // ladderTo[from] = to, 0 = no ladder
+    private final int[][] ladders;     // {from, to} in placement order
+    private final int[] tilePoints;
+    private final boolean[] boss;
+    private final int bossWinPoints, bossWinStars, bossLosePoints, bossLoseStars;
+    private final double forwardProbability;
+
+    // Rule variants (all off = the classic rules used by the Swing game)
+    private final boolean optionalLadders;
+    private final boolean optionalBoss;
+    private final boolean chooseDirection;
+
+    public GameRules(int[][] ladders, int[] tilePoints, Collection<Integer> bossNodes,
+                     int bossWinPoints, int bossWinStars, int bossLosePoints, int bossLoseStars) {
+        this(ladders, tilePoints, bossNodes, bossWinPoints, bossWinStars, bossLosePoints, bossLoseStars, FORWARD_PROBABILITY);
+    }
+
+    public GameRules(int[][] ladders, int[] tilePoints, Collection<Integer> bossNodes,
+                     int bossWinPoints, int bossWinStars, int bossLosePoints, int bossLoseStars, double forwardProbability) {
+        this(ladders, tilePoints, toMask(bossNodes), bossWinPoints, bossWinStars, bossLosePoints, bossLoseStars,
+                forwardProbability, false, false, false);
+    }
+
+    private GameRules(int[][] ladders, int[] tilePoints, boolean[] boss,
+                      int bossWinPoints, int bossWinStars, int bossLosePoints, int bossLoseStars, double forwardProbability,
+                      boolean optionalLadders, boolean optionalBoss, boolean chooseDirection) {
+        this.ladders = new int[ladders.length][];
+        this.ladderTo = new int[BOARD_CELLS + 1];
+        for (int i = 0; i < ladders.length; i++) {
+            this.ladders[i] = new int[]{ladders[i][0], ladders[i][1]};
+            ladderTo[ladders[i][0]] = ladders[i][1];
+        }
+        this.tilePoints = Arrays.copyOf(tilePoints, BOARD_CELLS + 1);
+        this.boss = boss;
+        this.bossWinPoints = bossWinPoints;
+        this.bossWinStars = bossWinStars;
+        this.bossLosePoints = bossLosePoints;
+        this.bossLoseStars = bossLoseStars;
+        this.forwardProbability = forwardProbability;
+        this.optionalLadders = optionalLadders;
+        this.optionalBoss = optionalBoss;
+        this.chooseDirection = chooseDirection;
+    }
+
+    private static boolean[] toMask(Collection<Integer> nodes) {
+        boolean[] mask = new boolean[BOARD_CELLS + 1];
+        for (int n : nodes) if (n >= 1 && n <= BOARD_CELLS) mask[n] = true;
+        return mask;
+    }
+
+    /** Random board with the default bosses and rewards, generated the same way startGame does. */
+    public static GameRules random(Random rnd) {
+        return new GameRules(generateLadders(rnd, LADDER_TARGET), generateTilePoints(rnd), DEFAULT_BOSS_NODES, 10, 2, -5, -1);
+    }
+
+    public GameRules withVariants(boolean optionalLadders, boolean optionalBoss, boolean chooseDirection) {
+        return new GameRules(ladders, tilePoints, boss, bossWinPoints, bossWinStars, bossLosePoints, bossLoseStars,
+                forwardProbability, optionalLadders, optionalBoss, chooseDirection);
+    }
+
+    public int ladderFrom(int node) { return node >= 1 && node <= BOARD_CELLS ? ladderTo[node] : 0; }
+    public int[][] getLadders() { return ladders; }
+    public int getTilePoints(int node) { return tilePoints[node]; }
+    public boolean isBoss(int node) { return node >= 1 && node <= BOARD_CELLS && boss[node]; }
+    public int getBossWinPoints() { return bossWinPoints; }
+    public int getBossWinStars() { return bossWinStars; }
+    public int getBossLosePoints() { return bossLosePoints; }
+    public int getBossLoseStars() { return bossLoseStars; }
+    /** Chance that a roll moves forward; the rest move back. */
+    public double getForwardProbability() { return forwardProbability; }
+    public boolean isOptionalLadders() { return optionalLadders; }
+    public boolean isOptionalBoss() { return optionalBoss; }
+    public boolean isChooseDirection() { return chooseDirection; }
+
+    public Set<Integer> getBossNodes() {
+        Set<Integer> s = new HashSet<>();
+        for (int i = 1; i <= BOARD_CELLS; i++) if (boss[i]) s.add(i);
+        return s;
+    }
+
+    public static boolean isStarNode(int node) {
+        return node >= 1 && node <= BOARD_CELLS && node % 5 == 0;
+    }
+
+    public static boolean isPrime(int n) {
+        if (n <= 1) return false;
+        if (n <= 3) return true;
+        if (n % 2 == 0 || n % 3 == 0) return false;
+        for (int i = 5; i * i <= n; i += 6) {
+            if (n % i == 0 || n % (i + 2) == 0) return false;
+        }
+        return true;
+    }
+
+    // ========== BOARD GENERATION ==========
+    public static int[] generateTilePoints(Random rnd) {
+        return generateTilePoints(rnd, 1, 10);
+    }
+
+    /** Points {@code min..max} on every node but the start; draws as many values as the default range. */
+    public static int[] generateTilePoints(Random rnd, int min, int max) {
+        int[] pts = new int[BOARD_CELLS + 1];
+        for (int i = 2; i <= BOARD_CELLS; i++) pts[i] = min + rnd.nextInt(max - min + 1);
+        return pts;
+    }
+
+    /**
+     * Non-overlapping ladders between rows; returns {from, to} pairs.
+     * May return fewer than {@code target} if placement keeps failing.
+     */
+    public static int[][] generateLadders(Random rnd, int target) {
+        List<int[]> links = new ArrayList<>();
+        Set<Integer> usedEndpoints = new HashSet<>();
+        int attempts = 0;
+        final int MAX_ATTEMPTS = 2000;
+
+        final int BOARD_SIZE = 8;
+        java.util.function.IntUnaryOperator rowOf = pos -> {
+            int nodeNumber = BOARD_CELLS - pos + 1;
+            return (nodeNumber - 1) / BOARD_SIZE;
+        };
+
+        while (links.size() < target && attempts < MAX_ATTEMPTS) {
+            attempts++;
+            int a = rnd.nextInt(54) + 6;
+            int b = rnd.nextInt(54) + 6;
+            if (a == b) continue;
+            int from = Math.min(a, b);
+            int to   = Math.max(a, b);
+
+            if (to - from < 3) continue;
+
+            if (usedEndpoints.contains(from) || usedEndpoints.contains(to)) continue;
+
+            int rf = rowOf.applyAsInt(from);
+            int rt = rowOf.applyAsInt(to);
+            if (rf == rt) continue;
+
+            boolean bad = false;
+            for (int[] e : links) {
+                int ef = e[0];
+                int et = e[1];
+                if (ef == from && et == to) { bad = true; break; }
+                if ((from < ef && ef < to && to < et) || (ef < from && from < et && et < to)) {
+                    bad = true;
+                    break;
+                }
+                if (ef == from || ef == to || et == from || et == to) { bad = true; break; }
+            }
+            if (bad) continue;
+
+            links.add(new int[]{from, to});
+            usedEndpoints.add(from);
+            usedEndpoints.add(to);
+        }
+        return links.toArray(new int[0][]);
+    }
+}
@@ -0,0 +1,315 @@
+// GameServer.java
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Non-blocking match server. One Selector thread does all socket I/O and the lobby;
+ * every started match runs as a {@link HostedMatch} on its own virtual thread.
+ * Clients join a match id with a seat count and the match starts when every seat is taken.
+ *
+ * Match threads never touch channels: they queue frames on the connection and ask the
+ * selector thread to flush, with wakeups coalesced so a burst of frames costs one wakeup.
+ */
+public class GameServer implements Runnable {
+    private static final int BOSS_SECONDS = 10;
+    private static final long SPECTATOR_BACKLOG_BYTES = 64 * 1024;
+
+    private final Selector selector;
+    private final ServerSocketChannel server;
+    private final Map<Integer, ServerMatch> matches = new HashMap<>();   // selector thread only
+    private final ConcurrentLinkedQueue<Connection> flushRequests = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean wakeupPending = new AtomicBoolean();
+    private final BossQuestionProvider questions = new QuestionBank(512, 7);
+    private final Random random = new Random();
+    private volatile boolean running = true;
+
+    /** Server-side time to resolve one roll or boss answer, in microseconds. */
+    private final Histogram turnMicros = Histogram.exponential(1, 2, 20);
+    private final AtomicLong matchesStarted = new AtomicLong();
+    private final AtomicLong matchesFinished = new AtomicLong();
+    private volatile int liveMatches;
+
+    public GameServer(int port) throws IOException {
+        selector = Selector.open();
+        server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(port), 4096);
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    public int getPort() { return server.socket().getLocalPort(); }
+    public Histogram getTurnMicros() { return turnMicros; }
+
+    public String stats() {
+        return "matches started=" + matchesStarted.get() + " finished=" + matchesFinished.get() + " live=" + liveMatches
+                + " parked=" + HostedMatch.parkedCount() + " turn " + turnMicros.summary("µs");
+    }
+
+    public void stop() {
+        running = false;
+        selector.wakeup();
+    }
+
+    // ========== CONNECTION / MATCH ==========
+    static final class Connection {
+        final SocketChannel channel;
+        ByteBuffer in = Protocol.readBuffer();   // selector thread only
+        final ConcurrentLinkedQueue<ByteBuffer> out = new ConcurrentLinkedQueue<>();
+        final AtomicBoolean flushQueued = new AtomicBoolean();
+        final AtomicLong queuedBytes = new AtomicLong();
+        ServerMatch match;
+        int seat = -1;
+        SpectatorChannel watching;
+        Object watchHandle;
+
+        Connection(SocketChannel channel) { this.channel = channel; }
+    }
+
+    final class ServerMatch implements HostedMatch.Output {
+        final int id;
+        final int seats;
+        final String[] names;
+        final Connection[] conns;
+        int joined;
+        HostedMatch hosted;
+        volatile boolean over;
+
+        ServerMatch(int id, int seats) {
+            this.id = id;
+            this.seats = seats;
+            this.names = new String[seats];
+            this.conns = new Connection[seats];
+        }
+
+        @Override
+        public void send(int seat, ByteBuffer frame) {
+            Connection c = conns[seat];
+            if (c != null) enqueue(c, frame);
+        }
+
+        @Override
+        public void matchEnded(HostedMatch match, MatchState finalState) {
+            over = true;
+            runOnSelector(() -> {
+                if (matches.remove(id) == this) liveMatches = matches.size();
+                for (Connection c : conns) if (c != null && c.match == this) c.match = null;
+                if (finalState.getPhase() == MatchState.Phase.GAME_OVER) matchesFinished.incrementAndGet();
+            });
+        }
+    }
+
+    // ========== EVENT LOOP ==========
+    @Override
+    public void run() {
+        try {
+            while (running) {
+                selector.select();
+                wakeupPending.set(false);
+                Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                while (it.hasNext()) {
+                    SelectionKey key = it.next();
+                    it.remove();
+                    try {
+                        if (!key.isValid()) continue;
+                        if (key.isAcceptable()) accept();
+                        if (key.isValid() && key.isReadable()) read(key);
+                        if (key.isValid() && key.isWritable()) flush(key);
+                    } catch (IOException | RuntimeException e) {
+                        close(key);
+                    }
+                }
+                Runnable task;
+                while ((task = tasks.poll()) != null) task.run();
+                Connection c;
+                while ((c = flushRequests.poll()) != null) {
+                    c.flushQueued.set(false);
+                    SelectionKey key = c.channel.keyFor(selector);
+                    if (key == null || !key.isValid()) continue;
+                    try {
+                        flush(key);
+                    } catch (IOException e) {
+                        close(key);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("[Server] Selector failed: " + e.getMessage());
+        } finally {
+            for (ServerMatch m : matches.values()) if (m.hosted != null) m.hosted.abort();
+            try { selector.close(); server.close(); } catch (IOException ignored) {}
+        }
+    }
+
+    private void wakeup() {
+        if (wakeupPending.compareAndSet(false, true)) selector.wakeup();
+    }
+
+    private void runOnSelector(Runnable task) {
+        tasks.add(task);
+        wakeup();
+    }
+
+    /** Thread-safe: queues a frame and schedules a flush on the selector thread. */
+    private void enqueue(Connection c, ByteBuffer frame) {
+        if (!c.channel.isOpen()) return;
+        c.queuedBytes.addAndGet(frame.remaining());
+        c.out.add(frame.duplicate());
+        if (c.flushQueued.compareAndSet(false, true)) {
+            flushRequests.add(c);
+            wakeup();
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel ch;
+        while ((ch = server.accept()) != null) {
+            ch.configureBlocking(false);
+            ch.setOption(java.net.StandardSocketOptions.TCP_NODELAY, true);
+            ch.register(selector, SelectionKey.OP_READ, new Connection(ch));
+        }
+    }
+
+    private void read(SelectionKey key) throws IOException {
+        Connection c = (Connection) key.attachment();
+        int n = c.channel.read(c.in);
+        if (n < 0) { close(key); return; }
+        c.in.flip();
+        ByteBuffer frame;
+        while ((frame = Protocol.nextFrame(c.in)) != null) handle(c, frame);
+        c.in = Protocol.fitFrame(c.in.compact());
+    }
+
+    private void flush(SelectionKey key) throws IOException {
+        Connection c = (Connection) key.attachment();
+        ByteBuffer b;
+        while ((b = c.out.peek()) != null) {
+            c.channel.write(b);
+            if (b.hasRemaining()) {
+                key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                return;
+            }
+            c.out.poll();
+            c.queuedBytes.addAndGet(-b.limit());
+        }
+        key.interestOps(SelectionKey.OP_READ);
+    }
+
+    private void close(SelectionKey key) {
+        Connection c = (Connection) key.attachment();
+        key.cancel();
+        if (c == null) return;
+        try { c.channel.close(); } catch (IOException ignored) {}
+        unwatch(c);
+        ServerMatch m = c.match;
+        if (m == null) return;
+        c.match = null;
+        if (matches.remove(m.id) == m) {
+            liveMatches = matches.size();
+            if (m.hosted != null) m.hosted.abort();
+            for (Connection other : m.conns) {
+                if (other != null && other != c) {
+                    enqueue(other, Protocol.error("Player left; match " + m.id + " aborted"));
+                    other.match = null;
+                }
+            }
+        }
+    }
+
+    // ========== MESSAGES ==========
+    private void handle(Connection c, ByteBuffer f) {
+        byte type = f.get();
+        switch (type) {
+            case Protocol.JOIN: {
+                int matchId = f.getInt();
+                int seats = f.get();
+                String name = Protocol.getString(f);
+                join(c, matchId, seats, name);
+                break;
+            }
+            case Protocol.ROLL:
+                if (c.match != null && c.match.hosted != null) c.match.hosted.offer(c.seat, type, 0);
+                break;
+            case Protocol.BOSS_ANSWER: {
+                int answer = f.getInt();
+                if (c.match != null && c.match.hosted != null) c.match.hosted.offer(c.seat, type, answer);
+                break;
+            }
+            case Protocol.SPECTATE:
+                spectate(c, f.getInt());
+                break;
+            default:
+                enqueue(c, Protocol.error("Unknown message " + type));
+        }
+    }
+
+    /**
+     * Subscribes the connection to a running match. Frames are refused while more than
+     * {@link #SPECTATOR_BACKLOG_BYTES} are still unsent, so a slow watcher skips ahead to
+     * the next keyframe instead of growing its queue.
+     */
+    private void spectate(Connection c, int matchId) {
+        ServerMatch m = matches.get(matchId);
+        if (m == null || m.hosted == null || m.over) { enqueue(c, Protocol.error("Match " + matchId + " is not running")); return; }
+        unwatch(c);
+        c.watching = m.hosted.getSpectators();
+        c.watchHandle = c.watching.subscribe(frame -> {
+            if (!c.channel.isOpen() || c.queuedBytes.get() > SPECTATOR_BACKLOG_BYTES) return false;
+            enqueue(c, frame);
+            return true;
+        });
+    }
+
+    private void unwatch(Connection c) {
+        if (c.watching == null) return;
+        c.watching.unsubscribe(c.watchHandle);
+        c.watching = null;
+        c.watchHandle = null;
+    }
+
+    private void join(Connection c, int matchId, int seats, String name) {
+        if (c.match != null && !c.match.over) { enqueue(c, Protocol.error("Already in match " + c.match.id)); return; }
+        if (seats < 2 || seats > 6) { enqueue(c, Protocol.error("Seats must be 2-6")); return; }
+        ServerMatch m = matches.computeIfAbsent(matchId, id -> new ServerMatch(id, seats));
+        liveMatches = matches.size();
+        if (m.hosted != null || m.joined >= m.seats) { enqueue(c, Protocol.error("Match " + matchId + " is full")); return; }
+        int seat = m.joined++;
+        m.names[seat] = name;
+        m.conns[seat] = c;
+        c.match = m;
+        c.seat = seat;
+        enqueue(c, Protocol.joined(matchId, seat, m.seats));
+        if (m.joined == m.seats) {
+            m.hosted = new HostedMatch(m.id, m.names.clone(), GameRules.random(random), m, questions,
+                    BOSS_SECONDS, turnMicros, random.nextLong());
+            matchesStarted.incrementAndGet();
+            m.hosted.startVirtual();
+        }
+    }
+
+    // ========== MAIN ==========
+    /** {@code java GameServer [port]} — default port 7777. */
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 7777;
+        GameServer s = new GameServer(port);
+        Thread t = new Thread(s, "game-server");
+        t.start();
+        System.out.println("[Server] Listening on port " + s.getPort());
+        while (t.isAlive()) {
+            Thread.sleep(10_000);
+            System.out.println("[Server] " + s.stats());
+        }
+    }
+}
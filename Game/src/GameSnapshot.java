@@ -0,0 +1,144 @@
+// GameSnapshot.java
+
+/**
+ * Immutable view of a local match at one instant, built to be shared.
+ *
+ * A new snapshot copies only the seat array (at most six references); every {@link Seat}
+ * that did not change, the {@link Board} and each seat's {@link PathStack} are reused from
+ * the previous snapshot. Readers such as the renderer can hold one without locks, and a long
+ * undo history costs roughly one small object per change instead of a copy of the game.
+ */
+public final class GameSnapshot {
+    /** Per-match layout; one instance is shared by every snapshot of the match. */
+    public static final class Board {
+        private final int[] tilePoints;    // index 1..cells
+        private final int[][] ladders;     // {from, to}
+        private final long bossMask;       // bit node-1
+
+        public Board(int[] tilePoints, int[][] ladders, long bossMask) {
+            this.tilePoints = tilePoints.clone();
+            this.ladders = new int[ladders.length][];
+            for (int i = 0; i < ladders.length; i++) this.ladders[i] = ladders[i].clone();
+            this.bossMask = bossMask;
+        }
+
+        public int getTilePoints(int node) { return node > 0 && node < tilePoints.length ? tilePoints[node] : 0; }
+        public int getLadderCount() { return ladders.length; }
+        public int getLadderFrom(int i) { return ladders[i][0]; }
+        public int getLadderTo(int i) { return ladders[i][1]; }
+        public boolean isBoss(int node) { return node >= 1 && node <= 64 && (bossMask & (1L << (node - 1))) != 0; }
+        public long getBossMask() { return bossMask; }
+    }
+
+    /** Persistent stack of visited nodes: push and pop are O(1) and share the tail. */
+    public static final class PathStack {
+        public static final PathStack EMPTY = new PathStack(0, null, 0);
+
+        private final int top;
+        private final PathStack rest;
+        private final int size;
+
+        private PathStack(int top, PathStack rest, int size) {
+            this.top = top;
+            this.rest = rest;
+            this.size = size;
+        }
+
+        public static PathStack of(int node) { return EMPTY.push(node); }
+
+        public PathStack push(int node) { return new PathStack(node, this, size + 1); }
+        public PathStack pop() { return size == 0 ? this : rest; }
+        public int peek() { return top; }
+        public int size() { return size; }
+        public boolean isEmpty() { return size == 0; }
+    }
+
+    public static final class Seat {
+        private final String name;
+        private final int position;
+        private final int stars;
+        private final int score;
+        private final boolean finished;
+        private final PathStack path;
+
+        public Seat(String name, int position, int stars, int score, boolean finished, PathStack path) {
+            this.name = name;
+            this.position = position;
+            this.stars = stars;
+            this.score = score;
+            this.finished = finished;
+            this.path = path;
+        }
+
+        public String getName() { return name; }
+        public int getPosition() { return position; }
+        public int getStars() { return stars; }
+        public int getScore() { return score; }
+        public boolean isFinished() { return finished; }
+        public PathStack getPath() { return path; }
+
+        /** True when {@code other} would be indistinguishable from this seat. */
+        public boolean sameAs(String name, int position, int stars, int score, boolean finished, PathStack path) {
+            return this.name.equals(name) && this.position == position && this.stars == stars
+                    && this.score == score && this.finished == finished && this.path == path;
+        }
+    }
+
+    public static final int[] NO_SEATS = new int[0];
+
+    private final Board board;
+    private final Seat[] seats;
+    private final long starsClaimed;   // bit node-1
+    private final int current;         // -1 when nobody is to move
+    private final int[] queue;         // seats waiting after the current one, in order
+    private final int turn;
+
+    public GameSnapshot(Board board, Seat[] seats, long starsClaimed, int current, int[] queue, int turn) {
+        this.board = board;
+        this.seats = seats;
+        this.starsClaimed = starsClaimed;
+        this.current = current;
+        this.queue = queue;
+        this.turn = turn;
+    }
+
+    public static GameSnapshot empty(Board board) {
+        return new GameSnapshot(board, new Seat[0], 0L, -1, NO_SEATS, 0);
+    }
+
+    public Board getBoard() { return board; }
+    public int getSeatCount() { return seats.length; }
+    public Seat getSeat(int i) { return seats[i]; }
+    public long getStarsClaimed() { return starsClaimed; }
+    public boolean isStarClaimed(int node) { return node >= 1 && node <= 64 && (starsClaimed & (1L << (node - 1))) != 0; }
+    public int getCurrent() { return current; }
+    public int getQueueLength() { return queue.length; }
+    public int getQueued(int i) { return queue[i]; }
+    public int getTurn() { return turn; }
+
+    // ========== DERIVING ==========
+    public GameSnapshot withBoard(Board b) {
+        return b == board ? this : new GameSnapshot(b, seats, starsClaimed, current, queue, turn);
+    }
+
+    /** Replaces one seat, sharing the rest; returns {@code this} when nothing changed. */
+    public GameSnapshot withSeat(int i, Seat seat) {
+        if (seats[i] == seat) return this;
+        Seat[] copy = seats.clone();
+        copy[i] = seat;
+        return new GameSnapshot(board, copy, starsClaimed, current, queue, turn);
+    }
+
+    public GameSnapshot withStarsClaimed(long mask) {
+        return mask == starsClaimed ? this : new GameSnapshot(board, seats, mask, current, queue, turn);
+    }
+
+    public GameSnapshot withTurn(int current, int[] queue, int turn) {
+        return new GameSnapshot(board, seats, starsClaimed, current, queue, turn);
+    }
+
+    /** Seats replaced wholesale (new match or a different seat count). */
+    public GameSnapshot withSeats(Seat[] seats) {
+        return new GameSnapshot(board, seats.clone(), starsClaimed, current, queue, turn);
+    }
+}
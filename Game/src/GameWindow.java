@@ -0,0 +1,126 @@
+// GameWindow.java
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.KeyEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A window of tables, one tab per match. Every window in the process builds its tables from
+ * the same {@link SharedAssets}, so a second table costs its own state and threads but no
+ * second copy of the map, sounds or score store. The selected tab's menus sit in the menu
+ * bar, after the Table menu that every window has; only the selected table plays its
+ * background loop. The process exits when the last window closes.
+ */
+public final class GameWindow extends JFrame {
+    private static final List<GameWindow> open = new ArrayList<>();   // EDT only
+    private static int tablesCreated;
+
+    private final SharedAssets assets;
+    private final JTabbedPane tabs = new JTabbedPane();
+    private final JMenu tableMenu = new JMenu("Table");
+    private AdventureGame selected;
+
+    public GameWindow(SharedAssets assets) {
+        this.assets = assets;
+        setTitle("Adventure Game — Treasure Map Edition");
+        setDefaultCloseOperation(JFrame.DO_NOTHING_ON_CLOSE);
+        getContentPane().setBackground(new Color(245, 240, 230));
+        add(tabs, BorderLayout.CENTER);
+
+        int shortcut = Toolkit.getDefaultToolkit().getMenuShortcutKeyMaskEx();
+        JMenuItem newTable = new JMenuItem("New Table");
+        newTable.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_T, shortcut));
+        newTable.addActionListener(e -> addTable(newTable()));
+        tableMenu.add(newTable);
+
+        JMenuItem newWindow = new JMenuItem("Move to New Window");
+        newWindow.addActionListener(e -> moveToNewWindow());
+        tableMenu.add(newWindow);
+        tableMenu.addSeparator();
+
+        JMenuItem closeTable = new JMenuItem("Close Table");
+        closeTable.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_W, shortcut));
+        closeTable.addActionListener(e -> {
+            if (selected != null) closeTable(selected);
+        });
+        tableMenu.add(closeTable);
+
+        tabs.addChangeListener(e -> select((AdventureGame) tabs.getSelectedComponent()));
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                for (AdventureGame t : tables()) t.close();
+                tabs.removeAll();
+                closeWindow();
+            }
+        });
+
+        setMinimumSize(new Dimension(1200, 820));
+        setExtendedState(JFrame.MAXIMIZED_BOTH);
+        open.add(this);
+    }
+
+    /** A new table on this window's assets, numbered across the whole process. */
+    public AdventureGame newTable() {
+        return new AdventureGame(assets, ++tablesCreated);
+    }
+
+    public void addTable(AdventureGame table) {
+        tabs.addTab(table.getTitle(), table);
+        table.addPropertyChangeListener("title", e -> {
+            int i = tabs.indexOfComponent(table);
+            if (i >= 0) tabs.setTitleAt(i, table.getTitle());
+            if (table == selected) setTitle(table.getTitle());
+        });
+        tabs.setSelectedComponent(table);
+    }
+
+    private List<AdventureGame> tables() {
+        List<AdventureGame> list = new ArrayList<>();
+        for (int i = 0; i < tabs.getTabCount(); i++) list.add((AdventureGame) tabs.getComponentAt(i));
+        return list;
+    }
+
+    private void select(AdventureGame table) {
+        if (table == selected) return;
+        if (selected != null) selected.setForeground(false);
+        selected = table;
+        JMenuBar bar = new JMenuBar();
+        bar.add(tableMenu);
+        if (table != null) {
+            for (JMenu menu : table.getMenus()) bar.add(menu);   // accelerators follow the bar in use
+            table.setForeground(true);
+            setTitle(table.getTitle());
+        }
+        setJMenuBar(bar);
+        revalidate();
+    }
+
+    private void closeTable(AdventureGame table) {
+        tabs.remove(table);
+        table.close();
+        if (tabs.getTabCount() == 0) closeWindow();
+    }
+
+    private void moveToNewWindow() {
+        if (selected == null || tabs.getTabCount() < 2) return;
+        AdventureGame table = selected;
+        tabs.remove(table);
+        GameWindow w = new GameWindow(assets);
+        w.addTable(table);
+        w.pack();
+        w.setVisible(true);
+    }
+
+    private void closeWindow() {
+        open.remove(this);
+        dispose();
+        if (open.isEmpty()) {
+            assets.close();
+            System.exit(0);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+// Histogram.java
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-bucket, thread-safe histogram. Values above the last bound land in an overflow bucket.
+ * Percentiles are reported as the upper bound of the bucket that contains them.
+ */
+public class Histogram {
+    private final long[] bounds;
+    private final AtomicLongArray counts;
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+
+    public Histogram(long... upperBounds) {
+        this.bounds = upperBounds.clone();
+        this.counts = new AtomicLongArray(upperBounds.length + 1);
+    }
+
+    public static Histogram linear(long first, long step, int buckets) {
+        long[] b = new long[buckets];
+        for (int i = 0; i < buckets; i++) b[i] = first + step * i;
+        return new Histogram(b);
+    }
+
+    public static Histogram exponential(long first, double factor, int buckets) {
+        long[] b = new long[buckets];
+        double v = first;
+        for (int i = 0; i < buckets; i++) {
+            b[i] = Math.max(i == 0 ? 1 : b[i - 1] + 1, Math.round(v));
+            v *= factor;
+        }
+        return new Histogram(b);
+    }
+
+    public void record(long value) {
+        int lo = 0, hi = bounds.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (value <= bounds[mid]) hi = mid; else lo = mid + 1;
+        }
+        counts.incrementAndGet(lo);
+        sum.add(value);
+        long m;
+        while (value > (m = max.get()) && !max.compareAndSet(m, value)) { }
+    }
+
+    public long count() {
+        long c = 0;
+        for (int i = 0; i < counts.length(); i++) c += counts.get(i);
+        return c;
+    }
+
+    public double mean() {
+        long c = count();
+        return c == 0 ? 0 : sum.sum() / (double) c;
+    }
+
+    public long max() {
+        long m = max.get();
+        return m == Long.MIN_VALUE ? 0 : m;
+    }
+
+    /** @param p fraction in [0,1], e.g. 0.99 */
+    public long percentile(double p) {
+        long total = count();
+        if (total == 0) return 0;
+        long rank = (long) Math.ceil(p * total);
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= Math.max(1, rank)) return i < bounds.length ? Math.min(bounds[i], max()) : max();
+        }
+        return max();
+    }
+
+    public int bucketCount() { return counts.length(); }
+    public long bucketCountAt(int i) { return counts.get(i); }
+    /** Upper bound of bucket i, or Long.MAX_VALUE for the overflow bucket. */
+    public long bucketBound(int i) { return i < bounds.length ? bounds[i] : Long.MAX_VALUE; }
+
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) counts.set(i, 0);
+        sum.reset();
+        max.set(Long.MIN_VALUE);
+    }
+
+    public String summary(String unit) {
+        return String.format("n=%d mean=%.1f%s p50=%d%s p99=%d%s max=%d%s",
+                count(), mean(), unit, percentile(0.50), unit, percentile(0.99), unit, max(), unit);
+    }
+}
@@ -0,0 +1,184 @@
+// HostedMatch.java
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One server-hosted match written as straight-line blocking code: await roll, move,
+ * await boss answer, finish turn. Meant to run on its own virtual thread, which parks
+ * cheaply in {@link #inbox} while a slow player thinks.
+ *
+ * Inputs arrive from the network thread through {@link #offer}; outputs leave through
+ * {@link Output}, which must not block. Spectators follow along via {@link #getSpectators}.
+ */
+public class HostedMatch implements Runnable {
+    public interface Output {
+        void send(int seat, ByteBuffer frame);
+        void matchEnded(HostedMatch match, MatchState finalState);
+    }
+
+    static final byte ABORT = -1;
+
+    private static final class Input {
+        final int seat;
+        final byte type;
+        final int value;
+
+        Input(int seat, byte type, int value) {
+            this.seat = seat;
+            this.type = type;
+            this.value = value;
+        }
+    }
+
+    private static final class Aborted extends RuntimeException {
+        Aborted() { super(null, null, false, false); }
+    }
+
+    private final int id;
+    private final String[] names;
+    private final GameRules rules;
+    private final Output output;
+    private final BossQuestionProvider questions;
+    private final int bossSeconds;
+    private final Histogram turnMicros;
+    private final Random random;
+    private final BlockingQueue<Input> inbox = new LinkedBlockingQueue<>();
+    private final SpectatorChannel spectators;
+
+    private static final AtomicLong PARKED = new AtomicLong();
+
+    public HostedMatch(int id, String[] names, GameRules rules, Output output,
+                       BossQuestionProvider questions, int bossSeconds, Histogram turnMicros, long seed) {
+        this.id = id;
+        this.names = names;
+        this.rules = rules;
+        this.output = output;
+        this.questions = questions;
+        this.bossSeconds = bossSeconds;
+        this.turnMicros = turnMicros;
+        this.random = new Random(seed);
+        this.spectators = new SpectatorChannel(names, rules, SPECTATOR_KEYFRAME_INTERVAL);
+    }
+
+    static final int SPECTATOR_KEYFRAME_INTERVAL = 64;
+
+    public int getId() { return id; }
+
+    public SpectatorChannel getSpectators() { return spectators; }
+
+    /** Matches currently parked waiting for a player (across the process). */
+    public static long parkedCount() { return PARKED.get(); }
+
+    public Thread startVirtual() {
+        return Thread.ofVirtual().name("match-" + id).start(this);
+    }
+
+    // ========== INPUT (called from the network thread) ==========
+    public void offer(int seat, byte type, int value) {
+        inbox.add(new Input(seat, type, value));
+    }
+
+    public void abort() {
+        inbox.add(new Input(-1, ABORT, 0));
+    }
+
+    // ========== MATCH FLOW ==========
+    @Override
+    public void run() {
+        MatchEngine engine = new MatchEngine(rules);
+        MatchState s = engine.newMatch(names.length);
+        engine.setListener(spectators);
+        try {
+            broadcast(Protocol.board(names, rules));
+            broadcast(Protocol.state(s));
+            spectators.publish(s);
+
+            while (s.getPhase() != MatchState.Phase.GAME_OVER) {
+                int seat = s.getCurrent();
+                awaitRoll(seat);
+                long t0 = System.nanoTime();
+
+                int from = s.getPosition(seat);
+                int face = 1 + random.nextInt(6);
+                boolean forward = random.nextDouble() < rules.getForwardProbability();
+                engine.roll(s, face, forward);
+                broadcast(Protocol.moved(seat, from, s.getPosition(seat), face, forward));
+
+                if (s.getPhase() == MatchState.Phase.AWAIT_BOSS_ANSWER) {
+                    int node = s.getPosition(seat);
+                    BossQuestion q = questions.next(BossQuestionProvider.difficultyForNode(node, GameRules.BOARD_CELLS));
+                    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(bossSeconds);
+                    broadcast(Protocol.bossPrompt(seat, node, bossSeconds, q.getText()));
+                    turnMicros.record((System.nanoTime() - t0) / 1000);
+
+                    Integer answer = awaitBossAnswer(seat, deadline);
+                    t0 = System.nanoTime();
+                    boolean won = answer != null && answer == q.getAnswer();
+                    engine.resolveBoss(s, won);
+                    broadcast(Protocol.bossResult(seat, won, q.getAnswer()));
+                }
+
+                broadcast(Protocol.state(s));
+                spectators.publish(s);
+                turnMicros.record((System.nanoTime() - t0) / 1000);
+            }
+        } catch (Aborted | InterruptedException e) {
+            // a player left or the server is shutting down
+        } finally {
+            // Report the end before GAME_OVER goes out, so seats can rejoin as soon as they see it.
+            output.matchEnded(this, s);
+        }
+        if (s.getPhase() == MatchState.Phase.GAME_OVER) broadcast(Protocol.gameOver(s.getWinner()));
+    }
+
+    private void awaitRoll(int seat) throws InterruptedException {
+        while (true) {
+            Input in = take();
+            if (in.type == Protocol.ROLL && in.seat == seat) return;
+            if (in.type == Protocol.ROLL) output.send(in.seat, Protocol.error("Not your roll"));
+        }
+    }
+
+    /** Returns the answer, or null when the deadline passes first. */
+    private Integer awaitBossAnswer(int seat, long deadline) throws InterruptedException {
+        while (true) {
+            long left = deadline - System.nanoTime();
+            if (left <= 0) return null;
+            Input in = poll(left);
+            if (in == null) return null;
+            if (in.type == Protocol.BOSS_ANSWER && in.seat == seat) return in.value;
+        }
+    }
+
+    private Input take() throws InterruptedException {
+        PARKED.incrementAndGet();
+        try {
+            return check(inbox.take());
+        } finally {
+            PARKED.decrementAndGet();
+        }
+    }
+
+    private Input poll(long nanos) throws InterruptedException {
+        PARKED.incrementAndGet();
+        try {
+            Input in = inbox.poll(nanos, TimeUnit.NANOSECONDS);
+            return in == null ? null : check(in);
+        } finally {
+            PARKED.decrementAndGet();
+        }
+    }
+
+    private static Input check(Input in) {
+        if (in.type == ABORT) throw new Aborted();
+        return in;
+    }
+
+    private void broadcast(ByteBuffer frame) {
+        for (int seat = 0; seat < names.length; seat++) output.send(seat, frame);
+    }
+}
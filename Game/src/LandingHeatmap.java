@@ -0,0 +1,166 @@
+// LandingHeatmap.java
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Estimates how often a roll ends on each node of a board by playing it out headlessly with
+ * {@link MatchEngine}, on a background thread. Results arrive in rounds of growing size, so a
+ * rough map shows within milliseconds and sharpens over the next half second or so.
+ *
+ * Only ladders, bosses, the forward probability and the seat count change where tokens land.
+ * A board that differs in nothing else (new tile points, say) keeps the current result;
+ * anything else cancels the running estimate and starts a new one.
+ */
+public class LandingHeatmap {
+    private static final int FIRST_ROUND = 500;
+    private static final int MAX_GAMES = 32_000;
+
+    /** Landing probability per node (index 1..64) after {@link #games} simulated games. */
+    public static final class Heat {
+        public final double[] probability;
+        public final double min, max;
+        public final int games;
+
+        Heat(double[] probability, int games) {
+            this.probability = probability;
+            this.games = games;
+            double lo = 1, hi = 0;
+            for (int node = 1; node < probability.length; node++) {
+                lo = Math.min(lo, probability[node]);
+                hi = Math.max(hi, probability[node]);
+            }
+            this.min = lo;
+            this.max = hi;
+        }
+
+        /** 0 for the coldest node, 1 for the hottest. */
+        public double relative(int node) {
+            return max > min ? (probability[node] - min) / (max - min) : 0;
+        }
+    }
+
+    private final Consumer<Heat> listener;
+    private String key;               // movement-relevant part of the board being estimated
+    private volatile int generation;  // bumped to cancel the running estimate
+
+    /** {@code listener} is called on the estimating thread after every round. */
+    public LandingHeatmap(Consumer<Heat> listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Starts estimating {@code board} under {@code config}'s rules unless the current estimate
+     * already covers it.
+     */
+    public synchronized void request(GameSnapshot.Board board, int seats, GameConfig config) {
+        GameRules rules = rules(board, config);
+        String k = key(rules, seats);
+        if (k.equals(key)) return;
+        key = k;
+        int gen = ++generation;
+        Thread t = new Thread(() -> estimate(rules, Math.max(2, seats), gen), "heatmap");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    /** Stops the running estimate; the next {@link #request} starts over. */
+    public synchronized void cancel() {
+        generation++;
+        key = null;
+    }
+
+    private static String key(GameRules rules, int seats) {
+        StringBuilder sb = new StringBuilder().append(seats).append('/').append(rules.getForwardProbability());
+        for (int node = 1; node <= GameRules.BOARD_CELLS; node++) if (rules.isBoss(node)) sb.append('/').append(node);
+        for (int[] l : rules.getLadders()) sb.append('/').append(l[0]).append('>').append(l[1]);
+        return sb.toString();
+    }
+
+    /** The board's own ladders, tiles and bosses, with rewards and dice from the config. */
+    private static GameRules rules(GameSnapshot.Board board, GameConfig config) {
+        int[][] ladders = new int[board.getLadderCount()][];
+        for (int l = 0; l < ladders.length; l++) ladders[l] = new int[]{board.getLadderFrom(l), board.getLadderTo(l)};
+        int[] tilePoints = new int[GameRules.BOARD_CELLS + 1];
+        Set<Integer> bosses = new HashSet<>();
+        for (int node = 1; node <= GameRules.BOARD_CELLS; node++) {
+            tilePoints[node] = board.getTilePoints(node);
+            if (board.isBoss(node)) bosses.add(node);
+        }
+        return config.rules(ladders, tilePoints, bosses);
+    }
+
+    // ========== ESTIMATE ==========
+    private void estimate(GameRules rules, int seats, int gen) {
+        MatchEngine engine = new MatchEngine(rules);
+        Random rnd = new Random();
+        long[] landings = new long[GameRules.BOARD_CELLS + 1];
+        long rolls = 0;
+        int games = 0;
+        for (int round = FIRST_ROUND; games < MAX_GAMES && gen == generation; round *= 2) {
+            round = Math.min(round, MAX_GAMES - games);
+            for (int g = 0; g < round; g++) rolls += play(engine, seats, rnd, landings);
+            games += round;
+            double[] p = new double[landings.length];
+            for (int node = 1; node < p.length; node++) p[node] = (double) landings[node] / rolls;
+            if (gen == generation) listener.accept(new Heat(p, games));
+        }
+    }
+
+    /** One match like {@link MatchRunner#play}, counting where each roll comes to rest. */
+    private static int play(MatchEngine engine, int seats, Random rnd, long[] landings) {
+        MatchState s = engine.newMatch(seats);
+        int rolls = 0;
+        while (s.getPhase() != MatchState.Phase.GAME_OVER && s.getTurns() < MatchRunner.MAX_TURNS) {
+            switch (s.getPhase()) {
+                case AWAIT_ROLL:
+                    int seat = s.getCurrent();
+                    engine.roll(s, 1 + rnd.nextInt(6), rnd.nextDouble() < engine.getRules().getForwardProbability());
+                    landings[s.getPosition(seat)]++;
+                    rolls++;
+                    break;
+                case AWAIT_BOSS_ANSWER:
+                    engine.resolveBoss(s, rnd.nextDouble() < PlayerStrategy.EAGER.bossSkill());
+                    break;
+                default:
+                    engine.decide(s, true);
+            }
+        }
+        return rolls;
+    }
+
+    // ========== CLI ==========
+    /** {@code java LandingHeatmap [seed] [seats]} — prints the hottest nodes of a random board. */
+    public static void main(String[] args) throws InterruptedException {
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : 1;
+        int seats = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        GameRules r = GameRules.random(new Random(seed));
+        int[] tilePoints = new int[GameRules.BOARD_CELLS + 1];
+        long bossMask = 0;
+        for (int node = 1; node <= GameRules.BOARD_CELLS; node++) {
+            tilePoints[node] = r.getTilePoints(node);
+            if (r.isBoss(node)) bossMask |= 1L << (node - 1);
+        }
+        Heat[] last = new Heat[1];
+        long t0 = System.nanoTime();
+        LandingHeatmap heatmap = new LandingHeatmap(h -> {
+            System.out.printf("[Heatmap] %d games after %d ms%n", h.games, (System.nanoTime() - t0) / 1_000_000);
+            synchronized (last) {
+                last[0] = h;
+                last.notifyAll();
+            }
+        });
+        heatmap.request(new GameSnapshot.Board(tilePoints, r.getLadders(), bossMask), seats, GameConfig.DEFAULTS);
+        synchronized (last) {
+            while (last[0] == null || last[0].games < MAX_GAMES) last.wait();
+        }
+        Integer[] nodes = new Integer[GameRules.BOARD_CELLS];
+        for (int i = 0; i < nodes.length; i++) nodes[i] = i + 1;
+        double[] p = last[0].probability;
+        Arrays.sort(nodes, (a, b) -> Double.compare(p[b], p[a]));
+        System.out.println("[Heatmap] ladders " + Arrays.deepToString(r.getLadders()));
+        for (int i = 0; i < 10; i++) System.out.printf("  node %2d  %.2f%%%n", nodes[i], 100 * p[nodes[i]]);
+    }
+}
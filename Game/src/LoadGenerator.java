@@ -0,0 +1,198 @@
+// LoadGenerator.java
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Local load generator for {@link GameServer}: opens two bot clients per match on a single
+ * client-side Selector, rolls whenever it is their turn, answers boss prompts at random and
+ * rejoins a fresh match after each game. Reports client-observed ROLL→MOVED latency and,
+ * when the server runs in-process, the server-side turn processing time.
+ *
+ * {@code java LoadGenerator [host|local] [port] [matches] [seconds]}
+ */
+public class LoadGenerator {
+    static final class Client {
+        final int index;
+        final SocketChannel channel;
+        ByteBuffer in = Protocol.readBuffer();
+        final ArrayDeque<ByteBuffer> out = new ArrayDeque<>();
+        int matchId;
+        int seat = -1;
+        long rollSentAt;
+        boolean rollPending;
+
+        Client(int index, SocketChannel channel, int matchId) {
+            this.index = index;
+            this.channel = channel;
+            this.matchId = matchId;
+        }
+    }
+
+    private final Selector selector;
+    private final int matches;
+    private final Histogram rollMicros = Histogram.exponential(10, 1.5, 30);
+    private long turns, games, errors;
+
+    LoadGenerator(int matches) throws IOException {
+        this.selector = Selector.open();
+        this.matches = matches;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String host = args.length > 0 ? args[0] : "local";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 0;
+        int matches = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+
+        GameServer server = null;
+        if (host.equals("local")) {
+            server = new GameServer(port);
+            Thread t = new Thread(server, "game-server");
+            t.setDaemon(true);
+            t.start();
+            host = "127.0.0.1";
+            port = server.getPort();
+        }
+        LoadGenerator gen = new LoadGenerator(matches);
+        gen.connectAll(new InetSocketAddress(host, port));
+        gen.run(seconds, server);
+        if (server != null) server.stop();
+    }
+
+    private void connectAll(InetSocketAddress addr) throws IOException {
+        for (int i = 0; i < matches * 2; i++) {
+            SocketChannel ch = SocketChannel.open();
+            ch.configureBlocking(false);
+            ch.setOption(java.net.StandardSocketOptions.TCP_NODELAY, true);
+            Client c = new Client(i, ch, i / 2);
+            if (ch.connect(addr)) {
+                ch.register(selector, SelectionKey.OP_READ, c);
+                send(c, Protocol.join(c.matchId, 2, "bot" + i));
+            } else {
+                ch.register(selector, SelectionKey.OP_CONNECT, c);
+            }
+        }
+    }
+
+    private void run(int seconds, GameServer server) throws IOException {
+        long end = System.nanoTime() + seconds * 1_000_000_000L;
+        long nextReport = System.nanoTime() + 1_000_000_000L;
+        long lastTurns = 0;
+        while (System.nanoTime() < end) {
+            selector.select(100);
+            Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+            while (it.hasNext()) {
+                SelectionKey key = it.next();
+                it.remove();
+                Client c = (Client) key.attachment();
+                try {
+                    if (key.isConnectable() && c.channel.finishConnect()) {
+                        key.interestOps(SelectionKey.OP_READ);
+                        send(c, Protocol.join(c.matchId, 2, "bot" + c.index));
+                    }
+                    if (key.isValid() && key.isReadable()) read(c);
+                    if (key.isValid() && key.isWritable()) flush(c, key);
+                } catch (IOException e) {
+                    errors++;
+                    key.cancel();
+                    c.channel.close();
+                }
+            }
+            if (System.nanoTime() >= nextReport) {
+                System.out.printf("[Load] turns/s=%d games=%d errors=%d roll→moved %s%n",
+                        turns - lastTurns, games, errors, rollMicros.summary("µs"));
+                if (server != null) System.out.println("[Load] server " + server.stats());
+                lastTurns = turns;
+                nextReport += 1_000_000_000L;
+            }
+        }
+        System.out.printf("[Load] done: %d turns, %d games, roll→moved %s%n", turns, games, rollMicros.summary("µs"));
+        if (server != null) System.out.println("[Load] server " + server.stats());
+    }
+
+    private void read(Client c) throws IOException {
+        int n = c.channel.read(c.in);
+        if (n < 0) throw new IOException("closed");
+        c.in.flip();
+        ByteBuffer f;
+        while ((f = Protocol.nextFrame(c.in)) != null) handle(c, f);
+        c.in = Protocol.fitFrame(c.in.compact());
+    }
+
+    private void handle(Client c, ByteBuffer f) {
+        switch (f.get()) {
+            case Protocol.JOINED:
+                f.getInt();
+                c.seat = f.get();
+                break;
+            case Protocol.STATE: {
+                int current = f.get();
+                int phase = f.get();
+                if (current == c.seat && phase == MatchState.Phase.AWAIT_ROLL.ordinal() && !c.rollPending) {
+                    c.rollPending = true;
+                    c.rollSentAt = System.nanoTime();
+                    send(c, Protocol.roll());
+                }
+                break;
+            }
+            case Protocol.MOVED: {
+                int seat = f.get();
+                if (seat == c.seat && c.rollPending) {
+                    c.rollPending = false;
+                    rollMicros.record((System.nanoTime() - c.rollSentAt) / 1000);
+                    turns++;
+                }
+                break;
+            }
+            case Protocol.BOSS_PROMPT: {
+                int seat = f.get();
+                if (seat == c.seat) send(c, Protocol.bossAnswer(ThreadLocalRandom.current().nextInt(40)));
+                break;
+            }
+            case Protocol.GAME_OVER:
+                if (c.seat == 0) games++;
+                c.matchId += matches;
+                c.seat = -1;
+                c.rollPending = false;
+                send(c, Protocol.join(c.matchId, 2, "bot" + c.index));
+                break;
+            case Protocol.ERROR:
+                errors++;
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void send(Client c, ByteBuffer frame) {
+        ByteBuffer b = frame.duplicate();
+        try {
+            if (c.out.isEmpty()) c.channel.write(b);
+        } catch (IOException e) {
+            errors++;
+            return;
+        }
+        if (b.hasRemaining()) {
+            c.out.add(b);
+            SelectionKey key = c.channel.keyFor(selector);
+            if (key != null) key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        }
+    }
+
+    private void flush(Client c, SelectionKey key) throws IOException {
+        while (!c.out.isEmpty()) {
+            ByteBuffer b = c.out.peek();
+            c.channel.write(b);
+            if (b.hasRemaining()) return;
+            c.out.poll();
+        }
+        key.interestOps(SelectionKey.OP_READ);
+    }
+}
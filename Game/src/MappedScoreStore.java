@@ -0,0 +1,543 @@
+// MappedScoreStore.java
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Leaderboard store of fixed 64-byte records in a memory-mapped file, found through an
+ * open-addressing hash index in a second mapped file. Opening maps the two files and reads
+ * two headers, a lookup touches one index slot run and one record, and updates are written
+ * in place, so neither startup time nor heap use grows with the number of players.
+ *
+ * {@code <base>.dat}: header (magic, version, count, change counter), then records
+ * {@code [hash][name length][name, 43 bytes][wins][games][stars][score]}.
+ * {@code <base>.idx}: header (magic, capacity, used), then slots {@code [hash][record + 1]}.
+ * {@code <base>.top}: header (magic, length, change counter), then the record numbers of the
+ * best {@value #TOP_N} in rank order. Writers keep it in step with each change, so a
+ * leaderboard of up to that many rows reads a few records instead of scanning them all.
+ * Names are keyed by their first {@value #NAME_BYTES} UTF-8 bytes.
+ *
+ * Several processes may share the files. Every operation holds an OS lock on
+ * {@code <base>.lock} (shared for reads, exclusive for writes) and first picks up records
+ * and resizes other processes made; updates add deltas to the stored totals, so
+ * concurrent games merge instead of overwriting each other. Files are only ever grown.
+ * A record is written before the count that publishes it and the index is updated last;
+ * an index that disagrees with the record count (a crash mid-insert or mid-resize) is
+ * rebuilt from the records by the next writer. The ranking is stamped with the change counter
+ * it matches; one that falls behind (a crash, or a listed record losing wins or stars) is
+ * rebuilt by a full scan the next time it is read.
+ */
+public class MappedScoreStore implements ScoreStore {
+    private static final int DAT_MAGIC = 0x41445653;   // "ADVS"
+    private static final int IDX_MAGIC = 0x41445649;   // "ADVI"
+    private static final int TOP_MAGIC = 0x41445654;   // "ADVT"
+    private static final int HEADER = 32;
+    private static final int RECORD = 64;
+    private static final int SLOT = 8;
+    static final int NAME_BYTES = 43;
+    private static final int OFF_HASH = 0, OFF_LEN = 4, OFF_NAME = 5,
+            OFF_WINS = 48, OFF_GAMES = 52, OFF_STARS = 56, OFF_SCORE = 60;
+    private static final int HDR_COUNT = 8, HDR_CHANGES = 16;
+    private static final int TOP_LENGTH = 4, TOP_STAMP = 8;
+    static final int TOP_N = 64;
+    private static final int MIN_RECORDS = 1024;
+    private static final int MIN_SLOTS = 2048;
+
+    private final File datFile;
+    private final FileChannel datChannel;
+    private final FileChannel idxChannel;
+    private final FileChannel lockChannel;
+    private final FileChannel topChannel;
+    private final MappedByteBuffer top;   // fixed size, so never remapped
+    private MappedByteBuffer dat;
+    private MappedByteBuffer idx;
+    private int recordCapacity;
+    private int slotMask = -1;
+    private int count;
+
+    /** Time the cross-process lock is held per operation, in microseconds. */
+    private final Histogram lockHoldMicros = Histogram.exponential(1, 2, 20);
+    /** Time spent waiting for it, in microseconds. */
+    private final Histogram lockWaitMicros = Histogram.exponential(1, 2, 20);
+    private long lockedAt;
+    private long bytesWritten;
+
+    public MappedScoreStore(File base) throws IOException {
+        datFile = new File(base.getPath() + ".dat");
+        datChannel = FileChannel.open(datFile.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        idxChannel = FileChannel.open(new File(base.getPath() + ".idx").toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        lockChannel = FileChannel.open(new File(base.getPath() + ".lock").toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        topChannel = FileChannel.open(new File(base.getPath() + ".top").toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        top = topChannel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER + TOP_N * Integer.BYTES);
+        FileLock lock = lock(false);
+        try {
+            if (datChannel.size() < HEADER) {
+                growData(MIN_RECORDS);
+                dat.putInt(4, 1);
+                dat.putInt(HDR_COUNT, 0);
+                dat.putInt(0, DAT_MAGIC);
+            }
+            if (!refresh()) {
+                if (idxChannel.size() > 0) System.err.println("[Scores] Index out of date, rebuilding from " + count + " records");
+                rebuildIndex(slotsFor(count));
+            }
+            if (!rankingCurrent()) rebuildRanking();
+        } finally {
+            unlock(lock);
+        }
+    }
+
+    @Override
+    public Histogram getLockHoldMicros() { return lockHoldMicros; }
+    public Histogram getLockWaitMicros() { return lockWaitMicros; }
+
+    /** Bytes stored into the mappings; the OS decides when the dirty pages reach the disk. */
+    @Override
+    public synchronized long getBytesWritten() { return bytesWritten; }
+
+    // ========== LOCKING ==========
+    private FileLock lock(boolean shared) {
+        long t0 = System.nanoTime();
+        try {
+            FileLock lock = lockChannel.lock(0, Long.MAX_VALUE, shared);
+            lockedAt = System.nanoTime();
+            lockWaitMicros.record((lockedAt - t0) / 1000);
+            return lock;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void unlock(FileLock lock) {
+        lockHoldMicros.record((System.nanoTime() - lockedAt) / 1000);
+        try {
+            lock.release();
+        } catch (IOException e) {
+            System.err.println("Failed to release score lock: " + e.getMessage());
+        }
+    }
+
+    /** Locks and brings the mappings up to date; a stale index is repaired under an exclusive lock. */
+    private FileLock acquire(boolean shared) {
+        FileLock lock = lock(shared);
+        try {
+            if (refresh()) return lock;
+            if (shared) {
+                unlock(lock);
+                lock = lock(false);
+                if (refresh()) return lock;
+            }
+            System.err.println("[Scores] Index out of date, rebuilding from " + count + " records");
+            rebuildIndex(slotsFor(count));
+            return lock;
+        } catch (IOException e) {
+            unlock(lock);
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Remaps whichever file another process has grown and rereads the record count.
+     * Returns false if the index does not cover exactly the published records.
+     */
+    private boolean refresh() throws IOException {
+        if (dat != null && idx != null && dat.getInt(HDR_COUNT) == count && idx.getInt(8) == count
+                && idx.getInt(4) == slotMask + 1 && idx.getInt(0) == IDX_MAGIC) {
+            return true;   // nobody inserted or resized since our last lock; files only grow on insert
+        }
+        long datSize = datChannel.size();
+        if (dat == null || datSize != dat.capacity()) {
+            recordCapacity = (int) ((datSize - HEADER) / RECORD);
+            dat = datChannel.map(FileChannel.MapMode.READ_WRITE, 0, datSize);
+            if (dat.getInt(0) != DAT_MAGIC) throw new IOException("Not a score store: " + datFile);
+        }
+        count = Math.min(dat.getInt(HDR_COUNT), recordCapacity);
+        long idxSize = idxChannel.size();
+        if (idxSize < HEADER + (long) MIN_SLOTS * SLOT) return false;
+        if (idx == null || idxSize != idx.capacity()) idx = idxChannel.map(FileChannel.MapMode.READ_WRITE, 0, idxSize);
+        int slots = idx.getInt(4);
+        if (idx.getInt(0) != IDX_MAGIC || Integer.bitCount(slots) != 1 || HEADER + (long) slots * SLOT > idxSize
+                || idx.getInt(8) != count) return false;
+        slotMask = slots - 1;
+        return true;
+    }
+
+    private static int slotsFor(int records) {
+        int slots = MIN_SLOTS;
+        while (slots * 0.6 < records + 1) slots <<= 1;
+        return slots;
+    }
+
+    private void growData(int records) throws IOException {
+        long size = HEADER + (long) records * RECORD;
+        if (datChannel.size() < size) datChannel.write(ByteBuffer.allocate(1), size - 1);
+        dat = datChannel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        recordCapacity = records;
+    }
+
+    /**
+     * Writes a fresh index of at least {@code slots} slots from the records; O(records), only
+     * on resize or repair. The file is never shrunk, so other processes' mappings stay valid.
+     */
+    private void rebuildIndex(int slots) throws IOException {
+        long size = HEADER + (long) slots * SLOT;
+        if (idxChannel.size() < size) idxChannel.write(ByteBuffer.allocate(1), size - 1);
+        else size = idxChannel.size();
+        while (HEADER + (long) slots * 2 * SLOT <= size) slots <<= 1;
+        idx = idxChannel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        idx.putInt(0, 0);
+        for (int off = HEADER; off < size; off += SLOT) idx.putLong(off, 0);
+        slotMask = slots - 1;
+        for (int r = 0; r < count; r++) {
+            int hash = dat.getInt(recordOffset(r) + OFF_HASH);
+            int slot = hash & slotMask;
+            while (idx.getInt(slotOffset(slot) + 4) != 0) slot = (slot + 1) & slotMask;
+            idx.putInt(slotOffset(slot), hash);
+            idx.putInt(slotOffset(slot) + 4, r + 1);
+        }
+        idx.putInt(4, slots);
+        idx.putInt(8, count);
+        idx.putInt(0, IDX_MAGIC);
+        bytesWritten += size;
+    }
+
+    private static int recordOffset(int r) { return HEADER + r * RECORD; }
+    private static int slotOffset(int s) { return HEADER + s * SLOT; }
+
+    // ========== KEYS ==========
+    static byte[] key(String name) {
+        byte[] b = name.getBytes(StandardCharsets.UTF_8);
+        while (b.length > NAME_BYTES) {
+            name = name.substring(0, name.offsetByCodePoints(0, name.codePointCount(0, name.length()) - 1));
+            b = name.getBytes(StandardCharsets.UTF_8);
+        }
+        return b;
+    }
+
+    private static int hash(byte[] key) {
+        int h = 0x811C9DC5;
+        for (byte b : key) h = (h ^ (b & 0xFF)) * 0x01000193;
+        return h == 0 ? 1 : h;
+    }
+
+    /** Record number for {@code key}, or -1. */
+    private int find(byte[] key, int hash) {
+        int slot = hash & slotMask;
+        while (true) {
+            int off = slotOffset(slot);
+            int rec = idx.getInt(off + 4);
+            if (rec == 0) return -1;
+            if (idx.getInt(off) == hash && nameEquals(rec - 1, key)) return rec - 1;
+            slot = (slot + 1) & slotMask;
+        }
+    }
+
+    private boolean nameEquals(int r, byte[] key) {
+        int off = recordOffset(r);
+        if (dat.get(off + OFF_LEN) != key.length) return false;
+        for (int i = 0; i < key.length; i++) if (dat.get(off + OFF_NAME + i) != key[i]) return false;
+        return true;
+    }
+
+    private String nameOf(int r) {
+        int off = recordOffset(r);
+        byte[] b = new byte[dat.get(off + OFF_LEN)];
+        for (int i = 0; i < b.length; i++) b[i] = dat.get(off + OFF_NAME + i);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    private AdventureGame.ScoreRecord readRecord(int r) {
+        int off = recordOffset(r);
+        AdventureGame.ScoreRecord rec = new AdventureGame.ScoreRecord();
+        rec.wins = dat.getInt(off + OFF_WINS);
+        rec.gamesPlayed = dat.getInt(off + OFF_GAMES);
+        rec.totalStars = dat.getInt(off + OFF_STARS);
+        rec.totalScore = dat.getInt(off + OFF_SCORE);
+        return rec;
+    }
+
+    private int insert(byte[] key, int hash) {
+        try {
+            if (count == recordCapacity) growData(recordCapacity * 2);
+            if (count + 1 > (slotMask + 1) * 0.6) rebuildIndex((slotMask + 1) * 2);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        int r = count;
+        int off = recordOffset(r);
+        dat.putInt(off + OFF_HASH, hash);
+        dat.put(off + OFF_LEN, (byte) key.length);
+        for (int i = 0; i < key.length; i++) dat.put(off + OFF_NAME + i, key[i]);
+        dat.putInt(off + OFF_WINS, 0).putInt(off + OFF_GAMES, 0).putInt(off + OFF_STARS, 0).putInt(off + OFF_SCORE, 0);
+        count++;
+        dat.putInt(HDR_COUNT, count);
+
+        int slot = hash & slotMask;
+        while (idx.getInt(slotOffset(slot) + 4) != 0) slot = (slot + 1) & slotMask;
+        idx.putInt(slotOffset(slot), hash);
+        idx.putInt(slotOffset(slot) + 4, r + 1);
+        idx.putInt(8, count);
+        bytesWritten += RECORD + SLOT;
+        return r;
+    }
+
+    private void changed() {
+        dat.putLong(HDR_CHANGES, dat.getLong(HDR_CHANGES) + 1);
+    }
+
+    // ========== RANKING ==========
+    private static int topOffset(int i) { return HEADER + i * Integer.BYTES; }
+
+    private boolean rankingCurrent() {
+        return top.getInt(0) == TOP_MAGIC && top.getLong(TOP_STAMP) == dat.getLong(HDR_CHANGES);
+    }
+
+    /** Full scan into the ranking; exclusive lock only, after a crash or a drop in a listed record. */
+    private void rebuildRanking() {
+        int[] ranked = scan(TOP_N);
+        top.putInt(0, 0);
+        for (int i = 0; i < ranked.length; i++) top.putInt(topOffset(i), ranked[i]);
+        top.putInt(TOP_LENGTH, ranked.length);
+        top.putLong(TOP_STAMP, dat.getLong(HDR_CHANGES));
+        top.putInt(0, TOP_MAGIC);
+        bytesWritten += HEADER + ranked.length * Integer.BYTES;
+    }
+
+    /**
+     * Moves record {@code r} to its place in the ranking after {@link #changed}; O({@value #TOP_N}).
+     * A ranking that was already stale, or a listed record that dropped while others are
+     * unlisted, is left stale for the next reader to rebuild.
+     */
+    private void reRank(int r, boolean dropped) {
+        long changes = dat.getLong(HDR_CHANGES);
+        if (top.getInt(0) != TOP_MAGIC || top.getLong(TOP_STAMP) != changes - 1) return;
+        int n = top.getInt(TOP_LENGTH);
+        int at = -1;
+        for (int i = 0; i < n && at < 0; i++) if (top.getInt(topOffset(i)) == r) at = i;
+        if (at < 0 && n == TOP_N && compareRecords(top.getInt(topOffset(n - 1)), r) <= 0) {
+            top.putLong(TOP_STAMP, changes);   // the usual case: not a contender
+            return;
+        }
+        if (at >= 0) {
+            if (dropped && count > n) return;
+            for (int i = at; i < n - 1; i++) top.putInt(topOffset(i), top.getInt(topOffset(i + 1)));
+            n--;
+        }
+        int pos = 0;
+        while (pos < n && compareRecords(top.getInt(topOffset(pos)), r) <= 0) pos++;
+        if (pos < TOP_N) {
+            for (int i = Math.min(n, TOP_N - 1); i > pos; i--) top.putInt(topOffset(i), top.getInt(topOffset(i - 1)));
+            top.putInt(topOffset(pos), r);
+            n = Math.min(n + 1, TOP_N);
+        }
+        top.putInt(TOP_LENGTH, n);
+        top.putLong(TOP_STAMP, changes);
+        bytesWritten += Long.BYTES + (n - Math.min(pos, n) + 1) * Integer.BYTES;
+    }
+
+    /** Adds to the stored totals under the exclusive lock, so concurrent writers never lose updates. */
+    private void addLocked(String name, int wins, int gamesPlayed, int totalStars, int totalScore) {
+        byte[] key = key(name);
+        int h = hash(key);
+        int r = find(key, h);
+        if (r < 0) r = insert(key, h);
+        int off = recordOffset(r);
+        dat.putInt(off + OFF_WINS, dat.getInt(off + OFF_WINS) + wins);
+        dat.putInt(off + OFF_GAMES, dat.getInt(off + OFF_GAMES) + gamesPlayed);
+        dat.putInt(off + OFF_STARS, dat.getInt(off + OFF_STARS) + totalStars);
+        dat.putInt(off + OFF_SCORE, dat.getInt(off + OFF_SCORE) + totalScore);
+        changed();
+        reRank(r, wins < 0 || totalStars < 0);
+        bytesWritten += 4 * Integer.BYTES + Long.BYTES;
+    }
+
+    // ========== STORE ==========
+    @Override
+    public synchronized AdventureGame.ScoreRecord get(String name) {
+        FileLock lock = acquire(true);
+        try {
+            byte[] key = key(name);
+            int r = find(key, hash(key));
+            return r < 0 ? null : readRecord(r);
+        } finally {
+            unlock(lock);
+        }
+    }
+
+    @Override
+    public synchronized void ensure(String name) {
+        FileLock lock = acquire(false);
+        try {
+            byte[] key = key(name);
+            int h = hash(key);
+            if (find(key, h) < 0) {
+                int r = insert(key, h);
+                changed();
+                reRank(r, false);
+            }
+        } finally {
+            unlock(lock);
+        }
+    }
+
+    @Override
+    public synchronized void add(String name, int wins, int gamesPlayed, int totalStars, int totalScore) {
+        FileLock lock = acquire(false);
+        try {
+            addLocked(name, wins, gamesPlayed, totalStars, totalScore);
+        } finally {
+            unlock(lock);
+        }
+    }
+
+    /**
+     * Up to {@value #TOP_N} rows come from the stored ranking and touch only the listed
+     * records; longer rankings scan every record.
+     */
+    @Override
+    public synchronized LinkedHashMap<String, AdventureGame.ScoreRecord> top(int limit) {
+        FileLock lock = acquire(true);
+        try {
+            int[] ranked;
+            if (limit <= TOP_N) {
+                if (!rankingCurrent()) {
+                    unlock(lock);
+                    lock = acquire(false);
+                    if (!rankingCurrent()) rebuildRanking();
+                }
+                ranked = new int[Math.min(Math.max(limit, 0), top.getInt(TOP_LENGTH))];
+                for (int i = 0; i < ranked.length; i++) ranked[i] = top.getInt(topOffset(i));
+            } else {
+                ranked = scan(limit);
+            }
+            LinkedHashMap<String, AdventureGame.ScoreRecord> out = new LinkedHashMap<>();
+            for (int r : ranked) out.put(nameOf(r), readRecord(r));
+            return out;
+        } finally {
+            unlock(lock);
+        }
+    }
+
+    /** One sequential pass over the records with a bounded heap; record numbers in rank order. */
+    private int[] scan(int limit) {
+        PriorityQueue<Integer> worst = new PriorityQueue<>(Math.min(limit, count) + 1, (a, b) -> -compareRecords(a, b));
+        for (int r = 0; r < count; r++) {
+            if (worst.size() < limit) worst.add(r);
+            else if (limit > 0 && compareRecords(r, worst.peek()) < 0) {
+                worst.poll();
+                worst.add(r);
+            }
+        }
+        List<Integer> ranked = new ArrayList<>(worst);
+        ranked.sort(this::compareRecords);
+        int[] out = new int[ranked.size()];
+        for (int i = 0; i < out.length; i++) out[i] = ranked.get(i);
+        return out;
+    }
+
+    private int compareRecords(int a, int b) {
+        int oa = recordOffset(a), ob = recordOffset(b);
+        int wa = dat.getInt(oa + OFF_WINS), wb = dat.getInt(ob + OFF_WINS);
+        if (wa != wb) return Integer.compare(wb, wa);
+        int sa = dat.getInt(oa + OFF_STARS), sb = dat.getInt(ob + OFF_STARS);
+        if (sa != sb) return Integer.compare(sb, sa);
+        return nameOf(a).compareToIgnoreCase(nameOf(b));
+    }
+
+    /** Records published as of this process's last lock. */
+    @Override public synchronized int size() { return count; }
+
+    /** Change counter kept in the file header, so it also moves when another process writes. */
+    @Override public synchronized long version() { return dat.getLong(HDR_CHANGES); }
+
+    /**
+     * Copies every record of {@code from} in if the store is still empty; used once to migrate
+     * the serialized file. Runs under one lock, so two instances starting together import once.
+     */
+    public synchronized boolean importIfEmpty(Map<String, AdventureGame.ScoreRecord> from) {
+        FileLock lock = acquire(false);
+        try {
+            if (count > 0) return false;
+            for (Map.Entry<String, AdventureGame.ScoreRecord> e : from.entrySet()) {
+                AdventureGame.ScoreRecord r = e.getValue();
+                addLocked(e.getKey(), r.wins, r.gamesPlayed, r.totalStars, r.totalScore);
+            }
+            return true;
+        } finally {
+            unlock(lock);
+        }
+    }
+
+    @Override
+    public synchronized void flush() {
+        dat.force();
+        idx.force();
+        top.force();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        flush();
+        datChannel.close();
+        idxChannel.close();
+        topChannel.close();
+        lockChannel.close();
+    }
+
+    // ========== BENCHMARK ==========
+    /**
+     * {@code java MappedScoreStore <base> [players]} — fills a store, then times reopening it,
+     * single lookups and in-place updates, and shows heap use stays flat.
+     */
+    public static void main(String[] args) throws IOException {
+        File base = new File(args.length > 0 ? args[0] : "scores-bench");
+        int players = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        long t0 = System.nanoTime();
+        try (MappedScoreStore s = new MappedScoreStore(base)) {
+            for (int i = s.size(); i < players; i++) s.add("player" + i, i % 3 == 0 ? 1 : 0, 1, i % 7, i % 100);
+        }
+        System.out.printf("[Scores] filled %d players in %.0f ms%n", players, (System.nanoTime() - t0) / 1e6);
+
+        Runtime rt = Runtime.getRuntime();
+        System.gc();
+        long heapBefore = rt.totalMemory() - rt.freeMemory();
+        t0 = System.nanoTime();
+        try (MappedScoreStore s = new MappedScoreStore(base)) {
+            double openMs = (System.nanoTime() - t0) / 1e6;
+            java.util.Random rnd = new java.util.Random(1);
+            int lookups = 200_000;
+            t0 = System.nanoTime();
+            long wins = 0;
+            for (int i = 0; i < lookups; i++) wins += s.get("player" + rnd.nextInt(players)).wins;
+            double getNs = (System.nanoTime() - t0) / (double) lookups;
+            t0 = System.nanoTime();
+            for (int i = 0; i < lookups; i++) s.add("player" + rnd.nextInt(players), 0, 1, 0, 1);
+            double addNs = (System.nanoTime() - t0) / (double) lookups;
+            t0 = System.nanoTime();
+            LinkedHashMap<String, AdventureGame.ScoreRecord> top = s.top(10);
+            double topMs = (System.nanoTime() - t0) / 1e6;
+            t0 = System.nanoTime();
+            s.top(TOP_N + 1);
+            double scanMs = (System.nanoTime() - t0) / 1e6;
+            System.gc();
+            long heap = rt.totalMemory() - rt.freeMemory() - heapBefore;
+            System.out.printf("[Scores] reopen %.2f ms | get %.0f ns | add %.0f ns | top10 %.3f ms (%s), full scan %.1f ms | heap +%d KB (checksum %d)%n",
+                    openMs, getNs, addNs, topMs, top.keySet().iterator().next(), scanMs, heap / 1024, wins);
+        }
+    }
+}
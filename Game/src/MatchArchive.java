@@ -0,0 +1,512 @@
+// MatchArchive.java
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Append-only archive of finished matches with sidecar indexes, so queries touch only the
+ * bytes they need instead of loading the archive into the heap.
+ *
+ * Files in the archive directory:
+ * <ul>
+ *   <li>{@code matches.dat} — one variable-length record per match, see {@link #encode}.</li>
+ *   <li>{@code matches.idx} — 32 bytes per match in append (= time) order: data offset, time,
+ *       duration, score sum, seats, winner, ladder count, pad, first posting. Aggregate queries scan
+ *       this file through a memory map; date ranges binary-search it.</li>
+ *   <li>{@code players.idx} — 16 bytes per seat: match number and the same player's previous
+ *       posting, i.e. a backwards linked list per player.</li>
+ *   <li>{@code players.heads} — name to newest posting, rewritten on close. Matches appended
+ *       after it was written are replayed on open, so a crash loses nothing.</li>
+ * </ul>
+ * Writes go data, postings, index, so an index entry never points past what is on disk;
+ * a torn tail is truncated on open. One writer; queries may run on other threads alongside it
+ * and see the matches appended before they started.
+ */
+public final class MatchArchive implements Closeable {
+    /** One finished match; seat order is the array order. */
+    public static final class Match {
+        public final long time;           // epoch millis at the end of the match
+        public final int durationMs;
+        public final long boardSeed;      // the seed the board was drawn from, under the config of the day
+        public final int[][] ladders;
+        public final int[] tilePoints;    // index 1..64
+        public final long bossMask;       // bit n-1 set for a boss on node n
+        public final String[] names;
+        public final int[] positions;
+        public final int[] stars;
+        public final int[] scores;
+        public final int winner;          // seat, or -1
+
+        public Match(long time, int durationMs, long boardSeed, int[][] ladders, int[] tilePoints, long bossMask,
+                     String[] names, int[] positions, int[] stars, int[] scores, int winner) {
+            this.time = time;
+            this.durationMs = durationMs;
+            this.boardSeed = boardSeed;
+            this.ladders = ladders;
+            this.tilePoints = tilePoints;
+            this.bossMask = bossMask;
+            this.names = names;
+            this.positions = positions;
+            this.stars = stars;
+            this.scores = scores;
+            this.winner = winner;
+        }
+
+        public int seats() { return names.length; }
+
+        public int seatOf(String name) {
+            for (int i = 0; i < names.length; i++) if (names[i].equals(name)) return i;
+            return -1;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder(new java.util.Date(time).toString());
+            sb.append(String.format(" (%ds, %d ladders):", durationMs / 1000, ladders.length));
+            for (int i = 0; i < names.length; i++) {
+                sb.append(String.format(" %s%s N%d ★%d %dpts", i == winner ? "*" : "", names[i], positions[i], stars[i], scores[i]));
+            }
+            return sb.toString();
+        }
+    }
+
+    private static final int IDX_ENTRY = 32;
+    private static final int POSTING_ENTRY = 16;
+    private static final int FLUSH_BYTES = 64 * 1024;
+
+    private final File dir;
+    private final FileChannel data;
+    private final FileChannel index;
+    private final FileChannel postings;
+    private final Map<String, Long> heads = new HashMap<>();
+
+    private final ByteBuffer dataOut = ByteBuffer.allocate(FLUSH_BYTES * 2);
+    private final ByteBuffer indexOut = ByteBuffer.allocate(FLUSH_BYTES * 2);
+    private final ByteBuffer postingsOut = ByteBuffer.allocate(FLUSH_BYTES * 2);
+    private long dataEnd;         // including buffered bytes
+    private long matchCount;      // including buffered entries
+    private long postingCount;
+    private long lastTime;
+
+    private Mapped mapped;
+
+    /** The index files as mapped for queries, and how many matches that mapping covers. */
+    private static final class Mapped {
+        final MappedByteBuffer index;
+        final MappedByteBuffer postings;
+        final long matches;
+
+        Mapped(MappedByteBuffer index, MappedByteBuffer postings, long matches) {
+            this.index = index;
+            this.postings = postings;
+            this.matches = matches;
+        }
+    }
+
+    public MatchArchive(File dir) throws IOException {
+        this.dir = dir;
+        if (!dir.isDirectory() && !dir.mkdirs()) throw new IOException("Cannot create " + dir);
+        data = open("matches.dat");
+        index = open("matches.idx");
+        postings = open("players.idx");
+        recover();
+    }
+
+    private FileChannel open(String name) throws IOException {
+        return FileChannel.open(new File(dir, name).toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    public synchronized long count() { return matchCount; }
+
+    // ========== RECOVERY ==========
+    private void recover() throws IOException {
+        matchCount = index.size() / IDX_ENTRY;
+        index.truncate(matchCount * IDX_ENTRY);
+        if (matchCount == 0) {
+            data.truncate(0);
+            postings.truncate(0);
+        } else {
+            ByteBuffer last = ByteBuffer.allocate(IDX_ENTRY);
+            index.read(last, (matchCount - 1) * IDX_ENTRY);
+            last.flip();
+            long offset = last.getLong();
+            lastTime = last.getLong();
+            int seats = last.get(24);
+            long firstPosting = last.getInt(28);
+            ByteBuffer len = ByteBuffer.allocate(4);
+            data.read(len, offset);
+            data.truncate(offset + 4 + len.flip().getInt());
+            postings.truncate((firstPosting + seats) * POSTING_ENTRY);
+        }
+        dataEnd = data.size();
+        postingCount = postings.size() / POSTING_ENTRY;
+
+        long covered = readHeads();
+        for (long m = covered; m < matchCount; m++) {   // replay what the heads file has not seen
+            Match match = read(m);
+            long first = mapIndexes().index.getInt((int) (m * IDX_ENTRY + 28));
+            for (int i = 0; i < match.seats(); i++) heads.put(match.names[i], first + i);
+        }
+    }
+
+    private long readHeads() {
+        File f = new File(dir, "players.heads");
+        if (!f.exists()) return 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(f)))) {
+            long covered = in.readLong();
+            int n = in.readInt();
+            for (int i = 0; i < n; i++) heads.put(in.readUTF(), in.readLong());
+            if (covered <= matchCount) return covered;
+        } catch (IOException e) {
+            System.err.println("Failed to read archive heads, rebuilding: " + e.getMessage());
+        }
+        heads.clear();
+        return 0;
+    }
+
+    private void writeHeads() throws IOException {
+        File tmp = new File(dir, "players.heads.tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            out.writeLong(matchCount);
+            out.writeInt(heads.size());
+            for (Map.Entry<String, Long> e : heads.entrySet()) {
+                out.writeUTF(e.getKey());
+                out.writeLong(e.getValue());
+            }
+        }
+        File target = new File(dir, "players.heads");
+        if (!tmp.renameTo(target)) {
+            target.delete();
+            if (!tmp.renameTo(target)) throw new IOException("Cannot replace " + target);
+        }
+    }
+
+    // ========== WRITING ==========
+    /** Appends a match; it is visible to queries right away and durable after {@link #flush}. */
+    public synchronized long append(Match m) throws IOException {
+        long time = Math.max(m.time, lastTime);   // keep the index sorted by time
+        lastTime = time;
+        int length = encodedSize(m);
+        if (dataOut.remaining() < length + 4) flushBuffers();
+        ByteBuffer rec = dataOut.remaining() >= length + 4 ? dataOut : ByteBuffer.allocate(length + 4);
+        rec.putInt(length);
+        encode(m, time, rec);
+        if (rec != dataOut) {
+            rec.flip();
+            data.write(rec, dataEnd);
+        }
+
+        long no = matchCount;
+        long first = postingCount;
+        int scoreSum = 0;
+        for (int i = 0; i < m.seats(); i++) {
+            Long prev = heads.put(m.names[i], postingCount);
+            postingsOut.putLong(no).putLong(prev != null ? prev : -1);
+            postingCount++;
+            scoreSum += m.scores[i];
+        }
+        indexOut.putLong(dataEnd).putLong(time).putInt(m.durationMs).putInt(scoreSum)
+                .put((byte) m.seats()).put((byte) m.winner).put((byte) m.ladders.length).put((byte) 0)
+                .putInt((int) first);
+        dataEnd += 4 + length;
+        matchCount++;
+        if (dataOut.position() >= FLUSH_BYTES || indexOut.position() >= FLUSH_BYTES || postingsOut.position() >= FLUSH_BYTES) {
+            flushBuffers();
+        }
+        return no;
+    }
+
+    /** Writes buffered matches to the files and forces them to disk. */
+    public synchronized void flush() throws IOException {
+        flushBuffers();
+        data.force(false);
+        postings.force(false);
+        index.force(false);
+    }
+
+    private void flushBuffers() throws IOException {
+        writeAll(data, dataOut);
+        writeAll(postings, postingsOut);
+        writeAll(index, indexOut);
+    }
+
+    private static void writeAll(FileChannel ch, ByteBuffer buf) throws IOException {
+        buf.flip();
+        long pos = ch.size();
+        while (buf.hasRemaining()) pos += ch.write(buf, pos);
+        buf.clear();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        flush();
+        writeHeads();
+        data.close();
+        index.close();
+        postings.close();
+    }
+
+    // ========== ENCODING ==========
+    private static int encodedSize(Match m) {
+        int size = 8 + 4 + 8 + 3 + m.ladders.length * 2;
+        for (String n : m.names) size += 2 + n.getBytes(StandardCharsets.UTF_8).length + 1 + 2 + 4;
+        return size + 8 + (GameRules.BOARD_CELLS - 1);
+    }
+
+    /**
+     * time, duration, seed, seats, winner, ladders {from,to}..., then per seat name, node, stars,
+     * score, then the boss mask and the points of nodes 2..64.
+     */
+    private static void encode(Match m, long time, ByteBuffer b) {
+        b.putLong(time).putInt(m.durationMs).putLong(m.boardSeed);
+        b.put((byte) m.seats()).put((byte) m.winner).put((byte) m.ladders.length);
+        for (int[] l : m.ladders) b.put((byte) l[0]).put((byte) l[1]);
+        for (int i = 0; i < m.seats(); i++) {
+            byte[] name = m.names[i].getBytes(StandardCharsets.UTF_8);
+            b.putShort((short) name.length).put(name);
+            b.put((byte) m.positions[i]).putShort((short) m.stars[i]).putInt(m.scores[i]);
+        }
+        b.putLong(m.bossMask);
+        for (int node = 2; node <= GameRules.BOARD_CELLS; node++) b.put((byte) m.tilePoints[node]);
+    }
+
+    private static Match decode(ByteBuffer b) {
+        long time = b.getLong();
+        int duration = b.getInt();
+        long seed = b.getLong();
+        int seats = b.get(), winner = b.get(), ladderCount = b.get();
+        int[][] ladders = new int[ladderCount][];
+        for (int i = 0; i < ladderCount; i++) ladders[i] = new int[]{b.get(), b.get()};
+        String[] names = new String[seats];
+        int[] pos = new int[seats], stars = new int[seats], scores = new int[seats];
+        for (int i = 0; i < seats; i++) {
+            byte[] name = new byte[b.getShort()];
+            b.get(name);
+            names[i] = new String(name, StandardCharsets.UTF_8);
+            pos[i] = b.get();
+            stars[i] = b.getShort();
+            scores[i] = b.getInt();
+        }
+        long bossMask = b.getLong();
+        int[] tilePoints = new int[GameRules.BOARD_CELLS + 1];
+        for (int node = 2; node <= GameRules.BOARD_CELLS; node++) tilePoints[node] = b.get();
+        return new Match(time, duration, seed, ladders, tilePoints, bossMask, names, pos, stars, scores, winner);
+    }
+
+    static int[] tilePointsOf(GameRules rules) {
+        int[] tilePoints = new int[GameRules.BOARD_CELLS + 1];
+        for (int node = 1; node <= GameRules.BOARD_CELLS; node++) tilePoints[node] = rules.getTilePoints(node);
+        return tilePoints;
+    }
+
+    static long bossMaskOf(GameRules rules) {
+        long mask = 0;
+        for (int node = 1; node <= GameRules.BOARD_CELLS; node++) if (rules.isBoss(node)) mask |= 1L << (node - 1);
+        return mask;
+    }
+
+    // ========== QUERIES ==========
+    /** Reads match number {@code no} (0-based, append order). */
+    public synchronized Match read(long no) throws IOException {
+        flushBuffers();
+        long offset = indexLong(no, 0);
+        ByteBuffer len = ByteBuffer.allocate(4);
+        data.read(len, offset);
+        ByteBuffer rec = ByteBuffer.allocate(len.flip().getInt());
+        long pos = offset + 4;
+        while (rec.hasRemaining()) pos += data.read(rec, pos);
+        rec.flip();
+        return decode(rec);
+    }
+
+    /** Newest first; follows the player's posting chain, so cost grows with {@code limit}, not the archive. */
+    public List<Match> lastGames(String name, int limit) throws IOException {
+        List<Match> out = new ArrayList<>();
+        Long head;
+        Mapped map;
+        synchronized (this) {
+            head = heads.get(name);
+            map = mapIndexes();
+        }
+        long p = head != null ? head : -1;
+        MappedByteBuffer post = map.postings;
+        while (p >= 0 && out.size() < limit) {
+            long match = post.getLong((int) (p * POSTING_ENTRY));
+            out.add(read(match));
+            p = post.getLong((int) (p * POSTING_ENTRY + 8));
+        }
+        return out;
+    }
+
+    /**
+     * {@code [seat][0]} games and {@code [seat][1]} wins for matches with {@code seats} players
+     * (0 = all sizes). One sequential pass over the index.
+     */
+    public long[][] seatStats(int seats) throws IOException {
+        long[][] out = new long[6][2];
+        Mapped map = mapIndexes();
+        MappedByteBuffer idx = map.index;
+        long n = map.matches;
+        for (long m = 0; m < n; m++) {
+            int base = (int) (m * IDX_ENTRY);
+            int players = idx.get(base + 24);
+            if (seats != 0 && players != seats) continue;
+            for (int s = 0; s < players; s++) out[s][0]++;
+            int winner = idx.get(base + 25);
+            if (winner >= 0) out[winner][1]++;
+        }
+        return out;
+    }
+
+    /** Mean final score per seat over matches whose board had {@code ladders} ladders; NaN if none. */
+    public double averageScore(int ladders) throws IOException {
+        Mapped map = mapIndexes();
+        MappedByteBuffer idx = map.index;
+        long n = map.matches, seatsSeen = 0, total = 0;
+        for (long m = 0; m < n; m++) {
+            int base = (int) (m * IDX_ENTRY);
+            if (idx.get(base + 26) != ladders) continue;
+            total += idx.getInt(base + 20);
+            seatsSeen += idx.get(base + 24);
+        }
+        return seatsSeen == 0 ? Double.NaN : total / (double) seatsSeen;
+    }
+
+    /** Matches that ended in {@code [from, to)} epoch millis, oldest first, at most {@code limit}. */
+    public List<Match> between(long from, long to, int limit) throws IOException {
+        Mapped map = mapIndexes();
+        long lo = firstAtOrAfter(map, from), hi = firstAtOrAfter(map, to);
+        List<Match> out = new ArrayList<>();
+        for (long m = lo; m < hi && out.size() < limit; m++) out.add(read(m));
+        return out;
+    }
+
+    private static long firstAtOrAfter(Mapped map, long time) {
+        long lo = 0, hi = map.matches;
+        while (lo < hi) {
+            long mid = (lo + hi) >>> 1;
+            if (map.index.getLong((int) (mid * IDX_ENTRY + 8)) < time) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private long indexLong(long no, int field) throws IOException {
+        if (no < 0 || no >= matchCount) throw new IndexOutOfBoundsException("No match " + no);
+        return mapIndexes().index.getLong((int) (no * IDX_ENTRY + field));
+    }
+
+    /**
+     * Maps the index files, remapping only when they have grown since the last query. Queries
+     * outside the lock stop at {@link Mapped#matches}, so a concurrent append cannot take them
+     * past the end of the mapping.
+     */
+    private synchronized Mapped mapIndexes() throws IOException {
+        flushBuffers();
+        long idxSize = matchCount * IDX_ENTRY;
+        if (idxSize > Integer.MAX_VALUE) throw new IOException("Index exceeds 2 GB; split the archive");
+        if (mapped == null || mapped.matches != matchCount) {
+            mapped = new Mapped(index.map(FileChannel.MapMode.READ_ONLY, 0, idxSize),
+                    postings.map(FileChannel.MapMode.READ_ONLY, 0, postingCount * POSTING_ENTRY), matchCount);
+        }
+        return mapped;
+    }
+
+    // ========== CLI ==========
+    /**
+     * {@code java MatchArchive <dir> generate <matches>} fills an archive with simulated games;
+     * {@code last <name> [n]}, {@code seats [players]}, {@code ladders <n>} and {@code bench}
+     * query it.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("usage: MatchArchive <dir> generate <n> | last <name> [n] | seats [players] | ladders <n> | bench");
+            return;
+        }
+        try (MatchArchive archive = new MatchArchive(new File(args[0]))) {
+            switch (args[1]) {
+                case "generate": generate(archive, Long.parseLong(args[2])); break;
+                case "last":
+                    for (Match m : archive.lastGames(args[2], args.length > 3 ? Integer.parseInt(args[3]) : 50)) System.out.println(m);
+                    break;
+                case "seats": printSeats(archive, args.length > 2 ? Integer.parseInt(args[2]) : 0); break;
+                case "ladders": System.out.printf("%.2f%n", archive.averageScore(Integer.parseInt(args[2]))); break;
+                case "bench": bench(archive); break;
+                default: System.out.println("Unknown command " + args[1]);
+            }
+        }
+    }
+
+    private static void generate(MatchArchive archive, long n) throws IOException {
+        Random rnd = new Random(archive.count() + 1);
+        PlayerStrategy[] pool = {PlayerStrategy.EAGER, PlayerStrategy.CAUTIOUS, PlayerStrategy.RANDOM};
+        long t0 = System.nanoTime(), clock = System.currentTimeMillis() - n * 60_000L;
+        for (long g = 0; g < n; g++) {
+            long seed = rnd.nextLong();
+            Random game = new Random(seed);
+            GameRules rules = GameRules.random(game);
+            int seats = 2 + rnd.nextInt(3);
+            String[] names = new String[seats];
+            PlayerStrategy[] strategies = new PlayerStrategy[seats];
+            for (int i = 0; i < seats; i++) {
+                names[i] = "player" + rnd.nextInt(1000);
+                strategies[i] = pool[rnd.nextInt(pool.length)];
+            }
+            MatchState s = MatchRunner.play(new MatchEngine(rules), strategies, game);
+            archive.append(fromState(clock += 60_000, s.getTurns() * 3000, seed, rules, names, s));
+        }
+        archive.flush();
+        double secs = (System.nanoTime() - t0) / 1e9;
+        System.out.printf("[Archive] appended %d matches in %.1fs; archive holds %d%n", n, secs, archive.count());
+    }
+
+    /** Builds an archive entry from a finished headless match. */
+    public static Match fromState(long time, int durationMs, long boardSeed, GameRules rules, String[] names, MatchState s) {
+        int n = s.getPlayers();
+        int[] pos = new int[n], stars = new int[n], scores = new int[n];
+        for (int i = 0; i < n; i++) {
+            pos[i] = s.getPosition(i);
+            stars[i] = s.getStars(i);
+            scores[i] = s.getScore(i);
+        }
+        return new Match(time, durationMs, boardSeed, rules.getLadders(), tilePointsOf(rules), bossMaskOf(rules),
+                names.clone(), pos, stars, scores, s.getWinner());
+    }
+
+    private static void printSeats(MatchArchive archive, int players) throws IOException {
+        long[][] st = archive.seatStats(players);
+        for (int s = 0; s < st.length; s++) {
+            if (st[s][0] == 0) continue;
+            System.out.printf("seat %d: %d games, %.1f%% wins%n", s + 1, st[s][0], 100.0 * st[s][1] / st[s][0]);
+        }
+    }
+
+    private static void bench(MatchArchive archive) throws IOException {
+        System.out.printf("[Archive] %d matches%n", archive.count());
+        for (int round = 0; round < 3; round++) {
+            long t0 = System.nanoTime();
+            List<Match> last = archive.lastGames("player7", 50);
+            long t1 = System.nanoTime();
+            long[][] seats = archive.seatStats(0);
+            long t2 = System.nanoTime();
+            double avg = archive.averageScore(5);
+            long t3 = System.nanoTime();
+            long now = System.currentTimeMillis();
+            List<Match> day = archive.between(now - 86_400_000L, now, 100);
+            long t4 = System.nanoTime();
+            System.out.printf("[Archive] last 50 of player7: %d in %.2f ms | win rate by seat: seat1 %.1f%% in %.2f ms"
+                            + " | avg score on 5-ladder boards: %.1f in %.2f ms | last day: %d in %.2f ms%n",
+                    last.size(), (t1 - t0) / 1e6, 100.0 * seats[0][1] / Math.max(1, seats[0][0]), (t2 - t1) / 1e6,
+                    avg, (t3 - t2) / 1e6, day.size(), (t4 - t3) / 1e6);
+        }
+    }
+}
@@ -0,0 +1,255 @@
+// MatchEngine.java
+
+/**
+ * Headless rules of the adventure game, mirroring the Swing flow step for step
+ * (prime-start ladders, stack-based backward moves, once-per-match stars, tile points,
+ * boss fights, extra turn on a star, early end when one player is left).
+ *
+ * The engine is stateless; every call advances a {@link MatchState} until the next point
+ * where input is needed (a roll, a variant decision, a boss answer) or the game ends.
+ */
+public class MatchEngine {
+    /**
+     * Observer of state changes, called synchronously as the engine applies them.
+     * Score and star deltas are the amounts actually applied after clamping at zero.
+     */
+    public interface Listener {
+        default void onStep(int seat, int from, int to) {}
+        default void onTeleport(int seat, int from, int to) {}
+        default void onStarClaimed(int seat, int node) {}
+        default void onScore(int seat, int delta) {}
+        default void onStars(int seat, int delta) {}
+        default void onFinished(int seat) {}
+        default void onTurn(int seat) {}
+        default void onGameOver(int winner) {}
+    }
+
+    private final GameRules rules;
+    private Listener listener;
+
+    public MatchEngine(GameRules rules) {
+        this.rules = rules;
+    }
+
+    public GameRules getRules() { return rules; }
+    public void setListener(Listener listener) { this.listener = listener; }
+
+    public MatchState newMatch(int players) {
+        return new MatchState(players);
+    }
+
+    // ========== INPUTS ==========
+    public void roll(MatchState s, int face, boolean forwardCoin) {
+        expect(s, MatchState.Phase.AWAIT_ROLL);
+        int c = s.current;
+        s.turns++;
+        s.dice = face;
+        s.primePower = GameRules.isPrime(s.pos[c]);
+        s.extraPending = false;
+        if (rules.isChooseDirection()) {
+            s.phase = MatchState.Phase.AWAIT_DIRECTION;
+            return;
+        }
+        beginMove(s, forwardCoin);
+    }
+
+    public void chooseDirection(MatchState s, boolean forward) {
+        expect(s, MatchState.Phase.AWAIT_DIRECTION);
+        beginMove(s, forward);
+    }
+
+    public void decideLadder(MatchState s, boolean take) {
+        expect(s, MatchState.Phase.AWAIT_LADDER);
+        if (take) teleport(s);
+        advanceForward(s);
+    }
+
+    public void decideBoss(MatchState s, boolean fight) {
+        expect(s, MatchState.Phase.AWAIT_BOSS_CHOICE);
+        if (fight) s.phase = MatchState.Phase.AWAIT_BOSS_ANSWER;
+        else finishTurn(s, s.pos[s.current], s.extraPending);
+    }
+
+    public void resolveBoss(MatchState s, boolean won) {
+        expect(s, MatchState.Phase.AWAIT_BOSS_ANSWER);
+        int c = s.current;
+        int node = s.pos[c];
+        if (won) {
+            addScore(s, c, rules.getBossWinPoints());
+            addStars(s, c, rules.getBossWinStars());
+            finishTurn(s, node, s.extraPending);
+        } else {
+            addScore(s, c, rules.getBossLosePoints());
+            addStars(s, c, rules.getBossLoseStars());
+            s.pos[c] = Math.max(1, node - 1);
+            if (listener != null) listener.onStep(c, node, s.pos[c]);
+            nextPlayer(s);
+        }
+    }
+
+    /** Applies a yes/no answer to whichever variant decision is pending. */
+    public void decide(MatchState s, boolean yes) {
+        switch (s.phase) {
+            case AWAIT_DIRECTION: chooseDirection(s, yes); break;
+            case AWAIT_LADDER: decideLadder(s, yes); break;
+            case AWAIT_BOSS_CHOICE: decideBoss(s, yes); break;
+            default: throw new IllegalStateException("No decision pending in phase " + s.phase);
+        }
+    }
+
+    public static boolean isDecision(MatchState.Phase phase) {
+        return phase == MatchState.Phase.AWAIT_DIRECTION
+                || phase == MatchState.Phase.AWAIT_LADDER
+                || phase == MatchState.Phase.AWAIT_BOSS_CHOICE;
+    }
+
+    // ========== MOVEMENT ==========
+    private void beginMove(MatchState s, boolean forward) {
+        s.forward = forward;
+        if (forward) {
+            s.remaining = s.dice;
+            advanceForward(s);
+        } else {
+            moveBackward(s, s.dice);
+        }
+    }
+
+    private void advanceForward(MatchState s) {
+        int c = s.current;
+        while (s.remaining > 0) {
+            int prev = s.pos[c];
+            int next = Math.min(prev + 1, GameRules.BOARD_CELLS);
+            s.pos[c] = next;
+            s.remaining--;
+            s.push(c, next);
+            if (listener != null) listener.onStep(c, prev, next);
+
+            if (s.primePower && s.remaining > 0 && rules.ladderFrom(next) != 0) {
+                if (rules.isOptionalLadders()) {
+                    s.phase = MatchState.Phase.AWAIT_LADDER;
+                    return;
+                }
+                teleport(s);
+            }
+            if (s.remaining == 0 || s.pos[c] >= GameRules.BOARD_CELLS) break;
+        }
+        land(s, s.pos[c]);
+    }
+
+    private void teleport(MatchState s) {
+        int c = s.current;
+        int from = s.pos[c];
+        int to = rules.ladderFrom(from);
+        s.pos[c] = to;
+        s.push(c, to);
+        if (listener != null) listener.onTeleport(c, from, to);
+        addScore(s, c, rules.getTilePoints(to));
+    }
+
+    private void moveBackward(MatchState s, int steps) {
+        int c = s.current;
+        if (s.historySize[c] <= steps) {
+            steps = Math.max(0, s.historySize[c] - 1);
+            if (steps == 0) {
+                finishTurn(s, s.pos[c], false);
+                return;
+            }
+        }
+        for (int i = 0; i < steps; i++) {
+            int prev = s.pos[c];
+            s.pos[c] = s.pop(c);
+            if (listener != null) listener.onStep(c, prev, s.pos[c]);
+        }
+        land(s, s.pos[c]);
+    }
+
+    private void land(MatchState s, int node) {
+        int c = s.current;
+        if (GameRules.isStarNode(node) && !s.isStarClaimed(node)) {
+            s.starsClaimed |= 1L << (node - 1);
+            s.stars[c]++;
+            s.extraPending = true;
+            if (listener != null) listener.onStarClaimed(c, node);
+        }
+        addScore(s, c, rules.getTilePoints(node));
+
+        if (rules.isBoss(node)) {
+            s.phase = rules.isOptionalBoss() ? MatchState.Phase.AWAIT_BOSS_CHOICE : MatchState.Phase.AWAIT_BOSS_ANSWER;
+            return;
+        }
+        finishTurn(s, node, s.extraPending);
+    }
+
+    // ========== TURN ORDER ==========
+    private void finishTurn(MatchState s, int finalPosition, boolean extraTurn) {
+        int c = s.current;
+        if (finalPosition == GameRules.BOARD_CELLS) {
+            s.finished[c] = true;
+            if (listener != null) listener.onFinished(c);
+            int notFinished = 0;
+            for (int i = 0; i < s.players; i++) if (!s.finished[i]) notFinished++;
+            if (notFinished <= 1) {
+                gameOver(s);
+                return;
+            }
+            nextPlayer(s);
+            return;
+        }
+        if (extraTurn) {
+            s.phase = MatchState.Phase.AWAIT_ROLL;
+            return;
+        }
+        nextPlayer(s);
+    }
+
+    private void nextPlayer(MatchState s) {
+        for (int k = 1; k <= s.players; k++) {
+            int i = (s.current + k) % s.players;
+            if (!s.finished[i]) {
+                s.current = i;
+                s.phase = MatchState.Phase.AWAIT_ROLL;
+                if (listener != null) listener.onTurn(i);
+                return;
+            }
+        }
+        gameOver(s);
+    }
+
+    private void gameOver(MatchState s) {
+        s.phase = MatchState.Phase.GAME_OVER;
+        s.winner = winner(s);
+        if (listener != null) listener.onGameOver(s.winner);
+    }
+
+    private void addScore(MatchState s, int seat, int delta) {
+        int before = s.score[seat];
+        s.score[seat] = Math.max(0, before + delta);
+        if (listener != null && s.score[seat] != before) listener.onScore(seat, s.score[seat] - before);
+    }
+
+    private void addStars(MatchState s, int seat, int delta) {
+        int before = s.stars[seat];
+        s.stars[seat] = Math.max(0, before + delta);
+        if (listener != null && s.stars[seat] != before) listener.onStars(seat, s.stars[seat] - before);
+    }
+
+    /** Same rule as computeWinnerByPointsAndStars: highest total, ties go to more stars. */
+    public static int winner(MatchState s) {
+        int best = -1;
+        int bestVal = Integer.MIN_VALUE;
+        for (int i = 0; i < s.players; i++) {
+            int total = s.total(i);
+            if (total > bestVal) {
+                bestVal = total;
+                best = i;
+            } else if (total == bestVal && best >= 0 && s.stars[i] > s.stars[best]) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    private static void expect(MatchState s, MatchState.Phase phase) {
+        if (s.phase != phase) throw new IllegalStateException("Expected " + phase + " but match is in " + s.phase);
+    }
+}
@@ -0,0 +1,59 @@
+// MatchFootprintProbe.java
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures the memory cost of idle hosted matches: starts N {@link HostedMatch}es on virtual
+ * threads with a discarding output, waits until every one is parked on its first roll, and
+ * reports heap growth per match.
+ *
+ * {@code java MatchFootprintProbe [matches]} — default 20000.
+ */
+public class MatchFootprintProbe {
+    public static void main(String[] args) throws Exception {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        MemoryMXBean mem = ManagementFactory.getMemoryMXBean();
+        LongAdder framesSent = new LongAdder();
+        HostedMatch.Output sink = new HostedMatch.Output() {
+            @Override public void send(int seat, ByteBuffer frame) { framesSent.increment(); }
+            @Override public void matchEnded(HostedMatch match, MatchState finalState) {}
+        };
+        BossQuestionProvider questions = new QuestionBank(64, 1);
+        Histogram turns = Histogram.exponential(1, 2, 20);
+        Random rnd = new Random(1);
+
+        long before = usedAfterGc(mem);
+        long t0 = System.nanoTime();
+        List<HostedMatch> matches = new ArrayList<>(n);
+        List<Thread> threads = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            HostedMatch m = new HostedMatch(i, new String[]{"a", "b"}, GameRules.random(rnd), sink, questions, 10, turns, rnd.nextLong());
+            matches.add(m);
+            threads.add(m.startVirtual());
+        }
+        while (HostedMatch.parkedCount() < n) Thread.sleep(10);
+        long startMillis = (System.nanoTime() - t0) / 1_000_000;
+        long after = usedAfterGc(mem);
+
+        System.out.printf("Parked matches: %d (started in %d ms, %d frames sent)%n", HostedMatch.parkedCount(), startMillis, framesSent.sum());
+        System.out.printf("Heap growth: %.1f MB total, %.0f bytes per idle match (incl. rules, state, inbox, thread stack)%n",
+                (after - before) / 1e6, (after - before) / (double) n);
+        System.out.printf("Platform threads: %d%n", ManagementFactory.getThreadMXBean().getThreadCount());
+
+        for (HostedMatch m : matches) m.abort();
+        for (Thread t : threads) t.join();
+    }
+
+    private static long usedAfterGc(MemoryMXBean mem) throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return mem.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,187 @@
+// MatchReplay.java
+import java.io.*;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Recording of one match as a flat list of board records, enough to replay it through
+ * {@link BoardRenderer} without the rules: who moved where, ladder teleports, and seat totals
+ * whenever they change. The board (tile points, ladders, bosses) is kept in the header.
+ *
+ * Records are six ints: {@code op, seat, a, b, c, d}.
+ * {@code TURN seat | STEP seat from to | TELEPORT seat from to |
+ * SEAT seat position stars score finished | CLAIMED lowBits highBits | GAME_OVER winner}.
+ *
+ * Live games record from the event bus ({@link #step}, {@link #teleport}, {@link #sync});
+ * headless ones through {@link #recorder()}. A recording is confined to one thread.
+ */
+public final class MatchReplay {
+    public static final int R_TURN = 1, R_STEP = 2, R_TELEPORT = 3, R_SEAT = 4, R_CLAIMED = 5, R_GAME_OVER = 6;
+    private static final int WIDTH = 6;
+    private static final int MAGIC = 0x52504C59;   // "RPLY"
+
+    private final GameSnapshot.Board board;
+    private final String[] names;
+    private int[] records = new int[WIDTH * 256];
+    private int size;
+
+    // What has been recorded so far, so only changes become records.
+    private final int[] pos, stars, score;
+    private final boolean[] finished;
+    private long claimed;
+    private int current = -1;
+
+    public MatchReplay(GameSnapshot.Board board, String[] names) {
+        this.board = board;
+        this.names = names.clone();
+        pos = new int[names.length];
+        stars = new int[names.length];
+        score = new int[names.length];
+        finished = new boolean[names.length];
+        Arrays.fill(pos, 1);
+    }
+
+    public String[] getNames() { return names.clone(); }
+    public int seats() { return names.length; }
+    public int size() { return size; }
+    public int op(int i) { return records[i * WIDTH]; }
+    public int seat(int i) { return records[i * WIDTH + 1]; }
+    /** Argument {@code k} (0-3) of record {@code i}. */
+    public int arg(int i, int k) { return records[i * WIDTH + 2 + k]; }
+
+    public GameSnapshot.Board getBoard() { return board; }
+
+    // ========== RECORDING ==========
+    private void add(int op, int seat, int a, int b, int c, int d) {
+        if ((size + 1) * WIDTH > records.length) records = Arrays.copyOf(records, records.length * 2);
+        int o = size++ * WIDTH;
+        records[o] = op;
+        records[o + 1] = seat;
+        records[o + 2] = a;
+        records[o + 3] = b;
+        records[o + 4] = c;
+        records[o + 5] = d;
+    }
+
+    public void turn(int seat) {
+        if (seat == current) return;
+        current = seat;
+        add(R_TURN, seat, 0, 0, 0, 0);
+    }
+
+    public void step(int seat, int from, int to) {
+        pos[seat] = to;
+        add(R_STEP, seat, from, to, 0, 0);
+    }
+
+    public void teleport(int seat, int from, int to) {
+        pos[seat] = to;
+        add(R_TELEPORT, seat, from, to, 0, 0);
+    }
+
+    /** Records the seat's totals if any of them differ from what was last recorded. */
+    public void seat(int seat, int position, int stars, int score, boolean finished) {
+        if (pos[seat] == position && this.stars[seat] == stars && this.score[seat] == score && this.finished[seat] == finished) return;
+        pos[seat] = position;
+        this.stars[seat] = stars;
+        this.score[seat] = score;
+        this.finished[seat] = finished;
+        add(R_SEAT, seat, position, stars, score, finished ? 1 : 0);
+    }
+
+    public void claimed(long mask) {
+        if (mask == claimed) return;
+        claimed = mask;
+        add(R_CLAIMED, -1, (int) mask, (int) (mask >>> 32), 0, 0);
+    }
+
+    /**
+     * Catches the recording up with a published state: score changes, stars, finishes and
+     * undo/redo all arrive this way, so the replay never drifts from what was on screen.
+     */
+    public void sync(GameSnapshot s) {
+        for (int i = 0; i < s.getSeatCount() && i < names.length; i++) {
+            GameSnapshot.Seat seat = s.getSeat(i);
+            seat(i, seat.getPosition(), seat.getStars(), seat.getScore(), seat.isFinished());
+        }
+        claimed(s.getStarsClaimed());
+        if (s.getCurrent() >= 0) turn(s.getCurrent());
+    }
+
+    public void gameOver(int winner) {
+        add(R_GAME_OVER, winner, 0, 0, 0, 0);
+    }
+
+    /** Records a headless match; the engine reports deltas, which become seat totals here. */
+    public MatchEngine.Listener recorder() {
+        return new MatchEngine.Listener() {
+            @Override public void onTurn(int seat) { turn(seat); }
+            @Override public void onStep(int seat, int from, int to) { step(seat, from, to); }
+            @Override public void onTeleport(int seat, int from, int to) { teleport(seat, from, to); }
+            @Override public void onStarClaimed(int seat, int node) { claimed(claimed | 1L << (node - 1)); }
+            @Override public void onScore(int seat, int delta) { seat(seat, pos[seat], stars[seat], score[seat] + delta, finished[seat]); }
+            @Override public void onStars(int seat, int delta) { seat(seat, pos[seat], stars[seat] + delta, score[seat], finished[seat]); }
+            @Override public void onFinished(int seat) { seat(seat, pos[seat], stars[seat], score[seat], true); }
+            @Override public void onGameOver(int winner) { gameOver(winner); }
+        };
+    }
+
+    /** Plays a headless match the way {@code MatchArchive generate} does and records it. */
+    public static MatchReplay simulate(long seed, PlayerStrategy[] seats) {
+        Random game = new Random(seed);
+        GameRules rules = GameRules.random(game);
+        int[] tilePoints = new int[GameRules.BOARD_CELLS + 1];
+        long bossMask = 0;
+        for (int node = 1; node <= GameRules.BOARD_CELLS; node++) {
+            tilePoints[node] = rules.getTilePoints(node);
+            if (rules.isBoss(node)) bossMask |= 1L << (node - 1);
+        }
+        String[] names = new String[seats.length];
+        for (int i = 0; i < names.length; i++) names[i] = "Player " + (i + 1);
+        MatchReplay replay = new MatchReplay(new GameSnapshot.Board(tilePoints, rules.getLadders(), bossMask), names);
+        MatchEngine engine = new MatchEngine(rules);
+        engine.setListener(replay.recorder());
+        MatchRunner.play(engine, seats, game);
+        return replay;
+    }
+
+    // ========== FILES ==========
+    public void writeTo(File file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeByte(names.length);
+            for (String n : names) out.writeUTF(n);
+            for (int node = 1; node <= GameRules.BOARD_CELLS; node++) out.writeByte(board.getTilePoints(node));
+            out.writeLong(board.getBossMask());
+            out.writeByte(board.getLadderCount());
+            for (int l = 0; l < board.getLadderCount(); l++) {
+                out.writeByte(board.getLadderFrom(l));
+                out.writeByte(board.getLadderTo(l));
+            }
+            out.writeInt(size);
+            for (int i = 0; i < size * WIDTH; i++) out.writeInt(records[i]);
+        }
+    }
+
+    public static MatchReplay read(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC) throw new IOException("Not a replay: " + file);
+            String[] names = new String[in.readUnsignedByte()];
+            for (int i = 0; i < names.length; i++) names[i] = in.readUTF();
+            int[] tilePoints = new int[GameRules.BOARD_CELLS + 1];
+            for (int node = 1; node <= GameRules.BOARD_CELLS; node++) tilePoints[node] = in.readUnsignedByte();
+            long bossMask = in.readLong();
+            int[][] ladders = new int[in.readUnsignedByte()][];
+            for (int i = 0; i < ladders.length; i++) ladders[i] = new int[]{in.readUnsignedByte(), in.readUnsignedByte()};
+            MatchReplay r = new MatchReplay(new GameSnapshot.Board(tilePoints, ladders, bossMask), names);
+            int n = in.readInt();
+            if (n < 0 || n > Integer.MAX_VALUE / WIDTH) throw new IOException("Corrupt replay: " + file);
+            r.records = new int[Math.max(WIDTH, n * WIDTH)];
+            for (int i = 0; i < n * WIDTH; i++) r.records[i] = in.readInt();
+            r.size = n;
+            return r;
+        } catch (EOFException e) {
+            throw new IOException("Truncated replay: " + file, e);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+// MatchRunner.java
+import java.util.Random;
+
+/**
+ * Drives headless matches to completion with random dice: full games for simulations and
+ * tournaments, and playouts from an arbitrary state for search bots.
+ */
+public class MatchRunner {
+    /** Safety cap; real games end long before this. */
+    public static final int MAX_TURNS = 5000;
+
+    public static MatchState play(MatchEngine engine, PlayerStrategy[] seats, Random rnd) {
+        MatchState s = engine.newMatch(seats.length);
+        playOut(engine, s, seats, rnd);
+        return s;
+    }
+
+    /**
+     * Plays {@code s} to the end in place. A null entry in {@code seats} (or a null array)
+     * behaves like {@link PlayerStrategy#EAGER}.
+     */
+    public static void playOut(MatchEngine engine, MatchState s, PlayerStrategy[] seats, Random rnd) {
+        while (s.getPhase() != MatchState.Phase.GAME_OVER) {
+            if (s.getTurns() >= MAX_TURNS) {
+                s.phase = MatchState.Phase.GAME_OVER;
+                s.winner = MatchEngine.winner(s);
+                return;
+            }
+            PlayerStrategy seat = seats != null ? seats[s.getCurrent()] : null;
+            switch (s.getPhase()) {
+                case AWAIT_ROLL:
+                    engine.roll(s, 1 + rnd.nextInt(6), rnd.nextDouble() < engine.getRules().getForwardProbability());
+                    break;
+                case AWAIT_BOSS_ANSWER:
+                    double skill = seat != null ? seat.bossSkill() : PlayerStrategy.EAGER.bossSkill();
+                    engine.resolveBoss(s, rnd.nextDouble() < skill);
+                    break;
+                default:
+                    engine.decide(s, seat == null || seat.decide(engine, s));
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+// MatchState.java
+import java.util.Arrays;
+
+/**
+ * Mutable headless state of one match: per-seat arrays plus the cursor of the turn in progress.
+ * Cheap to {@link #copy()} so search bots and simulations can branch freely.
+ */
+public class MatchState {
+    public enum Phase {
+        AWAIT_ROLL,         // current player must roll
+        AWAIT_DIRECTION,    // variant: choose forward/backward for the rolled value
+        AWAIT_LADDER,       // variant: take or skip the ladder at the current node
+        AWAIT_BOSS_CHOICE,  // variant: fight or avoid the boss at the current node
+        AWAIT_BOSS_ANSWER,  // boss fight in progress, waiting for win/lose
+        GAME_OVER
+    }
+
+    final int players;
+    final int[] pos;
+    final int[] stars;
+    final int[] score;
+    final boolean[] finished;
+    int[][] history;        // per-seat movement stack, bottom at index 0
+    final int[] historySize;
+    long starsClaimed;      // bit (node - 1)
+
+    int current;
+    Phase phase = Phase.AWAIT_ROLL;
+    int dice;
+    boolean forward;
+    int remaining;
+    boolean primePower;
+    boolean extraPending;
+    int turns;
+    int winner = -1;
+
+    public MatchState(int players) {
+        this.players = players;
+        this.pos = new int[players];
+        this.stars = new int[players];
+        this.score = new int[players];
+        this.finished = new boolean[players];
+        this.history = new int[players][16];
+        this.historySize = new int[players];
+        for (int i = 0; i < players; i++) {
+            pos[i] = 1;
+            history[i][0] = 1;
+            historySize[i] = 1;
+        }
+    }
+
+    private MatchState(MatchState o) {
+        this.players = o.players;
+        this.pos = o.pos.clone();
+        this.stars = o.stars.clone();
+        this.score = o.score.clone();
+        this.finished = o.finished.clone();
+        this.history = new int[players][];
+        for (int i = 0; i < players; i++) history[i] = Arrays.copyOf(o.history[i], Math.max(o.historySize[i] + 8, 16));
+        this.historySize = o.historySize.clone();
+        this.starsClaimed = o.starsClaimed;
+        this.current = o.current;
+        this.phase = o.phase;
+        this.dice = o.dice;
+        this.forward = o.forward;
+        this.remaining = o.remaining;
+        this.primePower = o.primePower;
+        this.extraPending = o.extraPending;
+        this.turns = o.turns;
+        this.winner = o.winner;
+    }
+
+    public MatchState copy() { return new MatchState(this); }
+
+    public int getPlayers() { return players; }
+    public int getCurrent() { return current; }
+    public Phase getPhase() { return phase; }
+    public int getPosition(int seat) { return pos[seat]; }
+    public int getStars(int seat) { return stars[seat]; }
+    public int getScore(int seat) { return score[seat]; }
+    public boolean isFinished(int seat) { return finished[seat]; }
+    public int getDice() { return dice; }
+    public boolean isForward() { return forward; }
+    public int getRemaining() { return remaining; }
+    public int getTurns() { return turns; }
+    public int getWinner() { return winner; }
+    public boolean isStarClaimed(int node) { return (starsClaimed & (1L << (node - 1))) != 0; }
+    public int getHistorySize(int seat) { return historySize[seat]; }
+
+    public int total(int seat) {
+        return score[seat] + stars[seat] * GameRules.STAR_TO_POINT;
+    }
+
+    void push(int seat, int node) {
+        if (historySize[seat] == history[seat].length) history[seat] = Arrays.copyOf(history[seat], history[seat].length * 2);
+        history[seat][historySize[seat]++] = node;
+    }
+
+    int pop(int seat) {
+        if (historySize[seat] == 0) return pos[seat];
+        return history[seat][--historySize[seat]];
+    }
+
+    /**
+     * Compact 64-bit key of everything that affects future play, for transposition tables.
+     * Collisions are possible in principle but negligible at search sizes.
+     */
+    public long key() {
+        long h = 0x9E3779B97F4A7C15L;
+        h = mix(h, current | ((long) phase.ordinal() << 8) | ((long) dice << 16) | ((long) remaining << 24)
+                | (forward ? 1L << 32 : 0) | (primePower ? 1L << 33 : 0) | (extraPending ? 1L << 34 : 0));
+        h = mix(h, starsClaimed);
+        for (int i = 0; i < players; i++) {
+            h = mix(h, pos[i] | ((long) stars[i] << 8) | ((long) score[i] << 24) | (finished[i] ? 1L << 56 : 0));
+            long hh = historySize[i];
+            for (int k = 0; k < historySize[i]; k++) hh = hh * 31 + history[i][k];
+            h = mix(h, hh);
+        }
+        return h;
+    }
+
+    private static long mix(long h, long v) {
+        h ^= v + 0x9E3779B97F4A7C15L + (h << 6) + (h >>> 2);
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,123 @@
+// MatchThumbnails.java
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Renders PNG thumbnails of the final boards in a {@link MatchArchive}, headless and on every
+ * core. Each worker keeps one image, one PNG writer and one output buffer for its whole run,
+ * so the steady state allocates little beyond what the encoder needs per image; the only
+ * shared state is the renderer's scaled-map cache and the archive reader.
+ *
+ * Claimed stars are not archived, so star pins show as they did at the start of the match.
+ */
+public class MatchThumbnails {
+
+    /** Final board of an archived match, as the archive stored it. */
+    public static GameSnapshot finalState(MatchArchive.Match m) {
+        GameSnapshot.Board board = new GameSnapshot.Board(m.tilePoints, m.ladders, m.bossMask);
+        GameSnapshot.Seat[] seats = new GameSnapshot.Seat[m.seats()];
+        for (int i = 0; i < seats.length; i++) {
+            seats[i] = new GameSnapshot.Seat(m.names[i], m.positions[i], m.stars[i], m.scores[i],
+                    m.positions[i] == GameRules.BOARD_CELLS, GameSnapshot.PathStack.of(m.positions[i]));
+        }
+        return new GameSnapshot(board, seats, 0L, m.winner, new int[0], 0);
+    }
+
+    public static List<BoardRenderer.Token> tokens(MatchArchive.Match m) {
+        List<BoardRenderer.Token> tokens = new ArrayList<>(m.seats());
+        for (int i = 0; i < m.seats(); i++) {
+            tokens.add(BoardRenderer.token(m.names[i], BoardRenderer.PLAYER_COLORS[i % BoardRenderer.PLAYER_COLORS.length]));
+        }
+        return tokens;
+    }
+
+    /**
+     * Writes {@code match-<no>.png} for the first {@code limit} matches into {@code outDir}.
+     * Returns the number written; the first failure stops every worker and is rethrown.
+     */
+    public static long renderAll(MatchArchive archive, BoardRenderer renderer, File outDir,
+                                 int w, int h, int threads, long limit) throws IOException, InterruptedException {
+        if (!outDir.isDirectory() && !outDir.mkdirs()) throw new IOException("Cannot create " + outDir);
+        long total = Math.min(limit, archive.count());
+        AtomicLong next = new AtomicLong();
+        AtomicLong written = new AtomicLong();
+        AtomicReference<Exception> failure = new AtomicReference<>();
+
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                BufferedImage img = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+                ImageWriter writer = ImageIO.getImageWritersByFormatName("png").next();
+                ByteArrayOutputStream png = new ByteArrayOutputStream(w * h);
+                try {
+                    long no;
+                    while (failure.get() == null && (no = next.getAndIncrement()) < total) {
+                        MatchArchive.Match m = archive.read(no);
+                        Graphics2D g = img.createGraphics();
+                        try {
+                            renderer.render(g, w, h, finalState(m), tokens(m), BoardRenderer.Effects.NONE);
+                        } finally {
+                            g.dispose();
+                        }
+                        png.reset();
+                        try (ImageOutputStream out = new MemoryCacheImageOutputStream(png)) {
+                            writer.setOutput(out);
+                            writer.write(img);
+                        }
+                        try (FileOutputStream f = new FileOutputStream(new File(outDir, "match-" + no + ".png"))) {
+                            png.writeTo(f);
+                        }
+                        written.incrementAndGet();
+                    }
+                } catch (IOException | RuntimeException e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    writer.dispose();
+                }
+            }, "thumbnail-" + t);
+            workers[t].start();
+        }
+        for (Thread t : workers) t.join();
+
+        Exception e = failure.get();
+        if (e instanceof IOException) throw (IOException) e;
+        if (e != null) throw (RuntimeException) e;
+        return written.get();
+    }
+
+    // ========== CLI ==========
+    /**
+     * {@code java -Djava.awt.headless=true MatchThumbnails <archiveDir> <outDir> [width] [height] [threads] [limit]}
+     * — defaults 320x256, one thread per core, every match.
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.out.println("usage: MatchThumbnails <archiveDir> <outDir> [width] [height] [threads] [limit]");
+            return;
+        }
+        int w = args.length > 2 ? Integer.parseInt(args[2]) : 320;
+        int h = args.length > 3 ? Integer.parseInt(args[3]) : 256;
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+        long limit = args.length > 5 ? Long.parseLong(args[5]) : Long.MAX_VALUE;
+
+        BoardRenderer renderer = new BoardRenderer(BoardRenderer.loadImageFlexible("AdventureMap.jpg"));
+        try (MatchArchive archive = new MatchArchive(new File(args[0]))) {
+            long t0 = System.nanoTime();
+            long n = renderAll(archive, renderer, new File(args[1]), w, h, threads, limit);
+            double secs = (System.nanoTime() - t0) / 1e9;
+            System.out.printf("[Thumbnails] %d at %dx%d on %d threads in %.1fs (%.0f/s)%n", n, w, h, threads, secs, n / secs);
+        }
+    }
+}
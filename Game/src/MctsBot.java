@@ -0,0 +1,213 @@
+// MctsBot.java
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Monte Carlo Tree Search seat using the headless rules for rollouts.
+ *
+ * The tree is open-loop: nodes are the bot's own yes/no decisions, while dice, boss fights
+ * and opponent turns are sampled afresh on every iteration. Worker threads share one tree
+ * (tree parallelism); a virtual loss on the path being explored steers concurrent workers
+ * to other branches. Rollouts score the final standings by
+ * {@code score + stars * STAR_TO_POINT}: 1 for the winner, otherwise a share of 0.5 by
+ * the fraction of opponents beaten.
+ */
+public class MctsBot implements PlayerStrategy {
+    private static final double EXPLORATION = 1.2;
+    private static final int VIRTUAL_LOSS = 1;
+
+    private final String name;
+    private final double skill;
+    private final int threads;
+    private final long iterationBudget;   // 0 = time only
+    private final long timeBudgetNanos;   // 0 = iterations only
+    private final ExecutorService pool;
+
+    private final LongAdder totalRollouts = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private volatile double lastRolloutsPerSecond;
+
+    public MctsBot(String name, double skill, int threads, long iterationBudget, long timeBudgetMillis) {
+        this(name, skill, threads, iterationBudget, timeBudgetMillis, Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+            Thread t = new Thread(r, "mcts-" + name);
+            t.setDaemon(true);
+            return t;
+        }));
+    }
+
+    /** Uses a caller-owned pool, e.g. one shared by every MCTS seat in a tournament. */
+    public MctsBot(String name, double skill, int threads, long iterationBudget, long timeBudgetMillis, ExecutorService pool) {
+        if (iterationBudget <= 0 && timeBudgetMillis <= 0) throw new IllegalArgumentException("Need an iteration or time budget");
+        this.name = name;
+        this.skill = skill;
+        this.threads = Math.max(1, threads);
+        this.iterationBudget = iterationBudget;
+        this.timeBudgetNanos = timeBudgetMillis * 1_000_000L;
+        this.pool = pool;
+    }
+
+    @Override public String getName() { return name; }
+    @Override public double bossSkill() { return skill; }
+
+    public double getLastRolloutsPerSecond() { return lastRolloutsPerSecond; }
+
+    public double getAverageRolloutsPerSecond() {
+        long nanos = totalNanos.sum();
+        return nanos == 0 ? 0 : totalRollouts.sum() * 1e9 / nanos;
+    }
+
+    public void shutdown() { pool.shutdownNow(); }
+
+    // ========== TREE ==========
+    private static final class Node {
+        final AtomicReferenceArray<Node> children = new AtomicReferenceArray<>(2); // [0] = no, [1] = yes
+        final AtomicLong visits = new AtomicLong();
+        final DoubleAdder reward = new DoubleAdder();
+        final AtomicLong virtualLoss = new AtomicLong();
+
+        Node child(int i) {
+            Node c = children.get(i);
+            if (c == null) {
+                children.compareAndSet(i, null, new Node());
+                c = children.get(i);
+            }
+            return c;
+        }
+
+        double ucb(long parentVisits) {
+            long vl = virtualLoss.get();
+            long n = visits.get() + vl;
+            if (n == 0) return Double.POSITIVE_INFINITY;
+            double mean = reward.sum() / n;   // virtual losses count as visits with zero reward
+            return mean + EXPLORATION * Math.sqrt(Math.log(Math.max(1, parentVisits)) / n);
+        }
+    }
+
+    @Override
+    public boolean decide(MatchEngine engine, MatchState state) {
+        if (!MatchEngine.isDecision(state.getPhase())) return true;
+        int me = state.getCurrent();
+        Node root = new Node();
+        AtomicLong iterations = new AtomicLong();
+        long start = System.nanoTime();
+        long deadline = timeBudgetNanos > 0 ? start + timeBudgetNanos : Long.MAX_VALUE;
+
+        Future<?>[] workers = new Future<?>[threads];
+        for (int w = 0; w < threads; w++) {
+            workers[w] = pool.submit(() -> {
+                Random rnd = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    long n = iterations.incrementAndGet();
+                    if (iterationBudget > 0 && n > iterationBudget) break;
+                    iterate(engine, state, me, root, rnd);
+                }
+            });
+        }
+        for (Future<?> f : workers) {
+            try {
+                f.get();
+            } catch (Exception e) {
+                System.err.println("[MCTS] worker failed: " + e.getMessage());
+            }
+        }
+
+        long elapsed = System.nanoTime() - start;
+        long done = Math.min(iterations.get(), iterationBudget > 0 ? iterationBudget : Long.MAX_VALUE);
+        totalRollouts.add(done);
+        totalNanos.add(elapsed);
+        lastRolloutsPerSecond = elapsed == 0 ? 0 : done * 1e9 / elapsed;
+
+        Node yes = root.children.get(1), no = root.children.get(0);
+        long vy = yes == null ? 0 : yes.visits.get();
+        long vn = no == null ? 0 : no.visits.get();
+        return vy >= vn;
+    }
+
+    private void iterate(MatchEngine engine, MatchState rootState, int me, Node root, Random rnd) {
+        MatchState s = rootState.copy();
+        Node[] path = new Node[64];
+        int depth = 0;
+        Node node = root;
+        path[depth++] = node;
+
+        // Selection / expansion down our own decisions; everything else is sampled.
+        while (s.getPhase() != MatchState.Phase.GAME_OVER && depth < path.length) {
+            if (MatchEngine.isDecision(s.getPhase()) && s.getCurrent() == me) {
+                long parentVisits = node.visits.get() + node.virtualLoss.get();
+                Node yes = node.child(1), no = node.child(0);
+                int pick = yes.ucb(parentVisits) >= no.ucb(parentVisits) ? 1 : 0;
+                Node next = pick == 1 ? yes : no;
+                boolean fresh = next.visits.get() + next.virtualLoss.get() == 0;
+                next.virtualLoss.addAndGet(VIRTUAL_LOSS);
+                path[depth++] = next;
+                node = next;
+                engine.decide(s, pick == 1);
+                if (fresh) break;
+            } else if (!sampleStep(engine, s, me, rnd)) {
+                break;
+            }
+        }
+
+        double reward = rollout(engine, s, me, rnd);
+
+        for (int i = 0; i < depth; i++) {
+            Node n = path[i];
+            if (i > 0) n.virtualLoss.addAndGet(-VIRTUAL_LOSS);
+            n.visits.incrementAndGet();
+            n.reward.add(reward);
+        }
+    }
+
+    /** Advances one non-own-decision step; returns false once the turn cap is hit. */
+    private boolean sampleStep(MatchEngine engine, MatchState s, int me, Random rnd) {
+        if (s.getTurns() >= MatchRunner.MAX_TURNS) return false;
+        switch (s.getPhase()) {
+            case AWAIT_ROLL:
+                engine.roll(s, 1 + rnd.nextInt(6), rnd.nextDouble() < engine.getRules().getForwardProbability());
+                return true;
+            case AWAIT_BOSS_ANSWER:
+                engine.resolveBoss(s, rnd.nextDouble() < (s.getCurrent() == me ? skill : PlayerStrategy.EAGER.bossSkill()));
+                return true;
+            default:
+                engine.decide(s, true);   // opponents play the default policy
+                return true;
+        }
+    }
+
+    private double rollout(MatchEngine engine, MatchState s, int me, Random rnd) {
+        while (s.getPhase() != MatchState.Phase.GAME_OVER && s.getTurns() < MatchRunner.MAX_TURNS) {
+            if (MatchEngine.isDecision(s.getPhase()) && s.getCurrent() == me) engine.decide(s, rnd.nextBoolean());
+            else sampleStep(engine, s, me, rnd);
+        }
+        int winner = s.getPhase() == MatchState.Phase.GAME_OVER ? s.getWinner() : MatchEngine.winner(s);
+        if (winner == me) return 1.0;
+        int beaten = 0;
+        for (int i = 0; i < s.getPlayers(); i++) if (i != me && s.total(i) < s.total(me)) beaten++;
+        return 0.5 * beaten / Math.max(1, s.getPlayers() - 1);
+    }
+
+    // ========== THROUGHPUT CHECK ==========
+    /** Prints rollouts/second per thread count: {@code java MctsBot [maxThreads] [millisPerDecision]}. */
+    public static void main(String[] args) {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        long millis = args.length > 1 ? Long.parseLong(args[1]) : 500;
+        Random rnd = new Random(42);
+        MatchEngine engine = new MatchEngine(GameRules.random(rnd).withVariants(true, true, true));
+        MatchState s = engine.newMatch(4);
+        engine.roll(s, 3, true);   // choose-direction variant: leaves a decision pending
+        for (int t = 1; t <= maxThreads; t *= 2) {
+            MctsBot bot = new MctsBot("bench", 0.6, t, 0, millis);
+            bot.decide(engine, s);   // warm-up
+            bot.decide(engine, s);
+            System.out.printf("threads=%d rollouts/s=%.0f%n", t, bot.getLastRolloutsPerSecond());
+            bot.shutdown();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+// Metrics.java
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Named counters, gauges and histograms for the running game. Writers only touch their own
+ * {@link LongAdder} or {@link Histogram}; gauges are sampled when a snapshot is taken, so
+ * registering one costs nothing until someone looks. Names are dotted, e.g. {@code paint.nodes}.
+ *
+ * Snapshots come as text lines for the overlay and reports, or as CSV rows
+ * ({@code time_ms,name,kind,value,count,mean,p50,p99,max}) that {@link #startExport} appends
+ * to a file on a daemon thread.
+ */
+public class Metrics {
+    private final Map<String, LongAdder> counters = new LinkedHashMap<>();
+    private final Map<String, LongSupplier> gauges = new LinkedHashMap<>();
+    private final Map<String, Histogram> histograms = new LinkedHashMap<>();
+    private final Map<String, String> units = new LinkedHashMap<>();
+    private Thread exporter;
+
+    // ========== REGISTRATION ==========
+    public synchronized LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, k -> new LongAdder());
+    }
+
+    public synchronized void gauge(String name, String unit, LongSupplier value) {
+        gauges.put(name, value);
+        units.put(name, unit);
+    }
+
+    /** Registers an existing histogram, so components keep ownership of their own. */
+    public synchronized Histogram histogram(String name, String unit, Histogram h) {
+        histograms.put(name, h);
+        units.put(name, unit);
+        return h;
+    }
+
+    private static long sample(LongSupplier g) {
+        try {
+            return g.getAsLong();
+        } catch (RuntimeException e) {
+            return -1;   // a gauge must never break the overlay or the exporter
+        }
+    }
+
+    // ========== SNAPSHOTS ==========
+    public synchronized List<String> snapshot() {
+        List<String> out = new ArrayList<>();
+        for (Map.Entry<String, LongAdder> e : counters.entrySet()) out.add(e.getKey() + " = " + e.getValue().sum());
+        for (Map.Entry<String, LongSupplier> e : gauges.entrySet())
+            out.add(e.getKey() + " = " + sample(e.getValue()) + units.get(e.getKey()));
+        for (Map.Entry<String, Histogram> e : histograms.entrySet())
+            out.add(e.getKey() + " " + e.getValue().summary(units.get(e.getKey())));
+        return out;
+    }
+
+    /** One short line per metric, for the in-game overlay. */
+    public synchronized List<String> compact() {
+        List<String> out = new ArrayList<>();
+        for (Map.Entry<String, LongAdder> e : counters.entrySet()) out.add(e.getKey() + " " + e.getValue().sum());
+        for (Map.Entry<String, LongSupplier> e : gauges.entrySet())
+            out.add(e.getKey() + " " + sample(e.getValue()) + units.get(e.getKey()));
+        for (Map.Entry<String, Histogram> e : histograms.entrySet()) {
+            Histogram h = e.getValue();
+            String u = units.get(e.getKey());
+            out.add(e.getKey() + " p50 " + h.percentile(0.50) + u + " p99 " + h.percentile(0.99) + u);
+        }
+        return out;
+    }
+
+    public static String csvHeader() { return "time_ms,name,kind,value,count,mean,p50,p99,max"; }
+
+    public synchronized List<String> csvRows(long timeMs) {
+        List<String> out = new ArrayList<>();
+        for (Map.Entry<String, LongAdder> e : counters.entrySet())
+            out.add(timeMs + "," + e.getKey() + ",counter," + e.getValue().sum() + ",,,,,");
+        for (Map.Entry<String, LongSupplier> e : gauges.entrySet())
+            out.add(timeMs + "," + e.getKey() + ",gauge," + sample(e.getValue()) + ",,,,,");
+        for (Map.Entry<String, Histogram> e : histograms.entrySet()) {
+            Histogram h = e.getValue();
+            out.add(String.format("%d,%s,histogram,,%d,%.1f,%d,%d,%d", timeMs, e.getKey(),
+                    h.count(), h.mean(), h.percentile(0.50), h.percentile(0.99), h.max()));
+        }
+        return out;
+    }
+
+    public void dumpTo(File file) throws IOException {
+        try (PrintWriter w = new PrintWriter(new FileWriter(file))) {
+            w.println("Metrics at " + new java.util.Date());
+            for (String line : snapshot()) w.println(line);
+        }
+    }
+
+    // ========== EXPORT ==========
+    /** Appends a CSV snapshot to {@code file} every {@code periodMs} until {@link #stopExport}. */
+    public synchronized void startExport(File file, long periodMs) {
+        if (exporter != null) return;
+        exporter = new Thread(() -> {
+            boolean header = !file.exists() || file.length() == 0;
+            try (PrintWriter w = new PrintWriter(new FileWriter(file, true))) {
+                if (header) w.println(csvHeader());
+                while (!Thread.currentThread().isInterrupted()) {
+                    for (String row : csvRows(System.currentTimeMillis())) w.println(row);
+                    w.flush();
+                    Thread.sleep(periodMs);
+                }
+            } catch (InterruptedException e) {
+                // stopped
+            } catch (IOException e) {
+                System.err.println("Failed to export metrics: " + e.getMessage());
+            }
+        }, "metrics-export");
+        exporter.setDaemon(true);
+        exporter.start();
+    }
+
+    public synchronized void stopExport() {
+        if (exporter != null) exporter.interrupt();
+        exporter = null;
+    }
+}
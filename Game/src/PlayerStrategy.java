@@ -0,0 +1,38 @@
+// PlayerStrategy.java
+
+/**
+ * Decision maker for a computer-controlled seat.
+ * {@link #decide} is only consulted when a rule variant offers a choice; the meaning of
+ * {@code true} depends on the pending phase: go forward, take the ladder, or fight the boss.
+ */
+public interface PlayerStrategy {
+
+    String getName();
+
+    boolean decide(MatchEngine engine, MatchState state);
+
+    /** Probability of answering a boss question correctly; drives bot answers and simulations. */
+    default double bossSkill() { return 0.6; }
+
+    /** Takes every ladder, fights every boss and always moves forward. */
+    PlayerStrategy EAGER = new PlayerStrategy() {
+        @Override public String getName() { return "Eager"; }
+        @Override public boolean decide(MatchEngine engine, MatchState state) { return true; }
+    };
+
+    /** Takes ladders and moves forward, but never fights an optional boss. */
+    PlayerStrategy CAUTIOUS = new PlayerStrategy() {
+        @Override public String getName() { return "Cautious"; }
+        @Override public boolean decide(MatchEngine engine, MatchState state) {
+            return state.getPhase() != MatchState.Phase.AWAIT_BOSS_CHOICE;
+        }
+    };
+
+    /** Flips a coin for every decision. */
+    PlayerStrategy RANDOM = new PlayerStrategy() {
+        @Override public String getName() { return "Random"; }
+        @Override public boolean decide(MatchEngine engine, MatchState state) {
+            return java.util.concurrent.ThreadLocalRandom.current().nextBoolean();
+        }
+    };
+}
@@ -0,0 +1,196 @@
+// Protocol.java
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binary wire format shared by {@link GameServer}, the Swing client and {@link LoadGenerator}.
+ *
+ * Every frame is {@code [int length][byte type][payload]} (big-endian), where length counts
+ * the type byte plus the payload. Strings are {@code [short byteLength][UTF-8]}.
+ * Node numbers and seats fit in a byte; scores are ints.
+ */
+public final class Protocol {
+    private Protocol() {}
+
+    public static final int MAX_FRAME = 64 * 1024;
+    /** Starting size of a connection's read buffer; every frame the game sends today fits. */
+    public static final int READ_BUFFER = 1024;
+
+    // Client -> server
+    public static final byte JOIN = 1;          // int matchId, byte seats, str name
+    public static final byte ROLL = 2;          // -
+    public static final byte BOSS_ANSWER = 3;   // int answer (Integer.MIN_VALUE = no answer)
+    public static final byte SPECTATE = 4;      // int matchId
+
+    // Server -> client
+    public static final byte JOINED = 10;       // int matchId, byte seat, byte seats
+    public static final byte BOARD = 11;        // byte seats, names, byte ladders, (from,to)*, 64 tile points, long bossMask
+    public static final byte STATE = 12;        // byte current, byte phase, long starsClaimed, per seat: byte pos, short stars, int score, byte finished
+    public static final byte MOVED = 13;        // byte seat, byte from, byte to, byte dice, byte forward
+    public static final byte BOSS_PROMPT = 14;  // byte seat, byte node, short seconds, str question
+    public static final byte BOSS_RESULT = 15;  // byte seat, byte won, int correctAnswer
+    public static final byte GAME_OVER = 16;    // byte winner
+    public static final byte ERROR = 17;        // str message
+    public static final byte SPECTATOR_KEYFRAME = 18;  // long nextSeq, BOARD frame, STATE frame
+    public static final byte SPECTATOR_DELTAS = 19;    // long firstSeq, short count, deltas (see SpectatorChannel)
+
+    // ========== ENCODING ==========
+    public static ByteBuffer frame(byte type, int payloadCapacity) {
+        ByteBuffer b = ByteBuffer.allocate(5 + payloadCapacity);
+        b.putInt(0).put(type);
+        return b;
+    }
+
+    /** Patches the length prefix and flips the buffer for writing. */
+    public static ByteBuffer finish(ByteBuffer b) {
+        b.putInt(0, b.position() - 4);
+        b.flip();
+        return b;
+    }
+
+    public static void putString(ByteBuffer b, String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        b.putShort((short) bytes.length).put(bytes);
+    }
+
+    public static String getString(ByteBuffer b) {
+        byte[] bytes = new byte[b.getShort() & 0xFFFF];
+        b.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public static int stringSize(String s) {
+        return 2 + s.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    public static ByteBuffer join(int matchId, int seats, String name) {
+        ByteBuffer b = frame(JOIN, 5 + stringSize(name));
+        b.putInt(matchId).put((byte) seats);
+        putString(b, name);
+        return finish(b);
+    }
+
+    public static ByteBuffer roll() {
+        return finish(frame(ROLL, 0));
+    }
+
+    public static ByteBuffer bossAnswer(int answer) {
+        return finish(frame(BOSS_ANSWER, 4).putInt(answer));
+    }
+
+    public static ByteBuffer spectate(int matchId) {
+        return finish(frame(SPECTATE, 4).putInt(matchId));
+    }
+
+    public static ByteBuffer joined(int matchId, int seat, int seats) {
+        return finish(frame(JOINED, 6).putInt(matchId).put((byte) seat).put((byte) seats));
+    }
+
+    public static ByteBuffer board(String[] names, GameRules rules) {
+        int size = 1 + 1 + rules.getLadders().length * 2 + GameRules.BOARD_CELLS + 8;
+        for (String n : names) size += stringSize(n);
+        ByteBuffer b = frame(BOARD, size);
+        b.put((byte) names.length);
+        for (String n : names) putString(b, n);
+        b.put((byte) rules.getLadders().length);
+        for (int[] l : rules.getLadders()) b.put((byte) l[0]).put((byte) l[1]);
+        for (int i = 1; i <= GameRules.BOARD_CELLS; i++) b.put((byte) rules.getTilePoints(i));
+        long mask = 0;
+        for (int i = 1; i <= GameRules.BOARD_CELLS; i++) if (rules.isBoss(i)) mask |= 1L << (i - 1);
+        b.putLong(mask);
+        return finish(b);
+    }
+
+    public static ByteBuffer state(MatchState s) {
+        ByteBuffer b = frame(STATE, 10 + s.getPlayers() * 8);
+        b.put((byte) s.getCurrent()).put((byte) s.getPhase().ordinal()).putLong(starsMask(s));
+        for (int i = 0; i < s.getPlayers(); i++) {
+            b.put((byte) s.getPosition(i)).putShort((short) s.getStars(i)).putInt(s.getScore(i))
+                    .put((byte) (s.isFinished(i) ? 1 : 0));
+        }
+        return finish(b);
+    }
+
+    public static ByteBuffer moved(int seat, int from, int to, int dice, boolean forward) {
+        return finish(frame(MOVED, 5).put((byte) seat).put((byte) from).put((byte) to).put((byte) dice).put((byte) (forward ? 1 : 0)));
+    }
+
+    public static ByteBuffer bossPrompt(int seat, int node, int seconds, String question) {
+        ByteBuffer b = frame(BOSS_PROMPT, 4 + stringSize(question));
+        b.put((byte) seat).put((byte) node).putShort((short) seconds);
+        putString(b, question);
+        return finish(b);
+    }
+
+    public static ByteBuffer bossResult(int seat, boolean won, int correct) {
+        return finish(frame(BOSS_RESULT, 6).put((byte) seat).put((byte) (won ? 1 : 0)).putInt(correct));
+    }
+
+    public static ByteBuffer gameOver(int winner) {
+        return finish(frame(GAME_OVER, 1).put((byte) winner));
+    }
+
+    public static ByteBuffer error(String message) {
+        ByteBuffer b = frame(ERROR, stringSize(message));
+        putString(b, message);
+        return finish(b);
+    }
+
+    public static ByteBuffer spectatorKeyframe(long nextSeq, String[] names, GameRules rules, MatchState s) {
+        ByteBuffer board = board(names, rules);
+        ByteBuffer state = state(s);
+        ByteBuffer b = frame(SPECTATOR_KEYFRAME, 8 + board.remaining() + state.remaining());
+        b.putLong(nextSeq).put(board).put(state);
+        return finish(b);
+    }
+
+    /** @param deltas encoded deltas in read mode; consumed */
+    public static ByteBuffer spectatorDeltas(long firstSeq, int count, ByteBuffer deltas) {
+        ByteBuffer b = frame(SPECTATOR_DELTAS, 10 + deltas.remaining());
+        b.putLong(firstSeq).putShort((short) count).put(deltas);
+        return finish(b);
+    }
+
+    static long starsMask(MatchState s) {
+        long mask = 0;
+        for (int n = 5; n <= GameRules.BOARD_CELLS; n += 5) if (s.isStarClaimed(n)) mask |= 1L << (n - 1);
+        return mask;
+    }
+
+    // ========== DECODING ==========
+    /**
+     * Extracts the next complete frame from {@code in} (in read mode) as a buffer positioned at
+     * the type byte, or returns null if more bytes are needed. Oversized frames throw.
+     */
+    public static ByteBuffer nextFrame(ByteBuffer in) {
+        if (in.remaining() < 4) return null;
+        int len = in.getInt(in.position());
+        if (len <= 0 || len > MAX_FRAME) throw new IllegalStateException("Bad frame length " + len);
+        if (in.remaining() < 4 + len) return null;
+        in.position(in.position() + 4);
+        ByteBuffer frame = in.slice();
+        frame.limit(len);
+        in.position(in.position() + len);
+        return frame;
+    }
+
+    /** A read buffer of {@link #READ_BUFFER} bytes; pass it through {@link #fitFrame} after each compact. */
+    public static ByteBuffer readBuffer() {
+        return ByteBuffer.allocate(READ_BUFFER);
+    }
+
+    /**
+     * Returns {@code in} (compacted, in write mode), or a copy big enough for the frame whose
+     * header it starts with. An emptied buffer that had grown goes back to {@link #READ_BUFFER},
+     * so one large frame does not pin its size for the life of the connection.
+     */
+    public static ByteBuffer fitFrame(ByteBuffer in) {
+        if (in.position() == 0) return in.capacity() > READ_BUFFER ? readBuffer() : in;
+        if (in.position() < 4) return in;
+        int len = in.getInt(0);
+        if (len <= 0 || len > MAX_FRAME) throw new IllegalStateException("Bad frame length " + len);
+        if (4 + len <= in.capacity()) return in;
+        in.flip();
+        return ByteBuffer.allocate(4 + len).put(in);
+    }
+}
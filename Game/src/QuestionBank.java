@@ -0,0 +1,40 @@
+// QuestionBank.java
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Precomputed pool of boss questions, generated in bulk once and indexed by type and difficulty.
+ * Drawing a question is an array lookup; nothing is allocated per encounter.
+ */
+public class QuestionBank implements BossQuestionProvider {
+    private static final BossQuestion.Type[] TYPES = BossQuestion.Type.values();
+
+    private final BossQuestion[][][] pool; // [type][difficulty][i]
+
+    public QuestionBank(int perBucket, long seed) {
+        Random rnd = new Random(seed);
+        pool = new BossQuestion[TYPES.length][LEVELS][perBucket];
+        for (BossQuestion.Type type : TYPES) {
+            for (int d = 0; d < LEVELS; d++) {
+                BossQuestion[] bucket = pool[type.ordinal()][d];
+                for (int i = 0; i < perBucket; i++) bucket[i] = BossQuestion.generate(type, d, rnd);
+            }
+        }
+    }
+
+    @Override
+    public BossQuestion next(int difficulty) {
+        return next(TYPES[ThreadLocalRandom.current().nextInt(TYPES.length)], difficulty);
+    }
+
+    @Override
+    public BossQuestion next(BossQuestion.Type type, int difficulty) {
+        int d = Math.max(0, Math.min(LEVELS - 1, difficulty));
+        BossQuestion[] bucket = pool[type.ordinal()][d];
+        return bucket[ThreadLocalRandom.current().nextInt(bucket.length)];
+    }
+
+    public int size() {
+        return TYPES.length * LEVELS * pool[0][0].length;
+    }
+}
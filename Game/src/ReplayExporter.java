@@ -0,0 +1,513 @@
+// ReplayExporter.java
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.FileImageOutputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.IndexColorModel;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Replays a {@link MatchReplay} headlessly through {@link BoardRenderer} into an animated GIF
+ * or a directory of numbered PNG frames.
+ *
+ * One thread renders (and, for GIFs, maps each frame onto a fixed palette) while the caller's
+ * thread encodes. They share a fixed pool of {@link #POOL} frame buffers through two bounded
+ * queues, so memory is the same for a ten-turn highlight and a whole match. GIF frames carry
+ * only the rectangle that changed since the previous frame, and unchanged frames extend the
+ * previous frame's delay; tokens do not bob in exports, so most of the board drops out.
+ */
+public class ReplayExporter {
+    private static final int POOL = 4;
+    private static final int TURN_MS = 300;
+    private static final int STEP_MS = 180;
+    private static final int TELEPORT_MS = 600;
+    private static final int END_MS = 2000;
+
+    /** A pooled buffer; {@code x, y, w, h} is the part that differs from the previous frame. */
+    static final class Frame {
+        final BufferedImage image;
+        int x, y, w, h;
+
+        Frame(BufferedImage image) { this.image = image; }
+    }
+
+    private static final Frame END = new Frame(null);
+
+    /** Encodes frames in order on the exporting thread. */
+    interface FrameSink extends Closeable {
+        BufferedImage newBuffer(int w, int h);
+
+        /** Takes the frame; returns a frame whose buffer can be reused, or null. */
+        Frame write(Frame f) throws IOException;
+    }
+
+    // ========== EXPORT ==========
+    /**
+     * Writes turns {@code firstTurn..lastTurn} (1-based, inclusive) to {@code out}: a GIF when
+     * the name ends in {@code .gif}, otherwise a directory of {@code frame-NNNNN.png}.
+     * Returns the number of frames rendered.
+     */
+    public static int export(MatchReplay replay, BoardRenderer renderer, File out, int w, int h, int fps,
+                             int firstTurn, int lastTurn) throws IOException, InterruptedException {
+        Playback play = new Playback(replay, firstTurn, lastTurn);
+        FrameSink sink = out.getName().toLowerCase().endsWith(".gif")
+                ? new GifSink(out, fps, palette(renderer, play.finalState(), play.tokens, w, h))
+                : new PngSequenceSink(out);
+
+        BlockingQueue<Frame> free = new ArrayBlockingQueue<>(POOL);
+        BlockingQueue<Frame> full = new ArrayBlockingQueue<>(POOL + 1);
+        for (int i = 0; i < POOL; i++) free.add(new Frame(sink.newBuffer(w, h)));
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        int[] rendered = new int[1];
+
+        Thread producer = new Thread(() -> {
+            try {
+                rendered[0] = play.run(renderer, w, h, fps, free, full);
+            } catch (InterruptedException e) {
+                return;   // the encoder gave up
+            } catch (RuntimeException e) {
+                failure.set(e);
+            }
+            try {
+                full.put(END);
+            } catch (InterruptedException ignored) {
+            }
+        }, "replay-render");
+        producer.start();
+
+        try (FrameSink s = sink) {
+            Frame f;
+            while ((f = full.take()) != END) {
+                Frame reusable = s.write(f);
+                if (reusable != null) free.put(reusable);
+            }
+        } catch (IOException | RuntimeException | InterruptedException e) {
+            producer.interrupt();
+            throw e;
+        } finally {
+            producer.join();
+        }
+        Exception e = failure.get();
+        if (e != null) throw (RuntimeException) e;
+        return rendered[0];
+    }
+
+    // ========== PLAYBACK ==========
+    /** Applies the records in order and renders frames for the chosen turns. */
+    private static final class Playback {
+        final MatchReplay replay;
+        final int firstTurn, lastTurn;
+        final List<BoardRenderer.Token> tokens = new ArrayList<>();
+        final int[] pos, stars, score;
+        final boolean[] finished;
+        long claimed;
+        int current = -1;
+        int turn;
+        final List<Integer> path = new ArrayList<>();
+        byte[] previous;   // last indexed frame, for the changed rectangle
+
+        Playback(MatchReplay replay, int firstTurn, int lastTurn) {
+            this.replay = replay;
+            this.firstTurn = firstTurn;
+            this.lastTurn = lastTurn;
+            String[] names = replay.getNames();
+            for (int i = 0; i < names.length; i++) {
+                tokens.add(BoardRenderer.token(names[i], BoardRenderer.PLAYER_COLORS[i % BoardRenderer.PLAYER_COLORS.length]));
+            }
+            pos = new int[names.length];
+            stars = new int[names.length];
+            score = new int[names.length];
+            finished = new boolean[names.length];
+            Arrays.fill(pos, 1);
+        }
+
+        GameSnapshot snapshot() {
+            GameSnapshot.Seat[] seats = new GameSnapshot.Seat[pos.length];
+            for (int i = 0; i < seats.length; i++) {
+                seats[i] = new GameSnapshot.Seat(replay.getNames()[i], pos[i], stars[i], score[i], finished[i],
+                        GameSnapshot.PathStack.of(pos[i]));
+            }
+            return new GameSnapshot(replay.getBoard(), seats, claimed, current, new int[0], turn);
+        }
+
+        /** Every record applied without rendering; samples the colours of a late-game board. */
+        GameSnapshot finalState() {
+            Playback p = new Playback(replay, 0, -1);
+            for (int i = 0; i < replay.size(); i++) p.apply(i);
+            return p.snapshot();
+        }
+
+        /** Returns how long the record holds the screen, in milliseconds. */
+        int apply(int i) {
+            int seat = replay.seat(i);
+            switch (replay.op(i)) {
+                case MatchReplay.R_TURN:
+                    current = seat;
+                    turn++;
+                    path.clear();
+                    return TURN_MS;
+                case MatchReplay.R_STEP:
+                    pos[seat] = replay.arg(i, 1);
+                    path.add(pos[seat]);
+                    return STEP_MS;
+                case MatchReplay.R_TELEPORT:
+                    pos[seat] = replay.arg(i, 1);
+                    path.add(pos[seat]);
+                    return TELEPORT_MS;
+                case MatchReplay.R_SEAT:
+                    pos[seat] = replay.arg(i, 0);
+                    stars[seat] = replay.arg(i, 1);
+                    score[seat] = replay.arg(i, 2);
+                    finished[seat] = replay.arg(i, 3) != 0;
+                    return 0;
+                case MatchReplay.R_CLAIMED:
+                    claimed = (replay.arg(i, 0) & 0xFFFFFFFFL) | (long) replay.arg(i, 1) << 32;
+                    return 0;
+                case MatchReplay.R_GAME_OVER:
+                    current = -1;
+                    path.clear();
+                    return END_MS;
+                default:
+                    return 0;
+            }
+        }
+
+        int run(BoardRenderer renderer, int w, int h, int fps, BlockingQueue<Frame> free, BlockingQueue<Frame> full)
+                throws InterruptedException {
+            BufferedImage scratch = null;
+            double owed = 0;
+            int frames = 0;
+            for (int i = 0; i < replay.size(); i++) {
+                int op = replay.op(i);
+                int ms = apply(i);
+                boolean inRange = turn >= firstTurn && turn <= lastTurn;
+                if (ms == 0 || !inRange) continue;
+                owed += ms * fps / 1000.0;
+                int n = (int) owed;
+                owed -= n;
+                for (int k = 0; k < n; k++) {
+                    BoardRenderer.Effects fx = op == MatchReplay.R_TELEPORT
+                            ? new BoardRenderer.Effects(path, replay.arg(i, 0), replay.arg(i, 1), (float) (Math.PI * (k + 1) / (2 * n)), 0f)
+                            : new BoardRenderer.Effects(path, 0, 0, 0f, 0f);
+                    Frame f = free.take();
+                    BufferedImage target = f.image.getType() == BufferedImage.TYPE_INT_RGB ? f.image : null;
+                    if (target == null) {
+                        if (scratch == null) scratch = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+                        target = scratch;
+                    }
+                    GameSnapshot snap = snapshot();
+                    Graphics2D g = target.createGraphics();
+                    try {
+                        renderer.render(g, w, h, snap, tokens, fx);
+                    } finally {
+                        g.dispose();
+                    }
+                    if (target != f.image) {
+                        Graphics2D gi = f.image.createGraphics();
+                        gi.drawImage(target, 0, 0, null);
+                        gi.dispose();
+                        changedRect(f);
+                    } else {
+                        f.x = 0;
+                        f.y = 0;
+                        f.w = w;
+                        f.h = h;
+                    }
+                    full.put(f);
+                    frames++;
+                }
+            }
+            return frames;
+        }
+
+        /** Bounding box of the pixels that differ from the previous indexed frame. */
+        private void changedRect(Frame f) {
+            int w = f.image.getWidth(), h = f.image.getHeight();
+            byte[] px = ((DataBufferByte) f.image.getRaster().getDataBuffer()).getData();
+            if (previous == null) {
+                previous = px.clone();
+                f.x = 0;
+                f.y = 0;
+                f.w = w;
+                f.h = h;
+                return;
+            }
+            int minX = w, minY = h, maxX = -1, maxY = -1;
+            for (int y = 0; y < h; y++) {
+                int row = y * w;
+                if (Arrays.mismatch(px, row, row + w, previous, row, row + w) < 0) continue;
+                int x0 = 0, x1 = w - 1;
+                while (px[row + x0] == previous[row + x0]) x0++;
+                while (px[row + x1] == previous[row + x1]) x1--;
+                minX = Math.min(minX, x0);
+                maxX = Math.max(maxX, x1);
+                if (minY == h) minY = y;
+                maxY = y;
+            }
+            System.arraycopy(px, 0, previous, 0, px.length);
+            f.x = maxX < 0 ? 0 : minX;
+            f.y = maxY < 0 ? 0 : minY;
+            f.w = maxX < 0 ? 0 : maxX - minX + 1;
+            f.h = maxY < 0 ? 0 : maxY - minY + 1;
+        }
+    }
+
+    // ========== PALETTE ==========
+    /**
+     * Popularity palette from one rendered board: the most common 15-bit colours, skipping
+     * near-duplicates, so pins and tokens keep their exact hues next to the map's shades.
+     */
+    static IndexColorModel palette(BoardRenderer renderer, GameSnapshot sample, List<BoardRenderer.Token> tokens, int w, int h) {
+        BufferedImage img = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = img.createGraphics();
+        renderer.render(g, w, h, sample, tokens, BoardRenderer.Effects.NONE);
+        g.dispose();
+
+        int[] count = new int[1 << 15];
+        long[] sum = new long[(1 << 15) * 3];
+        for (int rgb : img.getRGB(0, 0, w, h, null, 0, w)) {
+            int r = (rgb >> 16) & 0xFF, gr = (rgb >> 8) & 0xFF, b = rgb & 0xFF;
+            int bin = (r >> 3) << 10 | (gr >> 3) << 5 | b >> 3;
+            count[bin]++;
+            sum[bin * 3] += r;
+            sum[bin * 3 + 1] += gr;
+            sum[bin * 3 + 2] += b;
+        }
+        Integer[] bins = new Integer[count.length];
+        for (int i = 0; i < bins.length; i++) bins[i] = i;
+        Arrays.sort(bins, (a, b) -> Integer.compare(count[b], count[a]));
+
+        byte[] r = new byte[256], gr = new byte[256], b = new byte[256];
+        int n = 0;
+        for (int pass = 0; pass < 2 && n < 256; pass++) {
+            for (int bin : bins) {
+                if (n == 256 || count[bin] == 0) break;
+                int cr = (int) (sum[bin * 3] / count[bin]), cg = (int) (sum[bin * 3 + 1] / count[bin]), cb = (int) (sum[bin * 3 + 2] / count[bin]);
+                boolean near = false;
+                for (int j = 0; j < n && !near; j++) {
+                    int dr = cr - (r[j] & 0xFF), dg = cg - (gr[j] & 0xFF), db = cb - (b[j] & 0xFF);
+                    int d = dr * dr + dg * dg + db * db;
+                    near = pass == 0 ? d < 96 : d == 0;
+                }
+                if (near) continue;
+                r[n] = (byte) cr;
+                gr[n] = (byte) cg;
+                b[n] = (byte) cb;
+                n++;
+            }
+        }
+        return new IndexColorModel(8, Math.max(n, 2), r, gr, b);
+    }
+
+    // ========== SINKS ==========
+    static final class GifSink implements FrameSink {
+        private final IndexColorModel palette;
+        private final int fps;
+        private final ImageWriter writer = ImageIO.getImageWritersByFormatName("gif").next();
+        private final ImageOutputStream out;
+        private final ImageWriteParam param;
+        private Frame pending;
+        private int pendingFrames;
+        private boolean first = true;
+
+        GifSink(File file, int fps, IndexColorModel palette) throws IOException {
+            this.palette = palette;
+            this.fps = fps;
+            Files.deleteIfExists(file.toPath());
+            out = new FileImageOutputStream(file);
+            writer.setOutput(out);
+            param = writer.getDefaultWriteParam();
+            writer.prepareWriteSequence(streamMetadata());
+        }
+
+        /** Every frame shares the palette, so it goes out once as the global colour table. */
+        private IIOMetadata streamMetadata() throws IOException {
+            IIOMetadata meta = writer.getDefaultStreamMetadata(param);
+            String format = meta.getNativeMetadataFormatName();
+            IIOMetadataNode root = (IIOMetadataNode) meta.getAsTree(format);
+            IIOMetadataNode table = child(root, "GlobalColorTable");
+            while (table.getFirstChild() != null) table.removeChild(table.getFirstChild());
+            int size = 2;
+            while (size < palette.getMapSize()) size <<= 1;
+            table.setAttribute("sizeOfGlobalColorTable", Integer.toString(size));
+            table.setAttribute("backgroundColorIndex", "0");
+            table.setAttribute("sortFlag", "FALSE");
+            for (int i = 0; i < size; i++) {
+                int rgb = i < palette.getMapSize() ? palette.getRGB(i) : 0;
+                IIOMetadataNode entry = new IIOMetadataNode("ColorTableEntry");
+                entry.setAttribute("index", Integer.toString(i));
+                entry.setAttribute("red", Integer.toString((rgb >> 16) & 0xFF));
+                entry.setAttribute("green", Integer.toString((rgb >> 8) & 0xFF));
+                entry.setAttribute("blue", Integer.toString(rgb & 0xFF));
+                table.appendChild(entry);
+            }
+            meta.setFromTree(format, root);
+            return meta;
+        }
+
+        @Override
+        public BufferedImage newBuffer(int w, int h) {
+            return new BufferedImage(w, h, BufferedImage.TYPE_BYTE_INDEXED, palette);
+        }
+
+        /** Holds each frame back until the next one shows whether it has to stay up longer. */
+        @Override
+        public Frame write(Frame f) throws IOException {
+            if (pending != null && f.w == 0) {
+                pendingFrames++;
+                return f;
+            }
+            Frame done = pending;
+            writePending();
+            pending = f;
+            pendingFrames = 1;
+            return done;
+        }
+
+        private void writePending() throws IOException {
+            if (pending == null) return;
+            Frame f = pending;
+            // A source region rather than getSubimage: the GIF writer reads sub-images from the parent's origin.
+            param.setSourceRegion(new Rectangle(f.x, f.y, f.w, f.h));
+            writer.writeToSequence(new IIOImage(f.image, null, metadata(f.image, f.x, f.y)), param);
+            first = false;
+            pending = null;
+        }
+
+        private IIOMetadata metadata(BufferedImage img, int x, int y) throws IOException {
+            IIOMetadata meta = writer.getDefaultImageMetadata(ImageTypeSpecifier.createFromRenderedImage(img), null);
+            String format = meta.getNativeMetadataFormatName();
+            IIOMetadataNode root = (IIOMetadataNode) meta.getAsTree(format);
+
+            IIOMetadataNode descriptor = child(root, "ImageDescriptor");
+            descriptor.setAttribute("imageLeftPosition", Integer.toString(x));
+            descriptor.setAttribute("imageTopPosition", Integer.toString(y));
+            descriptor.setAttribute("interlaceFlag", "FALSE");
+            // The default local table is a generic one, not ours; frames use the global table.
+            root.removeChild(child(root, "LocalColorTable"));
+
+            IIOMetadataNode control = child(root, "GraphicControlExtension");
+            control.setAttribute("disposalMethod", "doNotDispose");
+            control.setAttribute("userInputFlag", "FALSE");
+            control.setAttribute("transparentColorFlag", "FALSE");
+            control.setAttribute("delayTime", Integer.toString(Math.max(1, Math.round(pendingFrames * 100f / fps))));
+            control.setAttribute("transparentColorIndex", "0");
+
+            if (first) {
+                IIOMetadataNode apps = child(root, "ApplicationExtensions");
+                IIOMetadataNode loop = new IIOMetadataNode("ApplicationExtension");
+                loop.setAttribute("applicationID", "NETSCAPE");
+                loop.setAttribute("authenticationCode", "2.0");
+                loop.setUserObject(new byte[]{1, 0, 0});   // loop forever
+                apps.appendChild(loop);
+            }
+            meta.setFromTree(format, root);
+            return meta;
+        }
+
+        private static IIOMetadataNode child(IIOMetadataNode root, String name) {
+            for (int i = 0; i < root.getLength(); i++) {
+                if (root.item(i).getNodeName().equals(name)) return (IIOMetadataNode) root.item(i);
+            }
+            IIOMetadataNode node = new IIOMetadataNode(name);
+            root.appendChild(node);
+            return node;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                writePending();
+                writer.endWriteSequence();
+            } finally {
+                out.close();
+                writer.dispose();
+            }
+        }
+    }
+
+    static final class PngSequenceSink implements FrameSink {
+        private final File dir;
+        private final ImageWriter writer = ImageIO.getImageWritersByFormatName("png").next();
+        private int next;
+
+        PngSequenceSink(File dir) throws IOException {
+            if (!dir.isDirectory() && !dir.mkdirs()) throw new IOException("Cannot create " + dir);
+            this.dir = dir;
+        }
+
+        @Override
+        public BufferedImage newBuffer(int w, int h) {
+            return new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+        }
+
+        @Override
+        public Frame write(Frame f) throws IOException {
+            File file = new File(dir, String.format("frame-%05d.png", next++));
+            Files.deleteIfExists(file.toPath());
+            try (ImageOutputStream out = new FileImageOutputStream(file)) {
+                writer.setOutput(out);
+                writer.write(f.image);
+            }
+            return f;
+        }
+
+        @Override
+        public void close() {
+            writer.dispose();
+        }
+    }
+
+    // ========== CLI ==========
+    /**
+     * {@code java -Djava.awt.headless=true ReplayExporter <replay-file | simulate:<seed>[:<seats>]>
+     * <out.gif | outDir> [fps] [width] [height] [firstTurn] [lastTurn]} — defaults 10 fps,
+     * 480x384, the whole match.
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.out.println("usage: ReplayExporter <replay-file | simulate:<seed>[:<seats>]> <out.gif | outDir> [fps] [width] [height] [firstTurn] [lastTurn]");
+            return;
+        }
+        MatchReplay replay;
+        if (args[0].startsWith("simulate:")) {
+            String[] p = args[0].split(":");
+            PlayerStrategy[] seats = new PlayerStrategy[p.length > 2 ? Integer.parseInt(p[2]) : 3];
+            Arrays.fill(seats, PlayerStrategy.EAGER);
+            replay = MatchReplay.simulate(Long.parseLong(p[1]), seats);
+        } else {
+            replay = MatchReplay.read(new File(args[0]));
+        }
+        int fps = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        int w = args.length > 3 ? Integer.parseInt(args[3]) : 480;
+        int h = args.length > 4 ? Integer.parseInt(args[4]) : 384;
+        int firstTurn = args.length > 5 ? Integer.parseInt(args[5]) : 0;
+        int lastTurn = args.length > 6 ? Integer.parseInt(args[6]) : Integer.MAX_VALUE;
+
+        File out = new File(args[1]);
+        BoardRenderer renderer = new BoardRenderer(BoardRenderer.loadImageFlexible("AdventureMap.jpg"));
+        long t0 = System.nanoTime();
+        int frames = export(replay, renderer, out, w, h, fps, firstTurn, lastTurn);
+        double secs = (System.nanoTime() - t0) / 1e9;
+        System.out.printf("[Replay] %d records -> %d frames at %dx%d, %d fps in %.1fs -> %s%n",
+                replay.size(), frames, w, h, fps, secs, out);
+    }
+}
@@ -0,0 +1,44 @@
+// ScoreStore.java
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+
+/**
+ * Persistent per-name totals behind the leaderboard. Updates are deltas, so they can be
+ * applied in place and merged with other writers without reading the whole store.
+ * Implementations are safe to share between processes through an OS file lock.
+ */
+public interface ScoreStore extends Closeable {
+    /** Copy of the record, or null if the name has no record. */
+    AdventureGame.ScoreRecord get(String name);
+
+    /** Creates an empty record for {@code name} if there is none. */
+    void ensure(String name);
+
+    /** Adds the given amounts to {@code name}'s totals, creating the record if needed. */
+    void add(String name, int wins, int gamesPlayed, int totalStars, int totalScore);
+
+    /** Best {@code limit} records by wins, then stars, then name; iteration order is rank order. */
+    LinkedHashMap<String, AdventureGame.ScoreRecord> top(int limit);
+
+    int size();
+
+    /** Bumped on every change; lets callers cache derived views such as {@link #top}. */
+    long version();
+
+    /** Makes everything written so far durable. */
+    void flush() throws IOException;
+
+    /** How long the cross-process file lock was held per operation, in microseconds. */
+    Histogram getLockHoldMicros();
+
+    /** Bytes this instance has written to disk so far. */
+    long getBytesWritten();
+
+    /** Leaderboard order shared by all implementations. */
+    static int compare(String a, AdventureGame.ScoreRecord ra, String b, AdventureGame.ScoreRecord rb) {
+        if (rb.wins != ra.wins) return Integer.compare(rb.wins, ra.wins);
+        if (rb.totalStars != ra.totalStars) return Integer.compare(rb.totalStars, ra.totalStars);
+        return a.compareToIgnoreCase(b);
+    }
+}
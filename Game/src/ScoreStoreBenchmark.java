@@ -0,0 +1,72 @@
+// ScoreStoreBenchmark.java
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Several processes record games into one score store at the same time, then the totals
+ * are checked: every game must be counted exactly once, whatever the interleaving.
+ * Each child reports how long it held the file lock.
+ *
+ * {@code java ScoreStoreBenchmark mapped|serialized <base> [processes] [games]}
+ */
+public class ScoreStoreBenchmark {
+    private static final int NAMES = 20;
+    private static final int SEATS = 4;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("child")) {
+            child(args[1], new File(args[2]), Integer.parseInt(args[3]), Integer.parseInt(args[4]));
+            return;
+        }
+        String type = args.length > 0 ? args[0] : "mapped";
+        File base = new File(args.length > 1 ? args[1] : "scores-contention");
+        int processes = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        int games = args.length > 3 ? Integer.parseInt(args[3]) : 500;
+        for (String ext : new String[] {".dat", ".idx", ".lock", ".ser", ".ser.lock"}) new File(base.getPath() + ext).delete();
+
+        String java = new File(System.getProperty("java.home"), "bin/java").getPath();
+        List<Process> children = new ArrayList<>();
+        long t0 = System.nanoTime();
+        for (int i = 0; i < processes; i++) {
+            children.add(new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), "ScoreStoreBenchmark",
+                    "child", type, base.getPath(), String.valueOf(games), String.valueOf(i)).inheritIO().start());
+        }
+        for (Process p : children) p.waitFor();
+        double ms = (System.nanoTime() - t0) / 1e6;
+
+        long wins = 0, played = 0;
+        try (ScoreStore s = open(type, base)) {
+            for (AdventureGame.ScoreRecord r : s.top(Integer.MAX_VALUE).values()) {
+                wins += r.wins;
+                played += r.gamesPlayed;
+            }
+            long expectWins = (long) processes * games, expectPlayed = expectWins * SEATS;
+            System.out.printf("[Scores] %s: %d processes x %d games in %.0f ms, %d players | wins %d/%d, games %d/%d -> %s%n",
+                    type, processes, games, ms, s.size(), wins, expectWins, played, expectPlayed,
+                    wins == expectWins && played == expectPlayed ? "OK" : "LOST UPDATES");
+        }
+    }
+
+    private static ScoreStore open(String type, File base) throws IOException {
+        return type.equals("serialized") ? new SerializedScoreStore(new File(base.getPath() + ".ser")) : new MappedScoreStore(base);
+    }
+
+    /** Plays {@code games} random games, saving after each one as the game does. */
+    private static void child(String type, File base, int games, int id) throws IOException {
+        Random rnd = new Random(id);
+        try (ScoreStore s = open(type, base)) {
+            s.ensure("solo" + id);
+            for (int g = 0; g < games; g++) {
+                int winner = rnd.nextInt(SEATS);
+                for (int seat = 0; seat < SEATS; seat++) {
+                    s.add("player" + rnd.nextInt(NAMES), seat == winner ? 1 : 0, 1, rnd.nextInt(5), rnd.nextInt(50));
+                }
+                s.flush();
+            }
+            System.out.println("[Scores] child " + id + " lock held " + s.getLockHoldMicros().summary("µs"));
+        }
+    }
+}
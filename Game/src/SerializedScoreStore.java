@@ -0,0 +1,197 @@
+// SerializedScoreStore.java
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The original score file: a serialized {@code HashMap<String, ScoreRecord>}. Used where
+ * memory-mapped files are unreliable (network home directories), as a fallback, and for
+ * importing old files into a {@link MappedScoreStore}.
+ *
+ * Local changes are kept as pending deltas. {@link #flush} takes an OS lock on
+ * {@code <file>.lock}, re-reads the file, adds the deltas to whatever other processes
+ * wrote meanwhile, and replaces the file through a temp file and an atomic rename, so
+ * readers never see a partial file and concurrent games never overwrite each other.
+ * Only the read-merge-write runs under the lock.
+ */
+public class SerializedScoreStore implements ScoreStore {
+    private final File file;
+    private final File lockFile;
+    private Map<String, AdventureGame.ScoreRecord> map = new HashMap<>();
+    /** Changes not yet merged into the file: name -> {wins, games, stars, score}. */
+    private Map<String, int[]> pending = new HashMap<>();
+    private final Object flushLock = new Object();
+    private long version;
+
+    /** Time the file lock is held per flush, in microseconds. */
+    private final Histogram lockHoldMicros = Histogram.exponential(1, 2, 24);
+    private final AtomicLong bytesWritten = new AtomicLong();
+
+    public SerializedScoreStore(File file) {
+        this.file = file;
+        this.lockFile = new File(file.getPath() + ".lock");
+        try {
+            map = read(file);
+        } catch (Exception e) {
+            System.err.println("Failed to load scores: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public Histogram getLockHoldMicros() { return lockHoldMicros; }
+
+    @Override
+    public long getBytesWritten() { return bytesWritten.get(); }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, AdventureGame.ScoreRecord> read(File file) throws IOException, ClassNotFoundException {
+        if (!file.exists()) return new HashMap<>();
+        try (ObjectInputStream ois = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            Object obj = ois.readObject();
+            return obj instanceof Map ? (Map<String, AdventureGame.ScoreRecord>) obj : new HashMap<>();
+        }
+    }
+
+    @Override
+    public synchronized AdventureGame.ScoreRecord get(String name) {
+        AdventureGame.ScoreRecord r = map.get(name);
+        return r == null ? null : copy(r);
+    }
+
+    @Override
+    public synchronized void ensure(String name) {
+        if (!map.containsKey(name)) {
+            map.put(name, new AdventureGame.ScoreRecord());
+            pending.computeIfAbsent(name, k -> new int[4]);
+            version++;
+        }
+    }
+
+    @Override
+    public synchronized void add(String name, int wins, int gamesPlayed, int totalStars, int totalScore) {
+        apply(map.computeIfAbsent(name, k -> new AdventureGame.ScoreRecord()), wins, gamesPlayed, totalStars, totalScore);
+        int[] d = pending.computeIfAbsent(name, k -> new int[4]);
+        d[0] += wins;
+        d[1] += gamesPlayed;
+        d[2] += totalStars;
+        d[3] += totalScore;
+        version++;
+    }
+
+    private static void apply(AdventureGame.ScoreRecord r, int wins, int gamesPlayed, int totalStars, int totalScore) {
+        r.wins += wins;
+        r.gamesPlayed += gamesPlayed;
+        r.totalStars += totalStars;
+        r.totalScore += totalScore;
+    }
+
+    @Override
+    public synchronized LinkedHashMap<String, AdventureGame.ScoreRecord> top(int limit) {
+        List<String> names = new ArrayList<>(map.keySet());
+        names.sort((a, b) -> ScoreStore.compare(a, map.get(a), b, map.get(b)));
+        LinkedHashMap<String, AdventureGame.ScoreRecord> out = new LinkedHashMap<>();
+        for (String n : names.subList(0, Math.min(limit, names.size()))) out.put(n, copy(map.get(n)));
+        return out;
+    }
+
+    /** Every record, for imports. */
+    public synchronized Map<String, AdventureGame.ScoreRecord> all() {
+        Map<String, AdventureGame.ScoreRecord> out = new HashMap<>();
+        for (Map.Entry<String, AdventureGame.ScoreRecord> e : map.entrySet()) out.put(e.getKey(), copy(e.getValue()));
+        return out;
+    }
+
+    @Override public synchronized int size() { return map.size(); }
+    @Override public synchronized long version() { return version; }
+
+    /**
+     * Merges pending deltas into the file. The in-memory view is replaced by the merged
+     * result, which also picks up other processes' games; deltas made during the write
+     * stay pending for the next flush.
+     */
+    @Override
+    public void flush() throws IOException {
+        synchronized (flushLock) {
+            Map<String, int[]> deltas;
+            synchronized (this) {
+                if (pending.isEmpty()) return;
+                deltas = pending;
+                pending = new HashMap<>();
+            }
+            Map<String, AdventureGame.ScoreRecord> merged;
+            try {
+                merged = mergeIntoFile(deltas);
+            } catch (IOException | RuntimeException e) {
+                synchronized (this) {
+                    for (Map.Entry<String, int[]> d : deltas.entrySet()) {
+                        int[] p = pending.computeIfAbsent(d.getKey(), k -> new int[4]);
+                        for (int i = 0; i < 4; i++) p[i] += d.getValue()[i];
+                    }
+                }
+                throw e;
+            }
+            synchronized (this) {
+                for (Map.Entry<String, int[]> d : pending.entrySet()) {
+                    int[] v = d.getValue();
+                    apply(merged.computeIfAbsent(d.getKey(), k -> new AdventureGame.ScoreRecord()), v[0], v[1], v[2], v[3]);
+                }
+                map = merged;
+                version++;
+            }
+        }
+    }
+
+    private Map<String, AdventureGame.ScoreRecord> mergeIntoFile(Map<String, int[]> deltas) throws IOException {
+        File dir = file.getAbsoluteFile().getParentFile();
+        try (FileChannel ch = FileChannel.open(lockFile.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            FileLock lock = ch.lock();
+            try {
+                long t0 = System.nanoTime();
+                Map<String, AdventureGame.ScoreRecord> current;
+                try {
+                    current = read(file);
+                } catch (ClassNotFoundException | ObjectStreamException e) {
+                    throw new IOException("Unreadable score file " + file + ": " + e.getMessage(), e);
+                }
+                for (Map.Entry<String, int[]> d : deltas.entrySet()) {
+                    int[] v = d.getValue();
+                    apply(current.computeIfAbsent(d.getKey(), k -> new AdventureGame.ScoreRecord()), v[0], v[1], v[2], v[3]);
+                }
+                File tmp = File.createTempFile(file.getName(), ".tmp", dir);
+                try {
+                    try (ObjectOutputStream oos = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+                        oos.writeObject(current);
+                    }
+                    bytesWritten.addAndGet(tmp.length());
+                    Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } finally {
+                    Files.deleteIfExists(tmp.toPath());
+                }
+                lockHoldMicros.record((System.nanoTime() - t0) / 1000);
+                return current;
+            } finally {
+                lock.release();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+
+    static AdventureGame.ScoreRecord copy(AdventureGame.ScoreRecord r) {
+        AdventureGame.ScoreRecord c = new AdventureGame.ScoreRecord();
+        c.wins = r.wins;
+        c.gamesPlayed = r.gamesPlayed;
+        c.totalStars = r.totalStars;
+        c.totalScore = r.totalScore;
+        return c;
+    }
+}
@@ -0,0 +1,261 @@
+// SharedAssets.java
+import javax.swing.Timer;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Everything the tables of one process share: the decoded map and sounds, the score store,
+ * boss statistics and match archive, the config watcher and the EDT watchdog. Each is loaded
+ * or opened once, however many matches are running, and the files behind them keep a single
+ * writer. Node coordinates need nothing here; they are already static in {@link BoardRenderer}.
+ *
+ * The shared EDT and audio device are handed out fairly. One frame timer drains every
+ * table's frame events in turn, starting after the table it stopped at, so a busy board
+ * cannot starve the others. Sound effects come from a fixed pool of voices, and a table may
+ * only hold its share of them while other tables are playing too.
+ */
+public class SharedAssets {
+    private static final int FRAME_MS = 16;
+    private static final int FRAME_BATCH = 256;                 // events per table per turn
+    private static final long FRAME_BUDGET_NANOS = 8_000_000;   // leaves half a frame for painting
+    private static final int MAX_VOICES = 16;
+    private static final long SCORE_FLUSH_MS = 1000;
+    private static final long EDT_STALL_MS = 100;
+    private static final long EDT_PROBE_MS = 250;
+
+    /** One table's claim on the frame timer and the voices; {@link #leave} gives both back. */
+    public final class Table {
+        private final GameEventBus.Subscription frames;
+        private final Runnable onScores;
+        private final ConfigWatcher.Listener onConfig;
+        private int voices;   // guarded by SharedAssets.this
+
+        private Table(GameEventBus.Subscription frames, Runnable onScores, ConfigWatcher.Listener onConfig) {
+            this.frames = frames;
+            this.onScores = onScores;
+            this.onConfig = onConfig;
+        }
+
+        /** True if a sound effect may start now; pair it with {@link #releaseVoice}. */
+        public boolean tryVoice() {
+            synchronized (SharedAssets.this) {
+                int share = Math.max(1, MAX_VOICES / tables.size());
+                if (voicesInUse >= MAX_VOICES || voices >= share) return false;
+                voices++;
+                voicesInUse++;
+                return true;
+            }
+        }
+
+        public void releaseVoice() {
+            synchronized (SharedAssets.this) {
+                if (voices == 0) return;
+                voices--;
+                voicesInUse--;
+            }
+        }
+
+        public void leave() {
+            synchronized (SharedAssets.this) {
+                voicesInUse -= voices;
+                voices = 0;
+            }
+            tables.remove(this);
+        }
+    }
+
+    private final List<Table> tables = new CopyOnWriteArrayList<>();
+    private int voicesInUse;
+    private int nextFrameTable;   // EDT only
+    private final Timer frameTimer = new Timer(FRAME_MS, e -> pumpFrames());
+
+    private final SoundCache sounds = new SoundCache();
+    private final CompletableFuture<BufferedImage> mapImage = new CompletableFuture<>();
+    private final Map<Long, Image> scaledMaps = new LinkedHashMap<Long, Image>(4, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Image> eldest) { return size() > 2; }
+    };
+
+    private final File scoreFile;
+    private final File legacyScoreFile;
+    private final WriteBehindScoreStore scores;
+    private final BossStats bossStats = new BossStats();
+    private final File bossStatsFile;
+    private final File archiveDir;
+    private MatchArchive archive;   // opened by the first match to finish
+    private final ConfigWatcher config;
+    private final EdtWatchdog edtWatchdog;
+
+    public SharedAssets() {
+        String userHome = System.getProperty("user.home");
+        scoreFile = new File(userHome, ".adventure_scores");
+        legacyScoreFile = new File(userHome, ".adventure_scores.ser");
+        bossStatsFile = new File(userHome, ".adventure_boss_stats.csv");
+        archiveDir = new File(userHome, ".adventure_archive");
+        File configFile = new File(System.getProperty("adventure.config",
+                new File(userHome, ".adventure_config.properties").getPath()));
+
+        scores = new WriteBehindScoreStore(this::openScoreStore, SCORE_FLUSH_MS, () -> {
+            for (Table t : tables) t.onScores.run();
+        });
+        config = new ConfigWatcher(configFile, new ConfigWatcher.Listener() {
+            @Override public void onConfig(GameConfig c) { for (Table t : tables) t.onConfig.onConfig(c); }
+            @Override public void onError(String message) { for (Table t : tables) t.onConfig.onError(message); }
+        });
+        edtWatchdog = EdtWatchdog.install(EDT_STALL_MS, EDT_PROBE_MS);
+        config.start();
+        startBackgroundLoads();
+        frameTimer.start();
+    }
+
+    /**
+     * Decodes the board image and the sound effects on their own threads while the first
+     * frames show a placeholder; every table gets the image from {@link #getMapImage}.
+     */
+    private void startBackgroundLoads() {
+        Thread map = new Thread(() -> {
+            BufferedImage img = BoardRenderer.loadImageFlexible("AdventureMap.jpg");
+            StartupTrace.mark("map decoded");
+            mapImage.complete(img);
+        }, "startup-map");
+        Thread audio = new Thread(() -> {
+            sounds.preload("move.wav", "crash-spin.wav", "confetti.wav");
+            StartupTrace.mark("sounds decoded");
+        }, "startup-audio");
+        map.setDaemon(true);
+        audio.setDaemon(true);
+        map.start();
+        audio.start();
+    }
+
+    /**
+     * Opens the mapped score store, or the serialized file when
+     * {@code -Dadventure.scoreStore=serialized} (for home directories on network shares,
+     * where memory-mapped files and their locks are unreliable). Runs on the score writer
+     * thread; the EDT only talks to the write-behind buffer in front of it.
+     */
+    private ScoreStore openScoreStore() {
+        ScoreStore store;
+        if ("serialized".equals(System.getProperty("adventure.scoreStore"))) {
+            store = new SerializedScoreStore(legacyScoreFile);
+        } else {
+            try {
+                MappedScoreStore mapped = new MappedScoreStore(scoreFile);
+                if (mapped.size() == 0 && legacyScoreFile.exists()
+                        && mapped.importIfEmpty(new SerializedScoreStore(legacyScoreFile).all())) {
+                    mapped.flush();
+                    System.out.println("[Scores] Imported " + mapped.size() + " players from " + legacyScoreFile.getName());
+                }
+                store = mapped;
+            } catch (IOException | UncheckedIOException e) {
+                System.err.println("Failed to open score store, using " + legacyScoreFile.getName() + ": " + e.getMessage());
+                store = new SerializedScoreStore(legacyScoreFile);
+            }
+        }
+        StartupTrace.mark("scores open");
+        return store;
+    }
+
+    /**
+     * Adds a table. Its frame events are drained on the EDT from now on; {@code onScores} and
+     * {@code onConfig} are called on the score writer and config watcher threads.
+     */
+    public Table join(GameEventBus.Subscription frames, Runnable onScores, ConfigWatcher.Listener onConfig) {
+        Table t = new Table(frames, onScores, onConfig);
+        tables.add(t);
+        return t;
+    }
+
+    public int getTableCount() { return tables.size(); }
+
+    // ========== FRAMES ==========
+    /**
+     * Drains up to {@link #FRAME_BATCH} events per table, round robin. When the budget runs
+     * out, the next tick starts with the first table that was not served.
+     */
+    private void pumpFrames() {
+        int n = tables.size();
+        if (n == 0) return;
+        long deadline = System.nanoTime() + FRAME_BUDGET_NANOS;
+        int start = nextFrameTable % n;
+        for (int i = 0; i < n; i++) {
+            int t = (start + i) % n;
+            tables.get(t).frames.poll(FRAME_BATCH);
+            if (System.nanoTime() > deadline) {
+                nextFrameTable = t + 1;
+                return;
+            }
+        }
+        nextFrameTable = start + 1;
+    }
+
+    // ========== IMAGES AND SOUNDS ==========
+    public CompletableFuture<BufferedImage> getMapImage() { return mapImage; }
+
+    /** The map scaled to {@code w x h}; tables showing the same size share one copy. */
+    public synchronized Image scaledMap(BufferedImage map, int w, int h) {
+        return scaledMaps.computeIfAbsent(((long) w << 32) | h, k -> map.getScaledInstance(w, h, Image.SCALE_SMOOTH));
+    }
+
+    public SoundCache getSounds() { return sounds; }
+
+    // ========== RECORDS ==========
+    public WriteBehindScoreStore getScores() { return scores; }
+    public BossStats getBossStats() { return bossStats; }
+    public ConfigWatcher getConfig() { return config; }
+    public EdtWatchdog getEdtWatchdog() { return edtWatchdog; }
+
+    /** Called from the tables' persistence threads. */
+    public void saveBossStats() {
+        synchronized (bossStatsFile) {
+            try {
+                bossStats.writeCsv(bossStatsFile);
+            } catch (IOException e) {
+                System.err.println("Failed to save boss stats: " + e.getMessage());
+            }
+        }
+    }
+
+    /** Called from the tables' persistence threads. */
+    public synchronized void archive(MatchArchive.Match match) {
+        try {
+            if (archive == null) archive = new MatchArchive(archiveDir);
+            archive.append(match);
+            archive.flush();
+        } catch (IOException e) {
+            System.err.println("Failed to archive match: " + e.getMessage());
+        }
+    }
+
+    /** Flushes and closes the shared files; call once, after every table has left. */
+    public void close() {
+        frameTimer.stop();
+        config.close();
+        try {
+            scores.close();
+        } catch (IOException e) {
+            System.err.println("Failed to save scores: " + e.getMessage());
+        }
+        System.out.println("[Scores] flush " + scores.getFlushMicros().summary("µs")
+                + ", lock held " + scores.getLockHoldMicros().summary("µs"));
+        synchronized (this) {
+            if (archive != null) {
+                try {
+                    archive.close();
+                } catch (IOException e) {
+                    System.err.println("Failed to close match archive: " + e.getMessage());
+                }
+            }
+        }
+        System.out.println("[EDT] " + edtWatchdog.summary());
+        edtWatchdog.stop();
+    }
+}
@@ -0,0 +1,81 @@
+// SoundCache.java
+import javax.sound.sampled.*;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decoded PCM for each sound file, so playing a sound only opens a line. Files are looked up
+ * on the classpath first, then relative to the working directory; each is decoded once, by
+ * {@link #preload} at startup or by the first {@link #open}.
+ */
+public class SoundCache {
+    static final class Sound {
+        final AudioFormat format;
+        final byte[] pcm;
+
+        Sound(AudioFormat format, byte[] pcm) {
+            this.format = format;
+            this.pcm = pcm;
+        }
+    }
+
+    private static final Sound MISSING = new Sound(null, null);
+
+    private final ConcurrentHashMap<String, Sound> sounds = new ConcurrentHashMap<>();
+
+    /** Decodes the given files into the cache; meant for a background thread. */
+    public void preload(String... filenames) {
+        for (String f : filenames) get(f);
+    }
+
+    /** Decoded sound, or null if the file is missing or cannot be decoded. */
+    Sound get(String filename) {
+        Sound s = sounds.computeIfAbsent(filename, SoundCache::decode);
+        return s == MISSING ? null : s;
+    }
+
+    /** A clip opened on the cached PCM, not yet started; null if the sound is unavailable. */
+    public Clip open(String filename) throws LineUnavailableException {
+        Sound s = get(filename);
+        if (s == null) return null;
+        Clip clip = (Clip) AudioSystem.getLine(new DataLine.Info(Clip.class, s.format));
+        clip.open(s.format, s.pcm, 0, s.pcm.length);
+        return clip;
+    }
+
+    private static Sound decode(String filename) {
+        AudioInputStream audioIn = null;
+        try {
+            InputStream resStream = SoundCache.class.getResourceAsStream("/" + filename);
+            if (resStream != null) {
+                audioIn = AudioSystem.getAudioInputStream(new BufferedInputStream(resStream));
+            } else {
+                File soundFile = new File(filename);
+                if (!soundFile.exists()) return MISSING;
+                audioIn = AudioSystem.getAudioInputStream(soundFile);
+            }
+
+            AudioFormat baseFormat = audioIn.getFormat();
+            AudioFormat decodedFormat = new AudioFormat(
+                    AudioFormat.Encoding.PCM_SIGNED,
+                    baseFormat.getSampleRate(),
+                    16,
+                    baseFormat.getChannels(),
+                    baseFormat.getChannels() * 2,
+                    baseFormat.getSampleRate(),
+                    false
+            );
+            try (AudioInputStream din = AudioSystem.getAudioInputStream(decodedFormat, audioIn)) {
+                return new Sound(decodedFormat, din.readAllBytes());
+            }
+        } catch (Exception e) {
+            System.err.println("Failed to decode sound " + filename + ": " + e.getMessage());
+            return MISSING;
+        } finally {
+            try { if (audioIn != null) audioIn.close(); } catch (IOException ignored) {}
+        }
+    }
+}
@@ -0,0 +1,116 @@
+// SpectatorBenchmark.java
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Fans one headless match out to many in-memory spectators and checks that every
+ * spectator's decoded view ends up matching the engine.
+ *
+ * Each spectator has a small bounded queue; every {@code slowEvery}-th spectator only drains
+ * it every few turns, so it overflows, loses batches and has to resync from keyframes.
+ *
+ * {@code java SpectatorBenchmark [spectators] [matches] [slowEvery]}
+ */
+public class SpectatorBenchmark {
+    private static final int QUEUE_CAPACITY = 4;
+    private static final int SLOW_DRAIN_TURNS = 8;
+
+    private static final class Watcher implements SpectatorChannel.Subscriber {
+        final ArrayBlockingQueue<ByteBuffer> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        final SpectatorChannel.View view = new SpectatorChannel.View();
+        final boolean slow;
+        long bytes;
+
+        Watcher(boolean slow) { this.slow = slow; }
+
+        @Override
+        public boolean offer(ByteBuffer frame) {
+            return queue.offer(frame);
+        }
+
+        void drain() {
+            ByteBuffer f;
+            while ((f = queue.poll()) != null) {
+                bytes += f.remaining();
+                f.getInt();
+                view.apply(f);
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        int spectators = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int matches = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        int slowEvery = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        Random rnd = new Random(7);
+        Histogram publishMicros = Histogram.exponential(1, 2, 24);
+        long steps = 0, offered = 0, dropped = 0, keyframes = 0, bytes = 0, mismatches = 0;
+        long start = System.nanoTime();
+
+        for (int m = 0; m < matches; m++) {
+            GameRules rules = GameRules.random(rnd);
+            String[] names = {"A", "B", "C"};
+            MatchEngine engine = new MatchEngine(rules);
+            MatchState s = engine.newMatch(names.length);
+            SpectatorChannel channel = new SpectatorChannel(names, rules, HostedMatch.SPECTATOR_KEYFRAME_INTERVAL);
+            engine.setListener(channel);
+
+            List<Watcher> watchers = new ArrayList<>(spectators);
+            for (int i = 0; i < spectators; i++) {
+                Watcher w = new Watcher(slowEvery > 0 && i % slowEvery == 0);
+                watchers.add(w);
+                // half of the audience joins after the match has started
+                if (i % 2 == 0) channel.subscribe(w);
+            }
+            channel.publish(s);
+
+            int turn = 0;
+            while (s.getPhase() != MatchState.Phase.GAME_OVER && turn < MatchRunner.MAX_TURNS) {
+                engine.roll(s, 1 + rnd.nextInt(6), rnd.nextDouble() < rules.getForwardProbability());
+                if (s.getPhase() == MatchState.Phase.AWAIT_BOSS_ANSWER) engine.resolveBoss(s, rnd.nextBoolean());
+                long t0 = System.nanoTime();
+                channel.publish(s);
+                publishMicros.record((System.nanoTime() - t0) / 1000);
+                steps++;
+                turn++;
+                if (turn == 10) for (int i = 1; i < spectators; i += 2) channel.subscribe(watchers.get(i));
+                for (Watcher w : watchers) if (!w.slow || turn % SLOW_DRAIN_TURNS == 0) w.drain();
+            }
+
+            // Let every straggler catch up: drain, then publish so they get their keyframe.
+            for (int round = 0; round < 2; round++) {
+                for (Watcher w : watchers) w.drain();
+                channel.publish(s);
+            }
+            for (Watcher w : watchers) {
+                w.drain();
+                bytes += w.bytes;
+                if (!matches(w.view, s)) mismatches++;
+            }
+            offered += channel.getFramesOffered();
+            dropped += channel.getFramesDropped();
+            keyframes += channel.getKeyframesSent();
+        }
+
+        double secs = (System.nanoTime() - start) / 1e9;
+        System.out.printf("[Spectators] %d matches x %d spectators (1 in %d slow), %d publishes in %.2fs%n",
+                matches, spectators, slowEvery, steps, secs);
+        System.out.printf("[Spectators] frames offered %d (%.0f/s), dropped %d, keyframes delivered %d, %.1f MB decoded%n",
+                offered, offered / secs, dropped, keyframes, bytes / 1e6);
+        System.out.println("[Spectators] publish " + publishMicros.summary("us"));
+        System.out.println("[Spectators] views out of sync at end: " + mismatches);
+    }
+
+    private static boolean matches(SpectatorChannel.View v, MatchState s) {
+        if (!v.synced || v.players != s.getPlayers() || v.current != s.getCurrent()) return false;
+        if (v.starsClaimed != Protocol.starsMask(s)) return false;
+        for (int i = 0; i < s.getPlayers(); i++) {
+            if (v.pos[i] != s.getPosition(i) || v.stars[i] != s.getStars(i) || v.score[i] != s.getScore(i)
+                    || v.finished[i] != s.isFinished(i)) return false;
+        }
+        return s.getPhase() != MatchState.Phase.GAME_OVER || v.winner == s.getWinner();
+    }
+}
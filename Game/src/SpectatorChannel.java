@@ -0,0 +1,249 @@
+// SpectatorChannel.java
+import java.nio.ByteBuffer;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Live broadcast of one match to any number of spectators.
+ *
+ * Engine events are encoded as compact deltas into a per-step batch; {@link #publish} fans
+ * the batch out as one SPECTATOR_DELTAS frame shared by every subscriber. Every
+ * {@code keyframeInterval} deltas, and for anyone who joined late or fell behind, a
+ * SPECTATOR_KEYFRAME (board + full state) is sent instead.
+ *
+ * Subscribers are offered frames without blocking. A subscriber whose queue is full misses
+ * the batch and is resynchronised with a keyframe at the next publish, so one slow
+ * spectator can never stall the match.
+ *
+ * Delta encoding (seat and nodes are bytes, score deltas zig-zag varints):
+ * {@code STEP seat from to | TELEPORT seat from to | STAR seat node | SCORE seat delta |
+ * STARS seat delta | FINISHED seat | TURN seat | GAME_OVER winner}
+ */
+public class SpectatorChannel implements MatchEngine.Listener {
+    public static final byte D_STEP = 1, D_TELEPORT = 2, D_STAR = 3, D_SCORE = 4, D_STARS = 5,
+            D_FINISHED = 6, D_TURN = 7, D_GAME_OVER = 8;
+
+    /** Non-blocking sink for frames; returns false when it cannot take more right now. */
+    public interface Subscriber {
+        boolean offer(ByteBuffer frame);
+    }
+
+    private static final class Sub {
+        final Subscriber target;
+        volatile boolean needsKeyframe = true;
+        Sub(Subscriber target) { this.target = target; }
+    }
+
+    private final String[] names;
+    private final GameRules rules;
+    private final int keyframeInterval;
+    private final CopyOnWriteArrayList<Sub> subs = new CopyOnWriteArrayList<>();
+
+    private ByteBuffer batch = ByteBuffer.allocate(256);
+    private int batchCount;
+    private long seq;                  // sequence number of the next delta
+    private long sinceKeyframe;
+    private ByteBuffer lastKeyframe;   // guarded by this, as are seq and subs' membership
+    private long lastKeyframeSeq;
+
+    private long framesOffered, framesDropped, keyframesSent;
+
+    public SpectatorChannel(String[] names, GameRules rules, int keyframeInterval) {
+        this.names = names;
+        this.rules = rules;
+        this.keyframeInterval = Math.max(1, keyframeInterval);
+    }
+
+    public int subscriberCount() { return subs.size(); }
+    public synchronized long getFramesOffered() { return framesOffered; }
+    public synchronized long getFramesDropped() { return framesDropped; }
+    public synchronized long getKeyframesSent() { return keyframesSent; }
+
+    /**
+     * Safe from any thread. Runs under the publisher's lock, so the subscriber sees either
+     * every delta of a publish or none of it. The latest keyframe is sent right away if no
+     * deltas have followed it; otherwise the next publish brings a fresh one.
+     */
+    public synchronized Object subscribe(Subscriber s) {
+        Sub sub = new Sub(s);
+        if (lastKeyframe != null && lastKeyframeSeq == seq && s.offer(lastKeyframe.duplicate())) sub.needsKeyframe = false;
+        subs.add(sub);
+        return sub;
+    }
+
+    public void unsubscribe(Object handle) {
+        subs.remove(handle);
+    }
+
+    // ========== ENGINE EVENTS (match thread) ==========
+    @Override public void onStep(int seat, int from, int to) { put3(D_STEP, seat, from, to); }
+    @Override public void onTeleport(int seat, int from, int to) { put3(D_TELEPORT, seat, from, to); }
+    @Override public void onStarClaimed(int seat, int node) { put2(D_STAR, seat, node); }
+    @Override public void onScore(int seat, int delta) { putVar(D_SCORE, seat, delta); }
+    @Override public void onStars(int seat, int delta) { putVar(D_STARS, seat, delta); }
+    @Override public void onFinished(int seat) { put1(D_FINISHED, seat); }
+    @Override public void onTurn(int seat) { put1(D_TURN, seat); }
+    @Override public void onGameOver(int winner) { put1(D_GAME_OVER, winner); }
+
+    private void ensure(int bytes) {
+        if (batch.remaining() < bytes) {
+            ByteBuffer bigger = ByteBuffer.allocate(Math.max(batch.capacity() * 2, batch.position() + bytes));
+            batch.flip();
+            bigger.put(batch);
+            batch = bigger;
+        }
+        batchCount++;
+    }
+
+    private void put1(byte type, int a) { ensure(2); batch.put(type).put((byte) a); }
+    private void put2(byte type, int a, int b) { ensure(3); batch.put(type).put((byte) a).put((byte) b); }
+    private void put3(byte type, int a, int b, int c) { ensure(4); batch.put(type).put((byte) a).put((byte) b).put((byte) c); }
+
+    private void putVar(byte type, int seat, int value) {
+        ensure(7);
+        batch.put(type).put((byte) seat);
+        int v = (value << 1) ^ (value >> 31);
+        while ((v & ~0x7F) != 0) {
+            batch.put((byte) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        batch.put((byte) v);
+    }
+
+    // ========== FAN-OUT (match thread) ==========
+    /** Sends the deltas gathered since the last call; {@code state} backs keyframes. */
+    public synchronized void publish(MatchState state) {
+        ByteBuffer deltas = null;
+        if (batchCount > 0) {
+            batch.flip();
+            deltas = Protocol.spectatorDeltas(seq, batchCount, batch);
+            seq += batchCount;
+            sinceKeyframe += batchCount;
+            batch.clear();
+            batchCount = 0;
+        }
+        boolean keyframeDue = sinceKeyframe >= keyframeInterval || lastKeyframe == null;
+        ByteBuffer keyframe = null;
+        if (keyframeDue) {
+            keyframe = Protocol.spectatorKeyframe(seq, names, rules, state);
+            lastKeyframe = keyframe;
+            lastKeyframeSeq = seq;
+            sinceKeyframe = 0;
+        }
+
+        long offered = 0, dropped = 0, keys = 0;
+        for (Sub sub : subs) {
+            if (keyframeDue || sub.needsKeyframe) {
+                if (keyframe == null) {
+                    keyframe = lastKeyframe = Protocol.spectatorKeyframe(seq, names, rules, state);
+                    lastKeyframeSeq = seq;
+                }
+                offered++;
+                if (sub.target.offer(keyframe.duplicate())) {
+                    sub.needsKeyframe = false;
+                    keys++;
+                } else {
+                    sub.needsKeyframe = true;
+                    dropped++;
+                }
+            } else if (deltas != null) {
+                offered++;
+                if (!sub.target.offer(deltas.duplicate())) {
+                    sub.needsKeyframe = true;
+                    dropped++;
+                }
+            }
+        }
+        framesOffered += offered;
+        framesDropped += dropped;
+        keyframesSent += keys;
+    }
+
+    // ========== DECODING ==========
+    /**
+     * Spectator-side model rebuilt from keyframes and deltas.
+     * Deltas older than the current keyframe are skipped; a gap means a frame was missed
+     * and the view waits for the next keyframe.
+     */
+    public static class View {
+        public int players;
+        public String[] names = new String[0];
+        public int[] pos = new int[0], stars = new int[0], score = new int[0];
+        public boolean[] finished = new boolean[0];
+        public long starsClaimed;
+        public int current;
+        public int winner = -1;
+        public long nextSeq = -1;
+        public boolean synced;
+
+        /** @param f frame positioned at its type byte */
+        public void apply(ByteBuffer f) {
+            byte type = f.get();
+            if (type == Protocol.SPECTATOR_KEYFRAME) applyKeyframe(f);
+            else if (type == Protocol.SPECTATOR_DELTAS) applyDeltas(f);
+        }
+
+        private void applyKeyframe(ByteBuffer f) {
+            nextSeq = f.getLong();
+            ByteBuffer board = Protocol.nextFrame(f);
+            board.get();
+            players = board.get();
+            names = new String[players];
+            for (int i = 0; i < players; i++) names[i] = Protocol.getString(board);
+            ByteBuffer st = Protocol.nextFrame(f);
+            st.get();
+            current = st.get();
+            int phase = st.get();
+            starsClaimed = st.getLong();
+            pos = new int[players]; stars = new int[players]; score = new int[players]; finished = new boolean[players];
+            for (int i = 0; i < players; i++) {
+                pos[i] = st.get();
+                stars[i] = st.getShort();
+                score[i] = st.getInt();
+                finished[i] = st.get() != 0;
+            }
+            winner = phase == MatchState.Phase.GAME_OVER.ordinal() ? winnerOf() : -1;
+            synced = true;
+        }
+
+        private int winnerOf() {
+            int best = -1, bestVal = Integer.MIN_VALUE;
+            for (int i = 0; i < players; i++) {
+                int total = score[i] + stars[i] * GameRules.STAR_TO_POINT;
+                if (total > bestVal || (total == bestVal && best >= 0 && stars[i] > stars[best])) { bestVal = total; best = i; }
+            }
+            return best;
+        }
+
+        private void applyDeltas(ByteBuffer f) {
+            long first = f.getLong();
+            int count = f.getShort() & 0xFFFF;
+            if (!synced || first + count <= nextSeq) return;   // stale
+            if (first != nextSeq) { synced = false; return; }  // gap: wait for a keyframe
+            for (int i = 0; i < count; i++) {
+                byte t = f.get();
+                int seat = f.get();
+                switch (t) {
+                    case D_STEP: case D_TELEPORT: f.get(); pos[seat] = f.get(); break;
+                    case D_STAR: starsClaimed |= 1L << (f.get() - 1); stars[seat]++; break;
+                    case D_SCORE: score[seat] += readVar(f); break;
+                    case D_STARS: stars[seat] += readVar(f); break;
+                    case D_FINISHED: finished[seat] = true; break;
+                    case D_TURN: current = seat; break;
+                    case D_GAME_OVER: winner = seat; break;
+                    default: synced = false; return;
+                }
+            }
+            nextSeq = first + count;
+        }
+
+        private static int readVar(ByteBuffer f) {
+            int v = 0, shift = 0, b;
+            do {
+                b = f.get();
+                v |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return (v >>> 1) ^ -(v & 1);
+        }
+    }
+}
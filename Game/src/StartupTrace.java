@@ -0,0 +1,44 @@
+// StartupTrace.java
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Wall-clock timeline of startup phases, measured from JVM start. Phases may finish on any
+ * thread and in any order; the timeline is printed once the first frame has been painted
+ * and again as late phases (background loads) complete.
+ */
+public final class StartupTrace {
+    /** Time-to-first-frame target; slower starts are reported on stderr. */
+    public static final long FIRST_FRAME_BUDGET_MS = 300;
+
+    private static final long JVM_START_MS = ManagementFactory.getRuntimeMXBean().getStartTime();
+    private static final List<String> phases = new ArrayList<>();
+    private static boolean firstFrameSeen;
+
+    private StartupTrace() {}
+
+    /** Milliseconds since the JVM started. */
+    public static long sinceStart() {
+        return System.currentTimeMillis() - JVM_START_MS;
+    }
+
+    /** Records that {@code phase} just finished. */
+    public static synchronized void mark(String phase) {
+        String line = String.format("%-14s +%4d ms  [%s]", phase, sinceStart(), Thread.currentThread().getName());
+        phases.add(line);
+        if (firstFrameSeen) System.out.println("[Startup] " + line);
+    }
+
+    /** Called from the first paint; prints everything recorded so far. Later calls do nothing. */
+    public static synchronized void firstFrame() {
+        if (firstFrameSeen) return;
+        long ms = sinceStart();
+        mark("first frame");
+        firstFrameSeen = true;
+        for (String line : phases) System.out.println("[Startup] " + line);
+        if (ms > FIRST_FRAME_BUDGET_MS) {
+            System.err.println("[Startup] First frame after " + ms + " ms (budget " + FIRST_FRAME_BUDGET_MS + " ms)");
+        }
+    }
+}
@@ -0,0 +1,361 @@
+// Tournament.java
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Headless tournament between bot strategies: round-robin or Swiss, matches run concurrently
+ * on a bounded executor (platform pool or virtual threads). Results are aggregated into
+ * {@link AdventureGame.ScoreRecord} standings plus Elo ratings, and intermediate standings are
+ * appended to a file as the run progresses.
+ *
+ * Each match gets its own deterministic board from the tournament seed and match number,
+ * and every table is played once per seat rotation so first-seat advantage cancels out.
+ * Matches use the rule variants by default: the classic rules offer no decisions, so under
+ * them every strategy plays the same game and the standings are noise.
+ */
+public class Tournament {
+    public enum Format { ROUND_ROBIN, SWISS }
+
+    private static final double ELO_START = 1500;
+    private static final double ELO_K = 16;
+
+    public static class Entrant {
+        final String name;
+        final Supplier<PlayerStrategy> factory;
+        final AdventureGame.ScoreRecord record = new AdventureGame.ScoreRecord();
+        double elo = ELO_START;
+
+        public Entrant(String name, Supplier<PlayerStrategy> factory) {
+            this.name = name;
+            this.factory = factory;
+        }
+
+        public String getName() { return name; }
+        public AdventureGame.ScoreRecord getRecord() { return record; }
+        public double getElo() { return elo; }
+    }
+
+    private final List<Entrant> entrants;
+    private final Format format;
+    private final int seats;
+    private int cycles = 1;          // round-robin: passes over every table
+    private int rounds = 5;          // Swiss: number of rounds
+    private int gamesPerTable = 1;   // Swiss: games per table per rotation
+    private boolean variants = true;
+    private long seed = 1;
+    private int concurrency = Runtime.getRuntime().availableProcessors();
+    private boolean virtualThreads = false;
+    private File standingsFile = null;
+    private long flushEvery = 5000;
+    private MatchArchive archive = null;
+
+    private final AtomicLong matchCounter = new AtomicLong();
+    private final AtomicLong played = new AtomicLong();
+    private long startedAt;
+
+    public Tournament(List<Entrant> entrants, Format format, int seats) {
+        if (seats < 2 || seats > 6) throw new IllegalArgumentException("Seats per match must be 2-6");
+        if (entrants.size() < seats) throw new IllegalArgumentException("Need at least " + seats + " entrants");
+        this.entrants = new ArrayList<>(entrants);
+        this.format = format;
+        this.seats = seats;
+    }
+
+    public void setCycles(int cycles) { this.cycles = cycles; }
+    public void setRounds(int rounds) { this.rounds = rounds; }
+    public void setGamesPerTable(int games) { this.gamesPerTable = games; }
+    public void setVariants(boolean variants) { this.variants = variants; }
+    public void setSeed(long seed) { this.seed = seed; }
+    public void setConcurrency(int concurrency) { this.concurrency = Math.max(1, concurrency); }
+    public void setVirtualThreads(boolean virtualThreads) { this.virtualThreads = virtualThreads; }
+    public void setStandingsFile(File file) { this.standingsFile = file; }
+    public void setFlushEvery(long matches) { this.flushEvery = Math.max(1, matches); }
+    /** Every match is also appended here; the caller closes it. */
+    public void setArchive(MatchArchive archive) { this.archive = archive; }
+
+    public long getPlayed() { return played.get(); }
+
+    // ========== RUN ==========
+    public List<Entrant> run() throws InterruptedException {
+        if (!variants) System.err.println("[Tournament] Warning: the classic rules offer no decisions; every strategy will play the same game");
+        startedAt = System.nanoTime();
+        ExecutorService executor = virtualThreads
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(concurrency);
+        Semaphore inFlight = new Semaphore(concurrency);
+        try {
+            if (format == Format.ROUND_ROBIN) {
+                List<int[]> tables = combinations(entrants.size(), seats);
+                for (int c = 0; c < cycles; c++) {
+                    for (int[] t : tables) submitRotations(executor, inFlight, t, 1);
+                }
+            } else {
+                for (int r = 0; r < rounds; r++) {
+                    for (int[] t : swissTables()) submitRotations(executor, inFlight, t, gamesPerTable);
+                    awaitIdle(inFlight);   // next round's pairings depend on these results
+                }
+            }
+            awaitIdle(inFlight);
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        writeStandings("final");
+        return standings();
+    }
+
+    private void submitRotations(ExecutorService executor, Semaphore inFlight, int[] table, int games) throws InterruptedException {
+        for (int g = 0; g < games; g++) {
+            for (int rot = 0; rot < table.length; rot++) {
+                Entrant[] seated = new Entrant[table.length];
+                for (int i = 0; i < table.length; i++) seated[i] = entrants.get(table[(i + rot) % table.length]);
+                long matchSeed = seed * 1_000_003L + matchCounter.getAndIncrement();
+                inFlight.acquire();
+                executor.execute(() -> {
+                    try {
+                        playMatch(seated, matchSeed);
+                    } catch (Exception e) {
+                        System.err.println("[Tournament] match failed: " + e);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+    }
+
+    private void awaitIdle(Semaphore inFlight) throws InterruptedException {
+        inFlight.acquire(concurrency);
+        inFlight.release(concurrency);
+    }
+
+    private void playMatch(Entrant[] seated, long matchSeed) {
+        Random rnd = new Random(matchSeed);
+        GameRules rules = GameRules.random(rnd);
+        if (variants) rules = rules.withVariants(true, true, true);
+        MatchEngine engine = new MatchEngine(rules);
+        PlayerStrategy[] strategies = new PlayerStrategy[seated.length];
+        for (int i = 0; i < seated.length; i++) strategies[i] = seated[i].factory.get();
+        MatchState s = MatchRunner.play(engine, strategies, rnd);
+        record(seated, s);
+        if (archive != null) archiveMatch(seated, s, rules, matchSeed);
+    }
+
+    private void archiveMatch(Entrant[] seated, MatchState s, GameRules rules, long matchSeed) {
+        String[] names = new String[seated.length];
+        for (int i = 0; i < seated.length; i++) names[i] = seated[i].name;
+        try {
+            archive.append(MatchArchive.fromState(System.currentTimeMillis(), 0, matchSeed, rules, names, s));
+        } catch (IOException e) {
+            System.err.println("[Tournament] Failed to archive match: " + e.getMessage());
+        }
+    }
+
+    // ========== RESULTS ==========
+    private void record(Entrant[] seated, MatchState s) {
+        long done;
+        synchronized (this) {
+            int winner = s.getWinner();
+            for (int i = 0; i < seated.length; i++) {
+                AdventureGame.ScoreRecord rec = seated[i].record;
+                rec.gamesPlayed += 1;
+                rec.totalStars += s.getStars(i);
+                rec.totalScore += s.getScore(i);
+                if (i == winner) rec.wins += 1;
+            }
+            double[] delta = new double[seated.length];
+            double k = ELO_K / (seated.length - 1);
+            for (int i = 0; i < seated.length; i++) {
+                for (int j = i + 1; j < seated.length; j++) {
+                    double expected = 1.0 / (1.0 + Math.pow(10, (seated[j].elo - seated[i].elo) / 400.0));
+                    double actual = outcome(s, i, j, winner);
+                    delta[i] += k * (actual - expected);
+                    delta[j] -= k * (actual - expected);
+                }
+            }
+            for (int i = 0; i < seated.length; i++) seated[i].elo += delta[i];
+            done = played.incrementAndGet();
+        }
+        if (done % flushEvery == 0) writeStandings("after " + done + " matches");
+    }
+
+    /** 1 if seat i finished ahead of seat j, 0.5 on equal totals; the winner beats everyone. */
+    private static double outcome(MatchState s, int i, int j, int winner) {
+        if (i == winner) return 1;
+        if (j == winner) return 0;
+        int ti = s.total(i), tj = s.total(j);
+        return ti > tj ? 1 : ti < tj ? 0 : 0.5;
+    }
+
+    public synchronized List<Entrant> standings() {
+        List<Entrant> list = new ArrayList<>(entrants);
+        list.sort(Comparator.comparingDouble((Entrant e) -> -e.elo)
+                .thenComparing(e -> -e.record.wins)
+                .thenComparing(e -> e.name, String.CASE_INSENSITIVE_ORDER));
+        return list;
+    }
+
+    private void writeStandings(String label) {
+        List<Entrant> table = standings();
+        double secs = (System.nanoTime() - startedAt) / 1e9;
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("# %s — %d matches in %.1fs (%.0f matches/s)%n", label, played.get(), secs, played.get() / Math.max(1e-9, secs)));
+        int rank = 1;
+        for (Entrant e : table) {
+            AdventureGame.ScoreRecord r = e.record;
+            double winRate = r.gamesPlayed == 0 ? 0 : 100.0 * r.wins / r.gamesPlayed;
+            sb.append(String.format("%2d. %-18s Elo %6.1f  %s  (%.1f%% wins)%n", rank++, e.name, e.elo, r, winRate));
+        }
+        if (standingsFile == null) {
+            System.out.print(sb);
+            return;
+        }
+        synchronized (standingsFile) {
+            try (PrintWriter out = new PrintWriter(new FileWriter(standingsFile, true))) {
+                out.print(sb);
+                out.println();
+            } catch (IOException e) {
+                System.err.println("[Tournament] Failed to write standings: " + e.getMessage());
+            }
+        }
+    }
+
+    // ========== PAIRINGS ==========
+    static List<int[]> combinations(int n, int k) {
+        List<int[]> out = new ArrayList<>();
+        int[] idx = new int[k];
+        for (int i = 0; i < k; i++) idx[i] = i;
+        while (true) {
+            out.add(idx.clone());
+            int i = k - 1;
+            while (i >= 0 && idx[i] == n - k + i) i--;
+            if (i < 0) return out;
+            idx[i]++;
+            for (int j = i + 1; j < k; j++) idx[j] = idx[j - 1] + 1;
+        }
+    }
+
+    /** Tables of neighbours in the current standings; a short last table joins the previous one. */
+    private List<int[]> swissTables() {
+        List<Entrant> order = standings();
+        List<int[]> tables = new ArrayList<>();
+        int n = order.size();
+        for (int start = 0; start < n; start += seats) {
+            int end = Math.min(n, start + seats);
+            if (n - end > 0 && n - end < 2 && end - start + (n - end) <= 6) end = n;
+            int[] t = new int[end - start];
+            for (int i = start; i < end; i++) t[i - start] = entrants.indexOf(order.get(i));
+            if (t.length >= 2) tables.add(t);
+            if (end == n) break;
+        }
+        return tables;
+    }
+
+    // ========== CLI ==========
+    private static final String USAGE = "usage: Tournament [--bots a,b,...] [--format roundrobin|swiss] [--seats n] [--cycles n]"
+            + " [--rounds n] [--games n] [--threads n] [--seed n] [--flush n] [--out file] [--archive dir] [--variants true|false] [--virtual]";
+    private static final java.util.Set<String> VALUE_OPTIONS = new java.util.HashSet<>(Arrays.asList(
+            "bots", "format", "seats", "cycles", "rounds", "games", "threads", "seed", "flush", "out", "archive", "variants"));
+    private static final java.util.Set<String> FLAGS = new java.util.HashSet<>(Arrays.asList("virtual"));
+
+    /** One left-to-right pass: flags take no value, every other option exactly one. */
+    static java.util.Map<String, String> parseOptions(String[] args) {
+        java.util.Map<String, String> opt = new java.util.HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            String key = args[i].substring(2);
+            if (FLAGS.contains(key)) {
+                opt.put(key, "true");
+            } else if (VALUE_OPTIONS.contains(key)) {
+                if (i + 1 >= args.length || args[i + 1].startsWith("--")) throw new IllegalArgumentException("Missing value for --" + key);
+                opt.put(key, args[++i]);
+            } else {
+                throw new IllegalArgumentException("Unknown option: --" + key);
+            }
+        }
+        return opt;
+    }
+
+    /**
+     * Example: {@code java Tournament --bots eager,cautious,random,expectimax:5,mcts:200
+     * --format roundrobin --seats 2 --cycles 10000 --threads 8 --out standings.txt --archive matches/}
+     */
+    public static void main(String[] args) throws Exception {
+        String bots = "eager,cautious,random,expectimax:5";
+        Format format = Format.ROUND_ROBIN;
+        int seats = 2;
+        Tournament t;
+        java.util.Map<String, String> opt;
+        try {
+            opt = parseOptions(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            return;
+        }
+
+        if (opt.containsKey("bots")) bots = opt.get("bots");
+        if (opt.containsKey("format")) format = opt.get("format").toLowerCase().startsWith("swiss") ? Format.SWISS : Format.ROUND_ROBIN;
+        if (opt.containsKey("seats")) seats = Integer.parseInt(opt.get("seats"));
+
+        ExecutorService searchPool = Executors.newWorkStealingPool();
+        List<Entrant> entrants = new ArrayList<>();
+        for (String spec : bots.split(",")) entrants.add(parseEntrant(spec.trim(), searchPool));
+
+        t = new Tournament(entrants, format, seats);
+        if (opt.containsKey("cycles")) t.setCycles(Integer.parseInt(opt.get("cycles")));
+        if (opt.containsKey("rounds")) t.setRounds(Integer.parseInt(opt.get("rounds")));
+        if (opt.containsKey("games")) t.setGamesPerTable(Integer.parseInt(opt.get("games")));
+        if (opt.containsKey("threads")) t.setConcurrency(Integer.parseInt(opt.get("threads")));
+        if (opt.containsKey("seed")) t.setSeed(Long.parseLong(opt.get("seed")));
+        if (opt.containsKey("flush")) t.setFlushEvery(Long.parseLong(opt.get("flush")));
+        if (opt.containsKey("out")) t.setStandingsFile(new File(opt.get("out")));
+        MatchArchive archive = opt.containsKey("archive") ? new MatchArchive(new File(opt.get("archive"))) : null;
+        t.setArchive(archive);
+        t.setVariants(Boolean.parseBoolean(opt.getOrDefault("variants", "true")));
+        t.setVirtualThreads(opt.containsKey("virtual"));
+
+        long start = System.nanoTime();
+        List<Entrant> result = t.run();
+        double secs = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Played %d matches in %.1fs (%.0f matches/s). Leader: %s%n",
+                t.getPlayed(), secs, t.getPlayed() / secs, result.get(0).getName());
+        searchPool.shutdownNow();
+        if (archive != null) archive.close();
+    }
+
+    /** eager | cautious | random | expectimax[:millis] | mcts[:iterations] */
+    static Entrant parseEntrant(String spec, ExecutorService searchPool) {
+        String[] parts = spec.split(":");
+        String kind = parts[0].toLowerCase();
+        long arg = parts.length > 1 ? Long.parseLong(parts[1]) : 0;
+        switch (kind) {
+            case "eager": return new Entrant(spec, () -> PlayerStrategy.EAGER);
+            case "cautious": return new Entrant(spec, () -> PlayerStrategy.CAUTIOUS);
+            case "random": return new Entrant(spec, () -> PlayerStrategy.RANDOM);
+            case "expectimax": {
+                long ms = arg > 0 ? arg : 10;
+                return new Entrant(spec, () -> new ExpectimaxBot(spec, ms, 0.6));
+            }
+            case "mcts": {
+                long iters = arg > 0 ? arg : 200;
+                return new Entrant(spec, () -> new MctsBot(spec, 0.6, 1, iters, 0, searchPool));
+            }
+            default:
+                throw new IllegalArgumentException("Unknown bot: " + spec + " (" + Arrays.toString(new String[]{"eager", "cautious", "random", "expectimax", "mcts"}) + ")");
+        }
+    }
+}
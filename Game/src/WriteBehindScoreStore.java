@@ -0,0 +1,283 @@
+// WriteBehindScoreStore.java
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Keeps disk and file locks off the calling thread. Changes are buffered as deltas and a
+ * background writer coalesces them into the underlying store at most once per
+ * {@code intervalMs}; reads are answered from the writer's last view of the store plus
+ * the buffered deltas, and names or rankings not yet in that view are loaded by the writer,
+ * which then calls {@code onChange}. The store itself is opened by the writer too, so a slow
+ * open (a large legacy import, a network home directory) never delays the caller.
+ *
+ * {@link #close} writes everything, so a clean exit loses nothing; a crash loses at most the
+ * last interval of changes.
+ */
+public final class WriteBehindScoreStore implements ScoreStore {
+    private final Callable<ScoreStore> opener;
+    private volatile ScoreStore store;           // set by the writer once open
+    private final long intervalMs;
+    private final Runnable onChange;
+    private final Thread writer;
+    private final Object flushLock = new Object();
+
+    /** Wall time of one coalesced write plus flush, in microseconds. */
+    private final Histogram flushMicros = Histogram.exponential(1, 2, 24);
+
+    // guarded by this
+    private Map<String, int[]> pending = new HashMap<>();           // not yet handed to the store
+    private Map<String, int[]> inFlight = new HashMap<>();          // being written right now
+    private final Map<String, AdventureGame.ScoreRecord> loaded = new HashMap<>();  // null value = no record
+    private final List<String> wanted = new ArrayList<>();
+    private LinkedHashMap<String, AdventureGame.ScoreRecord> ranked;
+    private int rankedLimit;
+    private boolean rankedWanted;
+    private long lastWrite;
+    private long version;
+    private int size;
+    private boolean closed;
+
+    public WriteBehindScoreStore(Callable<ScoreStore> opener, long intervalMs, Runnable onChange) {
+        this.opener = opener;
+        this.intervalMs = intervalMs;
+        this.onChange = onChange;
+        writer = new Thread(this::run, "score-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public Histogram getFlushMicros() { return flushMicros; }
+
+    @Override
+    public Histogram getLockHoldMicros() {
+        ScoreStore s = store;
+        return s != null ? s.getLockHoldMicros() : Histogram.exponential(1, 2, 20);
+    }
+
+    @Override
+    public long getBytesWritten() {
+        ScoreStore s = store;
+        return s != null ? s.getBytesWritten() : 0;
+    }
+
+    // ========== READS / WRITES (never touch the store) ==========
+    @Override
+    public synchronized AdventureGame.ScoreRecord get(String name) {
+        if (!loaded.containsKey(name) && !wanted.contains(name)) {
+            wanted.add(name);
+            notifyAll();
+        }
+        return view(name, loaded.get(name));
+    }
+
+    /** {@code base} plus every buffered delta for {@code name}; null if there is neither. */
+    private AdventureGame.ScoreRecord view(String name, AdventureGame.ScoreRecord base) {
+        int[] a = inFlight.get(name), b = pending.get(name);
+        if (base == null && a == null && b == null) return null;
+        AdventureGame.ScoreRecord r = base == null ? new AdventureGame.ScoreRecord() : SerializedScoreStore.copy(base);
+        if (a != null) apply(r, a);
+        if (b != null) apply(r, b);
+        return r;
+    }
+
+    private static void apply(AdventureGame.ScoreRecord r, int[] d) {
+        r.wins += d[0];
+        r.gamesPlayed += d[1];
+        r.totalStars += d[2];
+        r.totalScore += d[3];
+    }
+
+    @Override
+    public synchronized void ensure(String name) {
+        if (loaded.get(name) != null || pending.containsKey(name) || inFlight.containsKey(name)) return;
+        pending.put(name, new int[4]);
+        version++;
+        notifyAll();
+    }
+
+    @Override
+    public synchronized void add(String name, int wins, int gamesPlayed, int totalStars, int totalScore) {
+        int[] d = pending.computeIfAbsent(name, k -> new int[4]);
+        d[0] += wins;
+        d[1] += gamesPlayed;
+        d[2] += totalStars;
+        d[3] += totalScore;
+        version++;
+        notifyAll();
+    }
+
+    /** The writer's last ranking with buffered deltas folded in; asks for a fresh one if it is too short. */
+    @Override
+    public synchronized LinkedHashMap<String, AdventureGame.ScoreRecord> top(int limit) {
+        if (ranked == null || rankedLimit < limit) {
+            rankedLimit = Math.max(rankedLimit, limit);
+            rankedWanted = true;
+            notifyAll();
+        }
+        Map<String, AdventureGame.ScoreRecord> all = new HashMap<>();
+        if (ranked != null) all.putAll(ranked);
+        for (String n : inFlight.keySet()) if (!all.containsKey(n)) all.put(n, loaded.get(n));
+        for (String n : pending.keySet()) if (!all.containsKey(n)) all.put(n, loaded.get(n));
+        List<String> names = new ArrayList<>(all.keySet());
+        Map<String, AdventureGame.ScoreRecord> views = new HashMap<>();
+        for (String n : names) {
+            AdventureGame.ScoreRecord r = view(n, all.get(n));
+            views.put(n, r == null ? new AdventureGame.ScoreRecord() : r);
+        }
+        names.sort((a, b) -> ScoreStore.compare(a, views.get(a), b, views.get(b)));
+        LinkedHashMap<String, AdventureGame.ScoreRecord> out = new LinkedHashMap<>();
+        for (String n : names.subList(0, Math.min(limit, names.size()))) out.put(n, views.get(n));
+        return out;
+    }
+
+    @Override public synchronized int size() { return size; }
+    @Override public synchronized long version() { return version; }
+
+    // ========== WRITER ==========
+    private void run() {
+        try {
+            store = opener.call();
+        } catch (Exception e) {
+            System.err.println("Failed to open score store: " + e.getMessage());
+            return;
+        }
+        synchronized (this) {
+            size = store.size();
+            version++;
+        }
+        onChange.run();
+        try {
+            while (true) {
+                synchronized (this) {
+                    while (!closed && pending.isEmpty() && wanted.isEmpty() && !rankedWanted) wait();
+                    // reads are served right away; writes wait out the rest of the interval to coalesce
+                    long due;
+                    while (!closed && wanted.isEmpty() && !rankedWanted
+                            && (due = lastWrite + intervalMs - System.currentTimeMillis()) > 0) {
+                        wait(due);
+                    }
+                    if (closed) return;
+                }
+                try {
+                    flush();
+                } catch (IOException | RuntimeException e) {
+                    System.err.println("Failed to save scores: " + e.getMessage());
+                }
+            }
+        } catch (InterruptedException ignored) {
+        }
+    }
+
+    /**
+     * Writes the buffered deltas to the store and makes them durable, then reloads the names
+     * and ranking the reads use, which also picks up other processes' games.
+     */
+    @Override
+    public void flush() throws IOException {
+        ScoreStore store = this.store;
+        if (store == null) throw new IOException("Score store is not open");
+        synchronized (flushLock) {
+            Map<String, int[]> deltas;
+            List<String> names;
+            boolean rank;
+            int limit;
+            synchronized (this) {
+                lastWrite = System.currentTimeMillis();
+                deltas = pending;
+                inFlight = deltas;
+                pending = new HashMap<>();
+                names = new ArrayList<>(loaded.keySet());
+                names.addAll(wanted);
+                wanted.clear();
+                rank = rankedWanted || ranked != null;
+                limit = rankedLimit;
+            }
+            long t0 = System.nanoTime();
+            boolean wrote = !deltas.isEmpty();
+            int players = deltas.size();
+            long bytes0 = store.getBytesWritten();
+            GameJfr.ScoreSave jfr = new GameJfr.ScoreSave();
+            jfr.begin();
+            try {
+                for (Iterator<Map.Entry<String, int[]>> it = deltas.entrySet().iterator(); it.hasNext(); ) {
+                    Map.Entry<String, int[]> e = it.next();
+                    int[] d = e.getValue();
+                    store.add(e.getKey(), d[0], d[1], d[2], d[3]);
+                    synchronized (this) {
+                        it.remove();
+                        AdventureGame.ScoreRecord base = loaded.get(e.getKey());
+                        if (base == null && loaded.containsKey(e.getKey())) loaded.put(e.getKey(), base = new AdventureGame.ScoreRecord());
+                        if (base != null) apply(base, d);
+                    }
+                }
+                if (wrote) store.flush();
+            } catch (IOException | RuntimeException e) {
+                synchronized (this) {   // whatever the store did not take goes back in the buffer
+                    for (Map.Entry<String, int[]> d : deltas.entrySet()) {
+                        int[] p = pending.computeIfAbsent(d.getKey(), k -> new int[4]);
+                        for (int i = 0; i < 4; i++) p[i] += d.getValue()[i];
+                    }
+                    inFlight = new HashMap<>();
+                }
+                throw e;
+            }
+            if (wrote) {
+                flushMicros.record((System.nanoTime() - t0) / 1000);
+                if (jfr.shouldCommit()) {
+                    jfr.store = store.getClass().getSimpleName();
+                    jfr.players = players;
+                    jfr.bytes = store.getBytesWritten() - bytes0;
+                    jfr.commit();
+                }
+            }
+
+            Map<String, AdventureGame.ScoreRecord> fresh = new HashMap<>();
+            for (String n : names) fresh.put(n, store.get(n));
+            LinkedHashMap<String, AdventureGame.ScoreRecord> newRanked = rank ? store.top(limit) : null;
+            int newSize = store.size();
+            synchronized (this) {
+                loaded.putAll(fresh);
+                if (rank) {
+                    ranked = newRanked;
+                    rankedWanted = rankedLimit > limit;
+                }
+                inFlight = new HashMap<>();
+                size = newSize;
+                version++;
+            }
+        }
+        onChange.run();
+    }
+
+    /** Stops the writer, writes everything still buffered and closes the store. */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            closed = true;
+            notifyAll();
+        }
+        try {
+            writer.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (store == null) {   // the writer never got it open; one last try so buffered games are kept
+            try {
+                store = opener.call();
+            } catch (Exception e) {
+                throw new IOException("Cannot open score store: " + e.getMessage(), e);
+            }
+        }
+        try {
+            flush();
+        } finally {
+            store.close();
+        }
+    }
+}